@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.common;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.jmh.BenchmarkImages;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro-benchmarks of PackBits run-length compression, on 256 KiB of image samples with both runs and literals.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PackBitsBenchmark {
+
+    private byte[] samples;
+    private byte[] compressed;
+
+    @Benchmark
+    public byte[] compress() throws IOException {
+        return PackBits.compress(samples);
+    }
+
+    @Benchmark
+    public byte[] decompress() throws ImagingException {
+        return PackBits.decompress(compressed, samples.length);
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        final int[] rgb = BenchmarkImages.synthetic(512, 512).getRGB(0, 0, 512, 512, null, 0, 512);
+        samples = new byte[rgb.length];
+        for (int i = 0; i < rgb.length; i++) {
+            samples[i] = (byte) (rgb[i] >> 16 & 0xe0);
+        }
+        compressed = compress();
+    }
+}
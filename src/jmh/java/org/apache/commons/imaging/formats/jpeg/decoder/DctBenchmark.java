@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.formats.jpeg.decoder;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro-benchmarks of the JPEG decoder kernels: the 8x8 DCT and the YCbCr to RGB conversion.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DctBenchmark {
+
+    private final float[] coefficients = new float[64];
+    private final float[] block = new float[64];
+    private final int[] samples = new int[3 * 4096];
+
+    @Benchmark
+    public float[] forwardDct8x8() {
+        System.arraycopy(coefficients, 0, block, 0, 64);
+        Dct.forwardDct8x8(block);
+        return block;
+    }
+
+    @Benchmark
+    public float[] inverseDct8x8() {
+        System.arraycopy(coefficients, 0, block, 0, 64);
+        Dct.inverseDct8x8(block);
+        return block;
+    }
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < coefficients.length; i++) {
+            coefficients[i] = (i * 37 % 255 - 128) / (1f + i / 8);
+        }
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = i * 131 % 256;
+        }
+    }
+
+    /**
+     * Converts 4096 pixels.
+     *
+     * @return a checksum of the pixels.
+     */
+    @Benchmark
+    public int yCbCrToRgb() {
+        int sum = 0;
+        for (int i = 0; i < samples.length; i += 3) {
+            sum += YCbCrConverter.convertYCbCrToRgb(samples[i], samples[i + 1], samples[i + 2]);
+        }
+        return sum;
+    }
+}
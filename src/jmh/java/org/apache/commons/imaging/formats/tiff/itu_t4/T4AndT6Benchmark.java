@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.formats.tiff.itu_t4;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.jmh.BenchmarkImages;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro-benchmarks of CCITT T.4 and T.6 fax compression, on a 1024x1024 bilevel image.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class T4AndT6Benchmark {
+
+    private static final int SIZE = 1024;
+
+    private byte[] bilevel;
+    private byte[] t4OneD;
+    private byte[] t4TwoD;
+    private byte[] t6;
+
+    @Benchmark
+    public byte[] compressT4OneD() throws ImagingException {
+        return T4AndT6Compression.compressT4_1D(bilevel, SIZE, SIZE, false);
+    }
+
+    @Benchmark
+    public byte[] compressT4TwoD() throws ImagingException {
+        return T4AndT6Compression.compressT4_2D(bilevel, SIZE, SIZE, false, 4);
+    }
+
+    @Benchmark
+    public byte[] compressT6() throws ImagingException {
+        return T4AndT6Compression.compressT6(bilevel, SIZE, SIZE);
+    }
+
+    @Benchmark
+    public byte[] decompressT4OneD() throws ImagingException {
+        return T4AndT6Compression.decompressT4_1D(t4OneD, SIZE, SIZE, false);
+    }
+
+    @Benchmark
+    public byte[] decompressT4TwoD() throws ImagingException {
+        return T4AndT6Compression.decompressT4_2D(t4TwoD, SIZE, SIZE, false);
+    }
+
+    @Benchmark
+    public byte[] decompressT6() throws ImagingException {
+        return T4AndT6Compression.decompressT6(t6, SIZE, SIZE);
+    }
+
+    @Setup
+    public void setUp() throws ImagingException {
+        final int[] rgb = BenchmarkImages.synthetic(SIZE, SIZE).getRGB(0, 0, SIZE, SIZE, null, 0, SIZE);
+        final int rowLength = (SIZE + 7) / 8;
+        bilevel = new byte[rowLength * SIZE];
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                if ((rgb[y * SIZE + x] & 0xff) < 64) {
+                    bilevel[y * rowLength + x / 8] |= (byte) (0x80 >> (x & 7));
+                }
+            }
+        }
+        t4OneD = compressT4OneD();
+        t4TwoD = compressT4TwoD();
+        t6 = compressT6();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.jmh;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.imaging.AbstractImageParser;
+import org.apache.commons.imaging.ImageFormats;
+import org.apache.commons.imaging.bytesource.ByteSource;
+import org.apache.commons.imaging.internal.ImageParserRegistry;
+
+/**
+ * Deterministic inputs shared by the benchmarks.
+ */
+public final class BenchmarkImages {
+
+    /** The system property naming the corpus directory, by default the test images of the project. */
+    public static final String CORPUS_PROPERTY = "org.apache.commons.imaging.jmh.corpus";
+
+    private static final String DEFAULT_CORPUS = "src/test/resources/data/images";
+
+    /**
+     * Reads the corpus files of a format that the library reads without error, in path order.
+     *
+     * @param format the format name, as in {@link ImageFormats}.
+     * @return the file contents.
+     * @throws IllegalStateException if the corpus holds no readable file of the format.
+     */
+    public static List<byte[]> corpus(final String format) {
+        final AbstractImageParser<?> parser = parser(format);
+        final Path root = Paths.get(System.getProperty(CORPUS_PROPERTY, DEFAULT_CORPUS));
+        final List<Path> paths;
+        try (Stream<Path> stream = Files.walk(root)) {
+            // files under @broken directories are known to be invalid
+            paths = stream.filter(Files::isRegularFile).filter(p -> !p.toString().contains("@broken"))
+                    .filter(p -> parser.canAcceptExtension(p.getFileName().toString())).sorted().collect(Collectors.toList());
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final List<byte[]> inputs = new ArrayList<>();
+        for (final Path path : paths) {
+            try {
+                final byte[] bytes = Files.readAllBytes(path);
+                final ByteSource byteSource = ByteSource.array(bytes);
+                parser.getBufferedImage(byteSource, null);
+                parser.getImageInfo(byteSource, null);
+                parser.getMetadata(byteSource, null);
+                inputs.add(bytes);
+            } catch (final IOException | RuntimeException e) {
+                // not a valid input for every operation
+            }
+        }
+        if (inputs.isEmpty()) {
+            throw new IllegalStateException("No readable " + format + " file in " + root.toAbsolutePath());
+        }
+        return inputs;
+    }
+
+    /**
+     * Gets the parser of a format.
+     *
+     * @param format the format name, as in {@link ImageFormats}.
+     * @return the parser.
+     */
+    public static AbstractImageParser<?> parser(final String format) {
+        final AbstractImageParser<?> parser = ImageParserRegistry.getImageParser(ImageFormats.valueOf(format));
+        if (parser == null) {
+            throw new IllegalArgumentException("No parser for " + format);
+        }
+        return parser;
+    }
+
+    /**
+     * Creates an opaque image of smooth gradients overlaid with noisy blocks, the same for every run.
+     *
+     * @param width  the image width.
+     * @param height the image height.
+     * @return the image.
+     */
+    public static BufferedImage synthetic(final int width, final int height) {
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        final Random random = new Random(20_240_101L);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int r = x * 255 / Math.max(1, width - 1);
+                int g = y * 255 / Math.max(1, height - 1);
+                int b = (x + y) * 127 / Math.max(1, width + height - 2);
+                if ((x / 32 + y / 32) % 4 == 0) {
+                    r ^= random.nextInt(64);
+                    g ^= random.nextInt(64);
+                    b ^= random.nextInt(64);
+                }
+                image.setRGB(x, y, r << 16 | g << 8 | b);
+            }
+        }
+        return image;
+    }
+
+    private BenchmarkImages() {
+    }
+}
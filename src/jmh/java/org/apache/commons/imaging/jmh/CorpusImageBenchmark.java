@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.jmh;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.imaging.AbstractImageParser;
+import org.apache.commons.imaging.bytesource.ByteSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures each format the library decodes on a corpus of real files: decoding and reading image info and metadata. One operation processes every
+ * readable file of the format, so scores are comparable between versions as long as the corpus is unchanged.
+ * <p>
+ * The corpus defaults to the test images of the project; set the system property {@value BenchmarkImages#CORPUS_PROPERTY} to a directory to use another.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CorpusImageBenchmark {
+
+    @Param({ "BMP", "DCX", "GIF", "ICNS", "ICO", "JPEG", "PCX", "PNG", "PNM", "PSD", "RGBE", "TIFF", "WBMP", "XBM", "XPM" })
+    String format;
+
+    private AbstractImageParser<?> parser;
+    private List<byte[]> inputs;
+
+    @Benchmark
+    public void decode(final Blackhole blackhole) throws IOException {
+        for (final byte[] input : inputs) {
+            blackhole.consume(parser.getBufferedImage(ByteSource.array(input), null));
+        }
+    }
+
+    @Benchmark
+    public void imageInfo(final Blackhole blackhole) throws IOException {
+        for (final byte[] input : inputs) {
+            blackhole.consume(parser.getImageInfo(ByteSource.array(input), null));
+        }
+    }
+
+    @Benchmark
+    public void metadata(final Blackhole blackhole) throws IOException {
+        for (final byte[] input : inputs) {
+            blackhole.consume(parser.getMetadata(ByteSource.array(input), null));
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        parser = BenchmarkImages.parser(format);
+        inputs = BenchmarkImages.corpus(format);
+    }
+}
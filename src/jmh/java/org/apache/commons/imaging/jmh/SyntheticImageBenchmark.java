@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.jmh;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.imaging.AbstractImageParser;
+import org.apache.commons.imaging.ImageInfo;
+import org.apache.commons.imaging.bytesource.ByteSource;
+import org.apache.commons.imaging.common.ImageMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures each writable format on a synthetic image encoded by the library itself: decoding, reading image info and metadata, and encoding.
+ * <p>
+ * Run with {@code mvn -P benchmark}; the profile adds {@code -prof gc} to report allocation rates.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SyntheticImageBenchmark {
+
+    @Param({ "BMP", "DCX", "GIF", "ICO", "PAM", "PBM", "PCX", "PGM", "PNG", "PPM", "TIFF", "WBMP", "XBM", "XPM" })
+    String format;
+
+    @Param({ "512" })
+    int size;
+
+    private AbstractImageParser<?> parser;
+    private BufferedImage image;
+    private byte[] encoded;
+
+    @Benchmark
+    public BufferedImage decode() throws IOException {
+        return parser.getBufferedImage(ByteSource.array(encoded), null);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(encoded.length);
+        parser.writeImage(image, out, null);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public ImageInfo imageInfo() throws IOException {
+        return parser.getImageInfo(ByteSource.array(encoded), null);
+    }
+
+    @Benchmark
+    public ImageMetadata metadata() throws IOException {
+        return parser.getMetadata(ByteSource.array(encoded), null);
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        parser = BenchmarkImages.parser(format);
+        image = BenchmarkImages.synthetic(size, size);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        parser.writeImage(image, out, null);
+        encoded = out.toByteArray();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.mylzw;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.imaging.jmh.BenchmarkImages;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro-benchmarks of LZW compression in its GIF and TIFF variants, on 256 KiB of image samples.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LzwBenchmark {
+
+    private static final int GIF_CODE_SIZE = 8;
+    private static final int TIFF_CODE_SIZE = 8;
+
+    private byte[] samples;
+    private byte[] gifCompressed;
+    private byte[] tiffCompressed;
+
+    @Benchmark
+    public byte[] gifCompress() throws IOException {
+        return new MyLzwCompressor(GIF_CODE_SIZE, ByteOrder.LITTLE_ENDIAN, false).compress(samples);
+    }
+
+    @Benchmark
+    public byte[] gifDecompress() throws IOException {
+        return new MyLzwDecompressor(GIF_CODE_SIZE, ByteOrder.LITTLE_ENDIAN, false).decompress(new ByteArrayInputStream(gifCompressed), samples.length);
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        final int[] rgb = BenchmarkImages.synthetic(512, 512).getRGB(0, 0, 512, 512, null, 0, 512);
+        samples = new byte[rgb.length];
+        for (int i = 0; i < rgb.length; i++) {
+            samples[i] = (byte) (rgb[i] >> 8 & 0xf0);
+        }
+        gifCompressed = gifCompress();
+        tiffCompressed = tiffCompress();
+    }
+
+    @Benchmark
+    public byte[] tiffCompress() throws IOException {
+        return new MyLzwCompressor(TIFF_CODE_SIZE, ByteOrder.BIG_ENDIAN, true).compress(samples);
+    }
+
+    @Benchmark
+    public byte[] tiffDecompress() throws IOException {
+        return new MyLzwDecompressor(TIFF_CODE_SIZE, ByteOrder.BIG_ENDIAN, true).decompress(new ByteArrayInputStream(tiffCompressed), samples.length);
+    }
+}
@@ -27,6 +27,9 @@ import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -34,6 +37,7 @@ import org.apache.commons.imaging.bytesource.ByteSource;
 import org.apache.commons.imaging.common.BinaryFileParser;
 import org.apache.commons.imaging.common.BufferedImageFactory;
 import org.apache.commons.imaging.common.ImageMetadata;
+import org.apache.commons.imaging.common.RowListener;
 import org.apache.commons.imaging.common.SimpleBufferedImageFactory;
 import org.apache.commons.imaging.formats.bmp.BmpImageParser;
 import org.apache.commons.imaging.formats.dcx.DcxImageParser;
@@ -51,6 +55,7 @@ import org.apache.commons.imaging.formats.wbmp.WbmpImageParser;
 import org.apache.commons.imaging.formats.webp.WebPImageParser;
 import org.apache.commons.imaging.formats.xbm.XbmImageParser;
 import org.apache.commons.imaging.formats.xpm.XpmImageParser;
+import org.apache.commons.imaging.internal.Cancellation;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 
@@ -325,6 +330,25 @@ public abstract class AbstractImageParser<T extends ImagingParameters<T>> extend
         return getBufferedImage(ByteSource.file(file), params);
     }
 
+    /**
+     * Reads a buffered image on an executor, as {@link #getBufferedImage(ByteSource, ImagingParameters)} does.
+     * <p>
+     * Cancelling the returned future, or completing it by any other means, stops the decode at its next checkpoint, such as the end of a scanline, strip,
+     * tile or row of MCUs, and frees the executor thread. Futures derived from the returned one do not propagate their cancellation back to it.
+     * </p>
+     *
+     * @param byteSource A valid instance of ByteSource
+     * @param params     Optional instructions for special-handling or interpretation of the input data (null objects are permitted and must be supported by
+     *                   implementations).
+     * @param executor   the executor running the decode.
+     * @return the future image, completed exceptionally if the image cannot be read.
+     * @since 1.0.0-alpha7
+     */
+    public final CompletableFuture<BufferedImage> getBufferedImageAsync(final ByteSource byteSource, final T params, final Executor executor) {
+        Objects.requireNonNull(byteSource, "byteSource");
+        return Cancellation.supplyAsync(() -> getBufferedImage(byteSource, params), executor);
+    }
+
     /**
      * Gets an instance of IBufferedImageFactory based on the presence of a specification for ImagingConstants.&#46;BUFFERED_IMAGE_FACTORY within the supplied
      * params.
@@ -548,6 +572,22 @@ public abstract class AbstractImageParser<T extends ImagingParameters<T>> extend
         return getImageInfo(ByteSource.file(file), params);
     }
 
+    /**
+     * Reads image information on an executor, as {@link #getImageInfo(ByteSource, ImagingParameters)} does. Cancelling the returned future stops the read at
+     * its next checkpoint.
+     *
+     * @param byteSource A valid ByteSource object
+     * @param params     Optional instructions for special-handling or interpretation of the input data (null objects are permitted and must be supported by
+     *                   implementations).
+     * @param executor   the executor running the read.
+     * @return the future image information, completed exceptionally if the data cannot be read.
+     * @since 1.0.0-alpha7
+     */
+    public final CompletableFuture<ImageInfo> getImageInfoAsync(final ByteSource byteSource, final T params, final Executor executor) {
+        Objects.requireNonNull(byteSource, "byteSource");
+        return Cancellation.supplyAsync(() -> getImageInfo(byteSource, params), executor);
+    }
+
     /**
      * Gets the size of the image described by the specified byte array.
      *
@@ -729,6 +769,38 @@ public abstract class AbstractImageParser<T extends ImagingParameters<T>> extend
      */
     public abstract String getName();
 
+    /**
+     * Reads the image that {@link #getBufferedImage(ByteSource, ImagingParameters)} would return as a stream of rows, handing each row to a listener instead
+     * of building the image.
+     * <p>
+     * Parsers whose decoder streams, such as BMP and PNM, hold only the rows being decoded, so images far larger than the heap can be processed; the default
+     * implementation builds the image and then delivers its rows from top to bottom.
+     * </p>
+     *
+     * @param byteSource A valid instance of ByteSource
+     * @param params     Optional instructions for special-handling or interpretation of the input data (null objects are permitted and must be supported by
+     *                   implementations).
+     * @param listener   the listener receiving the rows.
+     * @throws ImagingException In the event that the specified content does not conform to the format of the specific parser implementation.
+     * @throws IOException      In the event of unsuccessful read or access operation, or if the listener fails.
+     * @since 1.0.0-alpha7
+     */
+    public void readRows(final ByteSource byteSource, final T params, final RowListener listener) throws ImagingException, IOException {
+        Objects.requireNonNull(listener, "listener");
+        final BufferedImage image = getBufferedImage(byteSource, params);
+        if (image == null) {
+            throw new ImagingException("No image found in " + byteSource);
+        }
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        listener.start(width, height, image.getColorModel().hasAlpha());
+        final int[] argb = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, argb, 0, width);
+            listener.row(y, argb);
+        }
+    }
+
     /**
      * Writes the content of a BufferedImage to the specified output stream.
      *
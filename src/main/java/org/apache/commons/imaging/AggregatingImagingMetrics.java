@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link ImagingMetrics} that aggregates phase durations into histograms per {@link ImageFormat}, ready to be exported to a monitoring system.
+ *
+ * <pre>
+ * final AggregatingImagingMetrics metrics = new AggregatingImagingMetrics();
+ * Imaging.setMetrics(metrics);
+ * ...
+ * final AggregatingImagingMetrics.Stats decode = metrics.getStats(ImageFormats.PNG, ImagingMetrics.Phase.DECODE);
+ * System.out.println(decode.getCount() + " decodes, p99 " + decode.getPercentileNanos(0.99) + " ns");
+ * </pre>
+ *
+ * @since 1.0.0-alpha7
+ */
+public class AggregatingImagingMetrics implements ImagingMetrics {
+
+    /**
+     * The statistics of one phase of one format.
+     * <p>
+     * Durations are counted in buckets of powers of two nanoseconds, so percentiles are accurate to a factor of two.
+     * </p>
+     */
+    public static final class Stats {
+
+        /** Bucket {@code i} counts durations below 2^i nanoseconds. */
+        private static final int BUCKETS = 64;
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder bytesRead = new LongAdder();
+        private final LongAdder bytesAllocated = new LongAdder();
+        private final AtomicLong minNanos = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        private Stats() {
+        }
+
+        private void add(final long nanos, final long read, final long allocated) {
+            final long duration = Math.max(nanos, 0);
+            count.increment();
+            totalNanos.add(duration);
+            bytesRead.add(read);
+            bytesAllocated.add(allocated);
+            minNanos.accumulateAndGet(duration, Math::min);
+            maxNanos.accumulateAndGet(duration, Math::max);
+            buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(duration)));
+        }
+
+        /**
+         * Gets the total bytes allocated.
+         *
+         * @return the bytes requested from the Allocator.
+         */
+        public long getBytesAllocated() {
+            return bytesAllocated.sum();
+        }
+
+        /**
+         * Gets the total bytes read.
+         *
+         * @return the bytes read from byte sources.
+         */
+        public long getBytesRead() {
+            return bytesRead.sum();
+        }
+
+        /**
+         * Gets the number of completed phases.
+         *
+         * @return the count.
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * Gets the longest duration.
+         *
+         * @return the maximum in nanoseconds, 0 if none.
+         */
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * Gets the mean duration.
+         *
+         * @return the mean in nanoseconds, 0 if none.
+         */
+        public double getMeanNanos() {
+            final long n = getCount();
+            return n == 0 ? 0 : (double) getTotalNanos() / n;
+        }
+
+        /**
+         * Gets the shortest duration.
+         *
+         * @return the minimum in nanoseconds, 0 if none.
+         */
+        public long getMinNanos() {
+            final long min = minNanos.get();
+            return min == Long.MAX_VALUE ? 0 : min;
+        }
+
+        /**
+         * Gets an upper bound of a percentile of the durations.
+         *
+         * @param quantile the quantile, between 0 and 1, for example 0.99 for the 99th percentile.
+         * @return the upper bound in nanoseconds of the bucket holding the quantile, capped by the maximum; 0 if none.
+         * @throws IllegalArgumentException if the quantile is not between 0 and 1.
+         */
+        public long getPercentileNanos(final double quantile) {
+            if (!(quantile >= 0 && quantile <= 1)) {
+                throw new IllegalArgumentException("Quantile not in [0, 1]: " + quantile);
+            }
+            final long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            final long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return i == BUCKETS - 1 ? getMaxNanos() : Math.min((1L << i) - 1, getMaxNanos());
+                }
+            }
+            return getMaxNanos();
+        }
+
+        /**
+         * Gets the total duration.
+         *
+         * @return the sum of durations in nanoseconds.
+         */
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, mean=%.0fns, min=%dns, max=%dns, p50=%dns, p99=%dns, read=%d, allocated=%d", getCount(), getMeanNanos(),
+                    getMinNanos(), getMaxNanos(), getPercentileNanos(0.5), getPercentileNanos(0.99), getBytesRead(), getBytesAllocated());
+        }
+    }
+
+    private final Map<ImageFormat, Map<Phase, Stats>> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new instance.
+     */
+    public AggregatingImagingMetrics() {
+        // empty
+    }
+
+    /**
+     * Forgets all statistics.
+     */
+    public void clear() {
+        stats.clear();
+    }
+
+    /**
+     * Gets the formats seen.
+     *
+     * @return an unmodifiable view of the formats.
+     */
+    public Set<ImageFormat> getFormats() {
+        return Collections.unmodifiableSet(stats.keySet());
+    }
+
+    /**
+     * Gets the statistics of a format.
+     *
+     * @param format the image format.
+     * @return an unmodifiable map of the statistics of each phase seen, empty if none.
+     */
+    public Map<Phase, Stats> getStats(final ImageFormat format) {
+        final Map<Phase, Stats> map = stats.get(Objects.requireNonNull(format, "format"));
+        if (map == null) {
+            return Collections.emptyMap();
+        }
+        synchronized (map) {
+            return Collections.unmodifiableMap(new EnumMap<>(map));
+        }
+    }
+
+    /**
+     * Gets the statistics of a phase of a format.
+     *
+     * @param format the image format.
+     * @param phase  the phase.
+     * @return the statistics, or null if the phase was not seen for the format.
+     */
+    public Stats getStats(final ImageFormat format, final Phase phase) {
+        return getStats(format).get(phase);
+    }
+
+    @Override
+    public void phaseCompleted(final ImageFormat format, final Phase phase, final long nanos, final long bytesRead, final long bytesAllocated) {
+        final Map<Phase, Stats> map = stats.computeIfAbsent(format != null ? format : ImageFormats.UNKNOWN, k -> new EnumMap<>(Phase.class));
+        final Stats phaseStats;
+        synchronized (map) {
+            phaseStats = map.computeIfAbsent(phase, k -> new Stats());
+        }
+        phaseStats.add(nanos, bytesRead, bytesAllocated);
+    }
+}
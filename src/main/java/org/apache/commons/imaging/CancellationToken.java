@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Requests that an operation stop early, on demand or once a deadline passes.
+ * <p>
+ * Cancellation is cooperative: decoders check their token at cheap checkpoints, such as every scanline, strip, tile, row of MCUs or block of LZW codes, and
+ * throw an {@link ImagingCancelledException} from the first checkpoint reached after {@link #cancel()}, or an {@link ImagingTimeoutException} from the first
+ * one reached after the deadline. A token is passed to a decode with {@link ImagingParameters#setCancellationToken(CancellationToken)}:
+ * </p>
+ *
+ * <pre>
+ * PngImagingParameters params = new PngImagingParameters().setCancellationToken(CancellationToken.withTimeout(Duration.ofSeconds(2)));
+ * BufferedImage image = new PngImageParser().getBufferedImage(byteSource, params);
+ * </pre>
+ * <p>
+ * The futures returned by
+ * {@link Imaging#getBufferedImageAsync(org.apache.commons.imaging.bytesource.ByteSource, java.util.concurrent.Executor)} and the other asynchronous methods
+ * cancel their own token when they complete, so cancelling the future stops the work.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @since 1.0.0-alpha7
+ */
+public final class CancellationToken {
+
+    /**
+     * Creates a token that expires once a timeout elapses from now.
+     *
+     * @param timeout the time left to the operations checking the token, zero or negative to expire immediately.
+     * @return a new token.
+     */
+    public static CancellationToken withTimeout(final Duration timeout) {
+        Objects.requireNonNull(timeout, "timeout");
+        long timeoutNanos;
+        try {
+            timeoutNanos = timeout.toNanos();
+        } catch (final ArithmeticException e) {
+            timeoutNanos = timeout.isNegative() ? 0 : Long.MAX_VALUE;
+        }
+        return new CancellationToken(System.nanoTime(), Math.max(timeoutNanos, 0));
+    }
+
+    private volatile boolean cancelled;
+    private final long startNanos;
+
+    /** The nanoseconds from the start after which the token expires, or -1 if it never does. */
+    private final long timeoutNanos;
+
+    /**
+     * Constructs a new token that is not cancelled and never expires.
+     */
+    public CancellationToken() {
+        this(0, -1);
+    }
+
+    private CancellationToken(final long startNanos, final long timeoutNanos) {
+        this.startNanos = startNanos;
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    /**
+     * Requests that the operations checking this token stop. Has no effect if the token is already cancelled.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Tests whether this token was cancelled or expired.
+     *
+     * @return whether {@link #cancel()} was called or the deadline passed.
+     */
+    public boolean isCancelled() {
+        return cancelled || isExpired();
+    }
+
+    /**
+     * Tests whether the deadline of this token passed.
+     *
+     * @return whether the timeout elapsed, always false for tokens without a deadline.
+     */
+    public boolean isExpired() {
+        return timeoutNanos >= 0 && System.nanoTime() - startNanos >= timeoutNanos;
+    }
+
+    /**
+     * Throws if this token was cancelled or expired.
+     *
+     * @throws ImagingTimeoutException   if the deadline passed.
+     * @throws ImagingCancelledException if this token was cancelled.
+     */
+    public void throwIfCancelled() throws ImagingCancelledException {
+        if (cancelled) {
+            throw new ImagingCancelledException("Operation cancelled");
+        }
+        if (isExpired()) {
+            throw new ImagingTimeoutException("Operation timed out after " + timeoutNanos / 1_000_000 + " ms");
+        }
+    }
+}
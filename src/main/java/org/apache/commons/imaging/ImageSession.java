@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging;
+
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.imaging.bytesource.ByteSource;
+import org.apache.commons.imaging.common.ImageMetadata;
+import org.apache.commons.imaging.common.XmpEmbeddable;
+import org.apache.commons.imaging.internal.ImageParserFactory;
+import org.apache.commons.io.function.IOSupplier;
+
+/**
+ * An image opened once for several reads of its info, metadata, ICC profile, XMP and pixels.
+ * <p>
+ * The {@link Imaging} methods each detect the format and parse the file again. A session detects the format once, reads the file through a
+ * {@link ByteSource#cached(ByteSource) page cache}, and keeps the structure parsed by the first read, such as the JPEG segment index or the PNG chunk index,
+ * for the reads that follow, so that the header, directories and segments are read from the file once. The info, size, metadata, ICC profile and XMP are
+ * kept once read; the thumbnails of the image are read from its {@link #getMetadata() metadata}.
+ * </p>
+ *
+ * <pre>
+ * try (ImageSession session = ImageSession.open(file)) {
+ *     final ImageInfo info = session.getImageInfo();
+ *     final ImageMetadata metadata = session.getMetadata();
+ *     final byte[] iccProfile = session.getIccProfileBytes();
+ *     final BufferedImage image = session.getBufferedImage();
+ * }
+ * </pre>
+ * <p>
+ * A session may be used by several threads.
+ * </p>
+ *
+ * @since 1.0.0-alpha7
+ */
+public final class ImageSession implements Closeable {
+
+    /**
+     * Opens a session on an image.
+     *
+     * @param byteSource the image, closed with the session.
+     * @return the session.
+     * @throws IOException              if an I/O error occurs.
+     * @throws IllegalArgumentException if the format of the image is not supported.
+     */
+    public static ImageSession open(final ByteSource byteSource) throws IOException {
+        return new ImageSession(ByteSource.cached(Objects.requireNonNull(byteSource, "byteSource")));
+    }
+
+    /**
+     * Opens a session on an image file.
+     *
+     * @param file the file.
+     * @return the session.
+     * @throws IOException              if an I/O error occurs.
+     * @throws IllegalArgumentException if the format of the image is not supported.
+     */
+    public static ImageSession open(final File file) throws IOException {
+        return open(ByteSource.file(file));
+    }
+
+    private final ByteSource byteSource;
+    private final AbstractImageParser<?> imageParser;
+    /** The results read so far by name, null results included. */
+    private final Map<String, Object> results = new HashMap<>();
+
+    private ImageSession(final ByteSource byteSource) throws IOException {
+        this.byteSource = byteSource;
+        this.imageParser = ImageParserFactory.getImageParser(byteSource);
+    }
+
+    /**
+     * Closes the byte source of the session.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        byteSource.close();
+    }
+
+    /**
+     * Gets a result, reading it on the first call only.
+     */
+    @SuppressWarnings("unchecked")
+    private synchronized <R> R get(final String name, final IOSupplier<R> reader) throws IOException {
+        if (results.containsKey(name)) {
+            return (R) results.get(name);
+        }
+        final R result = reader.get();
+        results.put(name, result);
+        return result;
+    }
+
+    /**
+     * Reads all the images of the file.
+     *
+     * @return the images.
+     * @throws ImagingException if the image is not valid.
+     * @throws IOException      if an I/O error occurs.
+     */
+    public List<BufferedImage> getAllBufferedImages() throws ImagingException, IOException {
+        return imageParser.getAllBufferedImages(byteSource);
+    }
+
+    /**
+     * Reads the first image of the file. The image is not kept by the session.
+     *
+     * @return the image.
+     * @throws ImagingException if the image is not valid.
+     * @throws IOException      if an I/O error occurs.
+     */
+    public BufferedImage getBufferedImage() throws ImagingException, IOException {
+        return imageParser.getBufferedImage(byteSource, null);
+    }
+
+    /**
+     * Gets the byte source the session reads, through its page cache.
+     *
+     * @return the byte source.
+     */
+    public ByteSource getByteSource() {
+        return byteSource;
+    }
+
+    /**
+     * Gets the format of the image.
+     *
+     * @return the format.
+     */
+    public ImageFormat getFormat() {
+        final ImageFormat[] types = imageParser.getAcceptedTypes();
+        return types.length > 0 ? types[0] : ImageFormats.UNKNOWN;
+    }
+
+    /**
+     * Gets the raw bytes of the ICC profile of the image.
+     *
+     * @return a copy of the bytes, or null if the image has no ICC profile.
+     * @throws ImagingException if the image is not valid.
+     * @throws IOException      if an I/O error occurs.
+     */
+    public byte[] getIccProfileBytes() throws ImagingException, IOException {
+        final byte[] bytes = get("iccProfileBytes", () -> imageParser.getIccProfileBytes(byteSource, null));
+        return bytes != null ? bytes.clone() : null;
+    }
+
+    /**
+     * Gets the image info.
+     *
+     * @return the image info.
+     * @throws ImagingException if the image is not valid.
+     * @throws IOException      if an I/O error occurs.
+     */
+    public ImageInfo getImageInfo() throws ImagingException, IOException {
+        return get("imageInfo", () -> imageParser.getImageInfo(byteSource, null));
+    }
+
+    /**
+     * Gets the parser of the format of the image.
+     *
+     * @return the parser.
+     */
+    public AbstractImageParser<?> getImageParser() {
+        return imageParser;
+    }
+
+    /**
+     * Gets the size of the image.
+     *
+     * @return the size.
+     * @throws ImagingException if the image is not valid.
+     * @throws IOException      if an I/O error occurs.
+     */
+    public Dimension getImageSize() throws ImagingException, IOException {
+        final Dimension size = get("imageSize", () -> imageParser.getImageSize(byteSource, null));
+        return size != null ? new Dimension(size) : null;
+    }
+
+    /**
+     * Gets the metadata of the image.
+     *
+     * @return the metadata, or null if the image has none.
+     * @throws ImagingException if the image is not valid.
+     * @throws IOException      if an I/O error occurs.
+     */
+    public ImageMetadata getMetadata() throws ImagingException, IOException {
+        return get("metadata", () -> imageParser.getMetadata(byteSource, null));
+    }
+
+    /**
+     * Gets the XMP metadata of the image as an XML string.
+     *
+     * @return the XML, or null if the image has none or its format does not embed XMP.
+     * @throws ImagingException if the image is not valid.
+     * @throws IOException      if an I/O error occurs.
+     */
+    public String getXmpXml() throws ImagingException, IOException {
+        return get("xmpXml", () -> imageParser instanceof XmpEmbeddable ? ((XmpEmbeddable<?>) imageParser).getXmpXml(byteSource, null) : null);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + byteSource.getFileName() + "]";
+    }
+}
@@ -20,6 +20,7 @@ import java.awt.Dimension;
 import java.awt.color.ICC_Profile;
 import java.awt.image.BufferedImage;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
@@ -29,14 +30,21 @@ import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 
 import org.apache.commons.imaging.bytesource.ByteSource;
 import org.apache.commons.imaging.common.ImageMetadata;
+import org.apache.commons.imaging.common.RowListener;
 import org.apache.commons.imaging.common.XmpEmbeddable;
 import org.apache.commons.imaging.icc.IccProfileInfo;
 import org.apache.commons.imaging.icc.IccProfileParser;
+import org.apache.commons.imaging.internal.BranchProbes;
+import org.apache.commons.imaging.internal.Cancellation;
 import org.apache.commons.imaging.internal.ImageParserFactory;
+import org.apache.commons.imaging.internal.ImageParserRegistry;
+import org.apache.commons.imaging.internal.Metrics;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -108,8 +116,8 @@ public final class Imaging {
     private static final int[] MAGIC_NUMBERS_RIFF_1 = { 0x52, 0x49, };
     private static final int[] MAGIC_NUMBERS_RIFF_2 = { 0x46, 0x46, };
     private static final byte[] MAGIC_NUMBERS_WEBP = { 0x57, 0x45, 0x42, 0x50, };
-    private static int NUM_BRANCHES = 68;
-    public static boolean[] coverage = new boolean[NUM_BRANCHES];
+    /** Probes of the branches of {@link #detectFormat(ByteSource)}, disabled unless the system property {@value BranchProbes#PROPERTY} is true. */
+    private static final BranchProbes DETECTION_PROBES = new BranchProbes(68);
 
     private static boolean compareBytePair(final int[] a, final int[] b) {
         if (a.length != 2 && b.length != 2) {
@@ -118,6 +126,16 @@ public final class Imaging {
         return a[0] == b[0] && a[1] == b[1];
     }
 
+    /**
+     * Creates a batch to run an operation, such as reading image info or metadata, over many images concurrently.
+     *
+     * @return a new batch with default settings.
+     * @since 1.0.0-alpha7
+     */
+    public static ImagingBatch batch() {
+        return new ImagingBatch();
+    }
+
     /**
      * Writes the ImageInfo and format-specific information for the image content of the specified byte array to a string.
      *
@@ -160,8 +178,12 @@ public final class Imaging {
     }
 
     private static List<BufferedImage> getAllBufferedImages(final ByteSource byteSource) throws ImagingException, IOException {
-        final AbstractImageParser<?> imageParser = ImageParserFactory.getImageParser(byteSource);
-        return imageParser.getAllBufferedImages(byteSource);
+        try (Metrics.Timer timer = Metrics.start(ImageFormats.UNKNOWN, ImagingMetrics.Phase.DECODE)) {
+            final AbstractImageParser<?> imageParser = ImageParserFactory.getImageParser(byteSource);
+            timer.setFormat(getFormat(imageParser));
+            timer.setParser(imageParser.getClass());
+            return imageParser.getAllBufferedImages(byteSource);
+        }
     }
 
     /**
@@ -208,7 +230,19 @@ public final class Imaging {
     }
 
     private static BufferedImage getBufferedImage(final ByteSource byteSource) throws ImagingException, IOException {
-        return ImageParserFactory.getImageParser(byteSource).getBufferedImage(byteSource, null);
+        try (Metrics.Timer timer = Metrics.start(ImageFormats.UNKNOWN, ImagingMetrics.Phase.DECODE)) {
+            final AbstractImageParser<?> imageParser = ImageParserFactory.getImageParser(byteSource);
+            timer.setFormat(getFormat(imageParser));
+            timer.setParser(imageParser.getClass());
+            final BufferedImage image = imageParser.getBufferedImage(byteSource, null);
+            timer.setDimensions(image.getWidth(), image.getHeight());
+            return image;
+        }
+    }
+
+    private static ImageFormat getFormat(final AbstractImageParser<?> imageParser) {
+        final ImageFormat[] types = imageParser.getAcceptedTypes();
+        return types.length > 0 ? types[0] : ImageFormats.UNKNOWN;
     }
 
     /**
@@ -266,6 +300,23 @@ public final class Imaging {
         return getBufferedImage(ByteSource.inputStream(is, fileName));
     }
 
+    /**
+     * Reads the first image from a byte source on an executor.
+     * <p>
+     * Cancelling the returned future, or completing it by any other means, stops the decode at its next checkpoint, such as the end of a scanline, strip,
+     * tile or row of MCUs, and frees the executor thread. Futures derived from the returned one do not propagate their cancellation back to it.
+     * </p>
+     *
+     * @param byteSource a byte source containing image data.
+     * @param executor   the executor running the decode.
+     * @return the future image, completed exceptionally if the image cannot be read.
+     * @since 1.0.0-alpha7
+     */
+    public static CompletableFuture<BufferedImage> getBufferedImageAsync(final ByteSource byteSource, final Executor executor) {
+        Objects.requireNonNull(byteSource, "byteSource");
+        return Cancellation.supplyAsync(() -> getBufferedImage(byteSource), executor);
+    }
+
     /**
      * Attempts to determine the image format of the specified data and evaluates its format compliance.
      *
@@ -300,6 +351,18 @@ public final class Imaging {
         return getFormatCompliance(ByteSource.file(file));
     }
 
+    /**
+     * Gets how often each branch of format detection was taken. Branches are only counted when the system property {@value BranchProbes#PROPERTY} is
+     * {@code true} at startup; otherwise the probes cost nothing and every count is zero.
+     *
+     * @return the number of times each branch was taken since the last reset, indexed by branch id.
+     * @see #resetFormatDetectionCoverage()
+     * @since 1.0.0-alpha7
+     */
+    public static long[] getFormatDetectionCoverage() {
+        return DETECTION_PROBES.snapshot();
+    }
+
     /**
      * Extracts an ICC Profile (if present) from JPEG, PNG, PSD (Photoshop) and TIFF images.
      *
@@ -425,8 +488,18 @@ public final class Imaging {
         return getImageInfo(ByteSource.array(bytes));
     }
 
-    private static ImageInfo getImageInfo(final ByteSource byteSource) throws ImagingException, IOException {
-        return ImageParserFactory.getImageParser(byteSource).getImageInfo(byteSource, null);
+    static ImageInfo getImageInfo(final ByteSource byteSource) throws ImagingException, IOException {
+        try (Metrics.Timer timer = Metrics.start(ImageFormats.UNKNOWN, ImagingMetrics.Phase.METADATA)) {
+            final AbstractImageParser<?> imageParser = ImageParserFactory.getImageParser(byteSource);
+            timer.setFormat(getFormat(imageParser));
+            timer.setParser(imageParser.getClass());
+            final ImageInfo imageInfo = imageParser.getImageInfo(byteSource, null);
+            if (imageInfo != null) {
+                timer.setDimensions(imageInfo.getWidth(), imageInfo.getHeight());
+                timer.setCompression(Objects.toString(imageInfo.getCompressionAlgorithm(), null));
+            }
+            return imageInfo;
+        }
     }
 
     /**
@@ -494,6 +567,20 @@ public final class Imaging {
         return getImageInfo(ByteSource.array(bytes, fileName));
     }
 
+    /**
+     * Parses the "image info" of a byte source on an executor. Cancelling the returned future stops the parse at its next checkpoint.
+     *
+     * @param byteSource a byte source containing image data.
+     * @param executor   the executor running the parse.
+     * @return the future image info, completed exceptionally if the image cannot be parsed.
+     * @see ImageInfo
+     * @since 1.0.0-alpha7
+     */
+    public static CompletableFuture<ImageInfo> getImageInfoAsync(final ByteSource byteSource, final Executor executor) {
+        Objects.requireNonNull(byteSource, "byteSource");
+        return Cancellation.supplyAsync(() -> getImageInfo(byteSource), executor);
+    }
+
     /**
      * Determines the width and height of an image.
      *
@@ -569,9 +656,13 @@ public final class Imaging {
         return getMetadata(ByteSource.array(bytes));
     }
 
-    private static ImageMetadata getMetadata(final ByteSource byteSource) throws ImagingException, IOException {
-        final AbstractImageParser<?> imageParser = ImageParserFactory.getImageParser(byteSource);
-        return imageParser.getMetadata(byteSource, null);
+    static ImageMetadata getMetadata(final ByteSource byteSource) throws ImagingException, IOException {
+        try (Metrics.Timer timer = Metrics.start(ImageFormats.UNKNOWN, ImagingMetrics.Phase.METADATA)) {
+            final AbstractImageParser<?> imageParser = ImageParserFactory.getImageParser(byteSource);
+            timer.setFormat(getFormat(imageParser));
+            timer.setParser(imageParser.getClass());
+            return imageParser.getMetadata(byteSource, null);
+        }
     }
 
     /**
@@ -625,6 +716,17 @@ public final class Imaging {
         return getMetadata(ByteSource.inputStream(is, fileName));
     }
 
+    /**
+     * Gets the installed metrics listener.
+     *
+     * @return the listener, or null if none is installed.
+     * @see #setMetrics(ImagingMetrics)
+     * @since 1.0.0-alpha7
+     */
+    public static ImagingMetrics getMetrics() {
+        return Metrics.getListener();
+    }
+
     /**
      * Extracts the embedded XML metadata as an XML string.
      *
@@ -728,48 +830,57 @@ public final class Imaging {
      * @throws IOException              in the event of an unrecoverable I/O condition.
      */
     public static ImageFormat guessFormat(final ByteSource byteSource) throws IOException {
+        try (Metrics.Timer timer = Metrics.start(ImageFormats.UNKNOWN, ImagingMetrics.Phase.FORMAT_DETECTION)) {
+            final ImageFormat format = detectFormat(byteSource);
+            timer.setFormat(format);
+            return format;
+        }
+    }
+
+    private static ImageFormat detectFormat(final ByteSource byteSource) throws IOException {
         /*
             Branch id: 0
         */
         if (byteSource == null) {
-            coverage[0] = true;
+            DETECTION_PROBES.hit(0);
             return ImageFormats.UNKNOWN;
         }
         /*
             Branch id: 1
         */
         else {
-            coverage[1] = true;
+            DETECTION_PROBES.hit(1);
         }
         /*
             Branch id: 2
         */
-        try (InputStream is = byteSource.getInputStream()) {
-            coverage[2] = true;
+        // a cached source serves the header to the parser chosen next from its pages
+        try (InputStream is = new ByteArrayInputStream(byteSource.getHeader())) {
+            DETECTION_PROBES.hit(2);
             final int i1 = is.read();
             final int i2 = is.read();
             /*
                 Branch id: 4
             */
             if (i1 < 0) {
-                coverage[4] = true;
+                DETECTION_PROBES.hit(4);
                 throw new IllegalArgumentException("Couldn't read magic numbers to guess format.");
             }
             /*
                 Branch id: 5
             */
-            coverage[5] = true;
+            DETECTION_PROBES.hit(5);
             /*
                 Branch id: 6
             */
             if (i2 < 0) {
-                coverage[6] = true;
+                DETECTION_PROBES.hit(6);
                 throw new IllegalArgumentException("Couldn't read magic numbers to guess format.");
             }
             /*
                 Branch id: 7
             */
-            coverage[7] = true;
+            DETECTION_PROBES.hit(7);
 
             final int b1 = i1 & 0xff;
             final int b2 = i2 & 0xff;
@@ -778,7 +889,7 @@ public final class Imaging {
                 Branch id: 8
             */
             if (compareBytePair(MAGIC_NUMBERS_GIF, bytePair)) {
-                coverage[8] = true;
+                DETECTION_PROBES.hit(8);
                 return ImageFormats.GIF;
                 // } else if (b1 == 0x00 && b2 == 0x00) // too similar to TGA
                 // {
@@ -787,180 +898,180 @@ public final class Imaging {
             /*
                 Branch id: 9
             */
-            coverage[9] = true;
+            DETECTION_PROBES.hit(9);
             /*
                 Branch id: 10
             */
             if (compareBytePair(MAGIC_NUMBERS_PNG, bytePair)) {
-                coverage[10] = true;
+                DETECTION_PROBES.hit(10);
                 return ImageFormats.PNG;
             }
             /*
                 Branch id: 11
             */
-            coverage[11] = true;
+            DETECTION_PROBES.hit(11);
             /*
                 Branch id: 12
             */
             if (compareBytePair(MAGIC_NUMBERS_JPEG, bytePair)) {
-                coverage[12] = true;
+                DETECTION_PROBES.hit(12);
                 return ImageFormats.JPEG;
             }
             /*
                 Branch id: 13
             */
-            coverage[13] = true;
+            DETECTION_PROBES.hit(13);
             /*
                 Branch id: 14
             */
             if (compareBytePair(MAGIC_NUMBERS_BMP, bytePair)) {
-                coverage[14] = true;
+                DETECTION_PROBES.hit(14);
                 return ImageFormats.BMP;
             }
             /*
                 Branch id: 15
             */
-                coverage[15] = true;
+                DETECTION_PROBES.hit(15);
             /*
                 Branch id: 16
             */
             if (compareBytePair(MAGIC_NUMBERS_TIFF_MOTOROLA, bytePair)) {
-                coverage[16] = true;
+                DETECTION_PROBES.hit(16);
                 return ImageFormats.TIFF;
             }
             /*
                 Branch id: 17
             */
-                coverage[17] = true;
+                DETECTION_PROBES.hit(17);
             /*
                 Branch id: 18
             */
             if (compareBytePair(MAGIC_NUMBERS_TIFF_INTEL, bytePair)) {
-                coverage[18] = true;
+                DETECTION_PROBES.hit(18);
                 return ImageFormats.TIFF;
             }
             /*
                 Branch id: 19
             */
-                coverage[19] = true;
+                DETECTION_PROBES.hit(19);
             /*
                 Branch id: 20
             */
             if (compareBytePair(MAGIC_NUMBERS_PSD, bytePair)) {
-                coverage[20] = true;
+                DETECTION_PROBES.hit(20);
                 return ImageFormats.PSD;
             }
             /*
                 Branch id: 21
             */
-            coverage[21] = true;
+            DETECTION_PROBES.hit(21);
             /*
                 Branch id: 22
             */
             if (compareBytePair(MAGIC_NUMBERS_PAM, bytePair)) {
-                coverage[22] = true;
+                DETECTION_PROBES.hit(22);
                 return ImageFormats.PAM;
             }
             /*
                 Branch id: 23
             */
-            coverage[23] = true;
+            DETECTION_PROBES.hit(23);
             /*
                 Branch id: 24
             */
             if (compareBytePair(MAGIC_NUMBERS_PBM_A, bytePair)) {
-                coverage[24] = true;
+                DETECTION_PROBES.hit(24);
                 return ImageFormats.PBM;
             }
             /*
                 Branch id: 25
             */
-            coverage[25] = true;
+            DETECTION_PROBES.hit(25);
             /*
                 Branch id: 26
             */
             if (compareBytePair(MAGIC_NUMBERS_PBM_B, bytePair)) {
-                coverage[26] = true;
+                DETECTION_PROBES.hit(26);
                 return ImageFormats.PBM;
             }
             /*
                 Branch id: 27
             */
-            coverage[27] = true;
+            DETECTION_PROBES.hit(27);
             /*
                 Branch id: 28
             */
             if (compareBytePair(MAGIC_NUMBERS_PGM_A, bytePair)) {
-                coverage[28] = true;
+                DETECTION_PROBES.hit(28);
                 return ImageFormats.PGM;
             }
             /*
                 Branch id: 29
             */
-            coverage[29] = true;
+            DETECTION_PROBES.hit(29);
             /*
                 Branch id: 30
             */
             if (compareBytePair(MAGIC_NUMBERS_PGM_B, bytePair)) {
-                coverage[30] = true;
+                DETECTION_PROBES.hit(30);
                 return ImageFormats.PGM;
             }
             /*
                 Branch id: 31
             */
-            coverage[31] = true;
+            DETECTION_PROBES.hit(31);
             /*
                 Branch id: 32
             */
             if (compareBytePair(MAGIC_NUMBERS_PPM_A, bytePair)) {
-                coverage[32] = true;
+                DETECTION_PROBES.hit(32);
                 return ImageFormats.PPM;
             }
             /*
                 Branch id: 33
             */
-            coverage[33] = true;
+            DETECTION_PROBES.hit(33);
             /*
                 Branch id: 34
             */
             if (compareBytePair(MAGIC_NUMBERS_PPM_B, bytePair)) {
-                coverage[34] = true;
+                DETECTION_PROBES.hit(34);
                 return ImageFormats.PPM;
             }
             /*
                 Branch id: 35
             */
-            coverage[35] = true;
+            DETECTION_PROBES.hit(35);
             /*
                 Branch id: 36
             */
             if (compareBytePair(MAGIC_NUMBERS_JBIG2_1, bytePair)) {
-                coverage[36] = true;
+                DETECTION_PROBES.hit(36);
                 final int i3 = is.read();
                 final int i4 = is.read();
                 /*
                     Branch id: 37
                 */
                 if (i3 < 0) {
-                    coverage[37] = true;
+                    DETECTION_PROBES.hit(37);
                     throw new IllegalArgumentException("Couldn't read magic numbers to guess format.");
                 }
                 /*
                     Branch id: 38
                 */
-                coverage[38] = true;
+                DETECTION_PROBES.hit(38);
                 /*
                     Branch id: 39
                 */
                 if (i4 < 0) {
-                    coverage[39] = true;
+                    DETECTION_PROBES.hit(39);
                     throw new IllegalArgumentException("Couldn't read magic numbers to guess format.");
                 }
                 /*
                     Branch id: 40
                 */
                 else {
-                    coverage[40] = true;
+                    DETECTION_PROBES.hit(40);
                 }
                 
 
@@ -971,89 +1082,89 @@ public final class Imaging {
                     Branch id: 41
                 */
                 if (compareBytePair(MAGIC_NUMBERS_JBIG2_2, bytePair2)) {
-                    coverage[41] = true;
+                    DETECTION_PROBES.hit(41);
                     return ImageFormats.JBIG2;
                 }
                 /*
                     Branch id: 42
                 */
                 else {
-                    coverage[42] = true;
+                    DETECTION_PROBES.hit(42);
                 }
             /*
                 Branch id: 43
             */
             } else { // 77
-                coverage[43] = true;
+                DETECTION_PROBES.hit(43);
                 /*
                     Branch id: 44
                 */
                 if (compareBytePair(MAGIC_NUMBERS_ICNS, bytePair)) {
-                    coverage[44] = true;
+                    DETECTION_PROBES.hit(44);
                     return ImageFormats.ICNS;
                 } 
                 /*
                     Branch id: 45
                 */
                 else {
-                    coverage[45] = true;
+                    DETECTION_PROBES.hit(45);
                 }
                 /*
                     Branch id: 46
                 */
                 if (compareBytePair(MAGIC_NUMBERS_DCX, bytePair)) {
-                    coverage[46] = true;
+                    DETECTION_PROBES.hit(46);
                     return ImageFormats.DCX;
                 }
                 /*
                     Branch id: 47
                 */
                 else {
-                    coverage[47] = true;
+                    DETECTION_PROBES.hit(47);
                 }
                 /*
                     Branch id: 48
                 */
                 if (compareBytePair(MAGIC_NUMBERS_RGBE, bytePair)) {
-                    coverage[48] = true;
+                    DETECTION_PROBES.hit(48);
                     return ImageFormats.RGBE;
                 }
                 /*
                     Branch id: 49
                 */
                 else {
-                    coverage[50] = true;
+                    DETECTION_PROBES.hit(49);
                 }
                 /*
                     Branch id: 50
                 */
                 if (compareBytePair(MAGIC_NUMBERS_RIFF_1, bytePair)) {
-                    coverage[50] = true;
+                    DETECTION_PROBES.hit(50);
                     final int i3 = is.read();
                     final int i4 = is.read();
                     /*
                         Branch id: 51
                     */
                     if (i3 < 0) {
-                        coverage[51] = true;
+                        DETECTION_PROBES.hit(51);
                         throw new IllegalArgumentException("Couldn't read magic numbers to guess format.");
                     }
                     /*
                         Branch id: 52
                     */
-                    coverage[52] = true;
+                    DETECTION_PROBES.hit(52);
                     /*
                         Branch id: 53
                     */
                     if (i4 < 0) {
-                        coverage[53] = true;
+                        DETECTION_PROBES.hit(53);
                         throw new IllegalArgumentException("Couldn't read magic numbers to guess format.");
                     }
                     /*
                         Branch id: 54
                     */
                     else {
-                        coverage[54] = true;
+                        DETECTION_PROBES.hit(54);
                     }
                     final int b3 = i3 & 0xff;
                     final int b4 = i4 & 0xff;
@@ -1062,67 +1173,67 @@ public final class Imaging {
                         Branch id: 55
                     */
                     if (compareBytePair(MAGIC_NUMBERS_RIFF_2, bytePair2)) {
-                        coverage[55] = true;
+                        DETECTION_PROBES.hit(55);
                         final byte[] bytes = new byte[4];
                         /*
                             Branch id: 56
                         */
                         if (is.read(bytes) < 4) { // Skip file size
-                            coverage[56] = true;
+                            DETECTION_PROBES.hit(56);
                             throw new IllegalArgumentException("Couldn't read magic numbers to guess format.");
                         }
                         /*
                             Branch id: 57
                         */
                         else {
-                            coverage[57] = true;
+                            DETECTION_PROBES.hit(57);
                         }
                         /*
                             Branch id: 58
                         */
                         if (is.read(bytes) == 4 && Arrays.equals(MAGIC_NUMBERS_WEBP, bytes)) {
-                            coverage[58] = true;
+                            DETECTION_PROBES.hit(58);
                             return ImageFormats.WEBP;
                         }
                         /*
                             Branch id: 59
                         */
                        else {
-                            coverage[59] = true;
+                            DETECTION_PROBES.hit(59);
                        }
                     }
                     /*
                         Branch id: 60
                     */
                     else { // 66
-                        coverage[60] = true;
+                        DETECTION_PROBES.hit(60);
                     }
                 }
                 /*
                     Branch id: 61
                 */
                 else { // 88
-                    coverage[61] = true;
+                    DETECTION_PROBES.hit(61);
                 }
             }  
             /*
                 Branch id: 62
             */
-            coverage[62] = true;
+            DETECTION_PROBES.hit(62);
             return Stream.of(ImageFormats.values()).filter(imageFormat -> Stream.of(imageFormat.getExtensions()).anyMatch(extension -> {
                 final String fileName = byteSource.getFileName();
                 /*
                     Branch id: 63
                 */
                 if (StringUtils.isEmpty(fileName)) {
-                    coverage[63] = true;
+                    DETECTION_PROBES.hit(63);
                     return false;
                 }
                 /*
                     Branch id: 64
                 */
                 else {
-                    coverage[64] = true;
+                    DETECTION_PROBES.hit(64);
                 }
                 final String fileExtension = fileName.substring(fileName.lastIndexOf('.') + 1);
                 boolean match = fileExtension.equalsIgnoreCase(extension);
@@ -1130,13 +1241,13 @@ public final class Imaging {
                     Branch id: 65
                 */
                 if(match) {
-                    coverage[65] = true;
+                    DETECTION_PROBES.hit(65);
                 }
                 /*
                     Branch id: 66
                 */
                 else {
-                    coverage[66] = true;
+                    DETECTION_PROBES.hit(66);
                 }
                 return match;
                 // return fileExtension.equalsIgnoreCase(extension);
@@ -1145,7 +1256,7 @@ public final class Imaging {
                 /*
                     Branch id: 67
                 */
-                coverage[67] = true;
+                DETECTION_PROBES.hit(67);
                 return ImageFormats.UNKNOWN;
             });
         }
@@ -1153,7 +1264,7 @@ public final class Imaging {
             Branch id: 3
         */
         catch(Exception e) {
-            coverage[3] = true;
+            DETECTION_PROBES.hit(3);
             return ImageFormats.UNKNOWN;
         }
     }
@@ -1201,7 +1312,7 @@ public final class Imaging {
             return false;
         }
         final String normalizedFileName = StringUtils.toRootLowerCase(fileName);
-        for (final AbstractImageParser<?> imageParser : AbstractImageParser.getAllImageParsers()) {
+        for (final AbstractImageParser<?> imageParser : ImageParserRegistry.getImageParsers()) {
             for (final String extension : imageParser.getAcceptedExtensions()) {
                 if (normalizedFileName.endsWith(StringUtils.toRootLowerCase(extension))) {
                     return true;
@@ -1211,6 +1322,58 @@ public final class Imaging {
         return false;
     }
 
+    /**
+     * Reads the first image from a byte source as a stream of rows, handing each row to a listener instead of building the image. BMP and PNM images are
+     * streamed as they are decoded, holding only the rows being decoded; other formats are decoded whole and then delivered from top to bottom.
+     *
+     * @param byteSource a byte source containing image data.
+     * @param listener   the listener receiving the rows.
+     * @throws ImagingException in the event of a processing error while reading an image (i.e. a format violation, etc.).
+     * @throws IOException      in the event of an unrecoverable I/O exception, or if the listener fails.
+     * @see AbstractImageParser#readRows(ByteSource, ImagingParameters, RowListener)
+     * @since 1.0.0-alpha7
+     */
+    public static void readRows(final ByteSource byteSource, final RowListener listener) throws ImagingException, IOException {
+        Objects.requireNonNull(listener, "listener");
+        ImageParserFactory.getImageParser(byteSource).readRows(byteSource, null, listener);
+    }
+
+    /**
+     * Reads the first image from a file as a stream of rows, handing each row to a listener instead of building the image.
+     *
+     * @param file     a valid reference to a file containing image data.
+     * @param listener the listener receiving the rows.
+     * @throws ImagingException in the event of a processing error while reading an image (i.e. a format violation, etc.).
+     * @throws IOException      in the event of an unrecoverable I/O exception, or if the listener fails.
+     * @see #readRows(ByteSource, RowListener)
+     * @since 1.0.0-alpha7
+     */
+    public static void readRows(final File file, final RowListener listener) throws ImagingException, IOException {
+        readRows(ByteSource.file(file), listener);
+    }
+
+    /**
+     * Resets the counts of the branches of format detection to zero.
+     *
+     * @see #getFormatDetectionCoverage()
+     * @since 1.0.0-alpha7
+     */
+    public static void resetFormatDetectionCoverage() {
+        DETECTION_PROBES.reset();
+    }
+
+    /**
+     * Installs a listener notified of the duration of the phases of imaging operations, such as format detection, parsing and decompression, with the bytes
+     * read and allocated in each. None is installed by default, and phases are then not measured.
+     *
+     * @param metrics the listener, or null to stop measuring.
+     * @see AggregatingImagingMetrics
+     * @since 1.0.0-alpha7
+     */
+    public static void setMetrics(final ImagingMetrics metrics) {
+        Metrics.setListener(metrics);
+    }
+
     /**
      * Writes the content of a BufferedImage to a file using the specified image format.
      *
@@ -1256,7 +1419,11 @@ public final class Imaging {
         Objects.requireNonNull(format, "format");
 
         final AbstractImageParser<?> imageParser = ImageParserFactory.getImageParser(format);
-        imageParser.writeImage(src, outputStream, null);
+        try (Metrics.Timer timer = Metrics.start(format, ImagingMetrics.Phase.ENCODE)) {
+            timer.setParser(imageParser.getClass());
+            timer.setDimensions(src.getWidth(), src.getHeight());
+            imageParser.writeImage(src, outputStream, null);
+        }
     }
 
     /**
@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging;
+
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.commons.imaging.bytesource.ByteSource;
+import org.apache.commons.imaging.common.AllocationBudget;
+import org.apache.commons.imaging.common.ImageMetadata;
+import org.apache.commons.io.function.IOFunction;
+
+/**
+ * Runs an imaging operation over many images concurrently and streams the outcomes as they complete.
+ * <p>
+ * The returned streams are lazy: work is submitted as the stream is consumed, and at most {@link #setMaxInFlight(int) maxInFlight} images are being
+ * processed or waiting to be consumed at any time, which bounds both the load put on the executor and the memory held by results. Each image can also be
+ * given an {@link #setAllocationLimit(long) allocation limit}. Failures do not stop the batch: they are reported as {@link Result results} like successes.
+ * </p>
+ *
+ * <pre>
+ * try (Stream&lt;ImagingBatch.Result&lt;ImageInfo&gt;&gt; results = Imaging.batch().setMaxInFlight(32).getImageInfo(paths)) {
+ *     results.forEach(result -&gt; index(result.getSource(), result.getValue(), result.getFailure()));
+ * }
+ * </pre>
+ *
+ * @see Imaging#batch()
+ * @since 1.0.0-alpha7
+ */
+public final class ImagingBatch {
+
+    /**
+     * The outcome of the operation on one image.
+     *
+     * @param <R> the type of the value.
+     */
+    public static final class Result<R> {
+
+        private final ByteSource source;
+        private final R value;
+        private final Exception failure;
+
+        private Result(final ByteSource source, final R value, final Exception failure) {
+            this.source = source;
+            this.value = value;
+            this.failure = failure;
+        }
+
+        /**
+         * Gets the failure of the operation.
+         *
+         * @return the exception thrown, or null if the operation succeeded.
+         */
+        public Exception getFailure() {
+            return failure;
+        }
+
+        /**
+         * Gets the image.
+         *
+         * @return the byte source of the image.
+         */
+        public ByteSource getSource() {
+            return source;
+        }
+
+        /**
+         * Gets the value computed.
+         *
+         * @return the value, or null if the operation failed.
+         */
+        public R getValue() {
+            return value;
+        }
+
+        /**
+         * Tests whether the operation succeeded.
+         *
+         * @return whether the operation succeeded.
+         */
+        public boolean isSuccess() {
+            return failure == null;
+        }
+
+        @Override
+        public String toString() {
+            return source + (failure == null ? " -> " + value : " failed: " + failure);
+        }
+    }
+
+    /**
+     * Submits work as results are consumed.
+     */
+    private final class ResultIterator<R> implements Iterator<Result<R>> {
+
+        private final Iterator<ByteSource> sources;
+        private final IOFunction<ByteSource, R> function;
+        private final BlockingQueue<Result<R>> completed = new LinkedBlockingQueue<>();
+        private int inFlight;
+        private volatile boolean closed;
+
+        ResultIterator(final Iterator<ByteSource> sources, final IOFunction<ByteSource, R> function) {
+            this.sources = sources;
+            this.function = function;
+        }
+
+        void close() {
+            closed = true;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!closed && inFlight < maxInFlight && sources.hasNext()) {
+                submit(sources.next());
+            }
+            return inFlight > 0;
+        }
+
+        @Override
+        public Result<R> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                final Result<R> result = completed.take();
+                inFlight--;
+                return result;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ImagingRuntimeException("Interrupted while waiting for a batch result", e);
+            }
+        }
+
+        @SuppressWarnings("try") // the allocation budget is only closed
+        private void submit(final ByteSource source) {
+            Objects.requireNonNull(source, "source");
+            final long limit = allocationLimit;
+            executor.execute(() -> {
+                if (closed) {
+                    completed.add(new Result<>(source, null, new ImagingException("Batch closed")));
+                    return;
+                }
+                try (AllocationBudget budget = limit >= 0 ? AllocationBudget.open(limit) : null) {
+                    completed.add(new Result<>(source, function.apply(source), null));
+                } catch (final Exception e) {
+                    completed.add(new Result<>(source, null, e));
+                } catch (final Error e) {
+                    completed.add(new Result<>(source, null, new ImagingException("Batch task failed", e)));
+                    throw e;
+                }
+            });
+            inFlight++;
+        }
+    }
+
+    private static final class DefaultExecutorHolder {
+
+        static final Executor INSTANCE = createDefaultExecutor();
+
+        /**
+         * Uses virtual threads where available, Java 21 and above, since batch work mostly waits on I/O. Otherwise, blocking batch work must not starve the
+         * common fork-join pool, so it runs on a dedicated pool of daemon threads, one per image in flight by default, which time out when idle.
+         */
+        private static Executor createDefaultExecutor() {
+            try {
+                return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (final ReflectiveOperationException | RuntimeException e) {
+                final AtomicInteger threadCount = new AtomicInteger();
+                final ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_MAX_IN_FLIGHT, DEFAULT_MAX_IN_FLIGHT, 60, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(), runnable -> {
+                            final Thread thread = new Thread(runnable, "commons-imaging-batch-" + threadCount.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+                executor.allowCoreThreadTimeOut(true);
+                return executor;
+            }
+        }
+    }
+
+    private static final int DEFAULT_MAX_IN_FLIGHT = 64;
+
+    private static Stream<ByteSource> toByteSources(final Iterable<Path> paths) {
+        Objects.requireNonNull(paths, "paths");
+        return StreamSupport.stream(paths.spliterator(), false).map(ByteSource::path);
+    }
+
+    private Executor executor;
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private long allocationLimit = -1;
+
+    ImagingBatch() {
+        executor = DefaultExecutorHolder.INSTANCE;
+    }
+
+    /**
+     * Reads the image info of each file.
+     *
+     * @param paths the image files.
+     * @return the lazy stream of results, in completion order.
+     */
+    public Stream<Result<ImageInfo>> getImageInfo(final Iterable<Path> paths) {
+        return map(toByteSources(paths), Imaging::getImageInfo);
+    }
+
+    /**
+     * Reads the image info of each image.
+     *
+     * @param sources the images.
+     * @return the lazy stream of results, in completion order.
+     */
+    public Stream<Result<ImageInfo>> getImageInfo(final Stream<ByteSource> sources) {
+        return map(sources, Imaging::getImageInfo);
+    }
+
+    /**
+     * Reads the metadata of each file.
+     *
+     * @param paths the image files.
+     * @return the lazy stream of results, in completion order.
+     */
+    public Stream<Result<ImageMetadata>> getMetadata(final Iterable<Path> paths) {
+        return map(toByteSources(paths), Imaging::getMetadata);
+    }
+
+    /**
+     * Reads the metadata of each image.
+     *
+     * @param sources the images.
+     * @return the lazy stream of results, in completion order.
+     */
+    public Stream<Result<ImageMetadata>> getMetadata(final Stream<ByteSource> sources) {
+        return map(sources, Imaging::getMetadata);
+    }
+
+    /**
+     * Applies an operation to each image.
+     *
+     * @param <R>      the type of the values computed.
+     * @param sources  the images.
+     * @param function the operation, called concurrently from the threads of the executor.
+     * @return the lazy stream of results, in completion order. Closing it stops the submission of work.
+     */
+    public <R> Stream<Result<R>> map(final Stream<ByteSource> sources, final IOFunction<ByteSource, R> function) {
+        Objects.requireNonNull(sources, "sources");
+        Objects.requireNonNull(function, "function");
+        final ResultIterator<R> iterator = new ResultIterator<>(sources.iterator(), function);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false).onClose(() -> {
+            iterator.close();
+            sources.close();
+        });
+    }
+
+    /**
+     * Sets the memory each image may request from the {@link org.apache.commons.imaging.common.Allocator}, with an {@link AllocationBudget}. Together with
+     * the maximum number of images in flight, this bounds the memory used by the batch.
+     *
+     * @param allocationLimit the limit in bytes, or -1 for none, the default.
+     * @return {@code this} instance.
+     * @throws IllegalArgumentException if the limit is below -1.
+     */
+    public ImagingBatch setAllocationLimit(final long allocationLimit) {
+        if (allocationLimit < -1) {
+            throw new IllegalArgumentException("Invalid allocation limit: " + allocationLimit);
+        }
+        this.allocationLimit = allocationLimit;
+        return this;
+    }
+
+    /**
+     * Sets the executor running the operations. The default runs each operation on a virtual thread where the runtime supports them, and otherwise on a
+     * shared pool of 64 daemon threads, so that a larger {@link #setMaxInFlight(int) maxInFlight} queues the excess images.
+     *
+     * @param executor the executor.
+     * @return {@code this} instance.
+     */
+    public ImagingBatch setExecutor(final Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor");
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of images being processed or completed but not yet consumed. The default is 64.
+     *
+     * @param maxInFlight the maximum, at least 1.
+     * @return {@code this} instance.
+     * @throws IllegalArgumentException if the maximum is less than 1.
+     */
+    public ImagingBatch setMaxInFlight(final int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Invalid maximum in flight: " + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging;
+
+/**
+ * Receives the timings of the phases of an imaging operation.
+ * <p>
+ * Install a listener with {@link Imaging#setMetrics(ImagingMetrics)}; none is installed by default and phases are then not measured at all. Phases nest: a
+ * {@link Phase#DECODE} encloses the {@link Phase#PARSING} and {@link Phase#DECOMPRESSION} phases of the same image, and the figures reported for a phase
+ * include those of the phases it encloses.
+ * </p>
+ * <p>
+ * Listeners are called on the thread that ran the phase, once the phase completes, whether or not it succeeded. They must be thread-safe and should return
+ * quickly.
+ * </p>
+ *
+ * @see AggregatingImagingMetrics
+ * @since 1.0.0-alpha7
+ */
+@FunctionalInterface
+public interface ImagingMetrics {
+
+    /**
+     * The phases of an imaging operation.
+     */
+    enum Phase {
+
+        /** Guessing the format of the data from its magic numbers. */
+        FORMAT_DETECTION,
+
+        /** Reading image info or metadata. */
+        METADATA,
+
+        /** Reading images, from the first byte to the returned BufferedImage. */
+        DECODE,
+
+        /** Parsing the structure of the data: segments, chunks or directories. */
+        PARSING,
+
+        /** Decompressing and unfiltering image data into pixels. */
+        DECOMPRESSION,
+
+        /** Converting decoded samples into the pixels of the image. */
+        PIXEL_CONVERSION,
+
+        /** Converting pixels between color spaces. */
+        COLOR_CONVERSION,
+
+        /** Writing an image. */
+        ENCODE
+    }
+
+    /**
+     * Called when a phase completes.
+     *
+     * @param format         the format of the image, {@link ImageFormats#UNKNOWN} if it could not be determined.
+     * @param phase          the phase.
+     * @param nanos          the duration of the phase in nanoseconds.
+     * @param bytesRead      the bytes read from the {@link org.apache.commons.imaging.bytesource.ByteSource} during the phase.
+     * @param bytesAllocated the bytes requested from {@link org.apache.commons.imaging.common.Allocator} during the phase.
+     */
+    void phaseCompleted(ImageFormat format, Phase phase, long nanos, long bytesRead, long bytesAllocated);
+}
@@ -46,6 +46,11 @@ public class ImagingParameters<E extends ImagingParameters<E>> {
      */
     private BufferedImageFactory bufferedImageFactory;
 
+    /**
+     * Stops reads early when cancelled or expired. Default is {@code null}.
+     */
+    private CancellationToken cancellationToken;
+
     /**
      * <p>
      * Parameter key. Used in write operations to indicate the desired pixel density (DPI), and/or aspect ratio.
@@ -53,6 +58,36 @@ public class ImagingParameters<E extends ImagingParameters<E>> {
      */
     private PixelDensity pixelDensity;
 
+    /**
+     * X-coordinate of a sub-image.
+     */
+    private int subImageX;
+
+    /**
+     * Y-coordinate of a sub-image.
+     */
+    private int subImageY;
+
+    /**
+     * Width of a sub-image.
+     */
+    private int subImageWidth;
+
+    /**
+     * Height of a sub-image.
+     */
+    private int subImageHeight;
+
+    /**
+     * Reduction of both dimensions of decoded images: one pixel is kept in every block of subsampling by subsampling pixels. Default is {@code 1}.
+     */
+    private int subsampling = 1;
+
+    /**
+     * Size the longest side of decoded images is reduced towards, or {@code 0} to decode at full size. Default is {@code 0}.
+     */
+    private int targetSize;
+
     /**
      * Constructs a new instance.
      */
@@ -75,6 +110,16 @@ public class ImagingParameters<E extends ImagingParameters<E>> {
         return (E) this;
     }
 
+    /**
+     * Clears settings for sub-image. Subsequent read operations will retrieve the entire image.
+     *
+     * @since 1.0.0-alpha7
+     */
+    public void clearSubImage() {
+        subImageWidth = 0;
+        subImageHeight = 0;
+    }
+
     /**
      * Gets the buffered image factory.
      *
@@ -84,6 +129,16 @@ public class ImagingParameters<E extends ImagingParameters<E>> {
         return bufferedImageFactory;
     }
 
+    /**
+     * Gets the cancellation token checked by decoders.
+     *
+     * @return the cancellation token, or null if not set.
+     * @since 1.0.0-alpha7
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
     /**
      * Gets the file name.
      *
@@ -102,6 +157,66 @@ public class ImagingParameters<E extends ImagingParameters<E>> {
         return pixelDensity;
     }
 
+    /**
+     * Gets the height for a sub-image setting. For a sub-image setting to be meaningful, both the width and height must be set.
+     *
+     * @return if the sub-image feature is enabled, a value greater than zero; otherwise, zero.
+     * @since 1.0.0-alpha7
+     */
+    public int getSubImageHeight() {
+        return subImageHeight;
+    }
+
+    /**
+     * Gets the width for a sub-image setting. For a sub-image setting to be meaningful, both the width and height must be set.
+     *
+     * @return if the sub-image feature is enabled, a value greater than zero; otherwise, zero.
+     * @since 1.0.0-alpha7
+     */
+    public int getSubImageWidth() {
+        return subImageWidth;
+    }
+
+    /**
+     * Gets the X coordinate of a sub-image. This setting is meaningful only if a sub-image is set.
+     *
+     * @return a positive integer
+     * @since 1.0.0-alpha7
+     */
+    public int getSubImageX() {
+        return subImageX;
+    }
+
+    /**
+     * Gets the Y coordinate of a sub-image. This setting is meaningful only if a sub-image is set.
+     *
+     * @return a positive integer
+     * @since 1.0.0-alpha7
+     */
+    public int getSubImageY() {
+        return subImageY;
+    }
+
+    /**
+     * Gets the reduction of both dimensions of decoded images.
+     *
+     * @return the subsampling factor, 1 for full size.
+     * @since 1.0.0-alpha7
+     */
+    public int getSubsampling() {
+        return subsampling;
+    }
+
+    /**
+     * Gets the size the longest side of decoded images is reduced towards.
+     *
+     * @return the target size, or 0 to decode at full size.
+     * @since 1.0.0-alpha7
+     */
+    public int getTargetSize() {
+        return targetSize;
+    }
+
     /**
      * Gets whether strict mode is enabled.
      *
@@ -111,6 +226,16 @@ public class ImagingParameters<E extends ImagingParameters<E>> {
         return strict;
     }
 
+    /**
+     * Indicates whether the application has set sub-image parameters.
+     *
+     * @return true if the sub-image parameters are set; otherwise, false.
+     * @since 1.0.0-alpha7
+     */
+    public boolean isSubImageSet() {
+        return subImageWidth > 0 && subImageHeight > 0;
+    }
+
     /**
      * Sets the buffered image factory.
      *
@@ -122,6 +247,19 @@ public class ImagingParameters<E extends ImagingParameters<E>> {
         return asThis();
     }
 
+    /**
+     * Sets the cancellation token checked by decoders: a read stops with an {@link ImagingCancelledException} at its next checkpoint once the token is
+     * cancelled or expired.
+     *
+     * @param cancellationToken the cancellation token, or null for none.
+     * @return this instance.
+     * @since 1.0.0-alpha7
+     */
+    public E setCancellationToken(final CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+        return asThis();
+    }
+
     /**
      * Sets the file name.
      *
@@ -154,4 +292,70 @@ public class ImagingParameters<E extends ImagingParameters<E>> {
         this.strict = strict;
         return asThis();
     }
+
+    /**
+     * Sets parameters for performing a partial read operation on an image. This method is useful for reducing memory and run-time overhead when accessing large
+     * source images: PNG, BMP, PNM, PCX, PSD, JPEG and TIFF decoders allocate only the sub-image and skip the rows after it, and JPEG decoders skip the
+     * transform of the blocks outside it. Other formats are decoded whole and cropped. The subsampling and target size apply to the sub-image.
+     * <p>
+     * Note that the corner x and y coordinates must be positive integers (zero or greater). The width and height must be greater than zero. Reading an image
+     * that does not fully contain the sub-image fails.
+     * </p>
+     *
+     * @param x      pixel coordinate of the upper-left corner of the source image, must be zero or greater.
+     * @param y      pixel coordinate of the upper-left corner of the source image, must be zero or greater.
+     * @param width  width of the image subset to be read, must be greater than zero.
+     * @param height height of the image subset to be read, must be greater than zero.
+     * @return {@code this} instance.
+     * @since 1.0.0-alpha7
+     */
+    public E setSubImage(final int x, final int y, final int width, final int height) {
+        if (x < 0 || y < 0) {
+            throw new IllegalArgumentException("Invalid sub-image specification: negative x and y values not allowed");
+        }
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid sub-image specification width and height must be greater than zero");
+        }
+        subImageX = x;
+        subImageY = y;
+        subImageWidth = width;
+        subImageHeight = height;
+        return asThis();
+    }
+
+    /**
+     * Sets the reduction of both dimensions of decoded images. A reduced image keeps the top-left pixel of every block of subsampling by subsampling pixels,
+     * so an image of width by height pixels is decoded as ceil(width / subsampling) by ceil(height / subsampling) pixels. Decoders skip as much of the work
+     * on the other pixels as their format allows, and JPEG images reduced by a multiple of 8 keep the average of each block instead.
+     *
+     * @param subsampling the subsampling factor, 1 for full size.
+     * @return this instance.
+     * @throws IllegalArgumentException if the factor is less than 1.
+     * @since 1.0.0-alpha7
+     */
+    public E setSubsampling(final int subsampling) {
+        if (subsampling < 1) {
+            throw new IllegalArgumentException("Invalid subsampling: " + subsampling);
+        }
+        this.subsampling = subsampling;
+        return asThis();
+    }
+
+    /**
+     * Sets the size the longest side of decoded images is reduced towards: images are subsampled by the largest factor that keeps their longest side at
+     * least this size, or by {@link #getSubsampling()} if it is larger. Formats holding several sizes of an image, such as ICO, ICNS and TIFF files with
+     * reduced-resolution subfiles, decode the smallest one at least this size.
+     *
+     * @param targetSize the target size in pixels, or 0 to decode at full size.
+     * @return this instance.
+     * @throws IllegalArgumentException if the size is negative.
+     * @since 1.0.0-alpha7
+     */
+    public E setTargetSize(final int targetSize) {
+        if (targetSize < 0) {
+            throw new IllegalArgumentException("Invalid target size: " + targetSize);
+        }
+        this.targetSize = targetSize;
+        return asThis();
+    }
 }
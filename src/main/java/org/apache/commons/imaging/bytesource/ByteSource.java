@@ -16,13 +16,18 @@
  */
 package org.apache.commons.imaging.bytesource;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 import org.apache.commons.imaging.common.BinaryFunctions;
+import org.apache.commons.imaging.internal.Metrics;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.build.AbstractOrigin;
 import org.apache.commons.io.build.AbstractOrigin.ByteArrayOrigin;
@@ -32,7 +37,14 @@ import org.apache.commons.io.build.AbstractOrigin.PathOrigin;
 /**
  * A source of bytes for reading image data.
  */
-public class ByteSource {
+public class ByteSource implements Closeable {
+
+    /**
+     * The number of bytes at the start of a source that format detection reads.
+     *
+     * @since 1.0.0-alpha7
+     */
+    public static final int HEADER_SIZE = 4096;
 
     /**
      * Creates a ByteSource from a byte array.
@@ -55,6 +67,55 @@ public class ByteSource {
         return new ByteSource(new ByteArrayOrigin(array), name);
     }
 
+    /**
+     * Creates a ByteSource that keeps the pages it reads of another source in memory, with the default page size and number of pages.
+     *
+     * @param source the source.
+     * @return the ByteSource.
+     * @see #cached(ByteSource, int, int)
+     * @since 1.0.0-alpha7
+     */
+    public static ByteSource cached(final ByteSource source) {
+        return new PageCachedByteSource(source, PageCachedByteSource.DEFAULT_PAGE_SIZE, PageCachedByteSource.DEFAULT_MAX_PAGES);
+    }
+
+    /**
+     * Creates a ByteSource that keeps the pages it reads of another source in memory.
+     * <p>
+     * Pass the returned source to each parser call made for an image, such as {@code getImageInfo}, then {@code getMetadata}, then
+     * {@code getBufferedImage}: the header, directory and segment reads they repeat are served from a bounded, least recently used cache of fixed-size pages,
+     * which may be shared by threads. Reads longer than a quarter of the cache, such as image data, go to the source directly. Closing the returned source
+     * closes the source.
+     * </p>
+     *
+     * @param source   the source.
+     * @param pageSize the size of a page.
+     * @param maxPages the number of pages kept.
+     * @return the ByteSource.
+     * @throws IllegalArgumentException if the page size or number of pages is not positive.
+     * @since 1.0.0-alpha7
+     */
+    public static ByteSource cached(final ByteSource source, final int pageSize, final int maxPages) {
+        return new PageCachedByteSource(source, pageSize, maxPages);
+    }
+
+    /**
+     * Creates a ByteSource from a seekable channel, such as a file or object store channel.
+     * <p>
+     * The source reads the channel in pages and keeps the recently read ones: a read that misses them reads the pages it spans and a few after them in a
+     * single call to the channel, so that the nearby reads of a parser cost one round-trip. Reads longer than a quarter of the cache, such as image data, go to
+     * the channel directly. The channel is left open for its owner.
+     * </p>
+     *
+     * @param channel the channel.
+     * @param name    the name.
+     * @return the ByteSource.
+     * @since 1.0.0-alpha7
+     */
+    public static ByteSource channel(final SeekableByteChannel channel, final String name) {
+        return new ChannelByteSource(channel, name);
+    }
+
     /**
      * Creates a ByteSource from a file.
      *
@@ -100,6 +161,23 @@ public class ByteSource {
         return new InputStreamByteSource(is, name);
     }
 
+    /**
+     * Creates a ByteSource from an input stream, buffered in blocks of the given size as it is read. Once more than the spill threshold of bytes are buffered,
+     * further blocks are written to a temporary file rather than kept in memory; {@link #close() closing} the source deletes the file.
+     *
+     * @param is             the input stream.
+     * @param name           the name.
+     * @param blockSize      the size of the blocks the stream is buffered in.
+     * @param spillThreshold the number of bytes kept in memory, {@link Long#MAX_VALUE} to keep them all.
+     * @return the ByteSource.
+     * @throws IOException              if an I/O error occurs.
+     * @throws IllegalArgumentException if the block size is not positive or the spill threshold is negative.
+     * @since 1.0.0-alpha7
+     */
+    public static ByteSource inputStream(final InputStream is, final String name, final int blockSize, final long spillThreshold) throws IOException {
+        return new InputStreamByteSource(is, name, blockSize, spillThreshold);
+    }
+
     /**
      * Creates a ByteSource from a path.
      *
@@ -124,6 +202,18 @@ public class ByteSource {
         this.fileName = fileName; // may be null
     }
 
+    /**
+     * Releases the resources held by this source, such as the temporary file of a spilled stream. Array, file and path sources hold none, and reading them
+     * after a close is still possible.
+     *
+     * @throws IOException if an I/O error occurs.
+     * @since 1.0.0-alpha7
+     */
+    @Override
+    public void close() throws IOException {
+        // no resources
+    }
+
     /**
      * Gets a byte array from the specified position.
      *
@@ -133,7 +223,9 @@ public class ByteSource {
      * @throws IOException if an I/O error occurs.
      */
     public byte[] getByteArray(final long position, final int length) throws IOException {
-        return origin.getByteArray(position, length);
+        final byte[] bytes = origin.getByteArray(position, length);
+        Metrics.read(bytes.length);
+        return bytes;
     }
 
     /**
@@ -145,6 +237,21 @@ public class ByteSource {
         return fileName;
     }
 
+    /**
+     * Gets the first bytes of the source. Each call reads them again, except from {@link #cached(ByteSource) cached} sources, which serve them from their
+     * pages.
+     *
+     * @return the first {@link #HEADER_SIZE} bytes of the source, or all of them if the source is shorter.
+     * @throws IOException if an I/O error occurs.
+     * @since 1.0.0-alpha7
+     */
+    public byte[] getHeader() throws IOException {
+        try (InputStream is = getInputStream()) {
+            final byte[] buffer = new byte[HEADER_SIZE];
+            return Arrays.copyOf(buffer, IOUtils.read(is, buffer));
+        }
+    }
+
     /**
      * Gets an input stream.
      *
@@ -152,7 +259,33 @@ public class ByteSource {
      * @throws IOException if an I/O error occurs.
      */
     public InputStream getInputStream() throws IOException {
-        return origin.getInputStream();
+        return Metrics.count(origin.getInputStream());
+    }
+
+    /**
+     * Gets the state a parser keeps for this source across calls, such as the index of its segments, creating it on first use.
+     * <p>
+     * Only the {@link #cached(ByteSource) cached} sources keep parser state, since they already assume that their content does not change while they are in
+     * use. Other sources keep none, and parsers read them without state.
+     * </p>
+     *
+     * @param <T>     the type of the state.
+     * @param type    the class of the state, which identifies it.
+     * @param factory creates the state.
+     * @return the state, or null if this source keeps none.
+     * @since 1.0.0-alpha7
+     */
+    public <T> T getParserState(final Class<T> type, final Supplier<T> factory) {
+        return null;
+    }
+
+    /**
+     * Gets the origin, for the sources that decorate this one.
+     *
+     * @return the origin.
+     */
+    final AbstractOrigin<?, ?> getOrigin() {
+        return origin;
     }
 
     /**
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.bytesource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Objects;
+
+import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.common.Allocator;
+import org.apache.commons.imaging.internal.Metrics;
+import org.apache.commons.io.build.AbstractOrigin.InputStreamOrigin;
+
+/**
+ * A byte source that reads a seekable channel, such as a file or object store channel, through a cache of recently read pages. A read that misses the cache
+ * reads every page it spans and a window of readahead pages in one call to the channel, so the nearby reads of a parser, such as a TIFF directory and the tag
+ * values after it, are coalesced into a single round-trip. Reads longer than a quarter of the cache, such as strips and tiles, go to the channel directly and
+ * leave the cached pages in place.
+ */
+final class ChannelByteSource extends ByteSource {
+
+    /**
+     * The default size of the pages read from a channel.
+     */
+    static final int DEFAULT_PAGE_SIZE = 16 * 1024;
+
+    /**
+     * The default number of pages read after the ones a missed read spans.
+     */
+    static final int DEFAULT_READAHEAD = 3;
+
+    /**
+     * The default number of pages kept.
+     */
+    static final int DEFAULT_MAX_PAGES = 64;
+
+    private final SeekableByteChannel channel;
+    private final PageCache cache;
+    private final long bypassLength;
+
+    ChannelByteSource(final SeekableByteChannel channel, final String fileName) {
+        this(channel, fileName, DEFAULT_PAGE_SIZE, DEFAULT_READAHEAD, DEFAULT_MAX_PAGES);
+    }
+
+    ChannelByteSource(final SeekableByteChannel channel, final String fileName, final int pageSize, final int readahead, final int maxPages) {
+        super(new InputStreamOrigin(Channels.newInputStream(Objects.requireNonNull(channel, "channel"))), fileName);
+        this.channel = channel;
+        this.cache = new PageCache(pageSize, maxPages, readahead, this::read);
+        this.bypassLength = (long) pageSize * maxPages / 4;
+    }
+
+    @Override
+    public byte[] getByteArray(final long position, final int length) throws IOException {
+        // We include a separate check for int overflow.
+        if (position < 0 || length < 0 || position + length < 0) {
+            throw new ImagingException("Could not read block (block start: " + position + ", block length: " + length + ").");
+        }
+        final byte[] bytes = Allocator.byteArray(length);
+        final int read = length > bypassLength ? read(position, bytes, 0, length) : cache.read(position, bytes, 0, length);
+        if (read < length) {
+            throw new ImagingException("Could not read block (block start: " + position + ", block length: " + length + ", data length: " + size() + ").");
+        }
+        Metrics.read(length);
+        return bytes;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Metrics.count(cache.newInputStream());
+    }
+
+    /**
+     * Reads the channel at a position; the channel is shared, so its position is set and read under its lock.
+     */
+    private int read(final long position, final byte[] buffer, final int offset, final int length) throws IOException {
+        final ByteBuffer target = ByteBuffer.wrap(buffer, offset, length);
+        synchronized (channel) {
+            channel.position(position);
+            while (target.hasRemaining()) {
+                if (channel.read(target) < 0) {
+                    break;
+                }
+            }
+        }
+        return target.position() - offset;
+    }
+
+    @Override
+    public long size() throws IOException {
+        synchronized (channel) {
+            return channel.size();
+        }
+    }
+}
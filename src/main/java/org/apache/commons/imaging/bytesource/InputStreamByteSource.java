@@ -14,79 +14,60 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package org.apache.commons.imaging.bytesource;
 
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
 import org.apache.commons.imaging.ImagingException;
 import org.apache.commons.imaging.common.Allocator;
-import org.apache.commons.imaging.common.BinaryFunctions;
+import org.apache.commons.imaging.internal.Metrics;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.build.AbstractOrigin.InputStreamOrigin;
 
+/**
+ * A byte source that buffers a stream as it is read, in blocks of equal size kept in an indexed list so that any position is found in constant time. Once
+ * more than a threshold of bytes are buffered, further blocks are spilled to a temporary file, deleted when the source is closed.
+ */
 final class InputStreamByteSource extends ByteSource {
 
-    /**
-     * A block of bytes (a byte array).
-     */
-    private final class Block {
-
-        final byte[] bytes;
-        private Block next;
-        private boolean triedNext;
+    private final class BlockInputStream extends InputStream {
 
-        Block(final byte[] bytes) {
-            this.bytes = Objects.requireNonNull(bytes);
-        }
+        private long position;
+        /** The block that holds the position, or null. */
+        private byte[] block;
+        private int blockIndex = -1;
 
-        Block getNext() throws IOException {
-            if (next != null) {
-                return next;
+        /**
+         * Gets the block that holds the position.
+         *
+         * @return the block, or null at the end of the stream.
+         */
+        private byte[] currentBlock() throws IOException {
+            final int index = (int) (position / blockSize);
+            if (index != blockIndex) {
+                block = getBlock(index);
+                blockIndex = index;
             }
-            if (triedNext) {
-                return null;
-            }
-            triedNext = true;
-            next = readBlock();
-            return next;
+            return block != null && position - (long) index * blockSize < block.length ? block : null;
         }
 
-        int length() {
-            return bytes.length;
-        }
-    }
-
-    private final class BlockInputStream extends InputStream {
-
-        private Block block;
-        private boolean readFirst;
-        private int blockIndex;
-
         @Override
         public int read() throws IOException {
-            if (block == null) {
-                if (readFirst) {
-                    return -1;
-                }
-                block = getFirstBlock();
-                readFirst = true;
-            }
-            if (block != null && blockIndex >= block.length()) {
-                block = block.getNext();
-                blockIndex = 0;
-            }
-            if (block == null) {
+            final byte[] current = currentBlock();
+            if (current == null) {
                 return -1;
             }
-            if (blockIndex >= block.length()) {
-                return -1;
-            }
-            return 0xff & block.bytes[blockIndex++];
+            return 0xff & current[(int) (position++ % blockSize)];
         }
 
         @Override
@@ -98,130 +79,180 @@ final class InputStreamByteSource extends ByteSource {
             if (len == 0) {
                 return 0;
             }
-            // optimized block read
-            if (block == null) {
-                if (readFirst) {
-                    return -1;
-                }
-                block = getFirstBlock();
-                readFirst = true;
-            }
-            if (block != null && blockIndex >= block.length()) {
-                block = block.getNext();
-                blockIndex = 0;
-            }
-            if (block == null) {
-                return -1;
-            }
-            if (blockIndex >= block.length()) {
+            final byte[] current = currentBlock();
+            if (current == null) {
                 return -1;
             }
-            final int readSize = Math.min(len, block.length() - blockIndex);
-            System.arraycopy(block.bytes, blockIndex, array, off, readSize);
-            blockIndex += readSize;
+            final int offset = (int) (position % blockSize);
+            final int readSize = Math.min(len, current.length - offset);
+            System.arraycopy(current, offset, array, off, readSize);
+            position += readSize;
             return readSize;
         }
 
         @Override
         public long skip(final long n) throws IOException {
-            long remaining = n;
             if (n <= 0) {
                 return 0;
             }
-            while (remaining > 0) {
-                // read the first block
-                if (block == null) {
-                    if (readFirst) {
-                        return -1;
-                    }
-                    block = getFirstBlock();
-                    readFirst = true;
-                }
-                // get next block
-                if (block != null && blockIndex >= block.length()) {
-                    block = block.getNext();
-                    blockIndex = 0;
-                }
-                if (block == null) {
-                    break;
-                }
-                if (blockIndex >= block.length()) {
-                    break;
-                }
-                final int readSize = Math.min((int) Math.min(BLOCK_SIZE, remaining), block.length() - blockIndex);
-                blockIndex += readSize;
-                remaining -= readSize;
-            }
-            return n - remaining;
+            final long skipped = bufferTo(n > Long.MAX_VALUE - position ? Long.MAX_VALUE : position + n) - position;
+            position += skipped;
+            return skipped;
         }
     }
 
-    private static final int BLOCK_SIZE = IOUtils.DEFAULT_BUFFER_SIZE;
+    /**
+     * The default size of the blocks a stream is buffered in.
+     */
+    static final int DEFAULT_BLOCK_SIZE = IOUtils.DEFAULT_BUFFER_SIZE;
+
     private final InputStream inputStream;
-    private final Block headBlock;
-    //private byte[] readBuffer;
-    private long streamLength = -1;
+    private final int blockSize;
+    private final long spillThreshold;
+    /** The blocks kept in memory, every block but the last of the stream is full. */
+    private final List<byte[]> blocks = new ArrayList<>();
+    /** The blocks after the ones in memory, or null while none are spilled. */
+    private FileChannel spill;
+    private int spilledBlocks;
+    /** The length of the last spilled block. */
+    private int lastSpilledLength;
+    /** The number of bytes buffered. */
+    private long buffered;
+    private boolean endOfStream;
 
     InputStreamByteSource(final InputStream inputStream, final String fileName) throws IOException {
+        this(inputStream, fileName, DEFAULT_BLOCK_SIZE, Long.MAX_VALUE);
+    }
+
+    InputStreamByteSource(final InputStream inputStream, final String fileName, final int blockSize, final long spillThreshold) throws IOException {
         super(new InputStreamOrigin(inputStream), fileName);
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Invalid block size: " + blockSize);
+        }
+        if (spillThreshold < 0) {
+            throw new IllegalArgumentException("Invalid spill threshold: " + spillThreshold);
+        }
         this.inputStream = new BufferedInputStream(inputStream);
-        headBlock = readBlock();
+        this.blockSize = blockSize;
+        this.spillThreshold = spillThreshold;
+        readBlock();
+    }
+
+    /**
+     * Buffers the stream up to a position.
+     *
+     * @param position the position.
+     * @return the position, or the length of the stream if it ends before.
+     */
+    private synchronized long bufferTo(final long position) throws IOException {
+        while (buffered < position && readBlock()) {
+            // keep reading
+        }
+        return Math.min(position, buffered);
+    }
+
+    /**
+     * Stops buffering the stream, which is left open for its owner, and deletes the temporary file of spilled blocks.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        endOfStream = true;
+        if (spill != null) {
+            spill.close();
+        }
+    }
+
+    /**
+     * Gets a block, buffering the stream up to it.
+     *
+     * @param index the block index.
+     * @return the block, or null if the stream ends before it.
+     */
+    private synchronized byte[] getBlock(final int index) throws IOException {
+        while (index >= blocks.size() + spilledBlocks && readBlock()) {
+            // keep reading
+        }
+        if (index < blocks.size()) {
+            return blocks.get(index);
+        }
+        final int spilled = index - blocks.size();
+        if (spilled >= spilledBlocks) {
+            return null;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(spilled == spilledBlocks - 1 ? lastSpilledLength : blockSize);
+        final long offset = (long) spilled * blockSize;
+        while (buffer.hasRemaining()) {
+            if (spill.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Spilled block " + index + " is truncated");
+            }
+        }
+        return buffer.array();
     }
 
-    @SuppressWarnings("resource") // accesses input stream more than once, don't close here.
     @Override
     public byte[] getByteArray(final long position, final int length) throws IOException {
         // We include a separate check for int overflow.
-        if (position < 0 || length < 0 || position + length < 0 || position + length > size()) {
-            throw new ImagingException(
-                    "Could not read block (block start: " + position + ", block length: " + length + ", data length: " + streamLength + ").");
+        if (position < 0 || length < 0 || position + length < 0 || bufferTo(position + length) < position + length) {
+            throw new ImagingException("Could not read block (block start: " + position + ", block length: " + length + ", data length: " + buffered + ").");
         }
-        final InputStream cis = getInputStream();
-        BinaryFunctions.skipBytes(cis, position);
         final byte[] bytes = Allocator.byteArray(length);
         int total = 0;
-        while (true) {
-            final int read = cis.read(bytes, total, bytes.length - total);
-            if (read < 1) {
-                throw new ImagingException("Could not read block.");
-            }
-            total += read;
-            if (total >= length) {
-                return bytes;
-            }
+        while (total < length) {
+            final long offset = position + total;
+            final byte[] block = getBlock((int) (offset / blockSize));
+            final int blockOffset = (int) (offset % blockSize);
+            final int count = Math.min(length - total, block.length - blockOffset);
+            System.arraycopy(block, blockOffset, bytes, total, count);
+            total += count;
         }
-    }
-
-    private Block getFirstBlock() throws IOException {
-        return headBlock;
+        Metrics.read(length);
+        return bytes;
     }
 
     @Override
     public InputStream getInputStream() throws IOException {
-        return new BlockInputStream();
+        return Metrics.count(new BlockInputStream());
     }
 
-    private Block readBlock() throws IOException {
-        final byte[] readBuffer = new byte[BLOCK_SIZE];
-        final int read = inputStream.read(readBuffer);
-        if (read < 1) {
-            return null;
+    /**
+     * Reads the next block of the stream, in memory or in the spill file once the threshold is passed.
+     *
+     * @return whether a block was read.
+     */
+    private boolean readBlock() throws IOException {
+        if (endOfStream) {
+            return false;
         }
+        final byte[] readBuffer = new byte[blockSize];
+        final int read = IOUtils.read(inputStream, readBuffer);
         if (read < readBuffer.length) {
-            // return a copy.
-            return new Block(Arrays.copyOf(readBuffer, read));
+            endOfStream = true;
+        }
+        if (read < 1) {
+            return false;
+        }
+        final byte[] block = read < readBuffer.length ? Arrays.copyOf(readBuffer, read) : readBuffer;
+        if (buffered + read > spillThreshold || spill != null) {
+            if (spill == null) {
+                spill = FileChannel.open(Files.createTempFile("imaging-", ".tmp"), StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.DELETE_ON_CLOSE);
+            }
+            final ByteBuffer buffer = ByteBuffer.wrap(block);
+            final long offset = (long) spilledBlocks * blockSize;
+            while (buffer.hasRemaining()) {
+                spill.write(buffer, offset + buffer.position());
+            }
+            spilledBlocks++;
+            lastSpilledLength = read;
+        } else {
+            blocks.add(block);
         }
-        // return current buffer.
-        return new Block(readBuffer);
+        buffered += read;
+        return true;
     }
 
     @Override
     public long size() throws IOException {
-        if (streamLength >= 0) {
-            return streamLength;
-        }
-        try (InputStream cis = getInputStream()) {
-            return streamLength = IOUtils.consume(cis);
-        }
+        return bufferTo(Long.MAX_VALUE);
     }
 }
@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.bytesource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A bounded, least recently used cache of the fixed-size pages of a source. A read that misses loads every missing page it spans, and a number of readahead
+ * pages after them, with a single read of the source, so that nearby reads are served by one round-trip. The cache may be shared by threads.
+ */
+final class PageCache {
+
+    /**
+     * Reads the bytes of a source.
+     */
+    @FunctionalInterface
+    interface Reader {
+
+        /**
+         * Reads bytes at a position of the source.
+         *
+         * @param position the position.
+         * @param buffer   receives the bytes.
+         * @param offset   the offset in the buffer.
+         * @param length   the number of bytes to read.
+         * @return the number of bytes read, less than the length only if the source ends first.
+         * @throws IOException if an I/O error occurs.
+         */
+        int read(long position, byte[] buffer, int offset, int length) throws IOException;
+    }
+
+    /**
+     * Reads the source from the start, through the cache.
+     */
+    private final class PageInputStream extends InputStream {
+
+        private long position;
+
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            return read(b, 0, 1) < 1 ? -1 : 0xff & b[0];
+        }
+
+        @Override
+        public int read(final byte[] array, final int off, final int len) throws IOException {
+            Objects.requireNonNull(array, "array");
+            if (off < 0 || len < 0 || off + len > array.length || off + len < 0) {
+                throw new IndexOutOfBoundsException();
+            }
+            if (len == 0) {
+                return 0;
+            }
+            final int read = PageCache.this.read(position, array, off, len);
+            if (read < 1) {
+                return -1;
+            }
+            position += read;
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            if (n <= 0) {
+                return 0;
+            }
+            final long end = getLength();
+            final long skipped = end < 0 ? n : Math.max(0, Math.min(n, end - position));
+            position += skipped;
+            return skipped;
+        }
+    }
+
+    private final int pageSize;
+    private final int maxPages;
+    private final int readahead;
+    private final Reader reader;
+    /** The cached pages by index, in access order; only the last page of the source is shorter than the page size. */
+    private final LinkedHashMap<Long, byte[]> pages;
+    /** The length of the source, or -1 until a read finds its end. */
+    private volatile long length = -1;
+
+    /**
+     * Constructs a page cache.
+     *
+     * @param pageSize  the size of a page.
+     * @param maxPages  the number of pages kept.
+     * @param readahead the number of pages read after the ones a missed read spans.
+     * @param reader    reads the source.
+     * @throws IllegalArgumentException if the page size or number of pages is not positive, or readahead is negative.
+     */
+    PageCache(final int pageSize, final int maxPages, final int readahead, final Reader reader) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page size: " + pageSize);
+        }
+        if (maxPages <= 0) {
+            throw new IllegalArgumentException("Invalid number of pages: " + maxPages);
+        }
+        if (readahead < 0) {
+            throw new IllegalArgumentException("Invalid readahead: " + readahead);
+        }
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.readahead = readahead;
+        this.reader = Objects.requireNonNull(reader, "reader");
+        this.pages = new LinkedHashMap<Long, byte[]>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, byte[]> eldest) {
+                return size() > PageCache.this.maxPages;
+            }
+        };
+    }
+
+    private synchronized boolean contains(final long index) {
+        return pages.containsKey(index);
+    }
+
+    private synchronized byte[] get(final long index) {
+        return pages.get(index);
+    }
+
+    /**
+     * Gets the length of the source, if a read has found its end.
+     *
+     * @return the length, or -1 if it is not known yet.
+     */
+    long getLength() {
+        return length;
+    }
+
+    /**
+     * Loads the missing pages from one to another, and the readahead pages after them, in a single read.
+     *
+     * @param first the first page, which is missing.
+     * @param last  the last page the read needs.
+     * @return the first page.
+     */
+    private byte[] load(final long first, final long last) throws IOException {
+        // the pages read at once are held by the cache, so never more of them than it keeps
+        final long limit = Math.min(last + readahead, first + maxPages - 1);
+        long end = first + 1;
+        while (end <= limit && !contains(end)) {
+            end++;
+        }
+        final long known = length;
+        if (known >= 0) {
+            end = Math.max(first + 1, Math.min(end, (known + pageSize - 1) / pageSize));
+        }
+        final byte[] buffer = new byte[Math.toIntExact((end - first) * pageSize)];
+        final int read = reader.read(first * pageSize, buffer, 0, buffer.length);
+        if (read < buffer.length) {
+            length = first * pageSize + Math.max(read, 0);
+        }
+        byte[] firstPage = null;
+        synchronized (this) {
+            for (long index = first; index < end; index++) {
+                final int from = (int) ((index - first) * pageSize);
+                final int to = Math.min(from + pageSize, Math.max(read, 0));
+                if (to <= from && index > first) {
+                    break;
+                }
+                final byte[] page = new byte[Math.max(to - from, 0)];
+                System.arraycopy(buffer, from, page, 0, page.length);
+                pages.put(index, page);
+                if (index == first) {
+                    firstPage = page;
+                }
+            }
+        }
+        return firstPage;
+    }
+
+    /**
+     * Creates a stream that reads the source from the start through the cache.
+     *
+     * @return the stream.
+     */
+    InputStream newInputStream() {
+        return new PageInputStream();
+    }
+
+    /**
+     * Reads bytes at a position of the source through the cache.
+     *
+     * @param position the position.
+     * @param buffer   receives the bytes.
+     * @param offset   the offset in the buffer.
+     * @param count    the number of bytes to read.
+     * @return the number of bytes read, less than the count only if the source ends first.
+     * @throws IOException if an I/O error occurs.
+     */
+    int read(final long position, final byte[] buffer, final int offset, final int count) throws IOException {
+        final long last = (position + count - 1) / pageSize;
+        int total = 0;
+        while (total < count) {
+            final long current = position + total;
+            final long known = length;
+            if (known >= 0 && current >= known) {
+                break;
+            }
+            final long index = current / pageSize;
+            byte[] page = get(index);
+            if (page == null) {
+                page = load(index, last);
+            }
+            final int pageOffset = (int) (current % pageSize);
+            if (pageOffset >= page.length) {
+                break;
+            }
+            final int copied = Math.min(count - total, page.length - pageOffset);
+            System.arraycopy(page, pageOffset, buffer, offset + total, copied);
+            total += copied;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.bytesource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.common.Allocator;
+import org.apache.commons.imaging.internal.Metrics;
+
+/**
+ * A byte source that keeps the pages of another source it has read in a bounded, least recently used cache, so that the header, directory and segment reads
+ * repeated by successive parser calls are served from memory. Reads longer than a quarter of the cache, such as image data, bypass it and leave the cached
+ * pages in place. The source also keeps the state parsers build for it, such as segment and chunk indexes.
+ */
+final class PageCachedByteSource extends ByteSource {
+
+    /**
+     * The default size of the cached pages.
+     */
+    static final int DEFAULT_PAGE_SIZE = 4096;
+
+    /**
+     * The default number of cached pages.
+     */
+    static final int DEFAULT_MAX_PAGES = 256;
+
+    private final ByteSource source;
+    private final PageCache cache;
+    private final long bypassLength;
+    private final ConcurrentHashMap<Class<?>, Object> parserStates = new ConcurrentHashMap<>();
+    /** The size of the source, or -1 until it is read. */
+    private volatile long size = -1;
+
+    PageCachedByteSource(final ByteSource source, final int pageSize, final int maxPages) {
+        super(Objects.requireNonNull(source, "source").getOrigin(), source.getFileName());
+        this.source = source;
+        this.cache = new PageCache(pageSize, maxPages, 0, this::read);
+        this.bypassLength = (long) pageSize * maxPages / 4;
+    }
+
+    /**
+     * Closes the cached source.
+     */
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    @Override
+    public byte[] getByteArray(final long position, final int length) throws IOException {
+        if (length > bypassLength) {
+            return source.getByteArray(position, length);
+        }
+        // We include a separate check for int overflow.
+        if (position < 0 || length < 0 || position + length < 0) {
+            throw new ImagingException("Could not read block (block start: " + position + ", block length: " + length + ").");
+        }
+        final byte[] bytes = Allocator.byteArray(length);
+        if (cache.read(position, bytes, 0, length) < length) {
+            throw new ImagingException("Could not read block (block start: " + position + ", block length: " + length + ", data length: " + size() + ").");
+        }
+        Metrics.read(length);
+        return bytes;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Metrics.count(cache.newInputStream());
+    }
+
+    @Override
+    public <T> T getParserState(final Class<T> type, final Supplier<T> factory) {
+        return type.cast(parserStates.computeIfAbsent(type, k -> factory.get()));
+    }
+
+    /**
+     * Reads the cached source at a position.
+     */
+    private int read(final long position, final byte[] buffer, final int offset, final int length) throws IOException {
+        final int count = (int) Math.max(0, Math.min(length, size() - position));
+        if (count > 0) {
+            System.arraycopy(source.getByteArray(position, count), 0, buffer, offset, count);
+        }
+        return count;
+    }
+
+    @Override
+    public long size() throws IOException {
+        long result = size;
+        if (result < 0) {
+            result = source.size();
+            size = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A memory budget charged by every {@link Allocator} request sized in bytes made by the current thread while the budget is open.
+ * <p>
+ * Where {@link Allocator} caps each array, a budget caps their sum, so that a single image cannot exhaust the memory of a process running many decodes
+ * concurrently. A request that would take the bytes in use over the limit fails with an {@link AllocationBudgetException} before anything is allocated.
+ * Memory reclaimed by the garbage collector is not credited back, only leased arrays when their lease is closed, so the bytes in use are an upper bound of
+ * the memory held by the operation.
+ * </p>
+ * <p>
+ * Budgets nest: an allocation is charged to the current budget and to the budgets that were open when it was opened.
+ * </p>
+ *
+ * <pre>
+ * try (AllocationBudget budget = AllocationBudget.open(256 * 1024 * 1024)) {
+ *     image = Imaging.getBufferedImage(file);
+ *     LOG.fine("peak: " + budget.getPeak());
+ * }
+ * </pre>
+ *
+ * @since 1.0.0-alpha7
+ */
+public final class AllocationBudget implements AutoCloseable {
+
+    private static final ThreadLocal<AllocationBudget> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Charges the current budget, if any.
+     *
+     * @param bytes the requested bytes.
+     * @throws AllocationBudgetException if a budget would be exceeded.
+     */
+    static void charge(final long bytes) {
+        final AllocationBudget budget = CURRENT.get();
+        if (budget != null) {
+            budget.acquire(bytes);
+        }
+    }
+
+    /**
+     * Gets the budget of the current thread.
+     *
+     * @return the innermost open budget, or null.
+     */
+    public static AllocationBudget current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Opens a budget for the current thread, until it is closed.
+     *
+     * @param limit the maximum bytes in use.
+     * @return the new budget.
+     * @throws IllegalArgumentException if the limit is negative.
+     */
+    public static AllocationBudget open(final long limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Negative allocation budget: " + limit);
+        }
+        final AllocationBudget budget = new AllocationBudget(limit, CURRENT.get());
+        CURRENT.set(budget);
+        return budget;
+    }
+
+    private final long limit;
+    private final AllocationBudget parent;
+    private final AtomicLong used = new AtomicLong();
+    private final AtomicLong peak = new AtomicLong();
+
+    private AllocationBudget(final long limit, final AllocationBudget parent) {
+        this.limit = limit;
+        this.parent = parent;
+    }
+
+    /**
+     * Charges this budget and its parents.
+     */
+    void acquire(final long bytes) {
+        final long inUse = used.addAndGet(bytes);
+        if (inUse > limit) {
+            used.addAndGet(-bytes);
+            throw new AllocationBudgetException(limit, inUse - bytes, bytes);
+        }
+        if (parent != null) {
+            try {
+                parent.acquire(bytes);
+            } catch (final AllocationBudgetException e) {
+                used.addAndGet(-bytes);
+                throw e;
+            }
+        }
+        peak.accumulateAndGet(inUse, Math::max);
+    }
+
+    /**
+     * Closes this budget: allocations of the current thread are no longer charged to it. The usage figures remain available.
+     */
+    @Override
+    public void close() {
+        if (CURRENT.get() == this) {
+            if (parent != null) {
+                CURRENT.set(parent);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Gets the maximum bytes in use.
+     *
+     * @return the limit in bytes.
+     */
+    public long getLimit() {
+        return limit;
+    }
+
+    /**
+     * Gets the highest number of bytes in use so far.
+     *
+     * @return the peak usage in bytes.
+     */
+    public long getPeak() {
+        return peak.get();
+    }
+
+    /**
+     * Gets the bytes in use.
+     *
+     * @return the bytes charged and not yet released.
+     */
+    public long getUsed() {
+        return used.get();
+    }
+
+    /**
+     * Credits this budget and its parents with bytes no longer in use.
+     */
+    void release(final long bytes) {
+        for (AllocationBudget budget = this; budget != null; budget = budget.parent) {
+            budget.used.addAndGet(-bytes);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.common;
+
+import java.math.BigInteger;
+
+/**
+ * Thrown when an allocation would exceed the {@link AllocationBudget} of the current operation.
+ *
+ * @since 1.0.0-alpha7
+ */
+public class AllocationBudgetException extends AllocationRequestException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The budget limit in bytes. */
+    private final long budget;
+
+    /** The bytes in use when the request was made. */
+    private final long used;
+
+    /**
+     * Constructs a new instance.
+     *
+     * @param budget  The budget limit in bytes.
+     * @param used    The bytes in use when the request was made.
+     * @param request The requested bytes.
+     */
+    public AllocationBudgetException(final long budget, final long used, final long request) {
+        super(String.format("Allocation budget %,d exceeded: %,d in use, %,d requested", budget, used, request), (int) Math.min(budget, Integer.MAX_VALUE),
+                BigInteger.valueOf(request));
+        this.budget = budget;
+        this.used = used;
+    }
+
+    /**
+     * Gets the budget limit.
+     *
+     * @return the budget limit in bytes.
+     */
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Gets the bytes in use when the request was made.
+     *
+     * @return the bytes in use.
+     */
+    public long getUsed() {
+        return used;
+    }
+}
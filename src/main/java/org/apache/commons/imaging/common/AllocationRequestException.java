@@ -86,6 +86,20 @@ public class AllocationRequestException extends ImagingRuntimeException {
         this(limit, BigInteger.valueOf(request), throwable);
     }
 
+    /**
+     * Constructs a new instance with a custom message.
+     *
+     * @param message The detail message.
+     * @param limit   The allocation limit.
+     * @param request The allocation request.
+     * @since 1.0.0-alpha7
+     */
+    protected AllocationRequestException(final String message, final int limit, final BigInteger request) {
+        super(message);
+        this.limit = limit;
+        this.request = request;
+    }
+
     /**
      * Gets the allocation limit.
      *
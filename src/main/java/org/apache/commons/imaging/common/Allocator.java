@@ -21,6 +21,8 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.function.IntFunction;
 
+import org.apache.commons.imaging.internal.Metrics;
+
 /**
  * Checks inputs for meeting allocation limits and allocates arrays.
  */
@@ -59,11 +61,10 @@ public final class Allocator {
      * @param eltShallowByteSize The shallow byte size of an element.
      * @return a new byte array.
      * @throws AllocationRequestException Thrown when the request exceeds the limit.
-     * @see #check(int)
+     * @see #check(int, int)
      */
     public static <T> T[] array(final int request, final IntFunction<T[]> factory, final int eltShallowByteSize) {
-        check(request * eltShallowByteSize);
-        return factory.apply(request);
+        return factory.apply(check(request, eltShallowByteSize));
     }
 
     /**
@@ -73,11 +74,10 @@ public final class Allocator {
      * @param request The requested size.
      * @return a new byte array.
      * @throws AllocationRequestException Thrown when the request exceeds the limit.
-     * @see #check(int)
+     * @see #check(int, int)
      */
     public static <T> ArrayList<T> arrayList(final int request) {
-        check(24 + request * 4); // 4 bytes per element
-        return apply(request, ArrayList::new);
+        return new ArrayList<>(check(request, 4)); // 4 bytes per element
     }
 
     /**
@@ -121,6 +121,10 @@ public final class Allocator {
      * <p>
      * The default limit is {@code #DEFAULT}, override with the system property "org.apache.commons.imaging.common.mylzw.AllocationChecker".
      * </p>
+     * <p>
+     * The request is an element count, so it is neither charged to the current {@link AllocationBudget} nor counted in the allocated bytes of the imaging
+     * metrics, which count bytes; use {@link #check(int, int)} for that.
+     * </p>
      *
      * @param request an allocation request.
      * @return the request.
@@ -154,6 +158,10 @@ public final class Allocator {
         if (multiplyExact > LIMIT) {
             throw new AllocationRequestException(LIMIT, request);
         }
+        if (multiplyExact > 0) {
+            AllocationBudget.charge(multiplyExact);
+            Metrics.allocated(multiplyExact);
+        }
         return request;
     }
 
@@ -222,6 +230,32 @@ public final class Allocator {
         return new int[check(request, Integer.BYTES)];
     }
 
+    /**
+     * Leases a pooled scratch byte array of at least the requested size. The array content is undefined; close the lease to return the array to the pool.
+     *
+     * @param request The requested size.
+     * @return a lease on a byte array.
+     * @throws AllocationRequestException Thrown when the request exceeds the limit.
+     * @see #check(int, int)
+     * @since 1.0.0-alpha7
+     */
+    public static ArrayLease<byte[]> leaseByteArray(final int request) {
+        return ArrayPool.BYTES.lease(check(request, Byte.BYTES));
+    }
+
+    /**
+     * Leases a pooled scratch int array of at least the requested size. The array content is undefined; close the lease to return the array to the pool.
+     *
+     * @param request The requested size.
+     * @return a lease on an int array.
+     * @throws AllocationRequestException Thrown when the request exceeds the limit.
+     * @see #check(int, int)
+     * @since 1.0.0-alpha7
+     */
+    public static ArrayLease<int[]> leaseIntArray(final int request) {
+        return ArrayPool.INTS.lease(check(request, Integer.BYTES));
+    }
+
     /**
      * Allocates a long array of the requested size.
      *
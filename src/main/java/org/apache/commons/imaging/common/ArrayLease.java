@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.common;
+
+/**
+ * A pooled array on loan from {@link Allocator}, returned to the pool when closed.
+ * <p>
+ * The array may be longer than requested and its content is undefined: callers must track the length they asked for and write before reading. The array
+ * must not be used once the lease is closed.
+ * </p>
+ * <p>
+ * Closing the lease credits the requested bytes back to the {@link AllocationBudget} that was current when the array was leased.
+ * </p>
+ *
+ * <pre>
+ * try (ArrayLease&lt;byte[]&gt; lease = Allocator.leaseByteArray(length)) {
+ *     final byte[] buffer = lease.get();
+ *     ...
+ * }
+ * </pre>
+ *
+ * @param <A> the array type.
+ * @since 1.0.0-alpha7
+ */
+public final class ArrayLease<A> implements AutoCloseable {
+
+    private final ArrayPool<A> pool;
+    private final AllocationBudget budget;
+    private final long charged;
+    private A array;
+
+    ArrayLease(final ArrayPool<A> pool, final A array, final long charged) {
+        this.pool = pool;
+        this.array = array;
+        this.budget = AllocationBudget.current();
+        this.charged = charged;
+    }
+
+    /**
+     * Returns the array to the pool. Closing a lease more than once has no effect.
+     */
+    @Override
+    public void close() {
+        if (array != null) {
+            pool.release(array);
+            array = null;
+            if (budget != null) {
+                budget.release(charged);
+            }
+        }
+    }
+
+    /**
+     * Gets the leased array.
+     *
+     * @return the array, at least as long as requested.
+     * @throws IllegalStateException if the lease is closed.
+     */
+    public A get() {
+        if (array == null) {
+            throw new IllegalStateException("The lease is closed");
+        }
+        return array;
+    }
+}
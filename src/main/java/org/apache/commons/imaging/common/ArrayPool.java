@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.common;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Pool of scratch arrays, sorted in power of two size classes.
+ * <p>
+ * A released array is first kept by the releasing thread if it is small, then in a pool shared by all threads and bounded in bytes; arrays that do not fit
+ * are left to the garbage collector. The bound is set in bytes by the system property "org.apache.commons.imaging.common.ArrayPool", zero disabling
+ * pooling.
+ * </p>
+ *
+ * @param <A> the array type.
+ */
+final class ArrayPool<A> {
+
+    private static final String CANONICAL_NAME = ArrayPool.class.getCanonicalName();
+
+    /** 32 MB. */
+    private static final long DEFAULT_CAPACITY = 32L << 20;
+
+    /** Bytes that the shared pools may hold. */
+    private static final long CAPACITY = Long.getLong(CANONICAL_NAME, DEFAULT_CAPACITY);
+
+    /** Bytes held by the shared pools. */
+    private static final AtomicLong SHARED_BYTES = new AtomicLong();
+
+    /** The smallest size class holds 2^MIN_SHIFT elements; smaller requests are served from it. */
+    private static final int MIN_SHIFT = 10;
+
+    /** The largest size class holds 2^MAX_SHIFT elements; larger requests are not pooled. */
+    private static final int MAX_SHIFT = 24;
+
+    /** Arrays up to this size in bytes are kept by the thread releasing them, one per size class. */
+    private static final int THREAD_LOCAL_MAX_BYTES = 16 << 10;
+
+    static final ArrayPool<byte[]> BYTES = new ArrayPool<>(byte[]::new, a -> a.length, Byte.BYTES);
+
+    static final ArrayPool<int[]> INTS = new ArrayPool<>(int[]::new, a -> a.length, Integer.BYTES);
+
+    /**
+     * Gets the size class holding arrays of at least the given length.
+     *
+     * @return the size class, or -1 if the length is not pooled.
+     */
+    private static int sizeClass(final int length) {
+        if (length < 0) {
+            return -1;
+        }
+        if (length <= 1 << MIN_SHIFT) {
+            return 0;
+        }
+        final int shift = 32 - Integer.numberOfLeadingZeros(length - 1);
+        return shift <= MAX_SHIFT ? shift - MIN_SHIFT : -1;
+    }
+
+    private final IntFunction<A> factory;
+    private final ToIntFunction<A> lengthFunction;
+    private final int elementSize;
+    /** Number of size classes kept per thread. */
+    private final int localClasses;
+    private final ThreadLocal<Object[]> local;
+    private final List<ArrayDeque<A>> shared;
+
+    private ArrayPool(final IntFunction<A> factory, final ToIntFunction<A> lengthFunction, final int elementSize) {
+        this.factory = factory;
+        this.lengthFunction = lengthFunction;
+        this.elementSize = elementSize;
+        this.localClasses = 32 - Integer.numberOfLeadingZeros(THREAD_LOCAL_MAX_BYTES / elementSize) - MIN_SHIFT;
+        this.local = ThreadLocal.withInitial(() -> new Object[localClasses]);
+        this.shared = new ArrayList<>(MAX_SHIFT - MIN_SHIFT + 1);
+        for (int i = MIN_SHIFT; i <= MAX_SHIFT; i++) {
+            shared.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Leases an array of at least the given length.
+     *
+     * @param length the checked length.
+     * @return the lease.
+     */
+    ArrayLease<A> lease(final int length) {
+        final int sizeClass = CAPACITY > 0 ? sizeClass(length) : -1;
+        if (sizeClass < 0) {
+            return new ArrayLease<>(this, factory.apply(length), (long) length * elementSize);
+        }
+        A array = null;
+        if (sizeClass < localClasses) {
+            final Object[] cache = local.get();
+            @SuppressWarnings("unchecked")
+            final A cached = (A) cache[sizeClass];
+            array = cached;
+            cache[sizeClass] = null;
+        }
+        if (array == null) {
+            final ArrayDeque<A> deque = shared.get(sizeClass);
+            synchronized (deque) {
+                array = deque.pollFirst();
+            }
+            if (array != null) {
+                SHARED_BYTES.addAndGet(-bytes(sizeClass));
+            }
+        }
+        if (array == null) {
+            array = factory.apply(1 << sizeClass + MIN_SHIFT);
+        }
+        return new ArrayLease<>(this, array, (long) length * elementSize);
+    }
+
+    private long bytes(final int sizeClass) {
+        return (long) elementSize << sizeClass + MIN_SHIFT;
+    }
+
+    void release(final A array) {
+        final int length = lengthFunction.applyAsInt(array);
+        final int sizeClass = sizeClass(length);
+        if (sizeClass < 0 || length != 1 << sizeClass + MIN_SHIFT) {
+            // not allocated by the pool
+            return;
+        }
+        if (sizeClass < localClasses) {
+            final Object[] cache = local.get();
+            if (cache[sizeClass] == null) {
+                cache[sizeClass] = array;
+                return;
+            }
+        }
+        final long bytes = bytes(sizeClass);
+        if (SHARED_BYTES.addAndGet(bytes) > CAPACITY) {
+            SHARED_BYTES.addAndGet(-bytes);
+            return;
+        }
+        final ArrayDeque<A> deque = shared.get(sizeClass);
+        synchronized (deque) {
+            deque.addFirst(array);
+        }
+    }
+}
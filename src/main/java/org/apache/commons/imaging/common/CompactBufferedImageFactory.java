@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.common;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Factory for creating buffered images with the smallest raster that holds the decoded pixels: opaque color images are {@link BufferedImage#TYPE_3BYTE_BGR}
+ * and opaque grayscale images {@link BufferedImage#TYPE_BYTE_GRAY}, which take three bytes and one byte per pixel instead of four. Images with an alpha
+ * channel are {@link BufferedImage#TYPE_INT_ARGB}.
+ * <p>
+ * Decoders that build their image pixel by pixel, such as BMP and PNM, and PNG decoders write the bytes of these rasters directly.
+ * </p>
+ * <p>
+ * Grayscale images are lossy: the JDK reads {@link BufferedImage#TYPE_BYTE_GRAY} samples as linear gray, so each sRGB gray level of the file is stored as
+ * the nearest linear sample. Read back with {@link BufferedImage#getRGB(int, int)}, only 183 of the 256 levels remain distinct and a level may shift by up
+ * to 6. Use the default factory when the gray levels of the file must be kept exactly.
+ * </p>
+ *
+ * @since 1.0.0-alpha7
+ */
+public class CompactBufferedImageFactory implements BufferedImageFactory {
+
+    /**
+     * Constructs a new instance.
+     */
+    public CompactBufferedImageFactory() {
+        // Default constructor
+    }
+
+    @Override
+    public BufferedImage getColorBufferedImage(final int width, final int height, final boolean hasAlpha) {
+        return new BufferedImage(width, height, getImageType(false, hasAlpha));
+    }
+
+    @Override
+    public BufferedImage getGrayscaleBufferedImage(final int width, final int height, final boolean hasAlpha) {
+        return new BufferedImage(width, height, getImageType(true, hasAlpha));
+    }
+
+    /**
+     * Gets the type of the images created for a kind of pixels.
+     *
+     * @param grayscale whether the pixels are grayscale.
+     * @param hasAlpha  whether the pixels have an alpha channel.
+     * @return one of {@link BufferedImage#TYPE_3BYTE_BGR}, {@link BufferedImage#TYPE_BYTE_GRAY} and {@link BufferedImage#TYPE_INT_ARGB}.
+     */
+    public int getImageType(final boolean grayscale, final boolean hasAlpha) {
+        if (hasAlpha) {
+            return BufferedImage.TYPE_INT_ARGB;
+        }
+        return grayscale ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_3BYTE_BGR;
+    }
+}
@@ -17,10 +17,14 @@
 
 package org.apache.commons.imaging.common;
 
+import java.awt.Rectangle;
+import java.awt.Transparency;
 import java.awt.color.ColorSpace;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
 import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
 import java.awt.image.DataBufferInt;
 import java.awt.image.DirectColorModel;
 import java.awt.image.Raster;
@@ -28,6 +32,8 @@ import java.awt.image.RasterFormatException;
 import java.awt.image.WritableRaster;
 import java.util.Properties;
 
+import org.apache.commons.imaging.internal.Subsampling;
+
 /*
  * Development notes:
  * This class was introduced to the Apache Commons Imaging library in
@@ -51,14 +57,51 @@ import java.util.Properties;
  */
 
 /**
- * A utility class primary intended for storing data obtained by reading image files.
+ * A utility class primary intended for storing data obtained by reading image files. An image builder is the {@link PixelSink} that keeps the whole
+ * image.
+ * <p>
+ * By default pixels are kept as packed ints; an opaque image may instead be built in the three bytes per pixel of {@link BufferedImage#TYPE_3BYTE_BGR} or
+ * the single byte of {@link BufferedImage#TYPE_BYTE_GRAY}, which the built image then wraps without a copy.
+ * </p>
  */
-public final class ImageBuilder {
+public final class ImageBuilder implements PixelSink {
+
+    /**
+     * Conversions between sRGB pixels and TYPE_BYTE_GRAY samples, computed the way BufferedImage.setRGB() and getRGB() do.
+     */
+    private static final class Gray {
+
+        /** The gray sample of a luma value. */
+        static final byte[] SAMPLES = new byte[256];
+
+        /** The sRGB pixel of a gray sample. */
+        static final int[] RGB = new int[256];
+
+        static {
+            final ColorModel colorModel = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY).getColorModel();
+            for (int i = 0; i < 256; i++) {
+                SAMPLES[i] = ((byte[]) colorModel.getDataElements(0xff000000 | i * 0x010101, null))[0];
+                RGB[i] = colorModel.getRGB(new byte[] { (byte) i });
+            }
+        }
+    }
+
     private final int[] data;
+    /** The samples of a byte layout, or null: blue, green and red for TYPE_3BYTE_BGR, gray for TYPE_BYTE_GRAY. */
+    private final byte[] bytes;
+    /** Zero for the int layout, otherwise the bytes per pixel. */
+    private final int samplesPerPixel;
+    private final int imageType;
+    private final int pixelCount;
     private final int width;
     private final int height;
     private final boolean hasAlpha;
     private final boolean isAlphaPremultiplied;
+    /** Only the pixels of the region are kept, one in every block of subsampling by subsampling pixels, in a data array dataWidth pixels wide. */
+    private final Rectangle region;
+    private final int subsampling;
+    private final int dataWidth;
+    private final boolean reduced;
 
     /**
      * Constructs an ImageBuilder instance.
@@ -84,12 +127,108 @@ public final class ImageBuilder {
      * @throws RasterFormatException if {@code width} or {@code height} are equal or less than zero
      */
     public ImageBuilder(final int width, final int height, final boolean hasAlpha, final boolean isAlphaPremultiplied) {
+        this(width, height, hasAlpha, isAlphaPremultiplied, 1);
+    }
+
+    /**
+     * Constructs an ImageBuilder instance that builds a reduced image: pixels are still set at their position in the full image, but only the top-left pixel
+     * of every block of subsampling by subsampling pixels is kept, so the built image is ceil(width / subsampling) by ceil(height / subsampling) pixels.
+     * Subimages and subsets are not available from a reduced image.
+     *
+     * @param width                the width of the full image
+     * @param height               the height of the full image
+     * @param hasAlpha             indicates whether the image has an alpha channel.
+     * @param isAlphaPremultiplied indicates whether alpha values are pre-multiplied; this setting is relevant only if alpha is true.
+     * @param subsampling          the subsampling factor, 1 to build the full image
+     * @throws RasterFormatException    if {@code width} or {@code height} are equal or less than zero
+     * @throws IllegalArgumentException if {@code subsampling} is less than one
+     * @since 1.0.0-alpha7
+     */
+    public ImageBuilder(final int width, final int height, final boolean hasAlpha, final boolean isAlphaPremultiplied, final int subsampling) {
+        this(width, height, hasAlpha, isAlphaPremultiplied, new Rectangle(0, 0, width, height), subsampling);
+    }
+
+    /**
+     * Constructs an ImageBuilder instance that builds a region of an image, reduced by a subsampling factor: pixels are still set at their position in the
+     * full image, but only the top-left pixel of every block of subsampling by subsampling pixels of the region is kept, so the built image is
+     * ceil(region.width / subsampling) by ceil(region.height / subsampling) pixels. Subimages and subsets are not available from a reduced image.
+     *
+     * @param width                the width of the full image
+     * @param height               the height of the full image
+     * @param hasAlpha             indicates whether the image has an alpha channel.
+     * @param isAlphaPremultiplied indicates whether alpha values are pre-multiplied; this setting is relevant only if alpha is true.
+     * @param region               the region of the full image to build
+     * @param subsampling          the subsampling factor, 1 to build every pixel of the region
+     * @throws RasterFormatException    if {@code width}, {@code height} or the region dimensions are equal or less than zero, or if the region is outside
+     *                                  the image
+     * @throws IllegalArgumentException if {@code subsampling} is less than one
+     * @since 1.0.0-alpha7
+     */
+    public ImageBuilder(final int width, final int height, final boolean hasAlpha, final boolean isAlphaPremultiplied, final Rectangle region,
+            final int subsampling) {
+        this(width, height, hasAlpha, isAlphaPremultiplied, region, subsampling, hasAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Constructs an ImageBuilder instance that builds a region of an image, reduced by a subsampling factor, into a raster of the given type.
+     *
+     * @param width                the width of the full image
+     * @param height               the height of the full image
+     * @param hasAlpha             indicates whether the image has an alpha channel.
+     * @param isAlphaPremultiplied indicates whether alpha values are pre-multiplied; this setting is relevant only if alpha is true.
+     * @param region               the region of the full image to build
+     * @param subsampling          the subsampling factor, 1 to build every pixel of the region
+     * @param imageType            {@link BufferedImage#TYPE_INT_ARGB} or {@link BufferedImage#TYPE_INT_RGB} to keep packed ints, the alpha channel
+     *                             following {@code hasAlpha}, or {@link BufferedImage#TYPE_3BYTE_BGR} or {@link BufferedImage#TYPE_BYTE_GRAY} for an
+     *                             opaque image
+     * @throws RasterFormatException    if {@code width}, {@code height} or the region dimensions are equal or less than zero, or if the region is outside
+     *                                  the image
+     * @throws IllegalArgumentException if {@code subsampling} is less than one, or if the image type is not supported or has no alpha channel while
+     *                                  {@code hasAlpha} is true
+     * @see #getImageType()
+     * @since 1.0.0-alpha7
+     */
+    public ImageBuilder(final int width, final int height, final boolean hasAlpha, final boolean isAlphaPremultiplied, final Rectangle region,
+            final int subsampling, final int imageType) {
         checkDimensions(width, height);
-        data = Allocator.intArray(width * height);
+        if (subsampling < 1) {
+            throw new IllegalArgumentException("Invalid subsampling: " + subsampling);
+        }
+        switch (imageType) {
+        case BufferedImage.TYPE_INT_ARGB:
+        case BufferedImage.TYPE_INT_RGB:
+            samplesPerPixel = 0;
+            break;
+        case BufferedImage.TYPE_3BYTE_BGR:
+            samplesPerPixel = 3;
+            break;
+        case BufferedImage.TYPE_BYTE_GRAY:
+            samplesPerPixel = 1;
+            break;
+        default:
+            throw new IllegalArgumentException("Unsupported image type: " + imageType);
+        }
+        if (hasAlpha && samplesPerPixel != 0) {
+            throw new IllegalArgumentException("Image type " + imageType + " has no alpha channel");
+        }
         this.width = width;
         this.height = height;
+        checkBounds(region.x, region.y, region.width, region.height);
+        dataWidth = Subsampling.getSize(region.width, subsampling);
+        pixelCount = dataWidth * Subsampling.getSize(region.height, subsampling);
+        if (samplesPerPixel == 0) {
+            data = Allocator.intArray(pixelCount);
+            bytes = null;
+        } else {
+            data = null;
+            bytes = Allocator.byteArray((long) pixelCount * samplesPerPixel);
+        }
+        this.imageType = samplesPerPixel == 0 ? hasAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB : imageType;
         this.hasAlpha = hasAlpha;
         this.isAlphaPremultiplied = isAlphaPremultiplied;
+        this.region = new Rectangle(region);
+        this.subsampling = subsampling;
+        this.reduced = subsampling != 1 || region.width != width || region.height != height;
     }
 
     /**
@@ -122,6 +261,12 @@ public final class ImageBuilder {
         }
     }
 
+    private void checkReduced() {
+        if (reduced) {
+            throw new IllegalStateException("subimages of a reduced image are not available");
+        }
+    }
+
     /**
      * Checks for valid dimensions and throws {@link RasterFormatException} if the inputs are invalid.
      *
@@ -138,13 +283,23 @@ public final class ImageBuilder {
         }
     }
 
+    private void copyRows(final int x, final int y, final int w, final int h, final byte[] samples) {
+        final int rowLength = w * samplesPerPixel;
+        for (int i = 0; i < h; i++) {
+            System.arraycopy(bytes, ((i + y) * width + x) * samplesPerPixel, samples, i * rowLength, rowLength);
+        }
+    }
+
     /**
      * Create a BufferedImage using the data stored in the ImageBuilder.
      *
      * @return a valid BufferedImage.
      */
     public BufferedImage getBufferedImage() {
-        return makeBufferedImage(data, width, height, hasAlpha);
+        if (bytes != null) {
+            return makeByteImage(bytes, dataWidth, pixelCount / dataWidth);
+        }
+        return makeBufferedImage(data, dataWidth, pixelCount / dataWidth, hasAlpha);
     }
 
     /**
@@ -152,10 +307,33 @@ public final class ImageBuilder {
      *
      * @return a positive integer
      */
+    @Override
     public int getHeight() {
         return height;
     }
 
+    /**
+     * Gets the type of the built image.
+     *
+     * @return {@link BufferedImage#TYPE_INT_ARGB}, {@link BufferedImage#TYPE_INT_RGB}, {@link BufferedImage#TYPE_3BYTE_BGR} or
+     *         {@link BufferedImage#TYPE_BYTE_GRAY}.
+     * @since 1.0.0-alpha7
+     */
+    public int getImageType() {
+        return imageType;
+    }
+
+    /**
+     * Gets the region of the pixel field that is built. Readers may stop setting pixels once they are past it.
+     *
+     * @return the region, the whole pixel field unless the builder was constructed for a region.
+     * @since 1.0.0-alpha7
+     */
+    @Override
+    public Rectangle getRegion() {
+        return new Rectangle(region);
+    }
+
     /**
      * Gets the RGB or ARGB value for the pixel at the position (x, y) within the image builder pixel field. For performance reasons no bounds checking is
      * applied.
@@ -165,8 +343,12 @@ public final class ImageBuilder {
      * @return the RGB or ARGB pixel value
      */
     public int getRgb(final int x, final int y) {
+        if (reduced) {
+            // the pixel kept for the block
+            return load((y - region.y) / subsampling * dataWidth + (x - region.x) / subsampling);
+        }
         final int rowOffset = y * width;
-        return data[rowOffset + x];
+        return load(rowOffset + x);
     }
 
     /**
@@ -182,8 +364,15 @@ public final class ImageBuilder {
      * @throws RasterFormatException f the specified area is not contained within this ImageBuilder
      */
     public BufferedImage getSubimage(final int x, final int y, final int w, final int h) {
+        checkReduced();
         checkBounds(x, y, w, h);
 
+        if (bytes != null) {
+            final byte[] samples = Allocator.byteArray((long) w * h * samplesPerPixel);
+            copyRows(x, y, w, h, samples);
+            return makeByteImage(samples, w, h);
+        }
+
         // Transcribe the data to an output image array
         final int[] argb = Allocator.intArray(w * h);
         int k = 0;
@@ -211,8 +400,13 @@ public final class ImageBuilder {
      * @throws RasterFormatException if the specified area is not contained within this ImageBuilder
      */
     public ImageBuilder getSubset(final int x, final int y, final int w, final int h) {
+        checkReduced();
         checkBounds(x, y, w, h);
-        final ImageBuilder b = new ImageBuilder(w, h, hasAlpha, isAlphaPremultiplied);
+        final ImageBuilder b = new ImageBuilder(w, h, hasAlpha, isAlphaPremultiplied, new Rectangle(0, 0, w, h), 1, imageType);
+        if (bytes != null) {
+            copyRows(x, y, w, h, b.bytes);
+            return b;
+        }
         for (int i = 0; i < h; i++) {
             final int srcDex = (i + y) * width + x;
             final int outDex = i * w;
@@ -226,10 +420,66 @@ public final class ImageBuilder {
      *
      * @return a positive integer
      */
+    @Override
     public int getWidth() {
         return width;
     }
 
+    /**
+     * Gets the index of a pixel in the data array.
+     *
+     * @return the index, or -1 if the pixel is not kept.
+     */
+    private int index(final int x, final int y) {
+        if (reduced) {
+            final int dx = x - region.x;
+            final int dy = y - region.y;
+            if (dx < 0 || dy < 0 || dx >= region.width || dy >= region.height || dx % subsampling != 0 || dy % subsampling != 0) {
+                return -1;
+            }
+            final int index = Math.addExact(Math.multiplyExact(dy / subsampling, dataWidth), dx / subsampling);
+            if (index >= pixelCount) {
+                throw new IllegalArgumentException("setRGB: Illegal array index.");
+            }
+            return index;
+        }
+        // Throw ArithmeticException if the result overflows an int.
+        final int rowOffset = Math.multiplyExact(y, width);
+        // Throw ArithmeticException if the result overflows an int.
+        final int index = Math.addExact(rowOffset, x);
+        if (index > pixelCount) {
+            throw new IllegalArgumentException("setRGB: Illegal array index.");
+        }
+        return index;
+    }
+
+    private int load(final int index) {
+        if (data != null) {
+            return data[index];
+        }
+        if (samplesPerPixel == 1) {
+            return Gray.RGB[0xff & bytes[index]];
+        }
+        final int offset = index * 3;
+        return 0xff000000 | (0xff & bytes[offset + 2]) << 16 | (0xff & bytes[offset + 1]) << 8 | 0xff & bytes[offset];
+    }
+
+    private BufferedImage makeByteImage(final byte[] samples, final int w, final int h) {
+        final ColorModel colorModel;
+        final WritableRaster raster;
+        final DataBufferByte buffer = new DataBufferByte(samples, samples.length);
+        if (samplesPerPixel == 1) {
+            colorModel = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_GRAY), new int[] { 8 }, false, true, Transparency.OPAQUE,
+                    DataBuffer.TYPE_BYTE);
+            raster = Raster.createInterleavedRaster(buffer, w, h, w, 1, new int[] { 0 }, null);
+        } else {
+            colorModel = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_sRGB), new int[] { 8, 8, 8 }, false, false, Transparency.OPAQUE,
+                    DataBuffer.TYPE_BYTE);
+            raster = Raster.createInterleavedRaster(buffer, w, h, w * 3, 3, new int[] { 2, 1, 0 }, null);
+        }
+        return new BufferedImage(colorModel, raster, false, new Properties());
+    }
+
     private BufferedImage makeBufferedImage(final int[] argb, final int w, final int h, final boolean useAlpha) {
         final ColorModel colorModel;
         final WritableRaster raster;
@@ -245,6 +495,33 @@ public final class ImageBuilder {
         return new BufferedImage(colorModel, raster, colorModel.isAlphaPremultiplied(), new Properties());
     }
 
+    /**
+     * Sets an opaque gray pixel, stored as a gray sample in the TYPE_BYTE_GRAY layout.
+     *
+     * @param x    the X coordinate of the pixel to be set.
+     * @param y    the Y coordinate of the pixel to be set.
+     * @param gray the gray level, from 0 to 255.
+     * @throws ArithmeticException      if the index computation overflows an int.
+     * @throws IllegalArgumentException if the resulting index is illegal.
+     */
+    @Override
+    public void setGray(final int x, final int y, final int gray) {
+        final int index = index(x, y);
+        if (index < 0) {
+            return;
+        }
+        if (samplesPerPixel == 1) {
+            bytes[index] = Gray.SAMPLES[gray];
+        } else if (samplesPerPixel == 3) {
+            final int offset = index * 3;
+            bytes[offset] = (byte) gray;
+            bytes[offset + 1] = (byte) gray;
+            bytes[offset + 2] = (byte) gray;
+        } else {
+            data[index] = 0xff000000 | gray * 0x010101;
+        }
+    }
+
     /**
      * Sets the RGB or ARGB value for the pixel at position (x, y) within the image builder pixel field. For performance reasons, no bounds checking is applied.
      *
@@ -254,14 +531,59 @@ public final class ImageBuilder {
      * @throws ArithmeticException      if the index computation overflows an int.
      * @throws IllegalArgumentException if the resulting index is illegal.
      */
+    @Override
     public void setRgb(final int x, final int y, final int argb) {
-        // Throw ArithmeticException if the result overflows an int.
-        final int rowOffset = Math.multiplyExact(y, width);
-        // Throw ArithmeticException if the result overflows an int.
-        final int index = Math.addExact(rowOffset, x);
-        if (index > data.length) {
-            throw new IllegalArgumentException("setRGB: Illegal array index.");
+        final int index = index(x, y);
+        if (index < 0) {
+            return;
+        }
+        if (data != null) {
+            data[index] = argb;
+        } else {
+            store(index, argb);
+        }
+    }
+
+    /**
+     * Sets an opaque pixel from its samples, stored as they are in the TYPE_3BYTE_BGR layout.
+     *
+     * @param x     the X coordinate of the pixel to be set.
+     * @param y     the Y coordinate of the pixel to be set.
+     * @param red   the red sample, from 0 to 255.
+     * @param green the green sample, from 0 to 255.
+     * @param blue  the blue sample, from 0 to 255.
+     * @throws ArithmeticException      if the index computation overflows an int.
+     * @throws IllegalArgumentException if the resulting index is illegal.
+     */
+    @Override
+    public void setRgbSamples(final int x, final int y, final int red, final int green, final int blue) {
+        final int index = index(x, y);
+        if (index < 0) {
+            return;
+        }
+        if (samplesPerPixel == 3) {
+            final int offset = index * 3;
+            bytes[offset] = (byte) blue;
+            bytes[offset + 1] = (byte) green;
+            bytes[offset + 2] = (byte) red;
+        } else if (samplesPerPixel == 1) {
+            bytes[index] = Gray.SAMPLES[red * 77 + green * 150 + blue * 29 >> 8];
+        } else {
+            data[index] = 0xff000000 | red << 16 | green << 8 | blue;
+        }
+    }
+
+    private void store(final int index, final int argb) {
+        final int red = 0xff & argb >> 16;
+        final int green = 0xff & argb >> 8;
+        final int blue = 0xff & argb;
+        if (samplesPerPixel == 1) {
+            bytes[index] = Gray.SAMPLES[red * 77 + green * 150 + blue * 29 >> 8];
+        } else {
+            final int offset = index * 3;
+            bytes[offset] = (byte) blue;
+            bytes[offset + 1] = (byte) green;
+            bytes[offset + 2] = (byte) red;
         }
-        data[index] = argb;
     }
 }
@@ -16,8 +16,8 @@
  */
 package org.apache.commons.imaging.common;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.apache.commons.imaging.ImagingException;
 import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
@@ -94,45 +94,44 @@ public final class PackBits {
     public static byte[] decompress(final byte[] bytes, final int expected) throws ImagingException {
         int total = 0;
 
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        // the last run may overshoot the expected length by up to 127 bytes.
+        try (ArrayLease<byte[]> lease = Allocator.leaseByteArray(expected + 128)) {
+            final byte[] result = lease.get();
 
-        // Loop until you get the number of unpacked bytes you are expecting:
-        int i = 0;
-        while (total < expected) {
-            // Read the next source byte into n.
-            if (i >= bytes.length) {
-                throw new ImagingException("Tiff: Unpack bits source exhausted: " + i + ", done + " + total + ", expected + " + expected);
-            }
-
-            final int n = bytes[i++];
-            if (n >= 0 && n <= 127) {
-                // If n is between 0 and 127 inclusive, copy the next n+1 bytes
-                // literally.
-                final int count = n + 1;
-
-                total += count;
-                for (int j = 0; j < count; j++) {
-                    baos.write(bytes[i++]);
+            // Loop until you get the number of unpacked bytes you are expecting:
+            int i = 0;
+            while (total < expected) {
+                // Read the next source byte into n.
+                if (i >= bytes.length) {
+                    throw new ImagingException("Tiff: Unpack bits source exhausted: " + i + ", done + " + total + ", expected + " + expected);
                 }
-            } else if (n >= -127 && n <= -1) {
-                // Else if n is between -127 and -1 inclusive, copy the next byte
-                // -n+1 times.
-
-                final int b = bytes[i++];
-                final int count = -n + 1;
 
-                total += count;
-                for (int j = 0; j < count; j++) {
-                    baos.write(b);
+                final int n = bytes[i++];
+                if (n >= 0 && n <= 127) {
+                    // If n is between 0 and 127 inclusive, copy the next n+1 bytes
+                    // literally.
+                    final int count = n + 1;
+
+                    System.arraycopy(bytes, i, result, total, count);
+                    i += count;
+                    total += count;
+                } else if (n >= -127 && n <= -1) {
+                    // Else if n is between -127 and -1 inclusive, copy the next byte
+                    // -n+1 times.
+
+                    final byte b = bytes[i++];
+                    final int count = -n + 1;
+
+                    Arrays.fill(result, total, total + count, b);
+                    total += count;
+                } else if (n == -128) {
+                    // Else if n is -128, noop.
+                    throw new ImagingException("Packbits: " + n);
                 }
-            } else if (n == -128) {
-                // Else if n is -128, noop.
-                throw new ImagingException("Packbits: " + n);
             }
-        }
-
-        return baos.toByteArray();
 
+            return Arrays.copyOf(result, total);
+        }
     }
 
     private static int findNextDuplicate(final byte[] bytes, final int start) {
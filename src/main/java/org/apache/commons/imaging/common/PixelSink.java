@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.common;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+
+/**
+ * Receives the pixels of an image as a decoder produces them.
+ * <p>
+ * {@link ImageBuilder} keeps every pixel until the image is built, while {@link RowSink} hands each row to a {@link RowListener} as soon as the decoder
+ * reports it complete, keeping only the rows still being decoded.
+ * </p>
+ *
+ * @since 1.0.0-alpha7
+ */
+public interface PixelSink {
+
+    /**
+     * Gets the height of the pixel field.
+     *
+     * @return a positive integer.
+     */
+    int getHeight();
+
+    /**
+     * Gets the region of the pixel field that is kept. Decoders may stop setting pixels once they are past it.
+     *
+     * @return the region.
+     */
+    Rectangle getRegion();
+
+    /**
+     * Gets the width of the pixel field.
+     *
+     * @return a positive integer.
+     */
+    int getWidth();
+
+    /**
+     * Reports that the decoder will not set any more pixels in a band of rows. The default implementation does nothing.
+     *
+     * @param y     the first row of the band.
+     * @param count the number of rows in the band.
+     * @throws IOException if the rows cannot be delivered.
+     */
+    default void rowsCompleted(final int y, final int count) throws IOException {
+        // nothing to deliver
+    }
+
+    /**
+     * Sets an opaque gray pixel at position (x, y) within the pixel field. Decoders of gray samples call this method so that sinks holding gray samples
+     * store them without packing them into an RGB value; the default implementation packs them for {@link #setRgb(int, int, int)}.
+     *
+     * @param x    the X coordinate of the pixel to be set.
+     * @param y    the Y coordinate of the pixel to be set.
+     * @param gray the gray level, from 0 to 255.
+     */
+    default void setGray(final int x, final int y, final int gray) {
+        setRgb(x, y, 0xff000000 | gray * 0x010101);
+    }
+
+    /**
+     * Sets the RGB or ARGB value for the pixel at position (x, y) within the pixel field.
+     *
+     * @param x    the X coordinate of the pixel to be set.
+     * @param y    the Y coordinate of the pixel to be set.
+     * @param argb the RGB or ARGB value to be stored.
+     */
+    void setRgb(int x, int y, int argb);
+
+    /**
+     * Sets an opaque pixel at position (x, y) within the pixel field from its samples. Decoders of RGB samples call this method so that sinks holding
+     * samples store them without packing them into an RGB value; the default implementation packs them for {@link #setRgb(int, int, int)}.
+     *
+     * @param x     the X coordinate of the pixel to be set.
+     * @param y     the Y coordinate of the pixel to be set.
+     * @param red   the red sample, from 0 to 255.
+     * @param green the green sample, from 0 to 255.
+     * @param blue  the blue sample, from 0 to 255.
+     */
+    default void setRgbSamples(final int x, final int y, final int red, final int green, final int blue) {
+        setRgb(x, y, 0xff000000 | red << 16 | green << 8 | blue);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.common;
+
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+/**
+ * Reads the pixels of an image a row at a time, as {@link BufferedImage#getRGB(int, int)} returns them. The rows of packed int RGB and ARGB rasters and of
+ * interleaved byte BGR, ABGR and gray rasters are read from the backing array; other images are read with {@link BufferedImage#getRGB(int, int, int, int,
+ * int[], int, int)}, still a row per call rather than a pixel.
+ *
+ * @since 1.0.0-alpha7
+ */
+public final class PixelSource {
+
+    private final BufferedImage image;
+    private final int width;
+    private final int height;
+    private final int[] row;
+    /** Backing array of a packed int raster, or null. */
+    private int[] ints;
+    /** Backing array of an interleaved byte raster, or null. */
+    private byte[] bytes;
+    /** Whether the packed ints have no alpha channel. */
+    private boolean opaque;
+    /** Index of the pixel (0, 0) in the backing array. */
+    private int origin;
+    private int scanlineStride;
+    private int pixelStride;
+    private int redOffset;
+    private int greenOffset;
+    private int blueOffset;
+    /** Offset of the alpha sample of a byte raster, or -1 if it has none. */
+    private int alphaOffset = -1;
+    /** The ARGB pixel of every gray sample, or null if the byte raster is not gray. */
+    private int[] grayRgb;
+
+    /**
+     * Constructs a pixel source for an image.
+     *
+     * @param image the image to read.
+     */
+    public PixelSource(final BufferedImage image) {
+        this.image = image;
+        this.width = image.getWidth();
+        this.height = image.getHeight();
+        this.row = Allocator.intArray(width);
+        final WritableRaster raster = image.getRaster();
+        final DataBuffer dataBuffer = raster.getDataBuffer();
+        final SampleModel sampleModel = raster.getSampleModel();
+        final ColorModel colorModel = image.getColorModel();
+        if (dataBuffer.getNumBanks() != 1 || colorModel.isAlphaPremultiplied()) {
+            return;
+        }
+        final int translateX = raster.getSampleModelTranslateX();
+        final int translateY = raster.getSampleModelTranslateY();
+        if (dataBuffer instanceof DataBufferInt && sampleModel instanceof SinglePixelPackedSampleModel && colorModel instanceof DirectColorModel) {
+            final DirectColorModel directColorModel = (DirectColorModel) colorModel;
+            if (directColorModel.getColorSpace().isCS_sRGB() && directColorModel.getRedMask() == 0x00ff0000 && directColorModel.getGreenMask() == 0x0000ff00
+                    && directColorModel.getBlueMask() == 0x000000ff && (directColorModel.getAlphaMask() == 0xff000000 || !colorModel.hasAlpha())) {
+                scanlineStride = ((SinglePixelPackedSampleModel) sampleModel).getScanlineStride();
+                origin = dataBuffer.getOffset() - translateY * scanlineStride - translateX;
+                opaque = !colorModel.hasAlpha();
+                ints = ((DataBufferInt) dataBuffer).getData();
+            }
+        } else if (dataBuffer instanceof DataBufferByte && sampleModel instanceof ComponentSampleModel && colorModel instanceof ComponentColorModel) {
+            final ComponentSampleModel componentSampleModel = (ComponentSampleModel) sampleModel;
+            final int[] bandOffsets = componentSampleModel.getBandOffsets();
+            for (final int size : colorModel.getComponentSize()) {
+                if (size != 8) {
+                    return;
+                }
+            }
+            final ColorSpace colorSpace = colorModel.getColorSpace();
+            if (colorSpace.isCS_sRGB() && (bandOffsets.length == 3 || bandOffsets.length == 4 && colorModel.hasAlpha())) {
+                redOffset = bandOffsets[0];
+                greenOffset = bandOffsets[1];
+                blueOffset = bandOffsets[2];
+                alphaOffset = colorModel.hasAlpha() ? bandOffsets[3] : -1;
+            } else if (colorSpace.getType() == ColorSpace.TYPE_GRAY && bandOffsets.length == 1 && !colorModel.hasAlpha()) {
+                redOffset = bandOffsets[0];
+                grayRgb = new int[256];
+                for (int i = 0; i < grayRgb.length; i++) {
+                    grayRgb[i] = colorModel.getRGB(new byte[] { (byte) i });
+                }
+            } else {
+                return;
+            }
+            scanlineStride = componentSampleModel.getScanlineStride();
+            pixelStride = componentSampleModel.getPixelStride();
+            origin = dataBuffer.getOffset() - translateY * scanlineStride - translateX * pixelStride;
+            bytes = ((DataBufferByte) dataBuffer).getData();
+        }
+    }
+
+    /**
+     * Gets the height of the image.
+     *
+     * @return the height of the image.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Reads a row of pixels.
+     *
+     * @param y the row to read.
+     * @return the ARGB pixels of the row, in an array that is overwritten by the next call.
+     */
+    public int[] getRow(final int y) {
+        final int start = origin + y * scanlineStride;
+        if (ints != null) {
+            if (opaque) {
+                for (int x = 0; x < width; x++) {
+                    row[x] = 0xff000000 | ints[start + x];
+                }
+            } else {
+                System.arraycopy(ints, start, row, 0, width);
+            }
+        } else if (grayRgb != null) {
+            for (int x = 0, i = start + redOffset; x < width; x++, i += pixelStride) {
+                row[x] = grayRgb[0xff & bytes[i]];
+            }
+        } else if (bytes != null) {
+            for (int x = 0, i = start; x < width; x++, i += pixelStride) {
+                final int alpha = alphaOffset < 0 ? 0xff : 0xff & bytes[i + alphaOffset];
+                row[x] = alpha << 24 | (0xff & bytes[i + redOffset]) << 16 | (0xff & bytes[i + greenOffset]) << 8 | 0xff & bytes[i + blueOffset];
+            }
+        } else {
+            image.getRGB(0, y, width, 1, row, 0, width);
+        }
+        return row;
+    }
+
+    /**
+     * Gets the width of the image.
+     *
+     * @return the width of the image.
+     */
+    public int getWidth() {
+        return width;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.common;
+
+import java.io.IOException;
+
+/**
+ * Receives the rows of an image read with {@code readRows}.
+ * <p>
+ * Rows arrive in the order the format stores them, which is bottom-up for most BMP files, and a decoder that fails part way through leaves the remaining
+ * rows undelivered.
+ * </p>
+ *
+ * @since 1.0.0-alpha7
+ */
+@FunctionalInterface
+public interface RowListener {
+
+    /**
+     * Receives a row of the image.
+     *
+     * @param y    the index of the row, from 0 at the top of the image.
+     * @param argb the ARGB values of the row, one per column. The array is reused for the next rows and must not be kept.
+     * @throws IOException if the row cannot be consumed, which stops the read.
+     */
+    void row(int y, int[] argb) throws IOException;
+
+    /**
+     * Receives the dimensions of the image before its first row. The default implementation does nothing.
+     *
+     * @param width    the width of the image.
+     * @param height   the height of the image.
+     * @param hasAlpha whether the image has an alpha channel; if not, every row is opaque.
+     */
+    default void start(final int width, final int height, final boolean hasAlpha) {
+        // nothing to prepare
+    }
+}
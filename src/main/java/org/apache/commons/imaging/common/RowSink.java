@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.common;
+
+import java.awt.Rectangle;
+import java.awt.image.RasterFormatException;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.imaging.internal.Subsampling;
+
+/**
+ * A pixel sink that delivers each row to a {@link RowListener} once the decoder reports it complete. Only the rows the decoder is still working on are held
+ * in memory, so an image can be processed in far less memory than it takes to build it.
+ * <p>
+ * Like {@link ImageBuilder}, a row sink may keep only a region of the pixel field, reduced by a subsampling factor: the listener then receives
+ * ceil(region.height / subsampling) rows of ceil(region.width / subsampling) pixels, numbered from 0. Pixels set in a row that was already delivered are
+ * ignored.
+ * </p>
+ *
+ * @since 1.0.0-alpha7
+ */
+public final class RowSink implements PixelSink {
+
+    private final int width;
+    private final int height;
+    private final boolean hasAlpha;
+    private final Rectangle region;
+    private final int subsampling;
+    private final int rowWidth;
+    private final int rowCount;
+    private final RowListener listener;
+    /** The rows being decoded, by index of the delivered row. */
+    private final Map<Integer, int[]> pending = new HashMap<>();
+    /** The buffers of delivered rows, reused for the next rows. */
+    private final ArrayDeque<int[]> free = new ArrayDeque<>();
+    private final BitSet delivered;
+    /** The pending row the last pixel was set in, or -1, so that the pixels of a row are set without a map lookup each. */
+    private int currentRow = -1;
+    private int[] currentValues;
+
+    /**
+     * Constructs a row sink for a whole pixel field and notifies the listener of its dimensions.
+     *
+     * @param width    the width of the image.
+     * @param height   the height of the image.
+     * @param hasAlpha whether the image has an alpha channel.
+     * @param listener the listener receiving the rows.
+     * @throws RasterFormatException if {@code width} or {@code height} are equal or less than zero.
+     */
+    public RowSink(final int width, final int height, final boolean hasAlpha, final RowListener listener) {
+        this(width, height, hasAlpha, new Rectangle(0, 0, width, height), 1, listener);
+    }
+
+    /**
+     * Constructs a row sink for a region of a pixel field, reduced by a subsampling factor, and notifies the listener of the dimensions of the delivered
+     * image.
+     *
+     * @param width       the width of the full image.
+     * @param height      the height of the full image.
+     * @param hasAlpha    whether the image has an alpha channel.
+     * @param region      the region of the full image to deliver.
+     * @param subsampling the subsampling factor, 1 to deliver every pixel of the region.
+     * @param listener    the listener receiving the rows.
+     * @throws RasterFormatException    if {@code width}, {@code height} or the region dimensions are equal or less than zero, or if the region is outside the
+     *                                  image.
+     * @throws IllegalArgumentException if {@code subsampling} is less than one.
+     */
+    public RowSink(final int width, final int height, final boolean hasAlpha, final Rectangle region, final int subsampling, final RowListener listener) {
+        if (width <= 0 || height <= 0) {
+            throw new RasterFormatException("zero or negative dimensions");
+        }
+        if (region.width <= 0 || region.height <= 0 || region.x < 0 || region.y < 0 || region.x + region.width > width
+                || region.y + region.height > height) {
+            throw new RasterFormatException("region is outside raster");
+        }
+        if (subsampling < 1) {
+            throw new IllegalArgumentException("Invalid subsampling: " + subsampling);
+        }
+        this.width = width;
+        this.height = height;
+        this.hasAlpha = hasAlpha;
+        this.region = new Rectangle(region);
+        this.subsampling = subsampling;
+        this.listener = Objects.requireNonNull(listener, "listener");
+        rowWidth = Subsampling.getSize(region.width, subsampling);
+        rowCount = Subsampling.getSize(region.height, subsampling);
+        delivered = new BitSet(rowCount);
+        listener.start(rowWidth, rowCount, hasAlpha);
+    }
+
+    private void deliver(final int row) throws IOException {
+        if (delivered.get(row)) {
+            return;
+        }
+        if (row == currentRow) {
+            currentRow = -1;
+            currentValues = null;
+        }
+        int[] argb = pending.remove(row);
+        if (argb == null) {
+            // a row without any pixel set is blank, as in an ImageBuilder
+            argb = newRow();
+        }
+        delivered.set(row);
+        listener.row(row, argb);
+        Arrays.fill(argb, getBlank());
+        free.push(argb);
+    }
+
+    /**
+     * Delivers every row that was not reported complete yet, in ascending order. Decoders call this method once they are done with the image.
+     *
+     * @throws IOException if a row cannot be delivered.
+     */
+    public void flush() throws IOException {
+        for (int row = delivered.nextClearBit(0); row < rowCount; row = delivered.nextClearBit(row + 1)) {
+            deliver(row);
+        }
+    }
+
+    /** Gets the value of a pixel that was never set: transparent, or opaque black without an alpha channel. */
+    private int getBlank() {
+        return hasAlpha ? 0 : 0xff000000;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public Rectangle getRegion() {
+        return new Rectangle(region);
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    private int[] newRow() {
+        int[] argb = free.poll();
+        if (argb == null) {
+            argb = Allocator.intArray(rowWidth);
+            Arrays.fill(argb, getBlank());
+        }
+        return argb;
+    }
+
+    @Override
+    public void rowsCompleted(final int y, final int count) throws IOException {
+        final int first = Math.max(y, region.y) - region.y;
+        final int last = Math.min(y + count, region.y + region.height) - region.y;
+        for (int dy = first; dy < last; dy++) {
+            if (dy % subsampling == 0) {
+                deliver(dy / subsampling);
+            }
+        }
+    }
+
+    @Override
+    public void setRgb(final int x, final int y, final int argb) {
+        int dx = x - region.x;
+        final int dy = y - region.y;
+        if (dx < 0 || dy < 0 || dx >= region.width || dy >= region.height) {
+            return;
+        }
+        int row = dy;
+        if (subsampling != 1) {
+            if (dx % subsampling != 0 || dy % subsampling != 0) {
+                return;
+            }
+            dx /= subsampling;
+            row /= subsampling;
+        }
+        if (row != currentRow) {
+            if (delivered.get(row)) {
+                return;
+            }
+            int[] values = pending.get(row);
+            if (values == null) {
+                values = newRow();
+                pending.put(row, values);
+            }
+            currentRow = row;
+            currentValues = values;
+        }
+        currentValues[dx] = hasAlpha ? argb : 0xff000000 | argb;
+    }
+}
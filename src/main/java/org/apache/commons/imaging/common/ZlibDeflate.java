@@ -63,14 +63,17 @@ public final class ZlibDeflate {
      * @see Inflater
      */
     public static byte[] decompress(final byte[] bytes, final int expectedSize) throws ImagingException {
+        final Inflater inflater = new Inflater();
         try {
-            final Inflater inflater = new Inflater();
             inflater.setInput(bytes);
             final byte[] result = Allocator.byteArray(expectedSize);
             inflater.inflate(result);
             return result;
         } catch (final DataFormatException e) {
             throw new ImagingException("Unable to decompress image", e);
+        } finally {
+            // release the native buffers now rather than on finalization
+            inflater.end();
         }
     }
 
@@ -22,7 +22,7 @@ import java.io.InputStream;
 import java.util.Objects;
 
 import org.apache.commons.imaging.ImagingException;
-import org.apache.commons.imaging.common.ImageBuilder;
+import org.apache.commons.imaging.common.PixelSink;
 
 abstract class AbstractPixelParser {
 
@@ -50,6 +50,6 @@ abstract class AbstractPixelParser {
         return alpha << 24 | red << 16 | green << 8 | blue << 0;
     }
 
-    public abstract void processImage(ImageBuilder imageBuilder) throws ImagingException, IOException;
+    public abstract void processImage(PixelSink imageBuilder) throws ImagingException, IOException;
 
 }
@@ -19,7 +19,8 @@ package org.apache.commons.imaging.formats.bmp;
 import java.io.IOException;
 
 import org.apache.commons.imaging.ImagingException;
-import org.apache.commons.imaging.common.ImageBuilder;
+import org.apache.commons.imaging.common.PixelSink;
+import org.apache.commons.imaging.internal.Cancellation;
 
 abstract class AbstractPixelParserSimple extends AbstractPixelParser {
     AbstractPixelParserSimple(final BmpHeaderInfo bhi, final byte[] colorTable, final byte[] imageData) {
@@ -30,16 +31,31 @@ abstract class AbstractPixelParserSimple extends AbstractPixelParser {
 
     public abstract void newline() throws ImagingException, IOException;
 
+    /**
+     * Reads the next pixel into a pixel sink. Parsers of sample data override this method to pass the samples to the sink without packing them.
+     *
+     * @param pixelSink the pixel sink.
+     * @param x         the X coordinate of the pixel.
+     * @param y         the Y coordinate of the pixel.
+     * @throws ImagingException if the pixel data is invalid.
+     * @throws IOException      if an I/O error occurs.
+     */
+    void setNextPixel(final PixelSink pixelSink, final int x, final int y) throws ImagingException, IOException {
+        pixelSink.setRgb(x, y, getNextRgb());
+    }
+
     @Override
-    public void processImage(final ImageBuilder imageBuilder) throws ImagingException, IOException {
-        for (int y = bhi.height - 1; y >= 0; y--) {
+    public void processImage(final PixelSink imageBuilder) throws ImagingException, IOException {
+        // rows are stored bottom-up, so the rows above the region of the builder are not read
+        final int top = imageBuilder.getRegion().y;
+        for (int y = bhi.height - 1; y >= top; y--) {
+            Cancellation.checkpoint();
             for (int x = 0; x < bhi.width; x++) {
-                final int rgb = getNextRgb();
-
-                imageBuilder.setRgb(x, y, rgb);
+                setNextPixel(imageBuilder, x, y);
                 // db.setElem(y * bhi.width + x, rgb);
             }
             newline();
+            imageBuilder.rowsCompleted(y, 1);
         }
     }
 }
@@ -31,6 +31,7 @@ import java.io.PrintWriter;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -45,6 +46,10 @@ import org.apache.commons.imaging.bytesource.ByteSource;
 import org.apache.commons.imaging.common.AbstractBinaryOutputStream;
 import org.apache.commons.imaging.common.ImageBuilder;
 import org.apache.commons.imaging.common.ImageMetadata;
+import org.apache.commons.imaging.common.RowListener;
+import org.apache.commons.imaging.common.RowSink;
+import org.apache.commons.imaging.internal.Cancellation;
+import org.apache.commons.imaging.internal.Subsampling;
 import org.apache.commons.imaging.palette.PaletteFactory;
 import org.apache.commons.imaging.palette.SimplePalette;
 
@@ -134,6 +139,7 @@ public class BmpImageParser extends AbstractImageParser<BmpImagingParameters> {
      * @throws ImagingException if the image format is invalid.
      * @throws IOException if an I/O error occurs.
      */
+    @SuppressWarnings("try") // the cancellation scope is only closed
     public BufferedImage getBufferedImage(final InputStream inputStream, final BmpImagingParameters params) throws ImagingException, IOException {
         final BmpImageContents ic = readImageContents(inputStream, FormatCompliance.getDefault());
 
@@ -152,8 +158,12 @@ public class BmpImageParser extends AbstractImageParser<BmpImagingParameters> {
         }
 
         final AbstractPixelParser abstractPixelParser = ic.abstractPixelParser;
-        final ImageBuilder imageBuilder = new ImageBuilder(width, height, true);
-        abstractPixelParser.processImage(imageBuilder);
+        // Only bit field masks and the pixels skipped by RLE deltas make a bitmap transparent, a compact raster drops the alpha channel otherwise
+        final boolean hasAlpha = !Subsampling.isCompact(params) || bhi.alphaMask != 0 || bhi.compression == BI_RLE4 || bhi.compression == BI_RLE8;
+        final ImageBuilder imageBuilder = Subsampling.newImageBuilder(width, height, hasAlpha, params);
+        try (Cancellation.Scope scope = Cancellation.bind(params)) {
+            abstractPixelParser.processImage(imageBuilder);
+        }
 
         return imageBuilder.getBufferedImage();
 
@@ -254,6 +264,20 @@ public class BmpImageParser extends AbstractImageParser<BmpImagingParameters> {
         return "Bmp-Custom";
     }
 
+    @Override
+    @SuppressWarnings("try") // the cancellation scope is only closed
+    public void readRows(final ByteSource byteSource, final BmpImagingParameters params, final RowListener listener) throws ImagingException, IOException {
+        Objects.requireNonNull(listener, "listener");
+        try (InputStream is = byteSource.getInputStream()) {
+            final BmpImageContents ic = readImageContents(is, FormatCompliance.getDefault());
+            final RowSink rowSink = Subsampling.newRowSink(ic.bhi.width, ic.bhi.height, true, params, listener);
+            try (Cancellation.Scope scope = Cancellation.bind(params)) {
+                ic.abstractPixelParser.processImage(rowSink);
+            }
+            rowSink.flush();
+        }
+    }
+
     private byte[] getRleBytes(final InputStream is, final int rleSamplesPerByte) throws IOException {
         final ByteArrayOutputStream baos = new ByteArrayOutputStream();
 
@@ -21,6 +21,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 import org.apache.commons.imaging.common.AbstractBinaryOutputStream;
+import org.apache.commons.imaging.common.PixelSource;
 import org.apache.commons.imaging.palette.SimplePalette;
 
 final class BmpWriterPalette implements BmpWriter {
@@ -56,9 +57,11 @@ final class BmpWriterPalette implements BmpWriter {
         int bitsInCache = 0;
 
         int byteCount = 0;
+        final PixelSource pixels = new PixelSource(src);
         for (int y = height - 1; y >= 0; y--) {
+            final int[] row = pixels.getRow(y);
             for (int x = 0; x < width; x++) {
-                final int argb = src.getRGB(x, y);
+                final int argb = row[x];
                 final int rgb = 0xffffff & argb;
 
                 final int index = palette.getPaletteIndex(rgb);
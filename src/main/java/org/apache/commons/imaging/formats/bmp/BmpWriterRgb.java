@@ -21,6 +21,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 import org.apache.commons.imaging.common.AbstractBinaryOutputStream;
+import org.apache.commons.imaging.common.PixelSource;
 
 final class BmpWriterRgb implements BmpWriter {
     // private final boolean alpha;
@@ -47,9 +48,11 @@ final class BmpWriterRgb implements BmpWriter {
 
         int bytecount = 0;
         for (int y = height - 1; y >= 0; y--) {
+            final PixelSource pixels = new PixelSource(src);
             // for (int y = 0; y < height; y++)
+                final int[] row = pixels.getRow(y);
             for (int x = 0; x < width; x++) {
-                final int argb = src.getRGB(x, y);
+                final int argb = row[x];
                 final int rgb = 0xffffff & argb;
 
                 final int red = 0xff & rgb >> 16;
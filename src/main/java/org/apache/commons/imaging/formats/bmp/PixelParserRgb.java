@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.nio.ByteOrder;
 
 import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.common.PixelSink;
 
 final class PixelParserRgb extends AbstractPixelParserSimple {
     private int byteCount;
@@ -105,4 +106,15 @@ final class PixelParserRgb extends AbstractPixelParserSimple {
             byteCount++;
         }
     }
+
+    @Override
+    void setNextPixel(final PixelSink pixelSink, final int x, final int y) throws ImagingException, IOException {
+        if (bhi.bitsPerPixel != 24 && bhi.bitsPerPixel != 32) {
+            super.setNextPixel(pixelSink, x, y);
+            return;
+        }
+        // blue, green and red samples, then an unused byte at 32 bits per pixel
+        pixelSink.setRgbSamples(x, y, 0xff & imageData[byteCount + 2], 0xff & imageData[byteCount + 1], 0xff & imageData[byteCount]);
+        byteCount += bhi.bitsPerPixel / 8;
+    }
 }
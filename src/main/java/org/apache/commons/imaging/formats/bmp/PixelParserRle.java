@@ -21,7 +21,7 @@ import java.util.logging.Logger;
 
 import org.apache.commons.imaging.ImagingException;
 import org.apache.commons.imaging.common.BinaryFunctions;
-import org.apache.commons.imaging.common.ImageBuilder;
+import org.apache.commons.imaging.common.PixelSink;
 
 final class PixelParserRle extends AbstractPixelParser {
 
@@ -61,7 +61,7 @@ final class PixelParserRle extends AbstractPixelParser {
         throw new ImagingException("BMP RLE: bad BitsPerPixel: " + bhi.bitsPerPixel);
     }
 
-    private int processByteOfData(final int[] rgbs, final int repeat, int x, final int y, final int width, final int height, final ImageBuilder imageBuilder) {
+    private int processByteOfData(final int[] rgbs, final int repeat, int x, final int y, final int width, final int height, final PixelSink imageBuilder) {
         // int rbg
         int pixelsWritten = 0;
         for (int i = 0; i < repeat; i++) {
@@ -85,7 +85,7 @@ final class PixelParserRle extends AbstractPixelParser {
     }
 
     @Override
-    public void processImage(final ImageBuilder imageBuilder) throws ImagingException, IOException {
+    public void processImage(final PixelSink imageBuilder) throws ImagingException, IOException {
         final int width = bhi.width;
         final int height = bhi.height;
         int x = 0;
@@ -100,6 +100,7 @@ final class PixelParserRle extends AbstractPixelParser {
                 switch (b) {
                 case 0: {
                     // EOL
+                    imageBuilder.rowsCompleted(y, 1);
                     y--;
                     x = 0;
                     break;
@@ -112,6 +113,10 @@ final class PixelParserRle extends AbstractPixelParser {
                     final int deltaX = 0xff & BinaryFunctions.readByte("RLE deltaX", is, "BMP: Bad RLE");
                     final int deltaY = 0xff & BinaryFunctions.readByte("RLE deltaY", is, "BMP: Bad RLE");
                     x += deltaX;
+                    if (deltaY > 0) {
+                        // the rows skipped by the delta keep their blank pixels
+                        imageBuilder.rowsCompleted(y - deltaY + 1, deltaY);
+                    }
                     y -= deltaY;
                     break;
                 }
@@ -39,6 +39,7 @@ import org.apache.commons.imaging.common.Allocator;
 import org.apache.commons.imaging.common.ImageMetadata;
 import org.apache.commons.imaging.formats.pcx.PcxImageParser;
 import org.apache.commons.imaging.formats.pcx.PcxImagingParameters;
+import org.apache.commons.imaging.internal.Subsampling;
 
 /**
  * Parses the DCX (multi-page PCX) image format.
@@ -107,7 +108,7 @@ public class DcxImageParser extends AbstractImageParser<PcxImagingParameters> {
     @Override
     public final BufferedImage getBufferedImage(final ByteSource byteSource, final PcxImagingParameters params) throws ImagingException, IOException {
         final List<BufferedImage> list = getAllBufferedImages(byteSource);
-        return list.isEmpty() ? null : list.get(0);
+        return list.isEmpty() ? null : Subsampling.reduce(list.get(0), params);
     }
 
     @Override
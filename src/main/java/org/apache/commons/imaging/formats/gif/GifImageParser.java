@@ -36,14 +36,19 @@ import org.apache.commons.imaging.ImageFormat;
 import org.apache.commons.imaging.ImageFormats;
 import org.apache.commons.imaging.ImageInfo;
 import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.ImagingMetrics;
 import org.apache.commons.imaging.bytesource.ByteSource;
 import org.apache.commons.imaging.common.AbstractBinaryOutputStream;
 import org.apache.commons.imaging.common.Allocator;
 import org.apache.commons.imaging.common.BinaryFunctions;
 import org.apache.commons.imaging.common.ImageBuilder;
 import org.apache.commons.imaging.common.ImageMetadata;
+import org.apache.commons.imaging.common.PixelSource;
 import org.apache.commons.imaging.common.XmpEmbeddable;
 import org.apache.commons.imaging.common.XmpImagingParameters;
+import org.apache.commons.imaging.internal.Cancellation;
+import org.apache.commons.imaging.internal.Metrics;
+import org.apache.commons.imaging.internal.Subsampling;
 import org.apache.commons.imaging.mylzw.MyLzwCompressor;
 import org.apache.commons.imaging.mylzw.MyLzwDecompressor;
 import org.apache.commons.imaging.palette.Palette;
@@ -236,17 +241,25 @@ public class GifImageParser extends AbstractImageParser<GifImagingParameters> im
     }
 
     @Override
+    @SuppressWarnings("try") // the cancellation scope and timers are only closed
     public BufferedImage getBufferedImage(final ByteSource byteSource, final GifImagingParameters params) throws ImagingException, IOException {
-        final GifImageContents imageContents = readFile(byteSource, false);
+        try (Cancellation.Scope scope = Cancellation.bind(params)) {
+            final GifImageContents imageContents;
+            try (Metrics.Timer timer = Metrics.start(ImageFormats.GIF, ImagingMetrics.Phase.PARSING)) {
+                imageContents = readFile(byteSource, false);
+            }
 
-        final GifHeaderInfo ghi = imageContents.gifHeaderInfo;
-        if (ghi == null) {
-            throw new ImagingException("GIF: Couldn't read Header");
-        }
+            final GifHeaderInfo ghi = imageContents.gifHeaderInfo;
+            if (ghi == null) {
+                throw new ImagingException("GIF: Couldn't read Header");
+            }
 
-        final GifImageData imageData = findFirstImageData(imageContents);
+            final GifImageData imageData = findFirstImageData(imageContents);
 
-        return getBufferedImage(imageData, imageContents.globalColorTable);
+            try (Metrics.Timer timer = Metrics.start(ImageFormats.GIF, ImagingMetrics.Phase.PIXEL_CONVERSION)) {
+                return Subsampling.reduce(getBufferedImage(imageData, imageContents.globalColorTable), params);
+            }
+        }
     }
 
     private BufferedImage getBufferedImage(final GifImageData imageData, final byte[] globalColorTable)
@@ -286,6 +299,7 @@ public class GifImageParser extends AbstractImageParser<GifImagingParameters> im
         final int rowsInPass4 = height / 2;
 
         for (int row = 0; row < height; row++) {
+            Cancellation.checkpoint();
             final int y;
             if (id.interlaceFlag) {
                 int theRow = row;
@@ -801,7 +815,11 @@ public class GifImageParser extends AbstractImageParser<GifImagingParameters> im
 
             final int size = imageWidth * imageHeight;
             final MyLzwDecompressor myLzwDecompressor = new MyLzwDecompressor(lzwMinimumCodeSize, ByteOrder.LITTLE_ENDIAN, false);
-            imageData = myLzwDecompressor.decompress(bais, size);
+            try (Metrics.Timer timer = Metrics.start(ImageFormats.GIF, ImagingMetrics.Phase.DECOMPRESSION)) {
+                timer.setDimensions(imageWidth, imageHeight);
+                timer.setCompression("LZW");
+                imageData = myLzwDecompressor.decompress(bais, size);
+            }
         } else {
             final int LZWMinimumCodeSize = is.read();
             if (LOGGER.isLoggable(Level.FINEST)) {
@@ -1018,9 +1036,11 @@ public class GifImageParser extends AbstractImageParser<GifImagingParameters> im
                 // Mode);
 
                 final byte[] imageData = Allocator.byteArray(width * height);
+                final PixelSource pixels = new PixelSource(src);
                 for (int y = 0; y < height; y++) {
+                    final int[] row = pixels.getRow(y);
                     for (int x = 0; x < width; x++) {
-                        final int argb = src.getRGB(x, y);
+                        final int argb = row[x];
                         final int rgb = 0xffffff & argb;
                         final int index;
 
@@ -36,6 +36,8 @@ import org.apache.commons.imaging.ImagingException;
 import org.apache.commons.imaging.bytesource.ByteSource;
 import org.apache.commons.imaging.common.AbstractBinaryOutputStream;
 import org.apache.commons.imaging.common.ImageMetadata;
+import org.apache.commons.imaging.common.PixelSource;
+import org.apache.commons.imaging.internal.Subsampling;
 
 /**
  * Parses the Apple Icon Image (.icns) format.
@@ -139,7 +141,7 @@ public class IcnsImageParser extends AbstractImageParser<IcnsImagingParameters>
         final IcnsContents icnsContents = readImage(byteSource);
         final List<BufferedImage> result = IcnsDecoder.decodeAllImages(icnsContents.icnsElements);
         if (!result.isEmpty()) {
-            return result.get(0);
+            return Subsampling.select(result, params);
         }
         throw new ImagingException("No icons in ICNS file");
     }
@@ -253,9 +255,11 @@ public class IcnsImageParser extends AbstractImageParser<IcnsImagingParameters>
 
             bos.write4Bytes(imageType.getType());
             bos.write4Bytes(4 + 4 + 4 * imageType.getWidth() * imageType.getHeight());
+            final PixelSource pixels = new PixelSource(src);
             for (int y = 0; y < src.getHeight(); y++) {
+                final int[] row = pixels.getRow(y);
                 for (int x = 0; x < src.getWidth(); x++) {
-                    final int argb = src.getRGB(x, y);
+                    final int argb = row[x];
                     bos.write(0);
                     bos.write(argb >> 16);
                     bos.write(argb >> 8);
@@ -267,8 +271,9 @@ public class IcnsImageParser extends AbstractImageParser<IcnsImagingParameters>
             bos.write4Bytes(maskType.getType());
             bos.write4Bytes(4 + 4 + imageType.getWidth() * imageType.getWidth());
             for (int y = 0; y < src.getHeight(); y++) {
+                final int[] row = pixels.getRow(y);
                 for (int x = 0; x < src.getWidth(); x++) {
-                    final int argb = src.getRGB(x, y);
+                    final int argb = row[x];
                     bos.write(argb >> 24);
                 }
             }
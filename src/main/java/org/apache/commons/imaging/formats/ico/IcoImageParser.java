@@ -30,6 +30,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.imaging.AbstractImageParser;
@@ -43,7 +44,9 @@ import org.apache.commons.imaging.bytesource.ByteSource;
 import org.apache.commons.imaging.common.AbstractBinaryOutputStream;
 import org.apache.commons.imaging.common.Allocator;
 import org.apache.commons.imaging.common.ImageMetadata;
+import org.apache.commons.imaging.common.PixelSource;
 import org.apache.commons.imaging.formats.bmp.BmpImageParser;
+import org.apache.commons.imaging.internal.Subsampling;
 import org.apache.commons.imaging.palette.PaletteFactory;
 import org.apache.commons.imaging.palette.SimplePalette;
 
@@ -277,7 +280,11 @@ public class IcoImageParser extends AbstractImageParser<IcoImagingParameters> {
         final ImageContents contents = readImage(byteSource);
         final FileHeader fileHeader = contents.fileHeader;
         if (fileHeader.iconCount > 0) {
-            return contents.iconDatas[0].readBufferedImage();
+            final List<BufferedImage> images = new ArrayList<>(contents.iconDatas.length);
+            for (final IconData iconData : contents.iconDatas) {
+                images.add(iconData.readBufferedImage());
+            }
+            return Subsampling.select(images, params);
         }
         throw new ImagingException("No icons in ICO file");
     }
@@ -697,9 +704,11 @@ public class IcoImageParser extends AbstractImageParser<IcoImagingParameters> {
             int bitCache = 0;
             int bitsInCache = 0;
             final int rowPadding = scanlineSize - (bitCount * src.getWidth() + 7) / 8;
+            final PixelSource pixels = new PixelSource(src);
             for (int y = src.getHeight() - 1; y >= 0; y--) {
+                final int[] row = pixels.getRow(y);
                 for (int x = 0; x < src.getWidth(); x++) {
-                    final int argb = src.getRGB(x, y);
+                    final int argb = row[x];
                     // Remember there is a relation between having a rgb palette and the bit count, see above comment
                     if (palette == null) {
                         if (bitCount == 24) {
@@ -739,8 +748,9 @@ public class IcoImageParser extends AbstractImageParser<IcoImagingParameters> {
 
             final int tRowPadding = tScanlineSize - (src.getWidth() + 7) / 8;
             for (int y = src.getHeight() - 1; y >= 0; y--) {
+                final int[] row = pixels.getRow(y);
                 for (int x = 0; x < src.getWidth(); x++) {
-                    final int argb = src.getRGB(x, y);
+                    final int argb = row[x];
                     final int alpha = 0xff & argb >> 24;
                     bitCache <<= 1;
                     if (alpha == 0) {
@@ -60,6 +60,7 @@ import org.apache.commons.imaging.formats.tiff.TiffImageMetadata;
 import org.apache.commons.imaging.formats.tiff.TiffImageParser;
 import org.apache.commons.imaging.formats.tiff.TiffImagingParameters;
 import org.apache.commons.imaging.formats.tiff.constants.TiffTagConstants;
+import org.apache.commons.imaging.internal.Cancellation;
 import org.apache.commons.imaging.internal.Debug;
 import org.apache.commons.lang3.ArrayUtils;
 
@@ -73,6 +74,48 @@ public class JpegImageParser extends AbstractImageParser<JpegImagingParameters>
     private static final String DEFAULT_EXTENSION = ImageFormats.JPEG.getDefaultExtension();
     private static final String[] ACCEPTED_EXTENSIONS = ImageFormats.JPEG.getExtensions();
 
+    private static final int[] SOFN_MARKERS = {
+            // kJFIFMarker,
+            JpegConstants.SOF0_MARKER, JpegConstants.SOF1_MARKER, JpegConstants.SOF2_MARKER, JpegConstants.SOF3_MARKER, JpegConstants.SOF5_MARKER,
+            JpegConstants.SOF6_MARKER, JpegConstants.SOF7_MARKER, JpegConstants.SOF9_MARKER, JpegConstants.SOF10_MARKER, JpegConstants.SOF11_MARKER,
+            JpegConstants.SOF13_MARKER, JpegConstants.SOF14_MARKER, JpegConstants.SOF15_MARKER, };
+
+    /**
+     * Parses the data of a segment and adds it to a list, if its marker is one of the segments this parser reads.
+     *
+     * @param result      the list.
+     * @param marker      the segment marker.
+     * @param segmentData the segment data.
+     */
+    static void addSegment(final List<AbstractSegment> result, final int marker, final byte[] segmentData) throws ImagingException, IOException {
+        switch (marker) {
+        case JpegConstants.JPEG_APP13_MARKER:
+            // Debug.debug("app 13 segment data", segmentData.length);
+            result.add(new App13Segment(marker, segmentData));
+            break;
+        case JpegConstants.JPEG_APP14_MARKER:
+            result.add(new App14Segment(marker, segmentData));
+            break;
+        case JpegConstants.JPEG_APP2_MARKER:
+            result.add(new App2Segment(marker, segmentData));
+            break;
+        case JpegConstants.JFIF_MARKER:
+            result.add(new JfifSegment(marker, segmentData));
+            break;
+        default:
+            if (Arrays.binarySearch(SOFN_MARKERS, marker) >= 0) {
+                result.add(new SofnSegment(marker, segmentData));
+            } else if (marker == JpegConstants.DQT_MARKER) {
+                result.add(new DqtSegment(marker, segmentData));
+            } else if (marker >= JpegConstants.JPEG_APP1_MARKER && marker <= JpegConstants.JPEG_APP15_MARKER) {
+                result.add(new UnknownSegment(marker, segmentData));
+            } else if (marker == JpegConstants.COM_MARKER) {
+                result.add(new ComSegment(marker, segmentData));
+            }
+            break;
+        }
+    }
+
     /**
      * Checks if the segment is an EXIF APP1 segment.
      *
@@ -220,9 +263,13 @@ public class JpegImageParser extends AbstractImageParser<JpegImagingParameters>
     }
 
     @Override
+    @SuppressWarnings("try") // the cancellation scope is only closed
     public final BufferedImage getBufferedImage(final ByteSource byteSource, final JpegImagingParameters params) throws ImagingException, IOException {
-        final JpegDecoder jpegDecoder = new JpegDecoder();
-        return jpegDecoder.decode(byteSource);
+        try (Cancellation.Scope scope = Cancellation.bind(params)) {
+            final JpegDecoder jpegDecoder = new JpegDecoder();
+            jpegDecoder.setSubsampling(params);
+            return jpegDecoder.decode(byteSource);
+        }
     }
 
     @Override
@@ -912,7 +959,7 @@ public class JpegImageParser extends AbstractImageParser<JpegImagingParameters>
         return result[0];
     }
 
-    private boolean keepMarker(final int marker, final int[] markers) {
+    static boolean keepMarker(final int marker, final int[] markers) {
         return ArrayUtils.contains(markers, marker);
     }
 
@@ -928,76 +975,6 @@ public class JpegImageParser extends AbstractImageParser<JpegImagingParameters>
      */
     public List<AbstractSegment> readSegments(final ByteSource byteSource, final int[] markers, final boolean returnAfterFirst)
             throws ImagingException, IOException {
-        final List<AbstractSegment> result = new ArrayList<>();
-        final int[] sofnSegments = {
-                // kJFIFMarker,
-                JpegConstants.SOF0_MARKER, JpegConstants.SOF1_MARKER, JpegConstants.SOF2_MARKER, JpegConstants.SOF3_MARKER, JpegConstants.SOF5_MARKER,
-                JpegConstants.SOF6_MARKER, JpegConstants.SOF7_MARKER, JpegConstants.SOF9_MARKER, JpegConstants.SOF10_MARKER, JpegConstants.SOF11_MARKER,
-                JpegConstants.SOF13_MARKER, JpegConstants.SOF14_MARKER, JpegConstants.SOF15_MARKER, };
-
-        final JpegUtils.Visitor visitor = new JpegUtils.Visitor() {
-            // return false to exit before reading image data.
-            @Override
-            public boolean beginSos() {
-                return false;
-            }
-
-            // return false to exit traversal.
-            @Override
-            public boolean visitSegment(final int marker, final byte[] markerBytes, final int markerLength, final byte[] markerLengthBytes,
-                    final byte[] segmentData) throws ImagingException, IOException {
-                if (marker == JpegConstants.EOI_MARKER) {
-                    return false;
-                }
-
-                // Debug.debug("visitSegment marker", marker);
-                // // Debug.debug("visitSegment keepMarker(marker, markers)",
-                // keepMarker(marker, markers));
-                // Debug.debug("visitSegment keepMarker(marker, markers)",
-                // keepMarker(marker, markers));
-
-                if (!keepMarker(marker, markers)) {
-                    return true;
-                }
-
-                switch (marker) {
-                case JpegConstants.JPEG_APP13_MARKER:
-                    // Debug.debug("app 13 segment data", segmentData.length);
-                    result.add(new App13Segment(marker, segmentData));
-                    break;
-                case JpegConstants.JPEG_APP14_MARKER:
-                    result.add(new App14Segment(marker, segmentData));
-                    break;
-                case JpegConstants.JPEG_APP2_MARKER:
-                    result.add(new App2Segment(marker, segmentData));
-                    break;
-                case JpegConstants.JFIF_MARKER:
-                    result.add(new JfifSegment(marker, segmentData));
-                    break;
-                default:
-                    if (Arrays.binarySearch(sofnSegments, marker) >= 0) {
-                        result.add(new SofnSegment(marker, segmentData));
-                    } else if (marker == JpegConstants.DQT_MARKER) {
-                        result.add(new DqtSegment(marker, segmentData));
-                    } else if (marker >= JpegConstants.JPEG_APP1_MARKER && marker <= JpegConstants.JPEG_APP15_MARKER) {
-                        result.add(new UnknownSegment(marker, segmentData));
-                    } else if (marker == JpegConstants.COM_MARKER) {
-                        result.add(new ComSegment(marker, segmentData));
-                    }
-                    break;
-                }
-
-                return !returnAfterFirst;
-            }
-
-            @Override
-            public void visitSos(final int marker, final byte[] markerBytes, final byte[] imageData) {
-                // don't need image data
-            }
-        };
-
-        new JpegUtils().traverseJfif(byteSource, visitor);
-
-        return result;
+        return JpegSegmentIndex.get(byteSource).readSegments(byteSource, markers, returnAfterFirst);
     }
 }
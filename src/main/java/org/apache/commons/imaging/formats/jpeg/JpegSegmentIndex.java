@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.formats.jpeg;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.bytesource.ByteSource;
+import org.apache.commons.imaging.common.Allocator;
+import org.apache.commons.imaging.common.BinaryFunctions;
+import org.apache.commons.imaging.common.ByteConversions;
+import org.apache.commons.imaging.formats.jpeg.segments.AbstractSegment;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Index of the segments of a JPEG byte source before its image data: the marker, offset and length of each segment, without its data.
+ * <p>
+ * The index is built lazily by reading the segment headers and skipping the data of the segments that are not requested. Once a segment is indexed, reading
+ * it again only reads its data. A byte source that keeps {@link ByteSource#getParserState(Class, java.util.function.Supplier) parser state}, such as the one of
+ * an {@link org.apache.commons.imaging.ImageSession}, keeps its index, so that its info, metadata, ICC profile and XMP reads traverse it once; for other
+ * sources, each read builds an index of its own.
+ * </p>
+ */
+final class JpegSegmentIndex {
+
+    /**
+     * A segment in the index.
+     */
+    static final class Entry {
+
+        final int marker;
+        /** Offset of the segment data in the byte source. */
+        final long offset;
+        final int length;
+
+        Entry(final int marker, final long offset, final int length) {
+            this.marker = marker;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Gets the index of a byte source.
+     *
+     * @param byteSource the byte source.
+     * @return the index the byte source keeps, possibly not built yet, or a new index if it keeps none.
+     */
+    static JpegSegmentIndex get(final ByteSource byteSource) {
+        final JpegSegmentIndex index = byteSource.getParserState(JpegSegmentIndex.class, JpegSegmentIndex::new);
+        return index != null ? index : new JpegSegmentIndex();
+    }
+
+    private static byte readByte(final InputStream is) throws IOException {
+        return BinaryFunctions.readByte("marker", is, "Could not read marker");
+    }
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    /** Offset of the next marker to index, zero before the SOI marker is read. */
+    private long nextOffset;
+
+    /** Whether the image data or the end of the image has been reached. */
+    private boolean complete;
+
+    /**
+     * Gets the segments indexed so far.
+     *
+     * @return the entries, in file order.
+     */
+    synchronized List<Entry> getEntries() {
+        return new ArrayList<>(entries);
+    }
+
+    /**
+     * Tests whether all the segments before the image data have been indexed.
+     *
+     * @return whether the SOS or EOI marker has been reached.
+     */
+    synchronized boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Reads segments of the byte source, indexing it as far as needed.
+     *
+     * @param byteSource       the byte source this index belongs to.
+     * @param markers          the markers of the segments to read.
+     * @param returnAfterFirst whether to stop after the first matching segment.
+     * @return the segments read, in file order.
+     * @throws ImagingException if the byte source is not a valid JPEG image.
+     * @throws IOException      if an I/O error occurs.
+     */
+    synchronized List<AbstractSegment> readSegments(final ByteSource byteSource, final int[] markers, final boolean returnAfterFirst)
+            throws ImagingException, IOException {
+        final List<AbstractSegment> result = new ArrayList<>();
+        for (final Entry entry : entries) {
+            if (JpegImageParser.keepMarker(entry.marker, markers)) {
+                final byte[] segmentData = byteSource.getByteArray(entry.offset, Allocator.checkByteArray(entry.length));
+                JpegImageParser.addSegment(result, entry.marker, segmentData);
+                if (returnAfterFirst) {
+                    return result;
+                }
+            }
+        }
+        if (complete) {
+            return result;
+        }
+
+        try (InputStream is = byteSource.getInputStream()) {
+            long position;
+            if (nextOffset == 0) {
+                BinaryFunctions.readAndVerifyBytes(is, JpegConstants.SOI, "Not a Valid JPEG File: doesn't begin with 0xffd8");
+                position = JpegConstants.SOI.size();
+            } else {
+                BinaryFunctions.skipBytes(is, nextOffset);
+                position = nextOffset;
+            }
+            while (true) {
+                byte previous;
+                byte current = 0;
+                do {
+                    previous = current;
+                    current = readByte(is);
+                    position++;
+                } while ((0xff & previous) != 0xff || (0xff & current) == 0xff);
+                final int marker = (0xff & previous) << 8 | 0xff & current;
+
+                if (marker == JpegConstants.EOI_MARKER || marker == JpegConstants.SOS_MARKER) {
+                    complete = true;
+                    break;
+                }
+
+                final byte[] segmentLengthBytes = BinaryFunctions.readBytes("segmentLengthBytes", is, 2, "segmentLengthBytes");
+                final int segmentLength = ByteConversions.toUInt16(segmentLengthBytes, ByteOrder.BIG_ENDIAN);
+                if (segmentLength < 2) {
+                    throw new ImagingException("Invalid segment size");
+                }
+                final long offset = position + 2;
+                final int length = segmentLength - 2;
+                final boolean keep = JpegImageParser.keepMarker(marker, markers);
+                // the stream is positioned on the data, read it now rather than seek back to it
+                byte[] segmentData = null;
+                if (keep) {
+                    segmentData = BinaryFunctions.readBytes("Segment Data", is, length, "Invalid Segment: insufficient data");
+                } else if (IOUtils.skip(is, length) < length) {
+                    throw new ImagingException("Invalid Segment: insufficient data");
+                }
+
+                entries.add(new Entry(marker, offset, length));
+                position = offset + length;
+                nextOffset = position;
+
+                if (keep) {
+                    JpegImageParser.addSegment(result, marker, segmentData);
+                    if (returnAfterFirst) {
+                        break;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -18,6 +18,7 @@ package org.apache.commons.imaging.formats.jpeg.decoder;
 import static org.apache.commons.imaging.common.BinaryFunctions.read2Bytes;
 import static org.apache.commons.imaging.common.BinaryFunctions.readBytes;
 
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
 import java.awt.image.DataBuffer;
@@ -31,10 +32,14 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 
+import org.apache.commons.imaging.ImageFormats;
 import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.ImagingMetrics;
+import org.apache.commons.imaging.ImagingParameters;
 import org.apache.commons.imaging.bytesource.ByteSource;
 import org.apache.commons.imaging.color.ColorConversions;
 import org.apache.commons.imaging.common.Allocator;
+import org.apache.commons.imaging.common.ArrayLease;
 import org.apache.commons.imaging.common.BinaryFileParser;
 import org.apache.commons.imaging.formats.jpeg.JpegConstants;
 import org.apache.commons.imaging.formats.jpeg.JpegUtils;
@@ -44,6 +49,9 @@ import org.apache.commons.imaging.formats.jpeg.segments.DqtSegment;
 import org.apache.commons.imaging.formats.jpeg.segments.DqtSegment.QuantizationTable;
 import org.apache.commons.imaging.formats.jpeg.segments.SofnSegment;
 import org.apache.commons.imaging.formats.jpeg.segments.SosSegment;
+import org.apache.commons.imaging.internal.Cancellation;
+import org.apache.commons.imaging.internal.Metrics;
+import org.apache.commons.imaging.internal.Subsampling;
 
 /**
  * Decodes JPEG images.
@@ -53,6 +61,23 @@ public class JpegDecoder extends BinaryFileParser implements JpegUtils.Visitor {
     private static final int[] BAND_MASK_ARGB = { 0x00ff0000, 0x0000ff00, 0x000000ff, 0xff000000 };
     private static final int[] BAND_MASK_RGB = { 0x00ff0000, 0x0000ff00, 0x000000ff };
 
+    /** The blocks of an MCU are entropy decoded and transformed to samples. */
+    private static final int TRANSFORM_FULL = 0;
+    /** The blocks of an MCU are entropy decoded and filled with the sample of their DC coefficient. */
+    private static final int TRANSFORM_DC = 1;
+    /** The blocks of an MCU are only entropy decoded, as none of their samples is used. */
+    private static final int TRANSFORM_NONE = 2;
+
+    /** The sample of a block that only has a DC coefficient of 1, after dequantization with the scaled tables. */
+    private static final float DC_GAIN;
+
+    static {
+        final float[] unit = new float[64];
+        unit[0] = 1;
+        Dct.inverseDct8x8(unit);
+        DC_GAIN = unit[0];
+    }
+
     /*
      * JPEG is an advanced image format that takes significant computation to decode. Keep decoding fast: - Don't allocate memory inside loops, allocate it once
      * and reuse. - Minimize calculations per pixel and per block (using lookup tables for YCbCr->RGB conversion doubled performance). - Math.round() is slow,
@@ -68,15 +93,16 @@ public class JpegDecoder extends BinaryFileParser implements JpegUtils.Visitor {
      * of restart markers found is equal to the number of start positions minus one (because restart markers are between intervals).
      *
      * @param scanPayload array to examine
+     * @param length the length of the payload in the array
      * @return the start positions
      */
-    static List<Integer> getIntervalStartPositions(final int[] scanPayload) {
+    static List<Integer> getIntervalStartPositions(final int[] scanPayload, final int length) {
         final List<Integer> intervalStarts = new ArrayList<>();
         intervalStarts.add(0);
         boolean foundFF = false;
         boolean foundD0toD7 = false;
         int pos = 0;
-        while (pos < scanPayload.length) {
+        while (pos < length) {
             if (foundFF) {
                 // found 0xFF D0 .. 0xFF D7 => RST marker
                 if (scanPayload[pos] >= (0xff & JpegConstants.RST0_MARKER) && scanPayload[pos] <= (0xff & JpegConstants.RST7_MARKER)) {
@@ -106,10 +132,11 @@ public class JpegDecoder extends BinaryFileParser implements JpegUtils.Visitor {
      * Returns an array of JpegInputStream where each field contains the JpegInputStream for one interval.
      *
      * @param scanPayload array to read intervals from
+     * @param length the length of the payload in the array
      * @return JpegInputStreams for all intervals, at least one stream is always provided
      */
-    static JpegInputStream[] splitByRstMarkers(final int[] scanPayload) {
-        final List<Integer> intervalStarts = getIntervalStartPositions(scanPayload);
+    static JpegInputStream[] splitByRstMarkers(final int[] scanPayload, final int length) {
+        final List<Integer> intervalStarts = getIntervalStartPositions(scanPayload, length);
         // get number of intervals in payload to init an array of appropriate length
         final int intervalCount = intervalStarts.size();
         final JpegInputStream[] streams = Allocator.array(intervalCount, JpegInputStream[]::new, JpegInputStream.SHALLOW_SIZE);
@@ -120,8 +147,8 @@ public class JpegDecoder extends BinaryFileParser implements JpegUtils.Visitor {
                 // because each restart marker needs two bytes the end of
                 // this interval is two bytes before the next interval starts
                 to = intervalStarts.get(i + 1) - 2;
-            } else { // the last interval ends with the array
-                to = scanPayload.length;
+            } else { // the last interval ends with the payload
+                to = length;
             }
             final int[] interval = Arrays.copyOfRange(scanPayload, from, to);
             streams[i] = new JpegInputStream(interval);
@@ -147,6 +174,11 @@ public class JpegDecoder extends BinaryFileParser implements JpegUtils.Visitor {
 
     private boolean useTiffRgb;
 
+    /** The number of MCUs in each restart interval, or 0 if the scan has no restart markers. */
+    private int restartInterval;
+
+    private ImagingParameters<?> subsamplingParams;
+
     /**
      * Constructs a new instance with the default, big-endian, byte order.
      */
@@ -222,7 +254,51 @@ public class JpegDecoder extends BinaryFileParser implements JpegUtils.Visitor {
         return v;
     }
 
-    private void readMcu(final JpegInputStream is, final int[] preds, final Block[] mcu) throws ImagingException {
+    /**
+     * Gets the first kept coordinate at or after start, kept coordinates being origin plus a multiple of the factor.
+     */
+    private int getFirstSample(final int start, final int origin, final int factor) {
+        return origin + (Math.max(start - origin, 0) + factor - 1) / factor * factor;
+    }
+
+    /**
+     * Gets the last MCU of a range that overlaps a region, or -1 if none does.
+     */
+    private int getLastUsedMcu(final int from, final int to, final int xMCUs, final int hSize, final int vSize, final Rectangle region) {
+        for (int i = to - 1; i >= from; i--) {
+            final int x1 = i % xMCUs * hSize;
+            final int y1 = i / xMCUs * vSize;
+            if (x1 < region.x + region.width && x1 + hSize > region.x && y1 < region.y + region.height && y1 + vSize > region.y) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Converts a sample of a rescaled MCU the same way as the full size decode.
+     */
+    private int getRgb(final Block[] scaledMCU, final int i) throws ImagingException {
+        if (useTiffRgb && scaledMCU.length == 4) {
+            return scaledMCU[3].samples[i] << 24 | scaledMCU[0].samples[i] << 16 | scaledMCU[1].samples[i] << 8 | scaledMCU[2].samples[i];
+        }
+        if (useTiffRgb && scaledMCU.length == 3) {
+            return scaledMCU[0].samples[i] << 16 | scaledMCU[1].samples[i] << 8 | scaledMCU[2].samples[i];
+        }
+        switch (scaledMCU.length) {
+        case 4:
+            return ColorConversions.convertCmykToRgb(scaledMCU[0].samples[i], scaledMCU[1].samples[i], scaledMCU[2].samples[i], scaledMCU[3].samples[i]);
+        case 3:
+            return YCbCrConverter.convertYCbCrToRgb(scaledMCU[0].samples[i], scaledMCU[1].samples[i], scaledMCU[2].samples[i]);
+        case 1:
+            final int y = scaledMCU[0].samples[i];
+            return y << 16 | y << 8 | y;
+        default:
+            throw new ImagingException("Unsupported JPEG with " + scaledMCU.length + " components");
+        }
+    }
+
+    private void readMcu(final JpegInputStream is, final int[] preds, final Block[] mcu, final int transform) throws ImagingException {
         for (int i = 0; i < sosSegment.numberOfComponents; i++) {
             final SosSegment.Component scanComponent = sosSegment.getComponents(i);
             SofnSegment.Component frameComponent = null;
@@ -273,10 +349,24 @@ public class JpegDecoder extends BinaryFileParser implements JpegUtils.Visitor {
                         }
                     }
 
+                    if (transform == TRANSFORM_NONE) {
+                        continue;
+                    }
                     final int shift = 1 << sofnSegment.precision - 1;
                     final int max = (1 << sofnSegment.precision) - 1;
 
                     final float[] scaledQuantizationTable = scaledQuantizationTables[frameComponent.quantTabDestSelector];
+                    if (transform == TRANSFORM_DC) {
+                        // the inverse DCT of the DC coefficient alone is the average of the block
+                        final float sample = zz[0] * scaledQuantizationTable[0] * DC_GAIN + shift;
+                        final int result = sample < 0 ? 0 : sample > max ? max : fastRound(sample);
+                        int dstRowOffset = 8 * y * 8 * frameComponent.horizontalSamplingFactor + 8 * x;
+                        for (int yy = 0; yy < 8; yy++) {
+                            Arrays.fill(fullBlock.samples, dstRowOffset, dstRowOffset + 8, result);
+                            dstRowOffset += 8 * frameComponent.horizontalSamplingFactor;
+                        }
+                        continue;
+                    }
                     ZigZag.zigZagToBlock(zz, blockInt);
                     for (int j = 0; j < 64; j++) {
                         block[j] = blockInt[j] * scaledQuantizationTable[j];
@@ -351,6 +441,17 @@ public class JpegDecoder extends BinaryFileParser implements JpegUtils.Visitor {
         }
     }
 
+    /**
+     * Sets the decoder to reduce images as requested by the subsampling and target size of the parameters. Blocks without a kept pixel are entropy decoded
+     * but not transformed, and images reduced by a multiple of 8 only use the DC coefficient of each block.
+     *
+     * @param params the parameters of the read, may be null for full size.
+     * @since 1.0.0-alpha7
+     */
+    public void setSubsampling(final ImagingParameters<?> params) {
+        subsamplingParams = params;
+    }
+
     /**
      * Sets the decoder to treat incoming data as using the RGB color model. This extension to the JPEG specification is intended to support TIFF files that use
      * JPEG compression.
@@ -370,7 +471,17 @@ public class JpegDecoder extends BinaryFileParser implements JpegUtils.Visitor {
             if (marker != JpegConstants.SOF0_MARKER) {
                 throw new ImagingException("Only sequential, baseline JPEGs are supported at the moment");
             }
-            sofnSegment = new SofnSegment(marker, segmentData);
+            final SofnSegment segment = new SofnSegment(marker, segmentData);
+            if (segment.numberOfComponents == 1 && segmentData.length > 7
+                    && (segment.getComponents(0).horizontalSamplingFactor != 1 || segment.getComponents(0).verticalSamplingFactor != 1)) {
+                // a single component is never interleaved, so its MCU is one 8x8 block whatever
+                // sampling factors it declares (T.81, A.2.2)
+                final byte[] normalized = segmentData.clone();
+                normalized[7] = 0x11;
+                sofnSegment = new SofnSegment(marker, normalized);
+            } else {
+                sofnSegment = segment;
+            }
         } else if (marker == JpegConstants.DQT_MARKER) {
             final DqtSegment dqtSegment = new DqtSegment(marker, segmentData);
             for (final QuantizationTable table : dqtSegment.quantizationTables) {
@@ -388,6 +499,11 @@ public class JpegDecoder extends BinaryFileParser implements JpegUtils.Visitor {
                 Dct.scaleDequantizationMatrix(quantizationMatrixFloat);
                 scaledQuantizationTables[table.destinationIdentifier] = quantizationMatrixFloat;
             }
+        } else if (marker == JpegConstants.DRI_MARKER) {
+            if (segmentData.length < 2) {
+                throw new ImagingException("Invalid DRI segment");
+            }
+            restartInterval = (0xff & segmentData[0]) << 8 | 0xff & segmentData[1];
         } else if (marker == JpegConstants.DHT_MARKER) {
             final DhtSegment dhtSegment = new DhtSegment(marker, segmentData);
             for (final HuffmanTable table : dhtSegment.huffmanTables) {
@@ -410,7 +526,11 @@ public class JpegDecoder extends BinaryFileParser implements JpegUtils.Visitor {
 
     @Override
     public void visitSos(final int marker, final byte[] markerBytes, final byte[] imageData) {
-        try (ByteArrayInputStream is = new ByteArrayInputStream(imageData)) {
+        // entropy decoding, the inverse DCT and color conversion are interleaved per MCU
+        try (Metrics.Timer timer = Metrics.start(ImageFormats.JPEG, ImagingMetrics.Phase.DECOMPRESSION);
+                ByteArrayInputStream is = new ByteArrayInputStream(imageData)) {
+            timer.setDimensions(sofnSegment.width, sofnSegment.height);
+            timer.setCompression("Huffman");
             // read the scan header
             final int segmentLength = read2Bytes("segmentLength", is, "Not a Valid JPEG File", getByteOrder());
             final byte[] sosSegmentBytes = readBytes("SosSegment", is, segmentLength - 2, "Not a Valid JPEG File");
@@ -419,11 +539,17 @@ public class JpegDecoder extends BinaryFileParser implements JpegUtils.Visitor {
             // the payload contains the entropy-encoded segments (or ECS) divided by RST markers
             // or only one ECS if the entropy-encoded data is not divided by RST markers
             // length of payload = length of image data - length of data already read
-            final int[] scanPayload = Allocator.intArray(imageData.length - segmentLength);
-            int payloadReadCount = 0;
-            while (payloadReadCount < scanPayload.length) {
-                scanPayload[payloadReadCount] = is.read();
-                payloadReadCount++;
+            final int payloadLength = imageData.length - segmentLength;
+            final JpegInputStream[] bitInputStreams;
+            // the payload is only scratch: the intervals are copied out of it
+            try (ArrayLease<int[]> lease = Allocator.leaseIntArray(payloadLength)) {
+                final int[] scanPayload = lease.get();
+                int payloadReadCount = 0;
+                while (payloadReadCount < payloadLength) {
+                    scanPayload[payloadReadCount] = is.read();
+                    payloadReadCount++;
+                }
+                bitInputStreams = splitByRstMarkers(scanPayload, payloadLength);
             }
 
             int hMax = 0;
@@ -441,9 +567,15 @@ public class JpegDecoder extends BinaryFileParser implements JpegUtils.Visitor {
             final Block[] scaledMCU = Allocator.array(mcu.length, Block[]::new, Block.SHALLOW_SIZE);
             Arrays.setAll(scaledMCU, i -> new Block(hSize, vSize));
             final int[] preds = Allocator.intArray(sofnSegment.numberOfComponents);
+            final Rectangle region = Subsampling.getRegion(subsamplingParams, sofnSegment.width, sofnSegment.height);
+            final int subsampling = Subsampling.getFactor(subsamplingParams, region.width, region.height);
+            final int sampledTransform = subsampling % 8 == 0 ? TRANSFORM_DC : TRANSFORM_FULL;
+            final boolean reduced = subsampling != 1 || region.width != sofnSegment.width || region.height != sofnSegment.height;
+            final int imageWidth = Subsampling.getSize(region.width, subsampling);
+            final int imageHeight = Subsampling.getSize(region.height, subsampling);
             final ColorModel colorModel;
             final WritableRaster raster;
-            Allocator.check(Integer.BYTES * sofnSegment.width * sofnSegment.height);
+            Allocator.check((long) imageWidth * imageHeight, Integer.BYTES);
             switch (sofnSegment.numberOfComponents) {
             case 4:
                 // Special handling for the application-RGB case: TIFF files with
@@ -452,50 +584,91 @@ public class JpegDecoder extends BinaryFileParser implements JpegUtils.Visitor {
                 // with a fourth channel for alpha.
                 if (useTiffRgb) {
                     colorModel = new DirectColorModel(32, 0x00ff0000, 0x0000ff00, 0x000000ff, 0xff000000);
-                    raster = Raster.createPackedRaster(DataBuffer.TYPE_INT, sofnSegment.width, sofnSegment.height, BAND_MASK_ARGB, null);
+                    raster = Raster.createPackedRaster(DataBuffer.TYPE_INT, imageWidth, imageHeight, BAND_MASK_ARGB, null);
                 } else {
                     colorModel = new DirectColorModel(24, 0x00ff0000, 0x0000ff00, 0x000000ff);
-                    raster = Raster.createPackedRaster(DataBuffer.TYPE_INT, sofnSegment.width, sofnSegment.height, BAND_MASK_RGB, null);
+                    raster = Raster.createPackedRaster(DataBuffer.TYPE_INT, imageWidth, imageHeight, BAND_MASK_RGB, null);
                 }
 
                 break;
             case 3:
                 colorModel = new DirectColorModel(24, 0x00ff0000, 0x0000ff00, 0x000000ff);
-                raster = Raster.createPackedRaster(DataBuffer.TYPE_INT, sofnSegment.width, sofnSegment.height, new int[] { 0x00ff0000, 0x0000ff00, 0x000000ff },
+                raster = Raster.createPackedRaster(DataBuffer.TYPE_INT, imageWidth, imageHeight, new int[] { 0x00ff0000, 0x0000ff00, 0x000000ff },
                         null);
                 break;
             case 1:
                 colorModel = new DirectColorModel(24, 0x00ff0000, 0x0000ff00, 0x000000ff);
-                raster = Raster.createPackedRaster(DataBuffer.TYPE_INT, sofnSegment.width, sofnSegment.height, new int[] { 0x00ff0000, 0x0000ff00, 0x000000ff },
+                raster = Raster.createPackedRaster(DataBuffer.TYPE_INT, imageWidth, imageHeight, new int[] { 0x00ff0000, 0x0000ff00, 0x000000ff },
                         null);
                 // FIXME: why do images come out too bright with CS_GRAY?
                 // colorModel = new ComponentColorModel(
                 // ColorSpace.getInstance(ColorSpace.CS_GRAY), false, true,
                 // Transparency.OPAQUE, DataBuffer.TYPE_BYTE);
                 // raster = colorModel.createCompatibleWritableRaster(
-                // sofnSegment.width, sofnSegment.height);
+                // imageWidth, imageHeight);
                 break;
             default:
                 throw new ImagingException(sofnSegment.numberOfComponents + " components are invalid or unsupported");
             }
             final DataBuffer dataBuffer = raster.getDataBuffer();
 
-            final JpegInputStream[] bitInputStreams = splitByRstMarkers(scanPayload);
             int bitInputStreamCount = 0;
             JpegInputStream bitInputStream = bitInputStreams[0];
 
-            for (int y1 = 0; y1 < vSize * yMCUs; y1 += vSize) {
-                for (int x1 = 0; x1 < hSize * xMCUs; x1 += hSize) {
-                    // Provide the next interval if an interval is read until it's end
-                    // as long there are unread intervals available
-                    if (!bitInputStream.hasNext()) {
+            // a reduced image ends with the MCU row holding its last row, and the MCUs of a restart interval
+            // after the last one holding a kept pixel are not even entropy decoded
+            final int regionRight = region.x + region.width;
+            final int regionBottom = region.y + region.height;
+            final int lastMcuRow = reduced ? (regionBottom - 1) / vSize : yMCUs - 1;
+            int mcuIndex = 0;
+            int lastUsedMcu = Integer.MAX_VALUE;
+            for (int y1 = 0; y1 <= vSize * lastMcuRow; y1 += vSize) {
+                Cancellation.checkpoint();
+                for (int x1 = 0; x1 < hSize * xMCUs; x1 += hSize, mcuIndex++) {
+                    if (restartInterval > 0) {
+                        // each interval starts with the DC predictions reset
+                        if (mcuIndex % restartInterval == 0) {
+                            if (mcuIndex / restartInterval < bitInputStreams.length) {
+                                bitInputStream = bitInputStreams[mcuIndex / restartInterval];
+                            }
+                            Arrays.fill(preds, 0);
+                            if (reduced) {
+                                lastUsedMcu = getLastUsedMcu(mcuIndex, Math.min(mcuIndex + restartInterval, xMCUs * yMCUs), xMCUs, hSize, vSize, region);
+                            }
+                        }
+                    } else if (!bitInputStream.hasNext()) {
+                        // Provide the next interval if an interval is read until it's end
+                        // as long there are unread intervals available
                         bitInputStreamCount++;
                         if (bitInputStreamCount < bitInputStreams.length) {
                             bitInputStream = bitInputStreams[bitInputStreamCount];
                         }
                     }
 
-                    readMcu(bitInputStream, preds, mcu);
+                    if (reduced) {
+                        // only the MCUs holding a kept pixel are transformed
+                        final int xStart = getFirstSample(x1, region.x, subsampling);
+                        final int yStart = getFirstSample(y1, region.y, subsampling);
+                        final int xEnd = Math.min(x1 + hSize, regionRight);
+                        final int yEnd = Math.min(y1 + vSize, regionBottom);
+                        if (xStart >= xEnd || yStart >= yEnd) {
+                            if (mcuIndex <= lastUsedMcu) {
+                                readMcu(bitInputStream, preds, mcu, TRANSFORM_NONE);
+                            }
+                            continue;
+                        }
+                        readMcu(bitInputStream, preds, mcu, sampledTransform);
+                        rescaleMcu(mcu, hSize, vSize, scaledMCU);
+                        for (int y2 = yStart; y2 < yEnd; y2 += subsampling) {
+                            final int srcRowOffset = (y2 - y1) * hSize - x1;
+                            final int dstRowOffset = (y2 - region.y) / subsampling * imageWidth;
+                            for (int x2 = xStart; x2 < xEnd; x2 += subsampling) {
+                                dataBuffer.setElem(dstRowOffset + (x2 - region.x) / subsampling, getRgb(scaledMCU, srcRowOffset + x2));
+                            }
+                        }
+                        continue;
+                    }
+                    readMcu(bitInputStream, preds, mcu, TRANSFORM_FULL);
                     rescaleMcu(mcu, hSize, vSize, scaledMCU);
                     int srcRowOffset = 0;
                     int dstRowOffset = y1 * sofnSegment.width + x1;
@@ -21,6 +21,7 @@ import static org.apache.commons.imaging.common.BinaryFunctions.skipBytes;
 import static org.apache.commons.imaging.common.ByteConversions.toUInt16;
 
 import java.awt.Dimension;
+import java.awt.Rectangle;
 import java.awt.Transparency;
 import java.awt.color.ColorSpace;
 import java.awt.image.BufferedImage;
@@ -48,6 +49,8 @@ import org.apache.commons.imaging.ImagingException;
 import org.apache.commons.imaging.bytesource.ByteSource;
 import org.apache.commons.imaging.common.Allocator;
 import org.apache.commons.imaging.common.ImageMetadata;
+import org.apache.commons.imaging.internal.Cancellation;
+import org.apache.commons.imaging.internal.Subsampling;
 
 /**
  * Parses PCX (PC Paintbrush) images.
@@ -207,13 +210,19 @@ public class PcxImageParser extends AbstractImageParser<PcxImagingParameters> {
     }
 
     @Override
+    @SuppressWarnings("try") // the cancellation scope is only closed
     public final BufferedImage getBufferedImage(final ByteSource byteSource, PcxImagingParameters params) throws ImagingException, IOException {
         if (params == null) {
             params = new PcxImagingParameters();
         }
-        try (InputStream is = byteSource.getInputStream()) {
+        try (Cancellation.Scope scope = Cancellation.bind(params);
+                InputStream is = byteSource.getInputStream()) {
             final PcxHeader pcxHeader = readPcxHeader(is, params.isStrict());
-            return readImage(pcxHeader, is, byteSource);
+            // only the rows of the sub-image are stored, and its columns are cropped from them
+            final Rectangle region = Subsampling.getRegion(params, pcxHeader.xMax - pcxHeader.xMin + 1, pcxHeader.yMax - pcxHeader.yMin + 1);
+            final BufferedImage rows = readImage(pcxHeader, is, byteSource, region.y, region.height);
+            final int subsampling = Subsampling.getFactor(params, region.width, region.height);
+            return Subsampling.reduce(rows, new Rectangle(region.x, 0, region.width, region.height), subsampling);
         }
     }
 
@@ -286,7 +295,11 @@ public class PcxImageParser extends AbstractImageParser<PcxImagingParameters> {
         }
     }
 
-    private BufferedImage readImage(final PcxHeader pcxHeader, final InputStream is, final ByteSource byteSource) throws ImagingException, IOException {
+    /**
+     * Reads the given rows of an image; the rows after them are not decoded unless a palette follows the image data.
+     */
+    private BufferedImage readImage(final PcxHeader pcxHeader, final InputStream is, final ByteSource byteSource, final int firstRow, final int rowCount)
+            throws ImagingException, IOException {
         final int xSize = pcxHeader.xMax - pcxHeader.xMin + 1;
         if (xSize < 0) {
             throw new ImagingException("Image width is negative");
@@ -308,13 +321,19 @@ public class PcxImageParser extends AbstractImageParser<PcxImagingParameters> {
         }
         final int scanlineLength = pcxHeader.bytesPerLine * pcxHeader.nPlanes;
         final byte[] scanline = Allocator.byteArray(scanlineLength);
+        final int endRow = firstRow + rowCount;
         if ((pcxHeader.bitsPerPixel == 1 || pcxHeader.bitsPerPixel == 2 || pcxHeader.bitsPerPixel == 4 || pcxHeader.bitsPerPixel == 8)
                 && pcxHeader.nPlanes == 1) {
             final int bytesPerImageRow = (xSize * pcxHeader.bitsPerPixel + 7) / 8;
-            final byte[] image = Allocator.byteArray(ySize * bytesPerImageRow);
-            for (int y = 0; y < ySize; y++) {
+            final byte[] image = Allocator.byteArray(rowCount * bytesPerImageRow);
+            // the 256 color palette is looked for after the last row
+            final int readRows = pcxHeader.bitsPerPixel == 8 ? ySize : endRow;
+            for (int y = 0; y < readRows; y++) {
+                Cancellation.checkpoint();
                 rleReader.read(is, scanline);
-                System.arraycopy(scanline, 0, image, y * bytesPerImageRow, bytesPerImageRow);
+                if (y >= firstRow && y < endRow) {
+                    System.arraycopy(scanline, 0, image, (y - firstRow) * bytesPerImageRow, bytesPerImageRow);
+                }
             }
             final DataBufferByte dataBuffer = new DataBufferByte(image, image.length);
             int[] palette;
@@ -339,9 +358,9 @@ public class PcxImageParser extends AbstractImageParser<PcxImagingParameters> {
             }
             final WritableRaster raster;
             if (pcxHeader.bitsPerPixel == 8) {
-                raster = Raster.createInterleavedRaster(dataBuffer, xSize, ySize, bytesPerImageRow, 1, new int[] { 0 }, null);
+                raster = Raster.createInterleavedRaster(dataBuffer, xSize, rowCount, bytesPerImageRow, 1, new int[] { 0 }, null);
             } else {
-                raster = Raster.createPackedRaster(dataBuffer, xSize, ySize, pcxHeader.bitsPerPixel, null);
+                raster = Raster.createPackedRaster(dataBuffer, xSize, rowCount, pcxHeader.bitsPerPixel, null);
             }
             final IndexColorModel colorModel = new IndexColorModel(pcxHeader.bitsPerPixel, 1 << pcxHeader.bitsPerPixel, palette, 0, false, -1,
                     DataBuffer.TYPE_BYTE);
@@ -350,10 +369,14 @@ public class PcxImageParser extends AbstractImageParser<PcxImagingParameters> {
         if (pcxHeader.bitsPerPixel == 1 && 2 <= pcxHeader.nPlanes && pcxHeader.nPlanes <= 4) {
             final IndexColorModel colorModel = new IndexColorModel(pcxHeader.nPlanes, 1 << pcxHeader.nPlanes, pcxHeader.colormap, 0, false, -1,
                     DataBuffer.TYPE_BYTE);
-            final BufferedImage image = new BufferedImage(xSize, ySize, BufferedImage.TYPE_BYTE_BINARY, colorModel);
+            final BufferedImage image = new BufferedImage(xSize, rowCount, BufferedImage.TYPE_BYTE_BINARY, colorModel);
             final byte[] unpacked = Allocator.byteArray(xSize);
-            for (int y = 0; y < ySize; y++) {
+            for (int y = 0; y < endRow; y++) {
+                Cancellation.checkpoint();
                 rleReader.read(is, scanline);
+                if (y < firstRow) {
+                    continue;
+                }
                 int nextByte = 0;
                 Arrays.fill(unpacked, (byte) 0);
                 for (int plane = 0; plane < pcxHeader.nPlanes; plane++) {
@@ -364,24 +387,29 @@ public class PcxImageParser extends AbstractImageParser<PcxImagingParameters> {
                         }
                     }
                 }
-                image.getRaster().setDataElements(0, y, xSize, 1, unpacked);
+                image.getRaster().setDataElements(0, y - firstRow, xSize, 1, unpacked);
             }
             return image;
         }
         if (pcxHeader.bitsPerPixel == 8 && pcxHeader.nPlanes == 3) {
             final byte[][] image = new byte[3][];
-            final int xySize = xSize * ySize;
+            final int xySize = xSize * rowCount;
             image[0] = Allocator.byteArray(xySize);
             image[1] = Allocator.byteArray(xySize);
             image[2] = Allocator.byteArray(xySize);
-            for (int y = 0; y < ySize; y++) {
+            for (int y = 0; y < endRow; y++) {
+                Cancellation.checkpoint();
                 rleReader.read(is, scanline);
-                System.arraycopy(scanline, 0, image[0], y * xSize, xSize);
-                System.arraycopy(scanline, pcxHeader.bytesPerLine, image[1], y * xSize, xSize);
-                System.arraycopy(scanline, 2 * pcxHeader.bytesPerLine, image[2], y * xSize, xSize);
+                if (y < firstRow) {
+                    continue;
+                }
+                final int offset = (y - firstRow) * xSize;
+                System.arraycopy(scanline, 0, image[0], offset, xSize);
+                System.arraycopy(scanline, pcxHeader.bytesPerLine, image[1], offset, xSize);
+                System.arraycopy(scanline, 2 * pcxHeader.bytesPerLine, image[2], offset, xSize);
             }
             final DataBufferByte dataBuffer = new DataBufferByte(image, image[0].length);
-            final WritableRaster raster = Raster.createBandedRaster(dataBuffer, xSize, ySize, xSize, new int[] { 0, 1, 2 }, new int[] { 0, 0, 0 }, null);
+            final WritableRaster raster = Raster.createBandedRaster(dataBuffer, xSize, rowCount, xSize, new int[] { 0, 1, 2 }, new int[] { 0, 0, 0 }, null);
             final ColorModel colorModel = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_sRGB), false, false, Transparency.OPAQUE,
                     DataBuffer.TYPE_BYTE);
             return new BufferedImage(colorModel, raster, colorModel.isAlphaPremultiplied(), new Properties());
@@ -390,21 +418,26 @@ public class PcxImageParser extends AbstractImageParser<PcxImagingParameters> {
             throw new ImagingException("Invalid/unsupported image with bitsPerPixel " + pcxHeader.bitsPerPixel + " and planes " + pcxHeader.nPlanes);
         }
         final int rowLength = 3 * xSize;
-        final byte[] image = Allocator.byteArray(rowLength * ySize);
-        for (int y = 0; y < ySize; y++) {
+        final byte[] image = Allocator.byteArray(rowLength * rowCount);
+        for (int y = 0; y < endRow; y++) {
+            Cancellation.checkpoint();
             rleReader.read(is, scanline);
+            if (y < firstRow) {
+                continue;
+            }
+            final int offset = (y - firstRow) * rowLength;
             if (pcxHeader.bitsPerPixel == 24) {
-                System.arraycopy(scanline, 0, image, y * rowLength, rowLength);
+                System.arraycopy(scanline, 0, image, offset, rowLength);
             } else {
                 for (int x = 0; x < xSize; x++) {
-                    image[y * rowLength + 3 * x] = scanline[4 * x];
-                    image[y * rowLength + 3 * x + 1] = scanline[4 * x + 1];
-                    image[y * rowLength + 3 * x + 2] = scanline[4 * x + 2];
+                    image[offset + 3 * x] = scanline[4 * x];
+                    image[offset + 3 * x + 1] = scanline[4 * x + 1];
+                    image[offset + 3 * x + 2] = scanline[4 * x + 2];
                 }
             }
         }
         final DataBufferByte dataBuffer = new DataBufferByte(image, image.length);
-        final WritableRaster raster = Raster.createInterleavedRaster(dataBuffer, xSize, ySize, rowLength, 3, new int[] { 2, 1, 0 }, null);
+        final WritableRaster raster = Raster.createInterleavedRaster(dataBuffer, xSize, rowCount, rowLength, 3, new int[] { 2, 1, 0 }, null);
         final ColorModel colorModel = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_sRGB), false, false, Transparency.OPAQUE,
                 DataBuffer.TYPE_BYTE);
         return new BufferedImage(colorModel, raster, colorModel.isAlphaPremultiplied(), new Properties());
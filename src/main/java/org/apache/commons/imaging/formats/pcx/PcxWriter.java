@@ -23,6 +23,7 @@ import java.util.Arrays;
 import org.apache.commons.imaging.PixelDensity;
 import org.apache.commons.imaging.common.AbstractBinaryOutputStream;
 import org.apache.commons.imaging.common.Allocator;
+import org.apache.commons.imaging.common.PixelSource;
 import org.apache.commons.imaging.palette.PaletteFactory;
 import org.apache.commons.imaging.palette.SimplePalette;
 
@@ -181,14 +182,16 @@ final class PcxWriter {
         final byte[] plane3 = Allocator.byteArray(bytesPerLine);
         final byte[][] allPlanes = { plane0, plane1, plane2, plane3 };
 
+        final PixelSource pixels = new PixelSource(src);
         for (int y = 0; y < src.getHeight(); y++) {
+            final int[] row = pixels.getRow(y);
             for (int i = 0; i < planes; i++) {
                 Arrays.fill(allPlanes[i], (byte) 0);
             }
 
             if (bitDepth == 1 && planes == 1) {
                 for (int x = 0; x < src.getWidth(); x++) {
-                    final int rgb = 0xffffff & src.getRGB(x, y);
+                    final int rgb = 0xffffff & row[x];
                     final int bit;
                     if (rgb == 0x000000) {
                         bit = 0;
@@ -199,14 +202,14 @@ final class PcxWriter {
                 }
             } else if (bitDepth == 1 && planes == 2) {
                 for (int x = 0; x < src.getWidth(); x++) {
-                    final int argb = src.getRGB(x, y);
+                    final int argb = row[x];
                     final int index = palette.getPaletteIndex(0xffffff & argb);
                     plane0[x >>> 3] |= (index & 1) << 7 - (x & 7);
                     plane1[x >>> 3] |= (index & 2) >> 1 << 7 - (x & 7);
                 }
             } else if (bitDepth == 1 && planes == 3) {
                 for (int x = 0; x < src.getWidth(); x++) {
-                    final int argb = src.getRGB(x, y);
+                    final int argb = row[x];
                     final int index = palette.getPaletteIndex(0xffffff & argb);
                     plane0[x >>> 3] |= (index & 1) << 7 - (x & 7);
                     plane1[x >>> 3] |= (index & 2) >> 1 << 7 - (x & 7);
@@ -214,7 +217,7 @@ final class PcxWriter {
                 }
             } else if (bitDepth == 1 && planes == 4) {
                 for (int x = 0; x < src.getWidth(); x++) {
-                    final int argb = src.getRGB(x, y);
+                    final int argb = row[x];
                     final int index = palette.getPaletteIndex(0xffffff & argb);
                     plane0[x >>> 3] |= (index & 1) << 7 - (x & 7);
                     plane1[x >>> 3] |= (index & 2) >> 1 << 7 - (x & 7);
@@ -223,25 +226,25 @@ final class PcxWriter {
                 }
             } else if (bitDepth == 2 && planes == 1) {
                 for (int x = 0; x < src.getWidth(); x++) {
-                    final int argb = src.getRGB(x, y);
+                    final int argb = row[x];
                     final int index = palette.getPaletteIndex(0xffffff & argb);
                     plane0[x >>> 2] |= index << 2 * (3 - (x & 3));
                 }
             } else if (bitDepth == 4 && planes == 1) {
                 for (int x = 0; x < src.getWidth(); x++) {
-                    final int argb = src.getRGB(x, y);
+                    final int argb = row[x];
                     final int index = palette.getPaletteIndex(0xffffff & argb);
                     plane0[x >>> 1] |= index << 4 * (1 - (x & 1));
                 }
             } else if (bitDepth == 8 && planes == 1) {
                 for (int x = 0; x < src.getWidth(); x++) {
-                    final int argb = src.getRGB(x, y);
+                    final int argb = row[x];
                     final int index = palette.getPaletteIndex(0xffffff & argb);
                     plane0[x] = (byte) index;
                 }
             } else if (bitDepth == 8 && planes == 3) {
                 for (int x = 0; x < src.getWidth(); x++) {
-                    final int argb = src.getRGB(x, y);
+                    final int argb = row[x];
                     plane0[x] = (byte) (argb >>> 16);
                     plane1[x] = (byte) (argb >>> 8);
                     plane2[x] = (byte) argb;
@@ -257,10 +260,10 @@ final class PcxWriter {
 
     private void writePixels32(final BufferedImage src, final int bytesPerLine, final AbstractBinaryOutputStream bos) throws IOException {
 
-        final int[] rgbs = Allocator.intArray(src.getWidth());
+        final PixelSource pixels = new PixelSource(src);
         final byte[] plane = Allocator.byteArray(4 * bytesPerLine);
         for (int y = 0; y < src.getHeight(); y++) {
-            src.getRGB(0, y, src.getWidth(), 1, rgbs, 0, src.getWidth());
+            final int[] rgbs = pixels.getRow(y);
             for (int x = 0; x < rgbs.length; x++) {
                 plane[4 * x + 0] = (byte) rgbs[x];
                 plane[4 * x + 1] = (byte) (rgbs[x] >> 8);
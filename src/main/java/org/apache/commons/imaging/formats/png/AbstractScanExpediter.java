@@ -16,11 +16,18 @@
  */
 package org.apache.commons.imaging.formats.png;
 
-import static org.apache.commons.imaging.common.BinaryFunctions.readBytes;
-
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 
 import org.apache.commons.imaging.ImagingException;
 import org.apache.commons.imaging.common.Allocator;
@@ -32,9 +39,12 @@ import org.apache.commons.imaging.formats.png.scanlinefilters.ScanlineFilterPaet
 import org.apache.commons.imaging.formats.png.scanlinefilters.ScanlineFilterSub;
 import org.apache.commons.imaging.formats.png.scanlinefilters.ScanlineFilterUp;
 import org.apache.commons.imaging.formats.png.transparencyfilters.AbstractTransparencyFilter;
+import org.apache.commons.io.IOUtils;
 
 abstract class AbstractScanExpediter {
 
+    private static final FilterType[] FILTER_TYPES = FilterType.values();
+
     final int width;
     final int height;
     final InputStream is;
@@ -47,9 +57,27 @@ abstract class AbstractScanExpediter {
     final GammaCorrection gammaCorrection;
     final AbstractTransparencyFilter abstractTransparencyFilter;
 
+    /** Converts whole scanlines, or null if pixels must be converted one at a time. */
+    private final PngRowConverter rowConverter;
+    /** Backing array of a packed int destination, or null. */
+    private int[] intPixels;
+    /** Backing array of an 8-bit greyscale destination, or null. */
+    private byte[] grayPixels;
+    /** Maps the (equal) RGB samples of a grey pixel to the value stored in {@link #grayPixels}. */
+    private byte[] grayLut;
+    /** Backing array of a 3 byte BGR destination, or null. */
+    private byte[] bgrPixels;
+    /** Whether scanlines are 8-bit RGB samples that can be stored in {@link #bgrPixels} without conversion. */
+    private boolean bgrSamples;
+    private boolean opaque;
+    private int pixelOffset;
+    private int scanlineStride;
+    /** Scratch row used when the destination can only be written through {@link BufferedImage#setRGB}. */
+    private int[] rowPixels;
+
     AbstractScanExpediter(final int width, final int height, final InputStream is, final BufferedImage bi, final PngColorType pngColorType, final int bitDepth,
             final int bitsPerPixel, final PngChunkPlte pngChunkPLTE, final GammaCorrection gammaCorrection,
-            final AbstractTransparencyFilter abstractTransparencyFilter) {
+            final AbstractTransparencyFilter abstractTransparencyFilter) throws ImagingException, IOException {
         this.width = width;
         this.height = height;
         this.is = is;
@@ -61,6 +89,10 @@ abstract class AbstractScanExpediter {
         this.pngChunkPlte = pngChunkPLTE;
         this.gammaCorrection = gammaCorrection;
         this.abstractTransparencyFilter = abstractTransparencyFilter;
+        this.rowConverter = PngRowConverter.create(pngColorType, bitDepth, pngChunkPLTE, gammaCorrection, abstractTransparencyFilter);
+        if (rowConverter != null) {
+            initDestination();
+        }
     }
 
     public abstract void drive() throws ImagingException, IOException;
@@ -69,18 +101,30 @@ abstract class AbstractScanExpediter {
         return (bits + 7) / 8;
     }
 
-    byte[] getNextScanline(final InputStream is, final int length, final byte[] prev, final int bytesPerPixel) throws ImagingException, IOException {
+    /**
+     * Reads and unfilters the next scanline.
+     *
+     * @param is            the image data.
+     * @param scanline      receives the filtered scanline, and has exactly its length.
+     * @param dst           receives the unfiltered scanline, and may be longer.
+     * @param prev          the previous unfiltered scanline, or null for the first scanline of a pass.
+     * @param bytesPerPixel the number of bytes per complete pixel.
+     */
+    void getNextScanline(final InputStream is, final byte[] scanline, final byte[] dst, final byte[] prev, final int bytesPerPixel)
+            throws ImagingException, IOException {
         final int filterType = is.read();
         if (filterType < 0) {
             throw new ImagingException("PNG: missing filter type");
         }
-        if (filterType >= FilterType.values().length) {
+        if (filterType >= FILTER_TYPES.length) {
             throw new ImagingException("PNG: unknown filterType: " + filterType);
         }
 
-        final byte[] scanline = readBytes("scanline", is, length, "PNG: missing image data");
+        if (IOUtils.read(is, scanline) < scanline.length) {
+            throw new IOException("PNG: missing image data, name: scanline, length: " + scanline.length);
+        }
 
-        return unfilterScanline(FilterType.values()[filterType], scanline, prev, bytesPerPixel);
+        getScanlineFilter(FILTER_TYPES[filterType], bytesPerPixel).unfilter(scanline, dst, prev);
     }
 
     final int getPixelArgb(final int alpha, final int red, final int green, final int blue) {
@@ -183,6 +227,155 @@ abstract class AbstractScanExpediter {
         }
     }
 
+    /**
+     * Looks for a destination raster layout that rows can be written into directly, bypassing {@link BufferedImage#setRGB(int, int, int)}.
+     */
+    private void initDestination() {
+        final WritableRaster raster = bi.getRaster();
+        if (raster.getSampleModelTranslateX() != 0 || raster.getSampleModelTranslateY() != 0) {
+            return;
+        }
+        final DataBuffer dataBuffer = raster.getDataBuffer();
+        final SampleModel sampleModel = raster.getSampleModel();
+        if (dataBuffer.getNumBanks() != 1) {
+            return;
+        }
+        switch (bi.getType()) {
+        case BufferedImage.TYPE_INT_ARGB:
+        case BufferedImage.TYPE_INT_RGB:
+            if (dataBuffer instanceof DataBufferInt && sampleModel instanceof SinglePixelPackedSampleModel) {
+                intPixels = ((DataBufferInt) dataBuffer).getData();
+                scanlineStride = ((SinglePixelPackedSampleModel) sampleModel).getScanlineStride();
+                pixelOffset = dataBuffer.getOffset();
+                opaque = bi.getType() == BufferedImage.TYPE_INT_RGB;
+            }
+            break;
+        case BufferedImage.TYPE_BYTE_GRAY:
+            // only opaque greyscale pixels have r == g == b, which the lookup below relies on.
+            if (pngColorType == PngColorType.GREYSCALE && abstractTransparencyFilter == null && dataBuffer instanceof DataBufferByte
+                    && sampleModel instanceof ComponentSampleModel && ((ComponentSampleModel) sampleModel).getPixelStride() == 1) {
+                grayPixels = ((DataBufferByte) dataBuffer).getData();
+                scanlineStride = ((ComponentSampleModel) sampleModel).getScanlineStride();
+                pixelOffset = dataBuffer.getOffset();
+                // setRGB() converts sRGB to the linear gray color space; precompute that conversion for every grey level.
+                final ColorModel colorModel = bi.getColorModel();
+                grayLut = new byte[256];
+                for (int i = 0; i < grayLut.length; i++) {
+                    grayLut[i] = ((byte[]) colorModel.getDataElements(0xff000000 | i << 16 | i << 8 | i, null))[0];
+                }
+            }
+            break;
+        case BufferedImage.TYPE_3BYTE_BGR:
+            if (dataBuffer instanceof DataBufferByte && sampleModel instanceof ComponentSampleModel
+                    && ((ComponentSampleModel) sampleModel).getPixelStride() == 3) {
+                bgrPixels = ((DataBufferByte) dataBuffer).getData();
+                scanlineStride = ((ComponentSampleModel) sampleModel).getScanlineStride();
+                pixelOffset = dataBuffer.getOffset();
+                bgrSamples = pngColorType == PngColorType.TRUE_COLOR && bitDepth == 8 && gammaCorrection == null && abstractTransparencyFilter == null;
+            }
+            break;
+        default:
+            break;
+        }
+    }
+
+    /**
+     * Copies every step-th pixel of an unfiltered scanline, from a first pixel on, to the start of another buffer, so that a cropped or subsampled row can be
+     * written as a scanline of its own.
+     *
+     * @param unfiltered the unfiltered scanline.
+     * @param sampled    receives the sampled pixels.
+     * @param first      the first pixel to copy.
+     * @param count      the number of pixels to copy.
+     * @param step       the distance between the copied pixels.
+     */
+    void sampleScanline(final byte[] unfiltered, final byte[] sampled, final int first, final int count, final int step) {
+        if (bitsPerPixel >= 8) {
+            if (step == 1) {
+                System.arraycopy(unfiltered, first * bytesPerPixel, sampled, 0, count * bytesPerPixel);
+                return;
+            }
+            final int stride = bytesPerPixel * step;
+            for (int i = 0, src = first * bytesPerPixel, dst = 0; i < count; i++, src += stride, dst += bytesPerPixel) {
+                System.arraycopy(unfiltered, src, sampled, dst, bytesPerPixel);
+            }
+            return;
+        }
+        // pixels smaller than a byte are packed from the most significant bit
+        final int mask = (1 << bitsPerPixel) - 1;
+        Arrays.fill(sampled, (byte) 0);
+        for (int i = 0; i < count; i++) {
+            final int srcBit = (first + i * step) * bitsPerPixel;
+            final int value = unfiltered[srcBit >> 3] >> 8 - bitsPerPixel - (srcBit & 7) & mask;
+            final int dstBit = i * bitsPerPixel;
+            sampled[dstBit >> 3] |= (byte) (value << 8 - bitsPerPixel - (dstBit & 7));
+        }
+    }
+
+    /**
+     * Converts the pixels of an unfiltered scanline and stores them in the destination image.
+     *
+     * @param unfiltered the unfiltered scanline.
+     * @param y          the destination row.
+     * @param x          the destination column of the first pixel.
+     * @param xStep      the distance between the destination columns of consecutive pixels.
+     * @param count      the number of pixels in the scanline.
+     * @throws ImagingException if the image data is invalid.
+     * @throws IOException      if an I/O error occurs.
+     */
+    void writeScanline(final byte[] unfiltered, final int y, final int x, final int xStep, final int count) throws ImagingException, IOException {
+        if (rowConverter == null) {
+            final BitParser bitParser = new BitParser(unfiltered, bitsPerPixel, bitDepth);
+            for (int i = 0, dx = x; i < count; i++, dx += xStep) {
+                bi.setRGB(dx, y, getRgb(bitParser, i));
+            }
+            return;
+        }
+
+        final int start = pixelOffset + y * scanlineStride + x;
+        if (intPixels != null) {
+            rowConverter.convert(unfiltered, count, intPixels, start, xStep);
+            if (opaque) {
+                for (int i = 0, d = start; i < count; i++, d += xStep) {
+                    intPixels[d] &= 0x00ffffff;
+                }
+            }
+            return;
+        }
+
+        if (bgrSamples) {
+            for (int i = 0, src = 0, d = pixelOffset + y * scanlineStride + x * 3; i < count; i++, src += 3, d += xStep * 3) {
+                bgrPixels[d] = unfiltered[src + 2];
+                bgrPixels[d + 1] = unfiltered[src + 1];
+                bgrPixels[d + 2] = unfiltered[src];
+            }
+            return;
+        }
+
+        if (rowPixels == null) {
+            rowPixels = Allocator.intArray(width);
+        }
+        rowConverter.convert(unfiltered, count, rowPixels, 0, 1);
+        if (bgrPixels != null) {
+            for (int i = 0, d = pixelOffset + y * scanlineStride + x * 3; i < count; i++, d += xStep * 3) {
+                final int rgb = rowPixels[i];
+                bgrPixels[d] = (byte) rgb;
+                bgrPixels[d + 1] = (byte) (rgb >> 8);
+                bgrPixels[d + 2] = (byte) (rgb >> 16);
+            }
+        } else if (grayPixels != null) {
+            for (int i = 0, d = start; i < count; i++, d += xStep) {
+                grayPixels[d] = grayLut[0xff & rowPixels[i]];
+            }
+        } else if (xStep == 1) {
+            bi.setRGB(x, y, count, 1, rowPixels, 0, count);
+        } else {
+            for (int i = 0, dx = x; i < count; i++, dx += xStep) {
+                bi.setRGB(dx, y, rowPixels[i]);
+            }
+        }
+    }
+
     ScanlineFilter getScanlineFilter(final FilterType filterType, final int bytesPerPixel) {
         switch (filterType) {
         case NONE:
@@ -200,12 +393,4 @@ abstract class AbstractScanExpediter {
         return null;
     }
 
-    byte[] unfilterScanline(final FilterType filterType, final byte[] src, final byte[] prev, final int bytesPerPixel) throws ImagingException, IOException {
-        final ScanlineFilter filter = getScanlineFilter(filterType, bytesPerPixel);
-
-        final byte[] dst = Allocator.byteArray(src.length);
-        filter.unfilter(src, dst, prev);
-        return dst;
-    }
-
 }
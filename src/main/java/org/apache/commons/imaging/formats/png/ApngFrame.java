@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.formats.png;
+
+import java.awt.image.BufferedImage;
+
+import org.apache.commons.imaging.formats.png.chunks.PngChunkFctl.BlendOp;
+import org.apache.commons.imaging.formats.png.chunks.PngChunkFctl.DisposeOp;
+
+/**
+ * A frame of an animated PNG (APNG) image, as returned by {@link ApngFrameReader}.
+ *
+ * @since 1.0.0-alpha7
+ */
+public final class ApngFrame {
+
+    private final BufferedImage image;
+    private final int index;
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+    private final int delayNumerator;
+    private final int delayDenominator;
+    private final DisposeOp disposeOp;
+    private final BlendOp blendOp;
+
+    ApngFrame(final BufferedImage image, final int index, final int x, final int y, final int width, final int height, final int delayNumerator,
+            final int delayDenominator, final DisposeOp disposeOp, final BlendOp blendOp) {
+        this.image = image;
+        this.index = index;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.delayNumerator = delayNumerator;
+        this.delayDenominator = delayDenominator;
+        this.disposeOp = disposeOp;
+        this.blendOp = blendOp;
+    }
+
+    /**
+     * Gets how this frame was rendered onto the canvas.
+     *
+     * @return the blend operation.
+     */
+    public BlendOp getBlendOp() {
+        return blendOp;
+    }
+
+    /**
+     * Gets the time this frame is displayed, in milliseconds.
+     *
+     * @return the delay in milliseconds.
+     */
+    public long getDelayMillis() {
+        // a denominator of 0 means 1/100ths of a second.
+        final int denominator = delayDenominator == 0 ? 100 : delayDenominator;
+        return delayNumerator * 1000L / denominator;
+    }
+
+    /**
+     * Gets the denominator of the frame delay in seconds.
+     *
+     * @return the delay denominator; 0 is to be treated as 100.
+     */
+    public int getDelayDenominator() {
+        return delayDenominator;
+    }
+
+    /**
+     * Gets the numerator of the frame delay in seconds.
+     *
+     * @return the delay numerator.
+     */
+    public int getDelayNumerator() {
+        return delayNumerator;
+    }
+
+    /**
+     * Gets how the frame area is disposed of before the next frame is rendered.
+     *
+     * @return the dispose operation.
+     */
+    public DisposeOp getDisposeOp() {
+        return disposeOp;
+    }
+
+    /**
+     * Gets the height of the region updated by this frame.
+     *
+     * @return the height.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the fully composited canvas after rendering this frame.
+     * <p>
+     * The canvas is reused: it is updated in place by the next call to {@link ApngFrameReader#next()}. Copy it to keep the frame.
+     * </p>
+     *
+     * @return the canvas, of the size of the image.
+     */
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    /**
+     * Gets the zero-based position of this frame in the animation.
+     *
+     * @return the frame index.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the width of the region updated by this frame.
+     *
+     * @return the width.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the X position of the region updated by this frame.
+     *
+     * @return the X offset.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Gets the Y position of the region updated by this frame.
+     *
+     * @return the Y offset.
+     */
+    public int getY() {
+        return y;
+    }
+}
@@ -0,0 +1,549 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.formats.png;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.common.Allocator;
+import org.apache.commons.imaging.common.ArrayLease;
+import org.apache.commons.imaging.common.BinaryFunctions;
+import org.apache.commons.imaging.formats.png.chunks.PngChunk;
+import org.apache.commons.imaging.formats.png.chunks.PngChunkActl;
+import org.apache.commons.imaging.formats.png.chunks.PngChunkFctl;
+import org.apache.commons.imaging.formats.png.chunks.PngChunkFctl.BlendOp;
+import org.apache.commons.imaging.formats.png.chunks.PngChunkFctl.DisposeOp;
+import org.apache.commons.imaging.formats.png.chunks.PngChunkGama;
+import org.apache.commons.imaging.formats.png.chunks.PngChunkIhdr;
+import org.apache.commons.imaging.formats.png.chunks.PngChunkPlte;
+import org.apache.commons.imaging.formats.png.transparencyfilters.AbstractTransparencyFilter;
+
+/**
+ * Reads the frames of an animated PNG (APNG) image one at a time.
+ * <p>
+ * The image is read sequentially from a single input stream. Each call to {@link #next()} inflates only the data of one frame and composites it, applying the
+ * dispose and blend operations of the animation, into a canvas that is reused for every frame. Memory use is therefore bounded by three image-sized buffers
+ * regardless of the number of frames: the canvas, the frame being decoded and, once a frame is disposed with {@link DisposeOp#PREVIOUS}, the canvas region
+ * it restores.
+ * </p>
+ * <p>
+ * A PNG image without an acTL chunk is read as a single frame holding the default image. A default image that is not part of the animation is skipped.
+ * </p>
+ *
+ * @see PngImageParser#getFrameReader(org.apache.commons.imaging.bytesource.ByteSource)
+ * @see <a href="https://wiki.mozilla.org/APNG_Specification">APNG Specification</a>
+ * @since 1.0.0-alpha7
+ */
+public final class ApngFrameReader implements Closeable {
+
+    /**
+     * Reads the image data of one frame, which may be split over several consecutive IDAT or fdAT chunks.
+     */
+    private final class FrameDataInputStream extends InputStream {
+        private final int dataType;
+        private int remaining;
+        private boolean ended;
+
+        FrameDataInputStream(final int dataType) throws IOException {
+            this.dataType = dataType;
+            startChunk();
+        }
+
+        /**
+         * Skips the rest of the frame data, leaving the header of the following chunk pending.
+         */
+        void drain() throws IOException {
+            while (!ended) {
+                skipData(remaining, "PNG: missing image data");
+                remaining = 0;
+                nextChunk();
+            }
+        }
+
+        private boolean nextChunk() throws IOException {
+            finishChunk();
+            readChunkHeader();
+            if (chunkType == dataType) {
+                startChunk();
+                return true;
+            }
+            headerPending = true;
+            ended = true;
+            return false;
+        }
+
+        @Override
+        public int read() throws IOException {
+            while (remaining == 0) {
+                if (ended || !nextChunk()) {
+                    return -1;
+                }
+            }
+            final int b = is.read();
+            if (b < 0) {
+                throw new ImagingException("PNG: missing image data");
+            }
+            if (crc32 != null) {
+                crc32.update(b);
+            }
+            remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (remaining == 0) {
+                if (ended || !nextChunk()) {
+                    return -1;
+                }
+            }
+            final int read = is.read(b, off, Math.min(len, remaining));
+            if (read < 0) {
+                throw new ImagingException("PNG: missing image data");
+            }
+            if (crc32 != null) {
+                crc32.update(b, off, read);
+            }
+            remaining -= read;
+            return read;
+        }
+
+        private void startChunk() throws IOException {
+            headerPending = false;
+            remaining = chunkLength;
+            if (dataType == ChunkType.fdAT.value) {
+                if (chunkLength < 4) {
+                    throw new ImagingException("PNG: invalid fdAT chunk length: " + chunkLength);
+                }
+                skipData(4, "Not a Valid PNG File");
+                remaining -= 4;
+            }
+        }
+    }
+
+    private static final ByteOrder BYTE_ORDER = ByteOrder.BIG_ENDIAN;
+
+    private static BufferedImage wrap(final int[] pixels, final int width, final int height) {
+        final DataBufferInt buffer = new DataBufferInt(pixels, width * height);
+        final WritableRaster raster = Raster.createPackedRaster(buffer, width, height, width, new int[] { 0x00ff0000, 0x0000ff00, 0x000000ff, 0xff000000 },
+                null);
+        return new BufferedImage(ColorModel.getRGBdefault(), raster, false, null);
+    }
+
+    private final InputStream is;
+    private final PngCrcVerification crcVerification;
+    /** The running CRC of the current chunk, if every CRC is verified. */
+    private final CRC32 crc32;
+    private final Inflater inflater = new Inflater();
+    private final PngChunkIhdr pngChunkIHDR;
+    private final PngChunkPlte pngChunkPLTE;
+    private final GammaCorrection gammaCorrection;
+    private final AbstractTransparencyFilter transparencyFilter;
+    private final int width;
+    private final int height;
+    private final boolean animated;
+    private final int frameCount;
+    private final int playCount;
+
+    /** Allocated on the first call to {@link #next()}. */
+    private int[] canvasPixels;
+    private BufferedImage canvas;
+    /** Decoded pixels of the current frame, packed with the frame width as stride. */
+    private int[] framePixels;
+    /** Canvas region saved for {@link DisposeOp#PREVIOUS}, packed like {@link #framePixels}. */
+    private int[] previousPixels;
+
+    /** Length and type of the last chunk header read. */
+    private int chunkLength;
+    private int chunkType;
+    /** Whether {@link #chunkLength} and {@link #chunkType} belong to a chunk whose data has not been consumed. */
+    private boolean headerPending;
+
+    /** Frame control of the next frame of an animation. */
+    private PngChunkFctl pendingControl;
+    /** Whether the default image of a non-animated image has not been returned yet. */
+    private boolean defaultImagePending;
+    private boolean idatRead;
+    private boolean finished;
+    private ApngFrame lastFrame;
+    private int frameIndex;
+
+    ApngFrameReader(final InputStream is, final PngCrcVerification crcVerification) throws ImagingException, IOException {
+        this.is = is;
+        this.crcVerification = crcVerification;
+        this.crc32 = crcVerification == PngCrcVerification.FULL ? new CRC32() : null;
+        BinaryFunctions.readAndVerifyBytes(is, PngConstants.PNG_SIGNATURE, "Not a Valid PNG Segment: Incorrect Signature");
+
+        PngChunkIhdr ihdr = null;
+        PngChunkPlte plte = null;
+        PngChunkActl actl = null;
+        PngChunkGama gama = null;
+        PngChunk trns = null;
+        boolean colorManaged = false;
+        while (true) {
+            readChunkHeader();
+            if (chunkType == ChunkType.IDAT.value || chunkType == ChunkType.fcTL.value && actl != null) {
+                headerPending = true;
+                break;
+            }
+            if (chunkType == ChunkType.IEND.value) {
+                throw new ImagingException("PNG missing image data");
+            }
+            final ChunkType type = ChunkType.findType(chunkType);
+            if (type == ChunkType.IHDR || type == ChunkType.PLTE || type == ChunkType.acTL || type == ChunkType.gAMA || type == ChunkType.tRNS) {
+                final PngChunk chunk = readChunk();
+                if (type == ChunkType.IHDR) {
+                    ihdr = (PngChunkIhdr) chunk;
+                } else if (type == ChunkType.PLTE) {
+                    plte = (PngChunkPlte) chunk;
+                } else if (type == ChunkType.acTL) {
+                    actl = (PngChunkActl) chunk;
+                } else if (type == ChunkType.gAMA) {
+                    gama = (PngChunkGama) chunk;
+                } else {
+                    trns = chunk;
+                }
+            } else {
+                // an sRGB or iCCP chunk takes precedence over gAMA.
+                colorManaged |= type == ChunkType.sRGB || type == ChunkType.iCCP;
+                skipChunk();
+            }
+        }
+
+        if (ihdr == null) {
+            throw new ImagingException("PNG: missing IHDR chunk");
+        }
+        if (ihdr.getFilterMethod() != 0) {
+            throw new ImagingException("PNG: unknown FilterMethod: " + ihdr.getFilterMethod());
+        }
+        this.pngChunkIHDR = ihdr;
+        this.pngChunkPLTE = plte;
+        this.gammaCorrection = gama != null && !colorManaged ? PngImageParser.getGammaCorrection(gama) : null;
+        if (gammaCorrection != null && plte != null) {
+            plte.correct(gammaCorrection);
+        }
+        this.transparencyFilter = trns != null ? PngImageParser.getTransparencyFilter(ihdr.getPngColorType(), trns) : null;
+        this.width = ihdr.getWidth();
+        this.height = ihdr.getHeight();
+        if (width <= 0 || height <= 0) {
+            throw new ImagingException("PNG: invalid image size: " + width + "x" + height);
+        }
+        this.animated = actl != null;
+        this.frameCount = animated ? actl.getNumFrames() : 1;
+        this.playCount = animated ? actl.getNumPlays() : 1;
+        this.defaultImagePending = !animated;
+    }
+
+    /**
+     * Advances to the next frame control chunk, skipping everything else.
+     */
+    private void advance() throws IOException {
+        while (pendingControl == null && !finished) {
+            if (!headerPending) {
+                readChunkHeader();
+            }
+            headerPending = false;
+            if (chunkType == ChunkType.fcTL.value) {
+                pendingControl = (PngChunkFctl) readChunk();
+            } else if (chunkType == ChunkType.IEND.value) {
+                finished = true;
+            } else {
+                // includes the IDAT chunks of a default image that is not part of the animation.
+                idatRead |= chunkType == ChunkType.IDAT.value;
+                skipChunk();
+            }
+        }
+    }
+
+    private void blend(final int x, final int y, final int frameWidth, final int frameHeight, final BlendOp blendOp) {
+        for (int row = 0; row < frameHeight; row++) {
+            final int src = row * frameWidth;
+            final int dst = (y + row) * width + x;
+            if (blendOp == BlendOp.SOURCE) {
+                System.arraycopy(framePixels, src, canvasPixels, dst, frameWidth);
+                continue;
+            }
+            for (int i = 0; i < frameWidth; i++) {
+                canvasPixels[dst + i] = over(framePixels[src + i], canvasPixels[dst + i]);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        is.close();
+    }
+
+    private void dispose(final ApngFrame frame) {
+        DisposeOp disposeOp = frame.getDisposeOp();
+        if (disposeOp == DisposeOp.PREVIOUS && frame.getIndex() == 0) {
+            // there is no previous content for the first frame.
+            disposeOp = DisposeOp.BACKGROUND;
+        }
+        for (int row = 0; row < frame.getHeight(); row++) {
+            final int dst = (frame.getY() + row) * width + frame.getX();
+            if (disposeOp == DisposeOp.BACKGROUND) {
+                Arrays.fill(canvasPixels, dst, dst + frame.getWidth(), 0);
+            } else if (disposeOp == DisposeOp.PREVIOUS) {
+                System.arraycopy(previousPixels, row * frame.getWidth(), canvasPixels, dst, frame.getWidth());
+            }
+        }
+    }
+
+    /**
+     * Reads the CRC of the current chunk, whose data has been consumed, and verifies it if every CRC is verified.
+     */
+    private void finishChunk() throws IOException {
+        final int crc = BinaryFunctions.read4Bytes("CRC", is, "Not a Valid PNG File", BYTE_ORDER);
+        if (crc32 != null && (int) crc32.getValue() != crc) {
+            throw new ImagingException("PNG: invalid CRC in " + PngImageParser.getChunkTypeName(chunkType) + " chunk");
+        }
+    }
+
+    /**
+     * Gets the number of frames declared by the animation, or 1 if the image is not animated.
+     *
+     * @return the number of frames.
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Gets the image height, which is the height of the canvas.
+     *
+     * @return the height.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the number of times to loop the animation, 0 meaning infinitely.
+     *
+     * @return the number of plays.
+     */
+    public int getPlayCount() {
+        return playCount;
+    }
+
+    /**
+     * Gets the image width, which is the width of the canvas.
+     *
+     * @return the width.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Tests whether there is another frame.
+     *
+     * @return true if {@link #next()} returns another frame.
+     * @throws ImagingException if the image is not valid.
+     * @throws IOException      if an I/O error occurs.
+     */
+    public boolean hasNext() throws ImagingException, IOException {
+        if (!animated) {
+            return defaultImagePending;
+        }
+        advance();
+        return pendingControl != null;
+    }
+
+    /**
+     * Tests whether the image has an acTL chunk.
+     *
+     * @return true if the image is animated.
+     */
+    public boolean isAnimated() {
+        return animated;
+    }
+
+    /**
+     * Decodes the next frame and renders it onto the canvas.
+     *
+     * @return the frame, whose image is the canvas after rendering.
+     * @throws ImagingException       if the image is not valid.
+     * @throws IOException            if an I/O error occurs.
+     * @throws NoSuchElementException if there are no more frames.
+     */
+    public ApngFrame next() throws ImagingException, IOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (canvas == null) {
+            canvasPixels = Allocator.intArray(width * height);
+            canvas = wrap(canvasPixels, width, height);
+            framePixels = Allocator.intArray(width * height);
+        }
+
+        final ApngFrame frame;
+        if (animated) {
+            final PngChunkFctl control = pendingControl;
+            pendingControl = null;
+            final int x = control.getXOffset();
+            final int y = control.getYOffset();
+            if (x < 0 || y < 0 || control.getWidth() <= 0 || control.getHeight() <= 0 || (long) x + control.getWidth() > width
+                    || (long) y + control.getHeight() > height) {
+                throw new ImagingException("APNG: frame " + frameIndex + " is outside the image");
+            }
+            frame = new ApngFrame(canvas, frameIndex, x, y, control.getWidth(), control.getHeight(), control.getDelayNumerator(),
+                    control.getDelayDenominator(), control.getDisposeOp(), control.getBlendOp());
+            readFrameDataHeader();
+        } else {
+            defaultImagePending = false;
+            frame = new ApngFrame(canvas, 0, 0, 0, width, height, 0, 0, DisposeOp.NONE, BlendOp.SOURCE);
+        }
+
+        final FrameDataInputStream data = new FrameDataInputStream(chunkType);
+        inflater.reset();
+        final BufferedImage frameImage = wrap(framePixels, frame.getWidth(), frame.getHeight());
+        PngImageParser.getScanExpediter(pngChunkIHDR, frame.getWidth(), frame.getHeight(), new InflaterInputStream(data, inflater), frameImage, pngChunkPLTE,
+                gammaCorrection, transparencyFilter, PngImagingParameters.ADAM7_PASS_COUNT, true).drive();
+        data.drain();
+
+        if (lastFrame != null) {
+            dispose(lastFrame);
+        }
+        if (frame.getDisposeOp() == DisposeOp.PREVIOUS) {
+            saveRegion(frame);
+        }
+        blend(frame.getX(), frame.getY(), frame.getWidth(), frame.getHeight(), frame.getBlendOp());
+
+        lastFrame = frame;
+        frameIndex++;
+        return frame;
+    }
+
+    /**
+     * Composites a non-premultiplied ARGB pixel over another.
+     */
+    private int over(final int src, final int dst) {
+        final int srcAlpha = src >>> 24;
+        if (srcAlpha == 0xff) {
+            return src;
+        }
+        if (srcAlpha == 0) {
+            return dst;
+        }
+        // alphas scaled by 255
+        final int dstWeight = (dst >>> 24) * (0xff - srcAlpha);
+        final int outAlpha = srcAlpha * 0xff + dstWeight;
+        int result = (outAlpha + 127) / 0xff << 24;
+        for (int shift = 0; shift < 24; shift += 8) {
+            final int component = ((src >> shift & 0xff) * srcAlpha * 0xff + (dst >> shift & 0xff) * dstWeight) / outAlpha;
+            result |= component << shift;
+        }
+        return result;
+    }
+
+    private PngChunk readChunk() throws IOException {
+        final byte[] bytes = BinaryFunctions.readBytes("Chunk Data", is, chunkLength, "Not a Valid PNG File: Couldn't read Chunk Data.");
+        final int crc = BinaryFunctions.read4Bytes("CRC", is, "Not a Valid PNG File", BYTE_ORDER);
+        return PngImageParser.makeChunk(chunkLength, chunkType, crc, bytes, crcVerification);
+    }
+
+    private void readChunkHeader() throws IOException {
+        chunkLength = BinaryFunctions.read4Bytes("Length", is, "Not a Valid PNG File", BYTE_ORDER);
+        if (chunkLength < 0) {
+            throw new ImagingException("Invalid PNG chunk length: " + chunkLength);
+        }
+        chunkType = BinaryFunctions.read4Bytes("ChunkType", is, "Not a Valid PNG File", BYTE_ORDER);
+        if (crc32 != null) {
+            crc32.reset();
+            crc32.update(new byte[] { (byte) (chunkType >> 24), (byte) (chunkType >> 16), (byte) (chunkType >> 8), (byte) chunkType });
+        }
+    }
+
+    /**
+     * Skips to the first data chunk of the frame whose control chunk was just read.
+     */
+    private void readFrameDataHeader() throws IOException {
+        while (true) {
+            if (!headerPending) {
+                readChunkHeader();
+            }
+            headerPending = false;
+            if (chunkType == ChunkType.IDAT.value && !idatRead) {
+                // the default image is the first frame.
+                idatRead = true;
+                return;
+            }
+            if (chunkType == ChunkType.fdAT.value) {
+                return;
+            }
+            if (chunkType == ChunkType.IEND.value || chunkType == ChunkType.fcTL.value) {
+                throw new ImagingException("APNG: missing data of frame " + frameIndex);
+            }
+            skipChunk();
+        }
+    }
+
+    private void saveRegion(final ApngFrame frame) {
+        if (previousPixels == null) {
+            previousPixels = Allocator.intArray(width * height);
+        }
+        for (int row = 0; row < frame.getHeight(); row++) {
+            System.arraycopy(canvasPixels, (frame.getY() + row) * width + frame.getX(), previousPixels, row * frame.getWidth(), frame.getWidth());
+        }
+    }
+
+    private void skipChunk() throws IOException {
+        skipData(chunkLength, "Not a Valid PNG File");
+        finishChunk();
+    }
+
+    /**
+     * Skips data of the current chunk, reading it instead if every CRC is verified.
+     */
+    private void skipData(final int length, final String exception) throws IOException {
+        if (crc32 == null) {
+            BinaryFunctions.skipBytes(is, length, exception);
+            return;
+        }
+        try (ArrayLease<byte[]> lease = Allocator.leaseByteArray(Math.min(length, 8192))) {
+            final byte[] buffer = lease.get();
+            int remaining = length;
+            while (remaining > 0) {
+                final int read = is.read(buffer, 0, Math.min(remaining, buffer.length));
+                if (read < 0) {
+                    throw new ImagingException(exception);
+                }
+                crc32.update(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.formats.png;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.bytesource.ByteSource;
+import org.apache.commons.imaging.common.Allocator;
+import org.apache.commons.imaging.common.BinaryFunctions;
+import org.apache.commons.imaging.formats.png.chunks.PngChunk;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Index of the chunks of a PNG byte source: the type, offset and length of each chunk, without its data.
+ * <p>
+ * The index is built lazily by reading the chunk headers and skipping the chunk data, so that finding the header needs a single chunk and finding the
+ * metadata never reads the image data. Only the requested chunks are then read. A byte source that keeps
+ * {@link ByteSource#getParserState(Class, java.util.function.Supplier) parser state}, such as the one of an {@link org.apache.commons.imaging.ImageSession},
+ * keeps its index, so that later operations on it seek straight to the chunks they need; for other sources, each read builds an index of its own.
+ * </p>
+ */
+final class PngChunkIndex {
+
+    /**
+     * A chunk in the index.
+     */
+    static final class Entry {
+
+        final int chunkType;
+        /** Offset of the chunk data in the byte source. */
+        final long offset;
+        final int length;
+        final int crc;
+
+        Entry(final int chunkType, final long offset, final int length, final int crc) {
+            this.chunkType = chunkType;
+            this.offset = offset;
+            this.length = length;
+            this.crc = crc;
+        }
+    }
+
+    private static final ByteOrder BYTE_ORDER = ByteOrder.BIG_ENDIAN;
+
+    /** Length of the chunk length, type and CRC fields. */
+    private static final int CHUNK_OVERHEAD = 12;
+
+    /**
+     * Gets the index of a byte source.
+     *
+     * @param byteSource the byte source.
+     * @return the index the byte source keeps, possibly not built yet, or a new index if it keeps none.
+     */
+    static PngChunkIndex get(final ByteSource byteSource) {
+        final PngChunkIndex index = byteSource.getParserState(PngChunkIndex.class, PngChunkIndex::new);
+        return index != null ? index : new PngChunkIndex();
+    }
+
+    /**
+     * Skips bytes with {@link InputStream#skip(long)}, which seeks in file streams, rather than reading them.
+     */
+    private static long skip(final InputStream is, final long count) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            long skipped = is.skip(remaining);
+            if (skipped <= 0) {
+                if (is.read() < 0) {
+                    break;
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+        return count - remaining;
+    }
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    /** Offset of the next chunk to index, zero before the signature is read. */
+    private long nextOffset;
+
+    /** Whether the IEND chunk has been indexed. */
+    private boolean complete;
+
+    /**
+     * Gets the chunks indexed so far.
+     *
+     * @return the entries, in file order.
+     */
+    synchronized List<Entry> getEntries() {
+        return new ArrayList<>(entries);
+    }
+
+    /**
+     * Tests whether all the chunks have been indexed.
+     *
+     * @return whether the IEND chunk has been indexed.
+     */
+    synchronized boolean isComplete() {
+        return complete;
+    }
+
+    private PngChunk readChunk(final ByteSource byteSource, final Entry entry, final PngCrcVerification crcVerification) throws IOException {
+        final byte[] bytes = byteSource.getByteArray(entry.offset, Allocator.checkByteArray(entry.length));
+        return PngImageParser.makeChunk(entry.length, entry.chunkType, entry.crc, bytes, crcVerification);
+    }
+
+    /**
+     * Reads chunks of the byte source, indexing it as far as needed.
+     *
+     * @param byteSource       the byte source this index belongs to.
+     * @param chunkTypes       the chunk types to read, or null for all.
+     * @param returnAfterFirst whether to stop after the first matching chunk.
+     * @param crcVerification  when to check the CRC of the chunks read.
+     * @return the chunks read, in file order.
+     * @throws ImagingException if the byte source is not a valid PNG image.
+     * @throws IOException      if an I/O error occurs.
+     */
+    synchronized List<PngChunk> readChunks(final ByteSource byteSource, final ChunkType[] chunkTypes, final boolean returnAfterFirst,
+            final PngCrcVerification crcVerification) throws ImagingException, IOException {
+        final List<PngChunk> result = new ArrayList<>();
+        for (final Entry entry : entries) {
+            if (PngImageParser.keepChunk(entry.chunkType, chunkTypes)) {
+                result.add(readChunk(byteSource, entry, crcVerification));
+                if (returnAfterFirst) {
+                    return result;
+                }
+            }
+        }
+        if (complete) {
+            return result;
+        }
+
+        InputStream is = null;
+        try {
+            is = byteSource.getInputStream();
+            if (nextOffset == 0) {
+                BinaryFunctions.readAndVerifyBytes(is, PngConstants.PNG_SIGNATURE, "Not a Valid PNG Segment: Incorrect Signature");
+                nextOffset = PngConstants.PNG_SIGNATURE.size();
+            } else if (skip(is, nextOffset) < nextOffset) {
+                throw new ImagingException("Not a Valid PNG File");
+            }
+            while (!complete) {
+                final int length = BinaryFunctions.read4Bytes("Length", is, "Not a Valid PNG File", BYTE_ORDER);
+                if (length < 0) {
+                    throw new ImagingException("Invalid PNG chunk length: " + length);
+                }
+                final int chunkType = BinaryFunctions.read4Bytes("ChunkType", is, "Not a Valid PNG File", BYTE_ORDER);
+                final boolean keep = PngImageParser.keepChunk(chunkType, chunkTypes);
+                // the stream is positioned on the data, read it now rather than seek back to it
+                byte[] bytes = null;
+                if (keep) {
+                    bytes = BinaryFunctions.readBytes("Chunk Data", is, length, "Not a Valid PNG File: Couldn't read Chunk Data.");
+                } else {
+                    skip(is, length);
+                }
+                final int crc = BinaryFunctions.read4Bytes("CRC", is, "Not a Valid PNG File", BYTE_ORDER);
+
+                entries.add(new Entry(chunkType, nextOffset + 8, length, crc));
+                nextOffset += CHUNK_OVERHEAD + (long) length;
+                complete = chunkType == ChunkType.IEND.value;
+
+                if (keep) {
+                    result.add(PngImageParser.makeChunk(length, chunkType, crc, bytes, crcVerification));
+                    if (returnAfterFirst) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            IOUtils.close(is);
+        }
+        return result;
+    }
+}
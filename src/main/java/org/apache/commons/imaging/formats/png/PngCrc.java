@@ -16,70 +16,40 @@
  */
 package org.apache.commons.imaging.formats.png;
 
-// should just use ints, not longs
-final class PngCrc {
-
-    /* Table of CRCs of all 8-bit messages. */
-    private final long[] crcTable = new long[256];
-
-    /* Flag: has the table been computed? Initially false. */
-    private boolean crcTableComputed;
+import java.util.zip.CRC32;
 
-    public long continuePartialCrc(final long oldCrc, final byte[] buf, final int len) {
-        return updateCrc(oldCrc, buf);
-    }
+/**
+ * Computes the CRCs of PNG chunks.
+ */
+final class PngCrc {
 
-    /*
-     * Update a running CRC with the bytes buf[0..len-1]--the CRC should be initialized to all 1's, and the transmitted value is the 1's complement of the final
-     * running CRC (see the crc() routine below)).
+    /**
+     * Computes the CRC of a chunk with {@link CRC32}, which the JVM implements with hardware instructions where available.
+     *
+     * @param chunkType the chunk type.
+     * @param data the chunk data, may be null.
+     * @return the CRC of the chunk type and data.
      */
-
-    /* Gets the CRC of the bytes buf[0..len-1]. */
-    public int crc(final byte[] buf, final int len) {
-        return (int) (updateCrc(0xffffffffL, buf) ^ 0xffffffffL);
-    }
-
-    public long finishPartialCrc(final long oldCrc) {
-        return oldCrc ^ 0xffffffffL;
-    }
-
-    /* Make the table for a fast CRC. */
-    private void makeCrcTable() {
-        long c;
-        int n;
-        int k;
-
-        for (n = 0; n < 256; n++) {
-            c = n;
-            for (k = 0; k < 8; k++) {
-                if ((c & 1) != 0) {
-                    c = 0xedb88320L ^ c >> 1;
-                } else {
-                    c = c >> 1;
-                }
-            }
-            crcTable[n] = c;
+    static int crc(final byte[] chunkType, final byte[] data) {
+        final CRC32 crc32 = new CRC32();
+        crc32.update(chunkType);
+        if (data != null) {
+            crc32.update(data);
         }
-        crcTableComputed = true;
+        return (int) crc32.getValue();
     }
 
-    public long startPartialCrc(final byte[] buf, final int len) {
-        return updateCrc(0xffffffffL, buf);
+    /**
+     * Computes the CRC of a chunk with {@link CRC32}, which the JVM implements with hardware instructions where available.
+     *
+     * @param chunkType the chunk type, as a big endian quad.
+     * @param data the chunk data, may be null.
+     * @return the CRC of the chunk type and data.
+     */
+    static int crc(final int chunkType, final byte[] data) {
+        return crc(new byte[] { (byte) (chunkType >> 24), (byte) (chunkType >> 16), (byte) (chunkType >> 8), (byte) chunkType }, data);
     }
 
-    private long updateCrc(final long crc, final byte[] buf) {
-        long c = crc;
-        int n;
-
-        if (!crcTableComputed) {
-            makeCrcTable();
-        }
-        for (n = 0; n < buf.length; n++) {
-            // Debug.debug("crc[" + n + "]", c + " (" + Long.toHexString(c) +
-            // ")");
-
-            c = crcTable[(int) ((c ^ buf[n]) & 0xff)] ^ c >> 8;
-        }
-        return c;
+    private PngCrc() {
     }
 }
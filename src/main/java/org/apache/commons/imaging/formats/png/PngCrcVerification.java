@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.formats.png;
+
+/**
+ * When the CRC of the PNG chunks is checked while reading.
+ *
+ * @see PngImagingParameters#setCrcVerification(PngCrcVerification)
+ * @since 1.0.0-alpha7
+ */
+public enum PngCrcVerification {
+
+    /** The CRC is never checked, for trusted inputs. */
+    NONE,
+
+    /**
+     * The CRC is only checked when a chunk fails to parse or the image fails to decode, so that the error reports a corrupt chunk. Valid files are read at
+     * no extra cost.
+     */
+    ON_ERROR,
+
+    /** The CRC of every chunk read is checked, and a mismatch is reported as an error. */
+    FULL
+}
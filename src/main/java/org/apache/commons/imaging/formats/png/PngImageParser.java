@@ -17,6 +17,7 @@
 package org.apache.commons.imaging.formats.png;
 
 import java.awt.Dimension;
+import java.awt.Rectangle;
 import java.awt.color.ColorSpace;
 import java.awt.color.ICC_ColorSpace;
 import java.awt.color.ICC_Profile;
@@ -40,6 +41,7 @@ import org.apache.commons.imaging.ImageFormat;
 import org.apache.commons.imaging.ImageFormats;
 import org.apache.commons.imaging.ImageInfo;
 import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.ImagingMetrics;
 import org.apache.commons.imaging.bytesource.ByteSource;
 import org.apache.commons.imaging.common.Allocator;
 import org.apache.commons.imaging.common.BinaryFunctions;
@@ -49,6 +51,7 @@ import org.apache.commons.imaging.common.XmpEmbeddable;
 import org.apache.commons.imaging.common.XmpImagingParameters;
 import org.apache.commons.imaging.formats.png.chunks.AbstractPngTextChunk;
 import org.apache.commons.imaging.formats.png.chunks.PngChunk;
+import org.apache.commons.imaging.formats.png.chunks.PngChunkActl;
 import org.apache.commons.imaging.formats.png.chunks.PngChunkGama;
 import org.apache.commons.imaging.formats.png.chunks.PngChunkIccp;
 import org.apache.commons.imaging.formats.png.chunks.PngChunkIdat;
@@ -67,6 +70,9 @@ import org.apache.commons.imaging.formats.tiff.TiffImageMetadata;
 import org.apache.commons.imaging.formats.tiff.TiffImageParser;
 import org.apache.commons.imaging.formats.tiff.TiffImagingParameters;
 import org.apache.commons.imaging.icc.IccProfileParser;
+import org.apache.commons.imaging.internal.Cancellation;
+import org.apache.commons.imaging.internal.Metrics;
+import org.apache.commons.imaging.internal.Subsampling;
 
 /**
  * Parses PNG images.
@@ -109,7 +115,7 @@ public class PngImageParser extends AbstractImageParser<PngImagingParameters> im
 
         imageInfo.toString(pw, "");
 
-        final List<PngChunk> chunks = readChunks(byteSource, null, false);
+        final List<PngChunk> chunks = readChunks(byteSource, null, false, PngCrcVerification.ON_ERROR);
         final List<PngChunk> IHDRs = filterChunks(chunks, ChunkType.IHDR);
         if (IHDRs.size() != 1) {
             if (LOGGER.isLoggable(Level.FINEST)) {
@@ -164,11 +170,33 @@ public class PngImageParser extends AbstractImageParser<PngImagingParameters> im
     // private static final int tRNS = CharsToQuad('t', 'R', 'N', 's');
 
     @Override
+    @SuppressWarnings("try") // the cancellation scope and timer are only closed
     public BufferedImage getBufferedImage(final ByteSource byteSource, final PngImagingParameters params) throws ImagingException, IOException {
+        try (Cancellation.Scope scope = Cancellation.bind(params)) {
+            final PngCrcVerification crcVerification = getCrcVerification(params);
+            final List<PngChunk> chunks;
+            try (Metrics.Timer timer = Metrics.start(ImageFormats.PNG, ImagingMetrics.Phase.PARSING)) {
+                chunks = readChunks(byteSource,
+                        new ChunkType[] { ChunkType.IHDR, ChunkType.PLTE, ChunkType.IDAT, ChunkType.tRNS, ChunkType.iCCP, ChunkType.gAMA, ChunkType.sRGB, }, false,
+                        crcVerification);
+            }
 
-        final List<PngChunk> chunks = readChunks(byteSource,
-                new ChunkType[] { ChunkType.IHDR, ChunkType.PLTE, ChunkType.IDAT, ChunkType.tRNS, ChunkType.iCCP, ChunkType.gAMA, ChunkType.sRGB, }, false);
+            try {
+                return getBufferedImage(chunks, params);
+            } catch (final IOException e) {
+                if (crcVerification == PngCrcVerification.ON_ERROR) {
+                    // report a corrupt chunk rather than its consequence
+                    for (final PngChunk chunk : chunks) {
+                        verifyCrc(chunk.getChunkType(), chunk.getBytes(), chunk.getCrc(), e);
+                    }
+                }
+                throw e;
+            }
+        }
+    }
 
+    @SuppressWarnings("try") // the timer is only closed
+    private BufferedImage getBufferedImage(final List<PngChunk> chunks, final PngImagingParameters params) throws ImagingException, IOException {
         if (chunks.isEmpty()) {
             throw new ImagingException("PNG: no chunks");
         }
@@ -250,16 +278,7 @@ public class PngImageParser extends AbstractImageParser<PngImagingParameters> im
                     throw new ImagingException("The image data does not correspond to a valid ICC Profile", iae);
                 }
             } else if (gAMAs.size() == 1) {
-                final PngChunkGama pngChunkgAMA = (PngChunkGama) gAMAs.get(0);
-                final double gamma = pngChunkgAMA.getGamma();
-
-                // charles: what is the correct target value here?
-                // double targetGamma = 2.2;
-                final double targetGamma = 1.0;
-                final double diff = Math.abs(targetGamma - gamma);
-                if (diff >= 0.5) {
-                    gammaCorrection = new GammaCorrection(gamma, targetGamma);
-                }
+                gammaCorrection = getGammaCorrection((PngChunkGama) gAMAs.get(0));
 
                 if (gammaCorrection != null && pngChunkPLTE != null) {
                     pngChunkPLTE.correct(gammaCorrection);
@@ -278,36 +297,61 @@ public class PngImageParser extends AbstractImageParser<PngImagingParameters> im
                 throw new ImagingException("PNG: unknown FilterMethod: " + pngChunkIHDR.getFilterMethod());
             }
 
-            final int bitsPerPixel = bitDepth * pngColorType.getSamplesPerPixel();
-
             final boolean hasAlpha = pngColorType.hasAlpha() || abstractTransparencyFilter != null;
 
+            int adam7Passes = params != null ? params.getAdam7Passes() : PngImagingParameters.ADAM7_PASS_COUNT;
+            boolean adam7FullSize = params == null || params.isAdam7PreviewFullSize();
+            final boolean interlaced = pngChunkIHDR.getInterlaceMethod() == InterlaceMethod.ADAM7;
+            // a natively sized preview is cropped and reduced in its own coordinates
+            final boolean preview = interlaced && !adam7FullSize;
+            final int decodedWidth = preview ? ScanExpediterInterlaced.getPreviewWidth(width, adam7Passes) : width;
+            final int decodedHeight = preview ? ScanExpediterInterlaced.getPreviewHeight(height, adam7Passes) : height;
+            final Rectangle fullImage = new Rectangle(0, 0, width, height);
+            Rectangle region = Subsampling.getRegion(params, decodedWidth, decodedHeight);
+            int subsampling = Subsampling.getFactor(params, region.width, region.height);
+            Rectangle scanRegion = fullImage;
+            int scanSubsampling = 1;
+            if (!interlaced) {
+                // rows and columns that are not kept are skipped while decoding
+                scanRegion = region;
+                scanSubsampling = subsampling;
+                region = new Rectangle(0, 0, Subsampling.getSize(region.width, subsampling), Subsampling.getSize(region.height, subsampling));
+                subsampling = 1;
+            } else if (!preview && region.equals(fullImage) && adam7Passes == PngImagingParameters.ADAM7_PASS_COUNT && subsampling % 2 == 0) {
+                // passes 1, 3 and 5 end with one pixel in the corner of every 8, 4 and 2 pixel square
+                final int block = subsampling % 8 == 0 ? 8 : subsampling % 4 == 0 ? 4 : 2;
+                adam7Passes = block == 8 ? 1 : block == 4 ? 3 : 5;
+                adam7FullSize = false;
+                subsampling /= block;
+                region = new Rectangle(0, 0, ScanExpediterInterlaced.getPreviewWidth(width, adam7Passes),
+                        ScanExpediterInterlaced.getPreviewHeight(height, adam7Passes));
+            }
+            int imageWidth = Subsampling.getSize(scanRegion.width, scanSubsampling);
+            int imageHeight = Subsampling.getSize(scanRegion.height, scanSubsampling);
+            if (interlaced && !adam7FullSize) {
+                imageWidth = ScanExpediterInterlaced.getPreviewWidth(width, adam7Passes);
+                imageHeight = ScanExpediterInterlaced.getPreviewHeight(height, adam7Passes);
+            }
+
             BufferedImage result;
             if (pngColorType.isGreyscale()) {
-                result = getBufferedImageFactory(params).getGrayscaleBufferedImage(width, height, hasAlpha);
+                result = getBufferedImageFactory(params).getGrayscaleBufferedImage(imageWidth, imageHeight, hasAlpha);
             } else {
-                result = getBufferedImageFactory(params).getColorBufferedImage(width, height, hasAlpha);
+                result = getBufferedImageFactory(params).getColorBufferedImage(imageWidth, imageHeight, hasAlpha);
             }
 
             final ByteArrayInputStream bais = new ByteArrayInputStream(compressed);
             final InflaterInputStream iis = new InflaterInputStream(bais);
 
-            final AbstractScanExpediter abstractScanExpediter;
+            final AbstractScanExpediter abstractScanExpediter = getScanExpediter(pngChunkIHDR, width, height, iis, result, pngChunkPLTE, gammaCorrection,
+                    abstractTransparencyFilter, adam7Passes, adam7FullSize, scanRegion, scanSubsampling);
 
-            switch (pngChunkIHDR.getInterlaceMethod()) {
-            case NONE:
-                abstractScanExpediter = new ScanExpediterSimple(width, height, iis, result, pngColorType, bitDepth, bitsPerPixel, pngChunkPLTE, gammaCorrection,
-                        abstractTransparencyFilter);
-                break;
-            case ADAM7:
-                abstractScanExpediter = new ScanExpediterInterlaced(width, height, iis, result, pngColorType, bitDepth, bitsPerPixel, pngChunkPLTE,
-                        gammaCorrection, abstractTransparencyFilter);
-                break;
-            default:
-                throw new ImagingException("Unknown InterlaceMethod: " + pngChunkIHDR.getInterlaceMethod());
+            try (Metrics.Timer timer = Metrics.start(ImageFormats.PNG, ImagingMetrics.Phase.DECOMPRESSION)) {
+                timer.setDimensions(width, height);
+                timer.setCompression("Deflate");
+                abstractScanExpediter.drive();
             }
-
-            abstractScanExpediter.drive();
+            result = Subsampling.reduce(result, region, subsampling);
 
             if (iccProfile != null) {
                 final boolean isSrgb = new IccProfileParser().isSrgb(iccProfile);
@@ -317,7 +361,9 @@ public class PngImageParser extends AbstractImageParser<PngImagingParameters> im
                     final ColorModel srgbCM = ColorModel.getRGBdefault();
                     final ColorSpace csSrgb = srgbCM.getColorSpace();
 
-                    result = new ColorTools().convertBetweenColorSpaces(result, cs, csSrgb);
+                    try (Metrics.Timer timer = Metrics.start(ImageFormats.PNG, ImagingMetrics.Phase.COLOR_CONVERSION)) {
+                        result = new ColorTools().convertBetweenColorSpaces(result, cs, csSrgb);
+                    }
                 }
             }
 
@@ -336,7 +382,7 @@ public class PngImageParser extends AbstractImageParser<PngImagingParameters> im
      * @throws IOException      if it fails to read the input stream data
      */
     public List<String> getChunkTypes(final InputStream is) throws ImagingException, IOException {
-        final List<PngChunk> chunks = readChunks(is, null, false);
+        final List<PngChunk> chunks = readChunks(is, null, false, PngCrcVerification.ON_ERROR);
         final List<String> chunkTypes = Allocator.arrayList(chunks.size());
         for (final PngChunk chunk : chunks) {
             chunkTypes.add(getChunkTypeName(chunk.getChunkType()));
@@ -344,6 +390,30 @@ public class PngImageParser extends AbstractImageParser<PngImagingParameters> im
         return chunkTypes;
     }
 
+    /**
+     * Gets all frames of an animated PNG (APNG) image, each composited onto the canvas as it is displayed. An image that is not animated yields its default
+     * image only.
+     * <p>
+     * Every frame is copied; use {@link #getFrameReader(ByteSource)} to process the frames with bounded memory.
+     * </p>
+     */
+    @Override
+    public List<BufferedImage> getAllBufferedImages(final ByteSource byteSource) throws ImagingException, IOException {
+        try (ApngFrameReader reader = getFrameReader(byteSource)) {
+            if (!reader.isAnimated()) {
+                return super.getAllBufferedImages(byteSource);
+            }
+            final List<BufferedImage> result = new ArrayList<>();
+            while (reader.hasNext()) {
+                final BufferedImage canvas = reader.next().getImage();
+                final BufferedImage copy = new BufferedImage(canvas.getWidth(), canvas.getHeight(), BufferedImage.TYPE_INT_ARGB);
+                canvas.copyData(copy.getRaster());
+                result.add(copy);
+            }
+            return result;
+        }
+    }
+
     @Override
     public String getDefaultExtension() {
         return DEFAULT_EXTENSION;
@@ -389,7 +459,7 @@ public class PngImageParser extends AbstractImageParser<PngImagingParameters> im
      * @since 1.0-alpha6
      */
     public byte[] getExifRawData(final ByteSource byteSource) throws ImagingException, IOException {
-        final List<PngChunk> chunks = readChunks(byteSource, new ChunkType[] { ChunkType.eXIf }, true);
+        final List<PngChunk> chunks = readIndexedChunks(byteSource, new ChunkType[] { ChunkType.eXIf }, true, PngCrcVerification.ON_ERROR);
 
         if (chunks.isEmpty()) {
             return null;
@@ -400,7 +470,7 @@ public class PngImageParser extends AbstractImageParser<PngImagingParameters> im
 
     @Override
     public byte[] getIccProfileBytes(final ByteSource byteSource, final PngImagingParameters params) throws ImagingException, IOException {
-        final List<PngChunk> chunks = readChunks(byteSource, new ChunkType[] { ChunkType.iCCP }, true);
+        final List<PngChunk> chunks = readIndexedChunks(byteSource, new ChunkType[] { ChunkType.iCCP }, true, getCrcVerification(params));
 
         if (chunks.isEmpty()) {
             return null;
@@ -415,10 +485,48 @@ public class PngImageParser extends AbstractImageParser<PngImagingParameters> im
         return pngChunkiCCP.getUncompressedProfile(); // TODO should this be a clone?
     }
 
+    /**
+     * Opens a reader that decodes the frames of an animated PNG (APNG) image one at a time, reusing a single canvas. The caller is responsible for closing
+     * the reader.
+     *
+     * @param byteSource the byte source.
+     * @return a frame reader.
+     * @throws ImagingException if the image is not a valid PNG image.
+     * @throws IOException      if an I/O error occurs.
+     * @since 1.0.0-alpha7
+     */
+    public ApngFrameReader getFrameReader(final ByteSource byteSource) throws ImagingException, IOException {
+        return getFrameReader(byteSource, null);
+    }
+
+    /**
+     * Opens a reader that decodes the frames of an animated PNG (APNG) image one at a time, reusing a single canvas. The caller is responsible for closing
+     * the reader.
+     * <p>
+     * The frame data is streamed, so its CRCs are verified only with {@link PngCrcVerification#FULL}, not after a decoding error.
+     * </p>
+     *
+     * @param byteSource the byte source.
+     * @param params     the parameters, may be null.
+     * @return a frame reader.
+     * @throws ImagingException if the image is not a valid PNG image.
+     * @throws IOException      if an I/O error occurs.
+     * @since 1.0.0-alpha7
+     */
+    public ApngFrameReader getFrameReader(final ByteSource byteSource, final PngImagingParameters params) throws ImagingException, IOException {
+        final InputStream is = byteSource.getInputStream();
+        try {
+            return new ApngFrameReader(is, getCrcVerification(params));
+        } catch (final IOException | RuntimeException e) {
+            is.close();
+            throw e;
+        }
+    }
+
     @Override
     public ImageInfo getImageInfo(final ByteSource byteSource, final PngImagingParameters params) throws ImagingException, IOException {
-        final List<PngChunk> chunks = readChunks(byteSource, new ChunkType[] { ChunkType.IHDR, ChunkType.pHYs, ChunkType.sCAL, ChunkType.tEXt, ChunkType.zTXt,
-                ChunkType.tRNS, ChunkType.PLTE, ChunkType.iTXt, }, false);
+        final List<PngChunk> chunks = readIndexedChunks(byteSource, new ChunkType[] { ChunkType.IHDR, ChunkType.pHYs, ChunkType.sCAL, ChunkType.tEXt, ChunkType.zTXt,
+                ChunkType.tRNS, ChunkType.PLTE, ChunkType.iTXt, ChunkType.acTL, }, false, getCrcVerification(params));
 
         if (chunks.isEmpty()) {
             throw new ImagingException("PNG: no chunks");
@@ -496,7 +604,8 @@ public class PngImageParser extends AbstractImageParser<PngImagingParameters> im
         final String formatName = "PNG Portable Network Graphics";
         final int height = pngChunkIHDR.getHeight();
         final String mimeType = "image/png";
-        final int numberOfImages = 1;
+        final List<PngChunk> acTLs = filterChunks(chunks, ChunkType.acTL);
+        final int numberOfImages = acTLs.isEmpty() ? 1 : ((PngChunkActl) acTLs.get(0)).getNumFrames();
         final int width = pngChunkIHDR.getWidth();
         final boolean progressive = pngChunkIHDR.getInterlaceMethod().isProgressive();
 
@@ -555,7 +664,7 @@ public class PngImageParser extends AbstractImageParser<PngImagingParameters> im
 
     @Override
     public Dimension getImageSize(final ByteSource byteSource, final PngImagingParameters params) throws ImagingException, IOException {
-        final List<PngChunk> chunks = readChunks(byteSource, new ChunkType[] { ChunkType.IHDR, }, true);
+        final List<PngChunk> chunks = readIndexedChunks(byteSource, new ChunkType[] { ChunkType.IHDR, }, true, getCrcVerification(params));
 
         if (chunks.isEmpty()) {
             throw new ImagingException("Png: No chunks");
@@ -573,7 +682,7 @@ public class PngImageParser extends AbstractImageParser<PngImagingParameters> im
     @Override
     public ImageMetadata getMetadata(final ByteSource byteSource, final PngImagingParameters params) throws ImagingException, IOException {
         final ChunkType[] chunkTypes = { ChunkType.tEXt, ChunkType.zTXt, ChunkType.iTXt, ChunkType.eXIf };
-        final List<PngChunk> chunks = readChunks(byteSource, chunkTypes, false);
+        final List<PngChunk> chunks = readIndexedChunks(byteSource, chunkTypes, false, getCrcVerification(params));
 
         if (chunks.isEmpty()) {
             return null;
@@ -604,7 +713,57 @@ public class PngImageParser extends AbstractImageParser<PngImagingParameters> im
         return "Png-Custom";
     }
 
-    private AbstractTransparencyFilter getTransparencyFilter(final PngColorType pngColorType, final PngChunk pngChunktRNS)
+    /**
+     * Gets the gamma correction for the image gamma of a gAMA chunk, or null if no correction is needed.
+     */
+    static GammaCorrection getGammaCorrection(final PngChunkGama pngChunkgAMA) {
+        final double gamma = pngChunkgAMA.getGamma();
+
+        // charles: what is the correct target value here?
+        // double targetGamma = 2.2;
+        final double targetGamma = 1.0;
+        final double diff = Math.abs(targetGamma - gamma);
+        if (diff >= 0.5) {
+            return new GammaCorrection(gamma, targetGamma);
+        }
+        return null;
+    }
+
+    /**
+     * Creates the scan expediter that decodes the image data of an image, or an animation frame, with the given header.
+     */
+    static AbstractScanExpediter getScanExpediter(final PngChunkIhdr pngChunkIHDR, final int width, final int height, final InputStream is,
+            final BufferedImage bi, final PngChunkPlte pngChunkPLTE, final GammaCorrection gammaCorrection,
+            final AbstractTransparencyFilter abstractTransparencyFilter, final int adam7Passes, final boolean adam7FullSize)
+            throws ImagingException, IOException {
+        return getScanExpediter(pngChunkIHDR, width, height, is, bi, pngChunkPLTE, gammaCorrection, abstractTransparencyFilter, adam7Passes, adam7FullSize,
+                new Rectangle(0, 0, width, height), 1);
+    }
+
+    /**
+     * Creates the scan expediter that decodes the image data of an image with the given header, keeping only the pixels of a region of a non-interlaced
+     * image, one for every block of subsampling by subsampling pixels.
+     */
+    static AbstractScanExpediter getScanExpediter(final PngChunkIhdr pngChunkIHDR, final int width, final int height, final InputStream is,
+            final BufferedImage bi, final PngChunkPlte pngChunkPLTE, final GammaCorrection gammaCorrection,
+            final AbstractTransparencyFilter abstractTransparencyFilter, final int adam7Passes, final boolean adam7FullSize, final Rectangle region,
+            final int subsampling) throws ImagingException, IOException {
+        final PngColorType pngColorType = pngChunkIHDR.getPngColorType();
+        final int bitDepth = pngChunkIHDR.getBitDepth();
+        final int bitsPerPixel = bitDepth * pngColorType.getSamplesPerPixel();
+        switch (pngChunkIHDR.getInterlaceMethod()) {
+        case NONE:
+            return new ScanExpediterSimple(width, height, is, bi, pngColorType, bitDepth, bitsPerPixel, pngChunkPLTE, gammaCorrection,
+                    abstractTransparencyFilter, region, subsampling);
+        case ADAM7:
+            return new ScanExpediterInterlaced(width, height, is, bi, pngColorType, bitDepth, bitsPerPixel, pngChunkPLTE, gammaCorrection,
+                    abstractTransparencyFilter, adam7Passes, adam7FullSize);
+        default:
+            throw new ImagingException("Unknown InterlaceMethod: " + pngChunkIHDR.getInterlaceMethod());
+        }
+    }
+
+    static AbstractTransparencyFilter getTransparencyFilter(final PngColorType pngColorType, final PngChunk pngChunktRNS)
             throws ImagingException, IOException {
         switch (pngColorType) {
         case GREYSCALE: // 1,2,4,8,16 Each pixel is a grayscale sample.
@@ -623,7 +782,7 @@ public class PngImageParser extends AbstractImageParser<PngImagingParameters> im
     @Override
     public String getXmpXml(final ByteSource byteSource, final XmpImagingParameters<PngImagingParameters> params) throws ImagingException, IOException {
 
-        final List<PngChunk> chunks = readChunks(byteSource, new ChunkType[] { ChunkType.iTXt }, false);
+        final List<PngChunk> chunks = readIndexedChunks(byteSource, new ChunkType[] { ChunkType.iTXt }, false, PngCrcVerification.ON_ERROR);
 
         if (chunks.isEmpty()) {
             return null;
@@ -663,14 +822,55 @@ public class PngImageParser extends AbstractImageParser<PngImagingParameters> im
      * @throws IOException if an I/O error occurs.
      */
     public boolean hasChunkType(final ByteSource byteSource, final ChunkType chunkType) throws ImagingException, IOException {
-        try (InputStream is = byteSource.getInputStream()) {
-            readSignature(is);
-            final List<PngChunk> chunks = readChunks(is, new ChunkType[] { chunkType }, true);
-            return !chunks.isEmpty();
+        return !readIndexedChunks(byteSource, new ChunkType[] { chunkType }, true, PngCrcVerification.ON_ERROR).isEmpty();
+    }
+
+    private static PngCrcVerification getCrcVerification(final PngImagingParameters params) {
+        return params != null ? params.getCrcVerification() : PngCrcVerification.ON_ERROR;
+    }
+
+    /**
+     * Makes a chunk, checking its CRC as requested.
+     *
+     * @param length          the chunk length.
+     * @param chunkType       the chunk type.
+     * @param crc             the CRC read from the file.
+     * @param bytes           the chunk data.
+     * @param crcVerification when to check the CRC.
+     * @return the chunk.
+     * @throws IOException if the chunk is invalid.
+     */
+    static PngChunk makeChunk(final int length, final int chunkType, final int crc, final byte[] bytes, final PngCrcVerification crcVerification)
+            throws IOException {
+        if (crcVerification == PngCrcVerification.FULL) {
+            verifyCrc(chunkType, bytes, crc, null);
+        }
+        try {
+            return ChunkType.makeChunk(length, chunkType, crc, bytes);
+        } catch (final IOException e) {
+            if (crcVerification == PngCrcVerification.ON_ERROR) {
+                verifyCrc(chunkType, bytes, crc, e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Checks the CRC of a chunk.
+     *
+     * @param chunkType the chunk type.
+     * @param bytes the chunk data.
+     * @param crc the CRC read from the file.
+     * @param cause the error that led to the check, or null.
+     * @throws ImagingException if the CRC does not match.
+     */
+    private static void verifyCrc(final int chunkType, final byte[] bytes, final int crc, final IOException cause) throws ImagingException {
+        if (PngCrc.crc(chunkType, bytes) != crc) {
+            throw new ImagingException("PNG: invalid CRC in " + getChunkTypeName(chunkType) + " chunk", cause);
         }
     }
 
-    private boolean keepChunk(final int chunkType, final ChunkType[] chunkTypes) {
+    static boolean keepChunk(final int chunkType, final ChunkType[] chunkTypes) {
         // System.out.println("keepChunk: ");
         if (chunkTypes == null) {
             return true;
@@ -684,15 +884,25 @@ public class PngImageParser extends AbstractImageParser<PngImagingParameters> im
         return false;
     }
 
-    private List<PngChunk> readChunks(final ByteSource byteSource, final ChunkType[] chunkTypes, final boolean returnAfterFirst)
-            throws ImagingException, IOException {
+    /**
+     * Reads chunks through the chunk index of the byte source, which skips the data of the other chunks and, when the byte source keeps it, lets later calls
+     * on the same byte source seek straight to the chunks they need.
+     */
+    private List<PngChunk> readIndexedChunks(final ByteSource byteSource, final ChunkType[] chunkTypes, final boolean returnAfterFirst,
+            final PngCrcVerification crcVerification) throws ImagingException, IOException {
+        return PngChunkIndex.get(byteSource).readChunks(byteSource, chunkTypes, returnAfterFirst, crcVerification);
+    }
+
+    private List<PngChunk> readChunks(final ByteSource byteSource, final ChunkType[] chunkTypes, final boolean returnAfterFirst,
+            final PngCrcVerification crcVerification) throws ImagingException, IOException {
         try (InputStream is = byteSource.getInputStream()) {
             readSignature(is);
-            return readChunks(is, chunkTypes, returnAfterFirst);
+            return readChunks(is, chunkTypes, returnAfterFirst, crcVerification);
         }
     }
 
-    private List<PngChunk> readChunks(final InputStream is, final ChunkType[] chunkTypes, final boolean returnAfterFirst) throws ImagingException, IOException {
+    private List<PngChunk> readChunks(final InputStream is, final ChunkType[] chunkTypes, final boolean returnAfterFirst,
+            final PngCrcVerification crcVerification) throws ImagingException, IOException {
         final List<PngChunk> result = new ArrayList<>();
 
         while (true) {
@@ -722,7 +932,7 @@ public class PngImageParser extends AbstractImageParser<PngImagingParameters> im
             final int crc = BinaryFunctions.read4Bytes("CRC", is, "Not a Valid PNG File", getByteOrder());
 
             if (keep) {
-                result.add(ChunkType.makeChunk(length, chunkType, crc, bytes));
+                result.add(makeChunk(length, chunkType, crc, bytes, crcVerification));
 
                 if (returnAfterFirst) {
                     return result;
@@ -17,6 +17,7 @@ package org.apache.commons.imaging.formats.png;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 import org.apache.commons.imaging.common.XmpImagingParameters;
 
@@ -30,6 +31,9 @@ public class PngImagingParameters extends XmpImagingParameters<PngImagingParamet
     /** Default bit depth value. */
     public static final byte DEFAULT_BIT_DEPTH = 8;
 
+    /** Number of passes in the Adam7 interlace method. */
+    public static final int ADAM7_PASS_COUNT = 7;
+
     /**
      * Bit depth. Default value is {@literal 8}.
      */
@@ -41,6 +45,22 @@ public class PngImagingParameters extends XmpImagingParameters<PngImagingParamet
 
     private boolean predictorEnabled;
 
+    /**
+     * Only used when reading Adam7 interlaced PNG images: the number of passes to decode. Default value is {@literal 7}, which decodes the complete image.
+     */
+    private int adam7Passes = ADAM7_PASS_COUNT;
+
+    /**
+     * Only used when reading Adam7 interlaced PNG images with fewer than seven passes: whether the preview is scaled up to the full image size by
+     * replicating pixels. Default value is {@code true}.
+     */
+    private boolean adam7PreviewFullSize = true;
+
+    /**
+     * Only used when reading PNG images: when the chunk CRCs are checked. Default value is {@link PngCrcVerification#ON_ERROR}.
+     */
+    private PngCrcVerification crcVerification = PngCrcVerification.ON_ERROR;
+
     /**
      * Used in write operations to indicate the Physical Scale - sCAL.
      *
@@ -70,6 +90,16 @@ public class PngImagingParameters extends XmpImagingParameters<PngImagingParamet
         // Default constructor
     }
 
+    /**
+     * Gets the number of Adam7 passes to decode from interlaced images.
+     *
+     * @return the number of passes, from 1 to 7.
+     * @since 1.0.0-alpha7
+     */
+    public int getAdam7Passes() {
+        return adam7Passes;
+    }
+
     /**
      * Gets the bit depth.
      *
@@ -79,6 +109,16 @@ public class PngImagingParameters extends XmpImagingParameters<PngImagingParamet
         return bitDepth;
     }
 
+    /**
+     * Gets when the chunk CRCs are checked while reading.
+     *
+     * @return the CRC verification mode.
+     * @since 1.0.0-alpha7
+     */
+    public PngCrcVerification getCrcVerification() {
+        return crcVerification;
+    }
+
     /**
      * Gets the physical scale.
      *
@@ -97,6 +137,16 @@ public class PngImagingParameters extends XmpImagingParameters<PngImagingParamet
         return textChunks != null ? Collections.unmodifiableList(textChunks) : null;
     }
 
+    /**
+     * Checks if an Adam7 preview is scaled up to the full image size.
+     *
+     * @return true if the preview has the full image size, false if it is natively sized.
+     * @since 1.0.0-alpha7
+     */
+    public boolean isAdam7PreviewFullSize() {
+        return adam7PreviewFullSize;
+    }
+
     /**
      * Checks if forcing indexed color.
      *
@@ -124,6 +174,38 @@ public class PngImagingParameters extends XmpImagingParameters<PngImagingParamet
         return predictorEnabled;
     }
 
+    /**
+     * Sets the number of Adam7 passes to decode from interlaced images. Decoding stops after the given pass, which produces a preview without inflating the
+     * rest of the image data; for example one pass yields one pixel in every 8x8 block, three passes one in every 4x4 block and five passes one in every 2x2
+     * block. Non-interlaced images are always decoded completely.
+     *
+     * @param adam7Passes the number of passes, from 1 to 7.
+     * @return this instance.
+     * @throws IllegalArgumentException if the number of passes is out of range.
+     * @since 1.0.0-alpha7
+     * @see #setAdam7PreviewFullSize(boolean)
+     */
+    public PngImagingParameters setAdam7Passes(final int adam7Passes) {
+        if (adam7Passes < 1 || adam7Passes > ADAM7_PASS_COUNT) {
+            throw new IllegalArgumentException("Invalid number of Adam7 passes: " + adam7Passes);
+        }
+        this.adam7Passes = adam7Passes;
+        return asThis();
+    }
+
+    /**
+     * Sets whether an Adam7 preview is scaled up to the full image size. If false, the preview only holds the decoded pixels: after one, three or five passes
+     * it is 1/8, 1/4 or 1/2 of the image size; after two, four or six passes it is reduced by twice as much vertically as horizontally.
+     *
+     * @param adam7PreviewFullSize true to replicate the decoded pixels over the full image size, false for a natively sized preview.
+     * @return this instance.
+     * @since 1.0.0-alpha7
+     */
+    public PngImagingParameters setAdam7PreviewFullSize(final boolean adam7PreviewFullSize) {
+        this.adam7PreviewFullSize = adam7PreviewFullSize;
+        return asThis();
+    }
+
     /**
      * Sets the bit depth.
      *
@@ -135,6 +217,20 @@ public class PngImagingParameters extends XmpImagingParameters<PngImagingParamet
         return asThis();
     }
 
+    /**
+     * Sets when the chunk CRCs are checked while reading. {@link PngCrcVerification#NONE} skips the check for trusted inputs,
+     * {@link PngCrcVerification#ON_ERROR} only checks the chunks when reading fails and {@link PngCrcVerification#FULL} checks every chunk read.
+     *
+     * @param crcVerification the CRC verification mode.
+     * @return this instance.
+     * @throws NullPointerException if the mode is null.
+     * @since 1.0.0-alpha7
+     */
+    public PngImagingParameters setCrcVerification(final PngCrcVerification crcVerification) {
+        this.crcVerification = Objects.requireNonNull(crcVerification, "crcVerification");
+        return asThis();
+    }
+
     /**
      * Sets whether to force indexed color.
      *
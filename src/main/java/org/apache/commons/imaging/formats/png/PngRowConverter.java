@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.formats.png;
+
+import java.io.IOException;
+
+import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.formats.png.chunks.PngChunkPlte;
+import org.apache.commons.imaging.formats.png.transparencyfilters.AbstractTransparencyFilter;
+
+/**
+ * Converts unfiltered PNG scanlines into ARGB pixels a whole row at a time.
+ * <p>
+ * Instances are specialized per color type and bit depth. Gamma correction and simple transparency are folded into lookup tables when the converter is
+ * created, so the per-pixel work is reduced to unpacking samples. The results are identical to those of {@link AbstractScanExpediter#getRgb(BitParser, int)}.
+ * </p>
+ */
+abstract class PngRowConverter {
+
+    /**
+     * Converts samples through a lookup table indexed by the raw sample value; used for greyscale and indexed color.
+     */
+    private static final class LookupConverter extends PngRowConverter {
+        private final int[] lut;
+        private final int bitDepth;
+        private final boolean palette;
+
+        LookupConverter(final int[] lut, final int bitDepth, final boolean palette) {
+            this.lut = lut;
+            this.bitDepth = bitDepth;
+            this.palette = palette;
+        }
+
+        @Override
+        void convert(final byte[] src, final int count, final int[] dst, final int dstOffset, final int dstStep) throws ImagingException {
+            int d = dstOffset;
+            switch (bitDepth) {
+            case 8:
+                for (int i = 0; i < count; i++, d += dstStep) {
+                    dst[d] = lookup(0xff & src[i]);
+                }
+                break;
+            case 16:
+                // only the most significant byte contributes to the 8-bit result.
+                for (int i = 0; i < count; i++, d += dstStep) {
+                    dst[d] = lookup(0xff & src[i << 1]);
+                }
+                break;
+            default:
+                final int mask = (1 << bitDepth) - 1;
+                for (int i = 0, bit = 0; i < count; i++, bit += bitDepth, d += dstStep) {
+                    final int shift = 8 - bitDepth - (bit & 7);
+                    dst[d] = lookup((0xff & src[bit >> 3]) >> shift & mask);
+                }
+                break;
+            }
+        }
+
+        private int lookup(final int index) throws ImagingException {
+            if (index >= lut.length) {
+                // only possible for palettes shorter than 2^bitDepth entries.
+                throw new ImagingException(palette ? "PNG: unknown Palette reference: " + index : "PNG: bad sample: " + index);
+            }
+            return lut[index];
+        }
+    }
+
+    /**
+     * Converts greyscale samples followed by an alpha sample.
+     */
+    private static final class GreyscaleAlphaConverter extends PngRowConverter {
+        private final int[] gammaLut;
+        private final int bytesPerSample;
+
+        GreyscaleAlphaConverter(final int[] gammaLut, final int bytesPerSample) {
+            this.gammaLut = gammaLut;
+            this.bytesPerSample = bytesPerSample;
+        }
+
+        @Override
+        void convert(final byte[] src, final int count, final int[] dst, final int dstOffset, final int dstStep) {
+            final int step = 2 * bytesPerSample;
+            for (int i = 0, s = 0, d = dstOffset; i < count; i++, s += step, d += dstStep) {
+                final int sample = gammaLut[0xff & src[s]];
+                final int alpha = 0xff & src[s + bytesPerSample];
+                dst[d] = alpha << 24 | sample << 16 | sample << 8 | sample;
+            }
+        }
+    }
+
+    /**
+     * Converts R,G,B triples, optionally applying a tRNS color key.
+     */
+    private static final class TrueColorConverter extends PngRowConverter {
+        private final int[] gammaLut;
+        private final boolean gamma;
+        private final int bytesPerSample;
+        private final AbstractTransparencyFilter transparencyFilter;
+
+        TrueColorConverter(final int[] gammaLut, final boolean gamma, final int bytesPerSample, final AbstractTransparencyFilter transparencyFilter) {
+            this.gammaLut = gammaLut;
+            this.gamma = gamma;
+            this.bytesPerSample = bytesPerSample;
+            this.transparencyFilter = transparencyFilter;
+        }
+
+        @Override
+        void convert(final byte[] src, final int count, final int[] dst, final int dstOffset, final int dstStep) throws ImagingException, IOException {
+            final int g = bytesPerSample;
+            final int b = 2 * bytesPerSample;
+            final int step = 3 * bytesPerSample;
+            if (transparencyFilter == null) {
+                for (int i = 0, s = 0, d = dstOffset; i < count; i++, s += step, d += dstStep) {
+                    dst[d] = 0xff000000 | gammaLut[0xff & src[s]] << 16 | gammaLut[0xff & src[s + g]] << 8 | gammaLut[0xff & src[s + b]];
+                }
+                return;
+            }
+            // the color key is matched against the uncorrected samples, as in AbstractScanExpediter.getRgb().
+            for (int i = 0, s = 0, d = dstOffset; i < count; i++, s += step, d += dstStep) {
+                final int red = 0xff & src[s];
+                final int green = 0xff & src[s + g];
+                final int blue = 0xff & src[s + b];
+                final int rgb = transparencyFilter.filter(0xff000000 | red << 16 | green << 8 | blue, -1);
+                if (gamma) {
+                    dst[d] = 0xff000000 & rgb | gammaLut[red] << 16 | gammaLut[green] << 8 | gammaLut[blue];
+                } else {
+                    dst[d] = rgb;
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts R,G,B triples followed by an alpha sample.
+     */
+    private static final class TrueColorAlphaConverter extends PngRowConverter {
+        private final int[] gammaLut;
+        private final int bytesPerSample;
+
+        TrueColorAlphaConverter(final int[] gammaLut, final int bytesPerSample) {
+            this.gammaLut = gammaLut;
+            this.bytesPerSample = bytesPerSample;
+        }
+
+        @Override
+        void convert(final byte[] src, final int count, final int[] dst, final int dstOffset, final int dstStep) {
+            final int g = bytesPerSample;
+            final int b = 2 * bytesPerSample;
+            final int a = 3 * bytesPerSample;
+            final int step = 4 * bytesPerSample;
+            for (int i = 0, s = 0, d = dstOffset; i < count; i++, s += step, d += dstStep) {
+                dst[d] = (0xff & src[s + a]) << 24 | gammaLut[0xff & src[s]] << 16 | gammaLut[0xff & src[s + g]] << 8 | gammaLut[0xff & src[s + b]];
+            }
+        }
+    }
+
+    private static final int[] IDENTITY_LUT = new int[256];
+
+    static {
+        for (int i = 0; i < IDENTITY_LUT.length; i++) {
+            IDENTITY_LUT[i] = i;
+        }
+    }
+
+    /**
+     * Creates a converter for the given image layout.
+     *
+     * @param pngColorType       the color type.
+     * @param bitDepth           the bit depth.
+     * @param pngChunkPlte       the palette, may be null.
+     * @param gammaCorrection    the gamma correction, may be null.
+     * @param transparencyFilter the transparency filter, may be null.
+     * @return a converter, or null if the combination is not supported and pixels must be converted one at a time.
+     * @throws ImagingException if the transparency filter rejects a value.
+     * @throws IOException      if the transparency filter fails.
+     */
+    static PngRowConverter create(final PngColorType pngColorType, final int bitDepth, final PngChunkPlte pngChunkPlte, final GammaCorrection gammaCorrection,
+            final AbstractTransparencyFilter transparencyFilter) throws ImagingException, IOException {
+        if (!pngColorType.isBitDepthAllowed(bitDepth)) {
+            return null;
+        }
+        final int bytesPerSample = bitDepth == 16 ? 2 : 1;
+        final int[] gammaLut = getGammaLut(gammaCorrection);
+
+        switch (pngColorType) {
+        case GREYSCALE: {
+            final int entries = bitDepth == 16 ? 256 : 1 << bitDepth;
+            final int maxValue = entries - 1;
+            final int[] lut = new int[entries];
+            for (int i = 0; i < entries; i++) {
+                // same scaling as BitParser.getSampleAsByte()
+                final int sample = gammaLut[bitDepth < 8 ? i * 255 / maxValue : i];
+                int rgb = 0xff000000 | sample << 16 | sample << 8 | sample;
+                if (transparencyFilter != null) {
+                    rgb = transparencyFilter.filter(rgb, sample);
+                }
+                lut[i] = rgb;
+            }
+            return new LookupConverter(lut, bitDepth, false);
+        }
+        case INDEXED_COLOR: {
+            if (pngChunkPlte == null) {
+                return null;
+            }
+            // the palette has already been gamma corrected by the parser.
+            final int[] lut = pngChunkPlte.getRgb();
+            if (transparencyFilter != null) {
+                for (int i = 0; i < lut.length; i++) {
+                    lut[i] = transparencyFilter.filter(lut[i], i);
+                }
+            }
+            return new LookupConverter(lut, bitDepth, true);
+        }
+        case TRUE_COLOR:
+            return new TrueColorConverter(gammaLut, gammaCorrection != null, bytesPerSample, transparencyFilter);
+        case GREYSCALE_WITH_ALPHA:
+            return new GreyscaleAlphaConverter(gammaLut, bytesPerSample);
+        case TRUE_COLOR_WITH_ALPHA:
+            return new TrueColorAlphaConverter(gammaLut, bytesPerSample);
+        default:
+            return null;
+        }
+    }
+
+    private static int[] getGammaLut(final GammaCorrection gammaCorrection) {
+        if (gammaCorrection == null) {
+            return IDENTITY_LUT;
+        }
+        final int[] lut = new int[256];
+        for (int i = 0; i < lut.length; i++) {
+            lut[i] = 0xff & gammaCorrection.correctSample(i);
+        }
+        return lut;
+    }
+
+    /**
+     * Converts {@code count} pixels of an unfiltered scanline to ARGB.
+     *
+     * @param src       the unfiltered scanline, without the filter type byte.
+     * @param count     the number of pixels to convert.
+     * @param dst       the destination array.
+     * @param dstOffset the index in {@code dst} of the first pixel.
+     * @param dstStep   the distance in {@code dst} between consecutive pixels.
+     * @throws ImagingException if a sample is invalid.
+     * @throws IOException      if a transparency filter fails.
+     */
+    abstract void convert(byte[] src, int count, int[] dst, int dstOffset, int dstStep) throws ImagingException, IOException;
+}
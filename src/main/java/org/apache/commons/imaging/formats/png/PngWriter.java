@@ -28,6 +28,7 @@ import java.util.zip.DeflaterOutputStream;
 import org.apache.commons.imaging.ImagingException;
 import org.apache.commons.imaging.PixelDensity;
 import org.apache.commons.imaging.common.Allocator;
+import org.apache.commons.imaging.common.PixelSource;
 import org.apache.commons.imaging.internal.Debug;
 import org.apache.commons.imaging.palette.Palette;
 import org.apache.commons.imaging.palette.PaletteFactory;
@@ -105,13 +106,7 @@ public class PngWriter {
             os.write(data);
         }
 
-        final PngCrc pngCrc = new PngCrc();
-
-        final long crc1 = pngCrc.startPartialCrc(chunkType.array, chunkType.array.length);
-        final long crc2 = data == null ? crc1 : pngCrc.continuePartialCrc(crc1, data, data.length);
-        final int crc = (int) pngCrc.finishPartialCrc(crc2);
-
-        writeInt(os, crc);
+        writeInt(os, PngCrc.crc(chunkType.array, data));
     }
 
     private void writeChunkIDAT(final OutputStream os, final byte[] bytes) throws IOException {
@@ -446,10 +441,10 @@ public class PngWriter {
 
                 final boolean useAlpha = pngColorType == PngColorType.GREYSCALE_WITH_ALPHA || pngColorType == PngColorType.TRUE_COLOR_WITH_ALPHA;
 
-                final int[] row = Allocator.intArray(width);
+                final PixelSource pixels = new PixelSource(src);
                 for (int y = 0; y < height; y++) {
                     // Debug.debug("y", y + "/" + height);
-                    src.getRGB(0, y, width, 1, row, 0, width);
+                    final int[] row = pixels.getRow(y);
 
                     baos.write(FilterType.NONE.ordinal());
                     for (int x = 0; x < width; x++) {
@@ -496,10 +491,10 @@ public class PngWriter {
 
                 final boolean useAlpha = pngColorType == PngColorType.GREYSCALE_WITH_ALPHA || pngColorType == PngColorType.TRUE_COLOR_WITH_ALPHA;
 
-                final int[] row = Allocator.intArray(width);
+                final PixelSource pixels = new PixelSource(src);
                 for (int y = 0; y < height; y++) {
                     // Debug.debug("y", y + "/" + height);
-                    src.getRGB(0, y, width, 1, row, 0, width);
+                    final int[] row = pixels.getRow(y);
 
                     int priorA = 0;
                     int priorR = 0;
@@ -17,69 +17,143 @@
 package org.apache.commons.imaging.formats.png;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
 import java.io.IOException;
 import java.io.InputStream;
 
 import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.common.Allocator;
+import org.apache.commons.imaging.common.ArrayLease;
 import org.apache.commons.imaging.formats.png.chunks.PngChunkPlte;
 import org.apache.commons.imaging.formats.png.transparencyfilters.AbstractTransparencyFilter;
+import org.apache.commons.imaging.internal.Cancellation;
 
 final class ScanExpediterInterlaced extends AbstractScanExpediter {
     private static final int[] STARTING_ROW = { 0, 0, 4, 0, 2, 0, 1 };
     private static final int[] STARTING_COL = { 0, 4, 0, 2, 0, 1, 0 };
     private static final int[] ROW_INCREMENT = { 8, 8, 8, 4, 4, 2, 2 };
     private static final int[] COL_INCREMENT = { 8, 8, 4, 4, 2, 2, 1 };
-//    private static final int[] Block_Height = { 8, 8, 4, 4, 2, 2, 1 };
-//    private static final int[] Block_Width = { 8, 4, 4, 2, 2, 1, 1 };
+    /** Size of the block each decoded pixel stands for once a pass is complete. */
+    private static final int[] BLOCK_HEIGHT = { 8, 8, 4, 4, 2, 2, 1 };
+    private static final int[] BLOCK_WIDTH = { 8, 4, 4, 2, 2, 1, 1 };
 
+    /**
+     * Gets the height of a natively sized preview.
+     *
+     * @param height the image height.
+     * @param passes the number of decoded passes.
+     * @return the preview height.
+     */
+    static int getPreviewHeight(final int height, final int passes) {
+        final int blockHeight = BLOCK_HEIGHT[passes - 1];
+        return (height + blockHeight - 1) / blockHeight;
+    }
+
+    /**
+     * Gets the width of a natively sized preview.
+     *
+     * @param width  the image width.
+     * @param passes the number of decoded passes.
+     * @return the preview width.
+     */
+    static int getPreviewWidth(final int width, final int passes) {
+        final int blockWidth = BLOCK_WIDTH[passes - 1];
+        return (width + blockWidth - 1) / blockWidth;
+    }
+
+    private final int passes;
+    private final boolean fullSize;
+
+    /**
+     * Constructs an expediter that stops after the given number of passes.
+     * <p>
+     * If {@code fullSize} is true, {@code bi} has the size of the image and the decoded pixels are replicated over the blocks they stand for; otherwise
+     * {@code bi} has the size given by {@link #getPreviewWidth(int, int)} and {@link #getPreviewHeight(int, int)}.
+     * </p>
+     */
     ScanExpediterInterlaced(final int width, final int height, final InputStream is, final BufferedImage bi, final PngColorType pngColorType,
             final int bitDepth, final int bitsPerPixel, final PngChunkPlte pngChunkPLTE, final GammaCorrection gammaCorrection,
-            final AbstractTransparencyFilter abstractTransparencyFilter) {
+            final AbstractTransparencyFilter abstractTransparencyFilter, final int passes, final boolean fullSize) throws ImagingException, IOException {
         super(width, height, is, bi, pngColorType, bitDepth, bitsPerPixel, pngChunkPLTE, gammaCorrection, abstractTransparencyFilter);
+        this.passes = passes;
+        this.fullSize = fullSize;
     }
 
     @Override
     public void drive() throws ImagingException, IOException {
+        // a natively sized preview keeps one pixel per block of the last pass.
+        final int xScale = fullSize ? 1 : BLOCK_WIDTH[passes - 1];
+        final int yScale = fullSize ? 1 : BLOCK_HEIGHT[passes - 1];
 
-        int pass = 1;
-        while (pass <= 7) {
-            byte[] prev = null;
-
-            int y = STARTING_ROW[pass - 1];
-            // int y_stride = ROW_INCREMENT[pass - 1];
-            // final boolean rows_in_pass = (y < height);
-            while (y < height) {
-                int x = STARTING_COL[pass - 1];
-                int pixelIndexInScanline = 0;
+        // no pass has more columns than the image
+        final int maxBytesPerScanLine = getBitsToBytesRoundingUp(bitsPerPixel * width);
+        // two rows are unfiltered alternately, each one the previous row of the other
+        try (ArrayLease<byte[]> lease = Allocator.leaseByteArray(maxBytesPerScanLine);
+                ArrayLease<byte[]> spareLease = Allocator.leaseByteArray(maxBytesPerScanLine)) {
+            byte[] unfiltered = lease.get();
+            byte[] spare = spareLease.get();
 
-                if (x < width) {
-                    // only get data if there are pixels in this scanline/pass
-                    final int columnsInRow = 1 + (width - STARTING_COL[pass - 1] - 1) / COL_INCREMENT[pass - 1];
-                    final int bitsPerScanLine = bitsPerPixel * columnsInRow;
-                    final int pixelBytesPerScanLine = getBitsToBytesRoundingUp(bitsPerScanLine);
+            int pass = 1;
+            while (pass <= passes) {
+                byte[] prev = null;
+                byte[] scanline = null;
 
-                    final byte[] unfiltered = getNextScanline(is, pixelBytesPerScanLine, prev, bytesPerPixel);
+                int y = STARTING_ROW[pass - 1];
+                // int y_stride = ROW_INCREMENT[pass - 1];
+                // final boolean rows_in_pass = (y < height);
+                while (y < height) {
+                    Cancellation.checkpoint();
+                    final int x = STARTING_COL[pass - 1];
 
-                    prev = unfiltered;
+                    if (x < width) {
+                        // only get data if there are pixels in this scanline/pass
+                        final int columnsInRow = 1 + (width - STARTING_COL[pass - 1] - 1) / COL_INCREMENT[pass - 1];
+                        if (scanline == null) {
+                            final int bitsPerScanLine = bitsPerPixel * columnsInRow;
+                            scanline = Allocator.byteArray(getBitsToBytesRoundingUp(bitsPerScanLine));
+                        }
 
-                    final BitParser fBitParser = new BitParser(unfiltered, bitsPerPixel, bitDepth);
+                        getNextScanline(is, scanline, unfiltered, prev, bytesPerPixel);
 
-                    while (x < width) {
-                        visit(x, y, bi, fBitParser, pixelIndexInScanline);
+                        writeScanline(unfiltered, y / yScale, x / xScale, COL_INCREMENT[pass - 1] / xScale, columnsInRow);
 
-                        x += COL_INCREMENT[pass - 1];
-                        pixelIndexInScanline++;
+                        prev = unfiltered;
+                        unfiltered = spare;
+                        spare = prev;
                     }
+                    y += ROW_INCREMENT[pass - 1];
                 }
-                y += ROW_INCREMENT[pass - 1];
+                pass += 1;
             }
-            pass += 1;
+        }
+
+        if (fullSize && passes < PngImagingParameters.ADAM7_PASS_COUNT) {
+            fillBlocks(BLOCK_WIDTH[passes - 1], BLOCK_HEIGHT[passes - 1]);
         }
     }
 
-    private void visit(final int x, final int y, final BufferedImage bi, final BitParser fBitParser, final int pixelIndexInScanline)
-            throws ImagingException, IOException {
-        final int rgb = getRgb(fBitParser, pixelIndexInScanline);
-        bi.setRGB(x, y, rgb);
+    /**
+     * Replicates each decoded pixel over the block it stands for.
+     */
+    private void fillBlocks(final int blockWidth, final int blockHeight) {
+        final WritableRaster raster = bi.getRaster();
+        Object pixel = null;
+        Object row = null;
+        for (int y = 0; y < height; y += blockHeight) {
+            if (blockWidth > 1) {
+                for (int x = 0; x < width; x += blockWidth) {
+                    pixel = raster.getDataElements(x, y, pixel);
+                    final int xEnd = Math.min(x + blockWidth, width);
+                    for (int dx = x + 1; dx < xEnd; dx++) {
+                        raster.setDataElements(dx, y, pixel);
+                    }
+                }
+            }
+            row = raster.getDataElements(0, y, width, 1, row);
+            final int yEnd = Math.min(y + blockHeight, height);
+            for (int dy = y + 1; dy < yEnd; dy++) {
+                raster.setDataElements(0, dy, width, 1, row);
+            }
+        }
     }
 }
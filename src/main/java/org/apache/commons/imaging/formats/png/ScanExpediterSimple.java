@@ -16,38 +16,72 @@
  */
 package org.apache.commons.imaging.formats.png;
 
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
 
 import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.common.Allocator;
+import org.apache.commons.imaging.common.ArrayLease;
 import org.apache.commons.imaging.formats.png.chunks.PngChunkPlte;
 import org.apache.commons.imaging.formats.png.transparencyfilters.AbstractTransparencyFilter;
+import org.apache.commons.imaging.internal.Cancellation;
+import org.apache.commons.imaging.internal.Subsampling;
 
 final class ScanExpediterSimple extends AbstractScanExpediter {
+
+    /** Only the pixels of the region are kept, one for every block of subsampling by subsampling pixels. */
+    private final Rectangle region;
+    private final int subsampling;
+
     ScanExpediterSimple(final int width, final int height, final InputStream is, final BufferedImage bi, final PngColorType pngColorType, final int bitDepth,
             final int bitsPerPixel, final PngChunkPlte pngChunkPLTE, final GammaCorrection gammaCorrection,
-            final AbstractTransparencyFilter abstractTransparencyFilter) {
+            final AbstractTransparencyFilter abstractTransparencyFilter) throws ImagingException, IOException {
+        this(width, height, is, bi, pngColorType, bitDepth, bitsPerPixel, pngChunkPLTE, gammaCorrection, abstractTransparencyFilter,
+                new Rectangle(0, 0, width, height), 1);
+    }
+
+    ScanExpediterSimple(final int width, final int height, final InputStream is, final BufferedImage bi, final PngColorType pngColorType, final int bitDepth,
+            final int bitsPerPixel, final PngChunkPlte pngChunkPLTE, final GammaCorrection gammaCorrection,
+            final AbstractTransparencyFilter abstractTransparencyFilter, final Rectangle region, final int subsampling) throws ImagingException, IOException {
         super(width, height, is, bi, pngColorType, bitDepth, bitsPerPixel, pngChunkPLTE, gammaCorrection, abstractTransparencyFilter);
+        this.region = region;
+        this.subsampling = subsampling;
     }
 
     @Override
     public void drive() throws ImagingException, IOException {
         final int bitsPerScanLine = bitsPerPixel * width;
         final int pixelBytesPerScanLine = getBitsToBytesRoundingUp(bitsPerScanLine);
-        byte[] prev = null;
-
-        for (int y = 0; y < height; y++) {
-            final byte[] unfiltered = getNextScanline(is, pixelBytesPerScanLine, prev, bytesPerPixel);
+        final byte[] scanline = Allocator.byteArray(pixelBytesPerScanLine);
 
-            prev = unfiltered;
+        // two rows are unfiltered alternately, each one the previous row of the other
+        try (ArrayLease<byte[]> lease = Allocator.leaseByteArray(pixelBytesPerScanLine);
+                ArrayLease<byte[]> spareLease = Allocator.leaseByteArray(pixelBytesPerScanLine)) {
+            byte[] unfiltered = lease.get();
+            byte[] spare = spareLease.get();
+            byte[] prev = null;
 
-            final BitParser bitParser = new BitParser(unfiltered, bitsPerPixel, bitDepth);
+            // each row is unfiltered against the previous one, but a cropped or subsampled image stops after its last kept row
+            final boolean reduced = subsampling != 1 || region.width != width || region.height != height;
+            final int columns = Subsampling.getSize(region.width, subsampling);
+            final int rows = region.y + (Subsampling.getSize(region.height, subsampling) - 1) * subsampling + 1;
+            final byte[] sampled = reduced ? Allocator.byteArray(getBitsToBytesRoundingUp(bitsPerPixel * columns)) : null;
+            for (int y = 0; y < rows; y++) {
+                Cancellation.checkpoint();
+                getNextScanline(is, scanline, unfiltered, prev, bytesPerPixel);
 
-            for (int x = 0; x < width; x++) {
-                final int rgb = getRgb(bitParser, x);
+                if (sampled == null) {
+                    writeScanline(unfiltered, y, 0, 1, width);
+                } else if (y >= region.y && (y - region.y) % subsampling == 0) {
+                    sampleScanline(unfiltered, sampled, region.x, columns, subsampling);
+                    writeScanline(sampled, (y - region.y) / subsampling, 0, 1, columns);
+                }
 
-                bi.setRGB(x, y, rgb);
+                prev = unfiltered;
+                unfiltered = spare;
+                spare = prev;
             }
         }
 
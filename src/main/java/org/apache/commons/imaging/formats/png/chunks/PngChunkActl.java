@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.formats.png.chunks;
+
+import static org.apache.commons.imaging.common.BinaryFunctions.read4Bytes;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * APNG acTL chunk with animation control.
+ *
+ * @see <a href="https://wiki.mozilla.org/APNG_Specification#.60acTL.60:_The_Animation_Control_Chunk">APNG Specification - acTL</a>
+ * @since 1.0.0-alpha7
+ */
+public final class PngChunkActl extends PngChunk {
+
+    private final int numFrames;
+    private final int numPlays;
+
+    /**
+     * Constructs a PNG acTL chunk.
+     *
+     * @param length the chunk length.
+     * @param chunkType the chunk type.
+     * @param crc the CRC.
+     * @param bytes the chunk bytes.
+     * @throws IOException if an I/O error occurs.
+     */
+    public PngChunkActl(final int length, final int chunkType, final int crc, final byte[] bytes) throws IOException {
+        super(length, chunkType, crc, bytes);
+
+        final ByteArrayInputStream is = new ByteArrayInputStream(bytes);
+        numFrames = read4Bytes("NumFrames", is, "Not a Valid PNG File: acTL Corrupt", getByteOrder());
+        numPlays = read4Bytes("NumPlays", is, "Not a Valid PNG File: acTL Corrupt", getByteOrder());
+    }
+
+    /**
+     * Gets the number of frames in the animation.
+     *
+     * @return the number of frames.
+     */
+    public int getNumFrames() {
+        return numFrames;
+    }
+
+    /**
+     * Gets the number of times to loop the animation, 0 meaning infinitely.
+     *
+     * @return the number of plays.
+     */
+    public int getNumPlays() {
+        return numPlays;
+    }
+}
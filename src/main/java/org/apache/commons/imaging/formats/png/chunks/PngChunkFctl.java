@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.formats.png.chunks;
+
+import static org.apache.commons.imaging.common.BinaryFunctions.read2Bytes;
+import static org.apache.commons.imaging.common.BinaryFunctions.read4Bytes;
+import static org.apache.commons.imaging.common.BinaryFunctions.readByte;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.apache.commons.imaging.ImagingException;
+
+/**
+ * APNG fcTL chunk with frame control.
+ *
+ * @see <a href="https://wiki.mozilla.org/APNG_Specification#.60fcTL.60:_The_Frame_Control_Chunk">APNG Specification - fcTL</a>
+ * @since 1.0.0-alpha7
+ */
+public final class PngChunkFctl extends PngChunk {
+
+    /**
+     * How the frame area is disposed of before rendering the next frame.
+     */
+    public enum DisposeOp {
+
+        /** No disposal is done; the contents of the canvas are left as is. */
+        NONE,
+
+        /** The frame area is cleared to fully transparent black. */
+        BACKGROUND,
+
+        /** The frame area is reverted to its contents before rendering this frame. */
+        PREVIOUS
+    }
+
+    /**
+     * How the frame is rendered onto the canvas.
+     */
+    public enum BlendOp {
+
+        /** All color components of the frame, including alpha, overwrite the canvas. */
+        SOURCE,
+
+        /** The frame is composited onto the canvas with alpha blending. */
+        OVER
+    }
+
+    private final int sequenceNumber;
+    private final int width;
+    private final int height;
+    private final int xOffset;
+    private final int yOffset;
+    private final int delayNumerator;
+    private final int delayDenominator;
+    private final DisposeOp disposeOp;
+    private final BlendOp blendOp;
+
+    /**
+     * Constructs a PNG fcTL chunk.
+     *
+     * @param length the chunk length.
+     * @param chunkType the chunk type.
+     * @param crc the CRC.
+     * @param bytes the chunk bytes.
+     * @throws ImagingException if the chunk is corrupt.
+     * @throws IOException if an I/O error occurs.
+     */
+    public PngChunkFctl(final int length, final int chunkType, final int crc, final byte[] bytes) throws ImagingException, IOException {
+        super(length, chunkType, crc, bytes);
+
+        final ByteArrayInputStream is = new ByteArrayInputStream(bytes);
+        sequenceNumber = read4Bytes("SequenceNumber", is, "Not a Valid PNG File: fcTL Corrupt", getByteOrder());
+        width = read4Bytes("Width", is, "Not a Valid PNG File: fcTL Corrupt", getByteOrder());
+        height = read4Bytes("Height", is, "Not a Valid PNG File: fcTL Corrupt", getByteOrder());
+        xOffset = read4Bytes("XOffset", is, "Not a Valid PNG File: fcTL Corrupt", getByteOrder());
+        yOffset = read4Bytes("YOffset", is, "Not a Valid PNG File: fcTL Corrupt", getByteOrder());
+        delayNumerator = read2Bytes("DelayNum", is, "Not a Valid PNG File: fcTL Corrupt", getByteOrder());
+        delayDenominator = read2Bytes("DelayDen", is, "Not a Valid PNG File: fcTL Corrupt", getByteOrder());
+        final int dispose = readByte("DisposeOp", is, "Not a Valid PNG File: fcTL Corrupt");
+        if (dispose < 0 || dispose >= DisposeOp.values().length) {
+            throw new ImagingException("PNG: unknown dispose op: " + dispose);
+        }
+        disposeOp = DisposeOp.values()[dispose];
+        final int blend = readByte("BlendOp", is, "Not a Valid PNG File: fcTL Corrupt");
+        if (blend < 0 || blend >= BlendOp.values().length) {
+            throw new ImagingException("PNG: unknown blend op: " + blend);
+        }
+        blendOp = BlendOp.values()[blend];
+    }
+
+    /**
+     * Gets the blend operation.
+     *
+     * @return the blend operation.
+     */
+    public BlendOp getBlendOp() {
+        return blendOp;
+    }
+
+    /**
+     * Gets the denominator of the frame delay in seconds.
+     *
+     * @return the delay denominator; 0 is to be treated as 100.
+     */
+    public int getDelayDenominator() {
+        return delayDenominator;
+    }
+
+    /**
+     * Gets the numerator of the frame delay in seconds.
+     *
+     * @return the delay numerator.
+     */
+    public int getDelayNumerator() {
+        return delayNumerator;
+    }
+
+    /**
+     * Gets the dispose operation.
+     *
+     * @return the dispose operation.
+     */
+    public DisposeOp getDisposeOp() {
+        return disposeOp;
+    }
+
+    /**
+     * Gets the frame height.
+     *
+     * @return the height.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the sequence number of the chunk.
+     *
+     * @return the sequence number.
+     */
+    public int getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    /**
+     * Gets the frame width.
+     *
+     * @return the width.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the X position at which to render the frame.
+     *
+     * @return the X offset.
+     */
+    public int getXOffset() {
+        return xOffset;
+    }
+
+    /**
+     * Gets the Y position at which to render the frame.
+     *
+     * @return the Y offset.
+     */
+    public int getYOffset() {
+        return yOffset;
+    }
+}
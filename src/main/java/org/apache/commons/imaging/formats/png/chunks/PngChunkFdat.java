@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.formats.png.chunks;
+
+import static org.apache.commons.imaging.common.BinaryFunctions.read4Bytes;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * APNG fdAT chunk with frame data.
+ *
+ * @see <a href="https://wiki.mozilla.org/APNG_Specification#.60fdAT.60:_The_Frame_Data_Chunk">APNG Specification - fdAT</a>
+ * @since 1.0.0-alpha7
+ */
+public final class PngChunkFdat extends PngChunk {
+
+    private final int sequenceNumber;
+
+    /**
+     * Constructs a PNG fdAT chunk.
+     *
+     * @param length the chunk length.
+     * @param chunkType the chunk type.
+     * @param crc the CRC.
+     * @param bytes the chunk bytes.
+     * @throws IOException if an I/O error occurs.
+     */
+    public PngChunkFdat(final int length, final int chunkType, final int crc, final byte[] bytes) throws IOException {
+        super(length, chunkType, crc, bytes);
+
+        final ByteArrayInputStream is = new ByteArrayInputStream(bytes);
+        sequenceNumber = read4Bytes("SequenceNumber", is, "Not a Valid PNG File: fdAT Corrupt", getByteOrder());
+    }
+
+    /**
+     * Gets a copy of the frame data, which has the same format as IDAT data.
+     *
+     * @return the frame data.
+     */
+    public byte[] getFrameData() {
+        final byte[] bytes = getBytes();
+        return Arrays.copyOfRange(bytes, 4, bytes.length);
+    }
+
+    /**
+     * Gets the sequence number of the chunk.
+     *
+     * @return the sequence number.
+     */
+    public int getSequenceNumber() {
+        return sequenceNumber;
+    }
+}
@@ -16,13 +16,15 @@
  */
 package org.apache.commons.imaging.formats.pnm;
 
+import java.awt.Rectangle;
 import java.io.IOException;
 import java.io.InputStream;
 
 import org.apache.commons.imaging.ImageFormat;
 import org.apache.commons.imaging.ImageInfo;
 import org.apache.commons.imaging.ImagingException;
-import org.apache.commons.imaging.common.ImageBuilder;
+import org.apache.commons.imaging.common.PixelSink;
+import org.apache.commons.imaging.internal.Cancellation;
 
 abstract class AbstractFileInfo {
 
@@ -85,34 +87,52 @@ abstract class AbstractFileInfo {
         // do nothing by default.
     }
 
-    void readImage(final ImageBuilder imageBuilder, final InputStream is) throws IOException {
+    /**
+     * Reads a raw pixel into a pixel sink. Formats of RGB or gray samples override this method to pass the samples to the sink without packing them.
+     */
+    void readPixel(final PixelSink pixelSink, final int x, final int y, final InputStream is) throws IOException {
+        pixelSink.setRgb(x, y, getRgb(is));
+    }
+
+    /**
+     * Reads a plain text pixel into a pixel sink. Formats of RGB or gray samples override this method to pass the samples to the sink without packing them.
+     */
+    void readPixel(final PixelSink pixelSink, final int x, final int y, final WhiteSpaceReader wsr) throws IOException {
+        pixelSink.setRgb(x, y, getRgb(wsr));
+    }
+
+    void readImage(final PixelSink imageBuilder, final InputStream is) throws IOException {
         // is = new BufferedInputStream(is);
         // int count = 0;
         //
         // try
         // {
 
+        // the rows after the region of the builder are not read
+        final Rectangle region = imageBuilder.getRegion();
+        final int rows = region.y + region.height;
         if (!rawBits) {
             final WhiteSpaceReader wsr = new WhiteSpaceReader(is);
 
-            for (int y = 0; y < height; y++) {
+            for (int y = 0; y < rows; y++) {
+                Cancellation.checkpoint();
                 for (int x = 0; x < width; x++) {
-                    final int rgb = getRgb(wsr);
-
-                    imageBuilder.setRgb(x, y, rgb);
+                    readPixel(imageBuilder, x, y, wsr);
                     // count++;
                 }
                 newline();
+                imageBuilder.rowsCompleted(y, 1);
             }
         } else {
-            for (int y = 0; y < height; y++) {
+            for (int y = 0; y < rows; y++) {
+                Cancellation.checkpoint();
                 // System.out.println("y: " + y);
                 for (int x = 0; x < width; x++) {
-                    final int rgb = getRgb(is);
-                    imageBuilder.setRgb(x, y, rgb);
+                    readPixel(imageBuilder, x, y, is);
                     // count++;
                 }
                 newline();
+                imageBuilder.rowsCompleted(y, 1);
             }
         }
         // }
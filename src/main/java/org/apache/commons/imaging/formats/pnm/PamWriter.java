@@ -23,6 +23,7 @@ import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 
 import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.common.PixelSource;
 
 final class PamWriter implements PnmWriter {
 
@@ -54,9 +55,11 @@ final class PamWriter implements PnmWriter {
         os.write("ENDHDR".getBytes(StandardCharsets.US_ASCII));
         os.write(PnmConstants.PNM_NEWLINE);
 
+        final PixelSource pixels = new PixelSource(src);
         for (int y = 0; y < height; y++) {
+            final int[] row = pixels.getRow(y);
             for (int x = 0; x < width; x++) {
-                final int argb = src.getRGB(x, y);
+                final int argb = row[x];
                 final int alpha = 0xff & argb >> 24;
                 final int red = 0xff & argb >> 16;
                 final int green = 0xff & argb >> 8;
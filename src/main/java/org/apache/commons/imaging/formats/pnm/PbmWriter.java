@@ -22,6 +22,7 @@ import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 
 import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.common.PixelSource;
 
 final class PbmWriter implements PnmWriter {
 
@@ -49,9 +50,11 @@ final class PbmWriter implements PnmWriter {
         int bitcache = 0;
         int bitsInCache = 0;
 
+        final PixelSource pixels = new PixelSource(src);
         for (int y = 0; y < height; y++) {
+            final int[] row = pixels.getRow(y);
             for (int x = 0; x < width; x++) {
-                final int argb = src.getRGB(x, y);
+                final int argb = row[x];
                 final int red = 0xff & argb >> 16;
                 final int green = 0xff & argb >> 8;
                 final int blue = 0xff & argb >> 0;
@@ -23,6 +23,7 @@ import org.apache.commons.imaging.ImageFormat;
 import org.apache.commons.imaging.ImageFormats;
 import org.apache.commons.imaging.ImageInfo;
 import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.common.PixelSink;
 
 final class PgmFileInfo extends AbstractFileInfo {
     private final int max;
@@ -103,4 +104,14 @@ final class PgmFileInfo extends AbstractFileInfo {
         return false;
     }
 
+    @Override
+    void readPixel(final PixelSink pixelSink, final int x, final int y, final InputStream is) throws IOException {
+        pixelSink.setGray(x, y, 0xff & scaleSample(readSample(is, bytesPerSample), scale, max));
+    }
+
+    @Override
+    void readPixel(final PixelSink pixelSink, final int x, final int y, final WhiteSpaceReader wsr) throws IOException {
+        pixelSink.setGray(x, y, 0xff & scaleSample(Integer.parseInt(wsr.readtoWhiteSpace()), scale, max));
+    }
+
 }
@@ -27,6 +27,7 @@ import java.io.PrintWriter;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.StringTokenizer;
 import java.util.stream.Stream;
 
@@ -38,6 +39,10 @@ import org.apache.commons.imaging.ImagingException;
 import org.apache.commons.imaging.bytesource.ByteSource;
 import org.apache.commons.imaging.common.ImageBuilder;
 import org.apache.commons.imaging.common.ImageMetadata;
+import org.apache.commons.imaging.common.RowListener;
+import org.apache.commons.imaging.common.RowSink;
+import org.apache.commons.imaging.internal.Cancellation;
+import org.apache.commons.imaging.internal.Subsampling;
 import org.apache.commons.imaging.palette.PaletteFactory;
 
 /**
@@ -123,15 +128,19 @@ public class PnmImageParser extends AbstractImageParser<PnmImagingParameters> {
     }
 
     @Override
+    @SuppressWarnings("try") // the cancellation scope is only closed
     public BufferedImage getBufferedImage(final ByteSource byteSource, final PnmImagingParameters params) throws ImagingException, IOException {
-        try (InputStream is = byteSource.getInputStream()) {
+        try (Cancellation.Scope scope = Cancellation.bind(params);
+                InputStream is = byteSource.getInputStream()) {
             final AbstractFileInfo info = readHeader(is);
 
             final int width = info.width;
             final int height = info.height;
 
             final boolean hasAlpha = info.hasAlpha();
-            final ImageBuilder imageBuilder = new ImageBuilder(width, height, hasAlpha);
+            final ImageInfo.ColorType colorType = info.getColorType();
+            final boolean grayscale = colorType == ImageInfo.ColorType.GRAYSCALE || colorType == ImageInfo.ColorType.BW;
+            final ImageBuilder imageBuilder = Subsampling.newImageBuilder(width, height, hasAlpha, grayscale, params);
             info.readImage(imageBuilder, is);
 
             return imageBuilder.getBufferedImage();
@@ -201,6 +210,19 @@ public class PnmImageParser extends AbstractImageParser<PnmImagingParameters> {
         return "Pbm-Custom";
     }
 
+    @Override
+    @SuppressWarnings("try") // the cancellation scope is only closed
+    public void readRows(final ByteSource byteSource, final PnmImagingParameters params, final RowListener listener) throws ImagingException, IOException {
+        Objects.requireNonNull(listener, "listener");
+        try (Cancellation.Scope scope = Cancellation.bind(params);
+                InputStream is = byteSource.getInputStream()) {
+            final AbstractFileInfo info = readHeader(is);
+            final RowSink rowSink = Subsampling.newRowSink(info.width, info.height, info.hasAlpha(), params, listener);
+            info.readImage(rowSink, is);
+            rowSink.flush();
+        }
+    }
+
     private AbstractFileInfo readHeader(final ByteSource byteSource) throws ImagingException, IOException {
         try (InputStream is = byteSource.getInputStream()) {
             return readHeader(is);
@@ -23,6 +23,7 @@ import org.apache.commons.imaging.ImageFormat;
 import org.apache.commons.imaging.ImageFormats;
 import org.apache.commons.imaging.ImageInfo;
 import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.common.PixelSink;
 
 final class PpmFileInfo extends AbstractFileInfo {
     private final int max;
@@ -108,4 +109,20 @@ final class PpmFileInfo extends AbstractFileInfo {
     public boolean hasAlpha() {
         return false;
     }
+
+    @Override
+    void readPixel(final PixelSink pixelSink, final int x, final int y, final InputStream is) throws IOException {
+        final int red = scaleSample(readSample(is, bytesPerSample), scale, max);
+        final int green = scaleSample(readSample(is, bytesPerSample), scale, max);
+        final int blue = scaleSample(readSample(is, bytesPerSample), scale, max);
+        pixelSink.setRgbSamples(x, y, 0xff & red, 0xff & green, 0xff & blue);
+    }
+
+    @Override
+    void readPixel(final PixelSink pixelSink, final int x, final int y, final WhiteSpaceReader wsr) throws IOException {
+        final int red = scaleSample(Integer.parseInt(wsr.readtoWhiteSpace()), scale, max);
+        final int green = scaleSample(Integer.parseInt(wsr.readtoWhiteSpace()), scale, max);
+        final int blue = scaleSample(Integer.parseInt(wsr.readtoWhiteSpace()), scale, max);
+        pixelSink.setRgbSamples(x, y, 0xff & red, 0xff & green, 0xff & blue);
+    }
 }
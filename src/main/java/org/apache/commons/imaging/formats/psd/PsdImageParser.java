@@ -17,6 +17,7 @@
 package org.apache.commons.imaging.formats.psd;
 
 import java.awt.Dimension;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -46,6 +47,8 @@ import org.apache.commons.imaging.formats.psd.dataparsers.DataParserRgb;
 import org.apache.commons.imaging.formats.psd.datareaders.CompressedDataReader;
 import org.apache.commons.imaging.formats.psd.datareaders.DataReader;
 import org.apache.commons.imaging.formats.psd.datareaders.UncompressedDataReader;
+import org.apache.commons.imaging.internal.Cancellation;
+import org.apache.commons.imaging.internal.Subsampling;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.ArrayUtils;
 
@@ -128,6 +131,7 @@ public class PsdImageParser extends AbstractImageParser<PsdImagingParameters> im
     }
 
     @Override
+    @SuppressWarnings("try") // the cancellation scope is only closed
     public BufferedImage getBufferedImage(final ByteSource byteSource, final PsdImagingParameters params) throws ImagingException, IOException {
         final PsdImageContents imageContents = readImageContents(byteSource);
         // ImageContents imageContents = readImage(byteSource, false);
@@ -157,8 +161,12 @@ public class PsdImageParser extends AbstractImageParser<PsdImagingParameters> im
 
         // transfer_type = DataBuffer.TYPE_BYTE;
 
+        final Rectangle region = Subsampling.getRegion(params, width, height);
+        final int subsampling = Subsampling.getFactor(params, region.width, region.height);
+
         final boolean hasAlpha = false;
-        final BufferedImage result = getBufferedImageFactory(params).getColorBufferedImage(width, height, hasAlpha);
+        final BufferedImage result = getBufferedImageFactory(params).getColorBufferedImage(Subsampling.getSize(region.width, subsampling),
+                Subsampling.getSize(region.height, subsampling), hasAlpha);
 
         final AbstractDataParser dataParser;
         switch (imageContents.header.mode) {
@@ -204,16 +212,17 @@ public class PsdImageParser extends AbstractImageParser<PsdImagingParameters> im
         final DataReader fDataReader;
         switch (imageContents.compression) {
         case 0:
-            fDataReader = new UncompressedDataReader(dataParser);
+            fDataReader = new UncompressedDataReader(dataParser, region, subsampling);
             break;
         case 1:
-            fDataReader = new CompressedDataReader(dataParser);
+            fDataReader = new CompressedDataReader(dataParser, region, subsampling);
             break;
         default:
             throw new ImagingException("Unknown Compression: " + imageContents.compression);
         }
 
-        try (InputStream is = getInputStream(byteSource, PSD_SECTION_IMAGE_DATA)) {
+        try (Cancellation.Scope scope = Cancellation.bind(params);
+                InputStream is = getInputStream(byteSource, PSD_SECTION_IMAGE_DATA)) {
             fDataReader.readData(is, result, imageContents, this);
 
             // is.
@@ -16,9 +16,12 @@
  */
 package org.apache.commons.imaging.formats.psd.dataparsers;
 
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
 
+import org.apache.commons.imaging.common.Allocator;
 import org.apache.commons.imaging.formats.psd.PsdHeaderInfo;
 import org.apache.commons.imaging.formats.psd.PsdImageContents;
 
@@ -60,16 +63,39 @@ public abstract class AbstractDataParser {
      * @param imageContents the image contents.
      */
     public final void parseData(final int[][][] data, final BufferedImage bi, final PsdImageContents imageContents) {
-        final DataBuffer buffer = bi.getRaster().getDataBuffer();
-
         final PsdHeaderInfo header = imageContents.header;
-        final int width = header.columns;
-        final int height = header.rows;
+        parseData(data, bi, imageContents, new Rectangle(0, 0, header.columns, header.rows), 1);
+    }
+
+    /**
+     * Parses the image data of a region and populates a BufferedImage with one pixel for every block of subsampling by subsampling pixels of the region.
+     *
+     * @param data          the image data array, only the rows of the region are used.
+     * @param bi            the BufferedImage to populate, ceil(region.width / subsampling) by ceil(region.height / subsampling) pixels.
+     * @param imageContents the image contents.
+     * @param region        the region of the image.
+     * @param subsampling   the subsampling factor.
+     * @since 1.0.0-alpha7
+     */
+    public final void parseData(final int[][][] data, final BufferedImage bi, final PsdImageContents imageContents, final Rectangle region,
+            final int subsampling) {
+        final DataBuffer buffer = bi.getRaster().getDataBuffer();
+        final int width = bi.getWidth();
+        final int height = bi.getHeight();
+        // only a packed int raster stores a whole pixel in one element, other layouts are written a row at a time
+        final int[] row = buffer instanceof DataBufferInt ? null : Allocator.intArray(width);
 
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
-                final int rgb = getRgb(data, x, y, imageContents);
-                buffer.setElem(y * width + x, rgb);
+                final int rgb = getRgb(data, region.x + x * subsampling, region.y + y * subsampling, imageContents);
+                if (row == null) {
+                    buffer.setElem(y * width + x, rgb);
+                } else {
+                    row[x] = rgb;
+                }
+            }
+            if (row != null) {
+                bi.setRGB(0, y, width, 1, row, 0, width);
             }
         }
     }
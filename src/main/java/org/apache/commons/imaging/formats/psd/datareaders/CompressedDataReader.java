@@ -16,6 +16,7 @@
  */
 package org.apache.commons.imaging.formats.psd.datareaders;
 
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -30,6 +31,7 @@ import org.apache.commons.imaging.common.PackBits;
 import org.apache.commons.imaging.formats.psd.PsdHeaderInfo;
 import org.apache.commons.imaging.formats.psd.PsdImageContents;
 import org.apache.commons.imaging.formats.psd.dataparsers.AbstractDataParser;
+import org.apache.commons.imaging.internal.Cancellation;
 import org.apache.commons.imaging.mylzw.BitsToByteInputStream;
 import org.apache.commons.imaging.mylzw.MyBitInputStream;
 
@@ -39,6 +41,8 @@ import org.apache.commons.imaging.mylzw.MyBitInputStream;
 public class CompressedDataReader implements DataReader {
 
     private final AbstractDataParser dataParser;
+    private final Rectangle region;
+    private final int subsampling;
 
     /**
      * Constructs a new compressed data reader.
@@ -46,7 +50,22 @@ public class CompressedDataReader implements DataReader {
      * @param dataParser the data parser to use.
      */
     public CompressedDataReader(final AbstractDataParser dataParser) {
+        this(dataParser, null, 1);
+    }
+
+    /**
+     * Constructs a new compressed data reader that keeps one pixel for every block of subsampling by subsampling pixels of a region; the rows outside the
+     * region are not stored.
+     *
+     * @param dataParser  the data parser to use.
+     * @param region      the region of the image, or null for the whole image.
+     * @param subsampling the subsampling factor.
+     * @since 1.0.0-alpha7
+     */
+    public CompressedDataReader(final AbstractDataParser dataParser, final Rectangle region, final int subsampling) {
         this.dataParser = dataParser;
+        this.region = region;
+        this.subsampling = subsampling;
     }
 
     @Override
@@ -68,11 +87,18 @@ public class CompressedDataReader implements DataReader {
         final int depth = header.depth;
 
         final int channelCount = dataParser.getBasicChannelsCount();
+        final Rectangle rows = region != null ? region : new Rectangle(0, 0, width, height);
         final int[][][] data = new int[Allocator.check(channelCount)][Allocator.check(height)][];
         // channels[0] =
         for (int channel = 0; channel < channelCount; channel++) {
             for (int y = 0; y < height; y++) {
+                Cancellation.checkpoint();
                 final int index = channel * height + y;
+                if (y < rows.y || y >= rows.y + rows.height) {
+                    // the scanlines outside the region are not unpacked
+                    BinaryFunctions.skipBytes(is, scanlineByteCounts[index], "PSD: Missing Image Data");
+                    continue;
+                }
                 final byte[] packed = BinaryFunctions.readBytes("scanline", is, scanlineByteCounts[index], "PSD: Missing Image Data");
 
                 final byte[] unpacked = PackBits.decompress(packed, width);
@@ -86,7 +112,7 @@ public class CompressedDataReader implements DataReader {
                 }
             }
         }
-        dataParser.parseData(data, bi, imageContents);
+        dataParser.parseData(data, bi, imageContents, rows, subsampling);
     }
 
 }
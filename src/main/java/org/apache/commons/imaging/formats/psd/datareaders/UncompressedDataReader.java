@@ -16,6 +16,7 @@
  */
 package org.apache.commons.imaging.formats.psd.datareaders;
 
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
@@ -27,6 +28,7 @@ import org.apache.commons.imaging.common.BinaryFileParser;
 import org.apache.commons.imaging.formats.psd.PsdHeaderInfo;
 import org.apache.commons.imaging.formats.psd.PsdImageContents;
 import org.apache.commons.imaging.formats.psd.dataparsers.AbstractDataParser;
+import org.apache.commons.imaging.internal.Cancellation;
 import org.apache.commons.imaging.mylzw.BitsToByteInputStream;
 import org.apache.commons.imaging.mylzw.MyBitInputStream;
 
@@ -36,6 +38,8 @@ import org.apache.commons.imaging.mylzw.MyBitInputStream;
 public class UncompressedDataReader implements DataReader {
 
     private final AbstractDataParser dataParser;
+    private final Rectangle region;
+    private final int subsampling;
 
     /**
      * Constructs a new uncompressed data reader.
@@ -43,7 +47,22 @@ public class UncompressedDataReader implements DataReader {
      * @param dataParser the data parser.
      */
     public UncompressedDataReader(final AbstractDataParser dataParser) {
+        this(dataParser, null, 1);
+    }
+
+    /**
+     * Constructs a new uncompressed data reader that keeps one pixel for every block of subsampling by subsampling pixels of a region; the rows outside the
+     * region are not stored.
+     *
+     * @param dataParser  the data parser to use.
+     * @param region      the region of the image, or null for the whole image.
+     * @param subsampling the subsampling factor.
+     * @since 1.0.0-alpha7
+     */
+    public UncompressedDataReader(final AbstractDataParser dataParser, final Rectangle region, final int subsampling) {
         this.dataParser = dataParser;
+        this.region = region;
+        this.subsampling = subsampling;
     }
 
     @Override
@@ -58,18 +77,27 @@ public class UncompressedDataReader implements DataReader {
         final MyBitInputStream mbis = new MyBitInputStream(is, ByteOrder.BIG_ENDIAN, false);
         // we want all samples to be bytes
         try (BitsToByteInputStream bbis = new BitsToByteInputStream(mbis, 8)) {
-            final int[][][] data = new int[Allocator.check(channelCount)][Allocator.check(height)][Allocator.check(width)];
+            // only the rows of the region are stored
+            final Rectangle rows = region != null ? region : new Rectangle(0, 0, width, height);
+            final int[][][] data = new int[Allocator.check(channelCount)][Allocator.check(height)][];
             for (int channel = 0; channel < channelCount; channel++) {
                 for (int y = 0; y < height; y++) {
+                    Cancellation.checkpoint();
+                    final boolean stored = y >= rows.y && y < rows.y + rows.height;
+                    if (stored) {
+                        data[channel][y] = Allocator.intArray(width);
+                    }
                     for (int x = 0; x < width; x++) {
                         final int b = bbis.readBits(depth);
 
-                        data[channel][y][x] = (byte) b;
+                        if (stored) {
+                            data[channel][y][x] = (byte) b;
+                        }
                     }
                 }
             }
 
-            dataParser.parseData(data, bi, imageContents);
+            dataParser.parseData(data, bi, imageContents, rows, subsampling);
         }
     }
 }
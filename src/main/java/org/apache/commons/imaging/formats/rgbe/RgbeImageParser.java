@@ -36,6 +36,7 @@ import org.apache.commons.imaging.ImageInfo;
 import org.apache.commons.imaging.ImagingException;
 import org.apache.commons.imaging.bytesource.ByteSource;
 import org.apache.commons.imaging.common.ImageMetadata;
+import org.apache.commons.imaging.internal.Subsampling;
 
 /**
  * Parses Radiance HDR images.
@@ -67,10 +68,10 @@ public class RgbeImageParser extends AbstractImageParser<RgbeImagingParameters>
             // not expose this complexity
             final DataBuffer buffer = new DataBufferFloat(info.getPixelData(), info.getWidth() * info.getHeight());
 
-            return new BufferedImage(
+            return Subsampling.reduce(new BufferedImage(
                     new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_sRGB), false, false, Transparency.OPAQUE, buffer.getDataType()),
                     Raster.createWritableRaster(new BandedSampleModel(buffer.getDataType(), info.getWidth(), info.getHeight(), 3), buffer, new Point()), false,
-                    null);
+                    null), params);
         }
     }
 
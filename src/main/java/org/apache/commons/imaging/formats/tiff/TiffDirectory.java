@@ -57,6 +57,7 @@ import org.apache.commons.imaging.formats.tiff.taginfos.TagInfoShort;
 import org.apache.commons.imaging.formats.tiff.taginfos.TagInfoShortOrLong;
 import org.apache.commons.imaging.formats.tiff.taginfos.TagInfoShorts;
 import org.apache.commons.imaging.formats.tiff.taginfos.TagInfoXpString;
+import org.apache.commons.imaging.internal.Cancellation;
 
 /**
  * Provides methods and elements for accessing an Image File Directory (IFD) from a TIFF file. In the TIFF specification, the IFD is the main container for
@@ -906,10 +907,13 @@ public class TiffDirectory extends AbstractTiffElement implements Iterable<TiffF
      * @throws ImagingException in the event of incompatible or malformed data.
      * @throws IOException      in the event of an I/O error.
      */
+    @SuppressWarnings("try") // the cancellation scope is only closed
     public AbstractTiffRasterData getRasterData(final TiffImagingParameters params) throws ImagingException, IOException {
 
         final TiffImageParser parser = new TiffImageParser();
-        return parser.getRasterData(this, headerByteOrder, params);
+        try (Cancellation.Scope scope = Cancellation.bind(params)) {
+            return parser.getRasterData(this, headerByteOrder, params);
+        }
     }
 
     /**
@@ -1007,12 +1011,15 @@ public class TiffDirectory extends AbstractTiffElement implements Iterable<TiffF
      * @throws ImagingException in the event of an invalid or incompatible data format.
      * @throws IOException      in the event of an I/O error.
      */
+    @SuppressWarnings("try") // the cancellation scope is only closed
     public BufferedImage getTiffImage(final ByteOrder byteOrder, final TiffImagingParameters params) throws ImagingException, IOException {
         if (null == abstractTiffImageData) {
             return null;
         }
 
-        return new TiffImageParser().getBufferedImage(this, byteOrder, params);
+        try (Cancellation.Scope scope = Cancellation.bind(params)) {
+            return new TiffImageParser().getBufferedImage(this, byteOrder, params);
+        }
     }
 
     /**
@@ -33,6 +33,7 @@ import org.apache.commons.imaging.ImageFormat;
 import org.apache.commons.imaging.ImageFormats;
 import org.apache.commons.imaging.ImageInfo;
 import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.ImagingMetrics;
 import org.apache.commons.imaging.bytesource.ByteSource;
 import org.apache.commons.imaging.common.Allocator;
 import org.apache.commons.imaging.common.ImageBuilder;
@@ -54,6 +55,8 @@ import org.apache.commons.imaging.formats.tiff.photometricinterpreters.Photometr
 import org.apache.commons.imaging.formats.tiff.photometricinterpreters.PhotometricInterpreterRgb;
 import org.apache.commons.imaging.formats.tiff.photometricinterpreters.PhotometricInterpreterYCbCr;
 import org.apache.commons.imaging.formats.tiff.write.TiffImageWriterLossy;
+import org.apache.commons.imaging.internal.Metrics;
+import org.apache.commons.imaging.internal.Subsampling;
 
 /**
  * Implements methods for reading and writing TIFF files. Instances of this class are invoked from the general Imaging class. Applications that require the use
@@ -164,6 +167,34 @@ public class TiffImageParser extends AbstractImageParser<TiffImagingParameters>
         }
     }
 
+    /**
+     * Finds the smallest reduced-resolution subfile whose longest side is at least the given size.
+     *
+     * @param directories the directories of the file, the first one holding the full resolution image.
+     * @param targetSize  the smallest acceptable longest side.
+     * @return the directory of the subfile, or null if there is none.
+     * @throws ImagingException if a subfile has invalid dimensions.
+     */
+    private TiffDirectory findReducedResolutionDirectory(final List<TiffDirectory> directories, final int targetSize) throws ImagingException {
+        TiffDirectory best = null;
+        int bestSize = Integer.MAX_VALUE;
+        for (int i = 1; i < directories.size(); i++) {
+            final TiffDirectory directory = directories.get(i);
+            final TiffField subfileType = directory.findField(TiffTagConstants.TIFF_TAG_NEW_SUBFILE_TYPE);
+            if (subfileType == null || (subfileType.getIntValue() & TiffTagConstants.SUBFILE_TYPE_VALUE_REDUCED_RESOLUTION_IMAGE) == 0
+                    || (subfileType.getIntValue() & TiffTagConstants.SUBFILE_TYPE_VALUE_TRANSPARENCY_MASK) != 0 || !directory.hasTiffImageData()) {
+                continue;
+            }
+            final int size = Math.max(directory.getSingleFieldValue(TiffTagConstants.TIFF_TAG_IMAGE_WIDTH),
+                    directory.getSingleFieldValue(TiffTagConstants.TIFF_TAG_IMAGE_LENGTH));
+            if (size >= targetSize && size < bestSize) {
+                best = directory;
+                bestSize = size;
+            }
+        }
+        return best;
+    }
+
     @Override
     protected String[] getAcceptedExtensions() {
         return ACCEPTED_EXTENSIONS;
@@ -228,20 +259,46 @@ public class TiffImageParser extends AbstractImageParser<TiffImagingParameters>
      * @throws IOException      In the event of unsuccessful read or access operation.
      */
     @Override
+    @SuppressWarnings("try") // the timer is only closed
     public BufferedImage getBufferedImage(final ByteSource byteSource, TiffImagingParameters params) throws ImagingException, IOException {
         if (params == null) {
             params = new TiffImagingParameters();
         }
         final FormatCompliance formatCompliance = FormatCompliance.getDefault();
         final TiffReader reader = new TiffReader(params.isStrict());
-        final TiffContents contents = reader.readFirstDirectory(byteSource, true, formatCompliance);
+        final TiffContents contents;
+        try (Metrics.Timer timer = Metrics.start(ImageFormats.TIFF, ImagingMetrics.Phase.PARSING)) {
+            contents = reader.readFirstDirectory(byteSource, true, formatCompliance);
+        }
         final ByteOrder byteOrder = reader.getByteOrder();
-        final TiffDirectory directory = contents.directories.get(0);
+        TiffDirectory directory = contents.directories.get(0);
+        int subsampling = 1;
+        final Rectangle subImage = checkForSubImage(params);
+        if (subImage != null) {
+            // the sub-image is read at full resolution and subsampled afterwards
+            subsampling = Subsampling.getFactor(params, subImage.width, subImage.height);
+        } else if (directory.hasTiffImageData()) {
+            final int width = directory.getSingleFieldValue(TiffTagConstants.TIFF_TAG_IMAGE_WIDTH);
+            final int height = directory.getSingleFieldValue(TiffTagConstants.TIFF_TAG_IMAGE_LENGTH);
+            subsampling = Subsampling.getFactor(params, width, height);
+            if (subsampling > 1) {
+                // a reduced-resolution subfile at least as large as the reduced image is decoded instead
+                final int targetSize = Subsampling.getSize(Math.max(width, height), subsampling);
+                final TiffContents allContents = reader.readDirectories(byteSource, true, formatCompliance);
+                final TiffDirectory reduced = findReducedResolutionDirectory(allContents.directories, targetSize);
+                if (reduced != null) {
+                    directory = reduced;
+                    final int reducedSize = Math.max(directory.getSingleFieldValue(TiffTagConstants.TIFF_TAG_IMAGE_WIDTH),
+                            directory.getSingleFieldValue(TiffTagConstants.TIFF_TAG_IMAGE_LENGTH));
+                    subsampling = Math.max(1, reducedSize / targetSize);
+                }
+            }
+        }
         final BufferedImage result = directory.getTiffImage(byteOrder, params);
         if (null == result) {
             throw new ImagingException("TIFF does not contain an image.");
         }
-        return result;
+        return Subsampling.reduce(result, subsampling);
     }
 
     /**
@@ -382,8 +439,13 @@ public class TiffImageParser extends AbstractImageParser<TiffImagingParameters>
 
         final AbstractImageDataReader dataReader = imageData.getDataReader(directory, photometricInterpreter, bitsPerPixel, bitsPerSample, predictor,
                 samplesPerPixel, width, height, compression, planarConfiguration, byteOrder);
-        final ImageBuilder iBuilder = dataReader.readImageData(subImage, hasAlpha, isAlphaPremultiplied);
-        return iBuilder.getBufferedImage();
+        // strips and tiles are decompressed and interpreted one at a time
+        try (Metrics.Timer timer = Metrics.start(ImageFormats.TIFF, ImagingMetrics.Phase.DECOMPRESSION)) {
+            timer.setDimensions(width, height);
+            timer.setCompression(Integer.toString(compression));
+            final ImageBuilder iBuilder = dataReader.readImageData(subImage, hasAlpha, isAlphaPremultiplied);
+            return iBuilder.getBufferedImage();
+        }
     }
 
     @Override
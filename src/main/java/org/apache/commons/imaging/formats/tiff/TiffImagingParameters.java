@@ -47,26 +47,6 @@ public class TiffImagingParameters extends XmpImagingParameters<TiffImagingParam
      */
     private TiffOutputSet tiffOutputSet;
 
-    /**
-     * X-coordinate of a sub-image.
-     */
-    private int subImageX;
-
-    /**
-     * Y-coordinate of a sub-image.
-     */
-    private int subImageY;
-
-    /**
-     * Width of a sub-image.
-     */
-    private int subImageWidth;
-
-    /**
-     * Height of a sub-image.
-     */
-    private int subImageHeight;
-
     /**
      * Specifies that an application-specified photometric interpreter is to be used when reading TIFF files to convert raster data samples to RGB values for
      * the output image.
@@ -107,14 +87,6 @@ public class TiffImagingParameters extends XmpImagingParameters<TiffImagingParam
      */
     private Integer t6Options;
 
-    /**
-     * Clears settings for sub-image. Subsequent read operations will retrieve the entire image.
-     */
-    public void clearSubImage() {
-        subImageWidth = 0;
-        subImageHeight = 0;
-    }
-
     /**
      * Gets the compression algorithm.
      *
@@ -151,42 +123,6 @@ public class TiffImagingParameters extends XmpImagingParameters<TiffImagingParam
         return tiffOutputSet;
     }
 
-    /**
-     * Gets the height for a sub-image setting. For a sub-image setting to be meaningful, both the width and height must be set.
-     *
-     * @return if the sub-image feature is enabled, a value greater than zero; otherwise, zero.
-     */
-    public int getSubImageHeight() {
-        return subImageHeight;
-    }
-
-    /**
-     * Gets the width for a sub-image setting. For a sub-image setting to be meaningful, both the width and height must be set.
-     *
-     * @return if the sub-image feature is enabled, a value greater than zero; otherwise, zero.
-     */
-    public int getSubImageWidth() {
-        return subImageWidth;
-    }
-
-    /**
-     * Gets the X coordinate of a sub-image. This setting is meaningful only if a sub-image is set.
-     *
-     * @return a positive integer
-     */
-    public int getSubImageX() {
-        return subImageX;
-    }
-
-    /**
-     * Gets the Y coordinate of a sub-image. This setting is meaningful only if a sub-image is set.
-     *
-     * @return a positive integer
-     */
-    public int getSubImageY() {
-        return subImageY;
-    }
-
     /**
      * Gets the T.4 options.
      *
@@ -214,15 +150,6 @@ public class TiffImagingParameters extends XmpImagingParameters<TiffImagingParam
         return readThumbnails;
     }
 
-    /**
-     * Indicates whether the application has set sub-image parameters.
-     *
-     * @return true if the sub-image parameters are set; otherwise, false.
-     */
-    public boolean isSubImageSet() {
-        return subImageWidth > 0 && subImageHeight > 0;
-    }
-
     /**
      * Sets the compression algorithm.
      *
@@ -280,11 +207,8 @@ public class TiffImagingParameters extends XmpImagingParameters<TiffImagingParam
     }
 
     /**
-     * Sets parameters for performing a partial read operation on an image. This method is useful for reducing memory and run-time overhead when accessing large
-     * source images.
-     * <p>
-     * Note that the corner x and y coordinates must be positive integers (zero or greater). The width and height must be greater than zero.
-     * </p>
+     * Sets parameters for performing a partial read operation on an image. This override keeps the {@code TiffImagingParameters} return type that callers
+     * compiled against earlier releases link to.
      *
      * @param x      pixel coordinate of the upper-left corner of the source image, must be zero or greater.
      * @param y      pixel coordinate of the upper-left corner of the source image, must be zero or greater.
@@ -292,18 +216,9 @@ public class TiffImagingParameters extends XmpImagingParameters<TiffImagingParam
      * @param height height of the image subset to be read, must be greater than zero.
      * @return {@code this} instance.
      */
+    @Override
     public TiffImagingParameters setSubImage(final int x, final int y, final int width, final int height) {
-        if (x < 0 || y < 0) {
-            throw new IllegalArgumentException("Invalid sub-image specification: negative x and y values not allowed");
-        }
-        if (width <= 0 || height <= 0) {
-            throw new IllegalArgumentException("Invalid sub-image specification width and height must be greater than zero");
-        }
-        subImageX = x;
-        subImageY = y;
-        subImageWidth = width;
-        subImageHeight = height;
-        return asThis();
+        return super.setSubImage(x, y, width, height);
     }
 
     /**
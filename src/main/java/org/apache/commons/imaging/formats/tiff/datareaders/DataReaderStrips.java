@@ -35,6 +35,7 @@ import org.apache.commons.imaging.formats.tiff.constants.TiffPlanarConfiguration
 import org.apache.commons.imaging.formats.tiff.constants.TiffTagConstants;
 import org.apache.commons.imaging.formats.tiff.photometricinterpreters.AbstractPhotometricInterpreter;
 import org.apache.commons.imaging.formats.tiff.photometricinterpreters.PhotometricInterpreterRgb;
+import org.apache.commons.imaging.internal.Cancellation;
 
 /**
  * Provides a data reader for TIFF file images organized by tiles.
@@ -292,6 +293,7 @@ public final class DataReaderStrips extends AbstractImageDataReader {
             // For example, red-green-blue values for each pixel
             // would appear contiguous in input sequence.
             for (int strip = strip0; strip <= strip1; strip++) {
+                Cancellation.checkpoint();
                 final long rowsPerStripLong = 0xFFFFffffL & rowsPerStrip;
                 final long rowsRemaining = height - strip * rowsPerStripLong;
                 final long rowsInThisStrip = Math.min(rowsRemaining, rowsPerStripLong);
@@ -322,6 +324,7 @@ public final class DataReaderStrips extends AbstractImageDataReader {
             }
             final int nStripsInPlane = imageData.getImageDataLength() / 3;
             for (int strip = strip0; strip <= strip1; strip++) {
+                Cancellation.checkpoint();
                 final long rowsPerStripLong = 0xFFFFffffL & rowsPerStrip;
                 final long rowsRemaining = height - strip * rowsPerStripLong;
                 final long rowsInThisStrip = Math.min(rowsRemaining, rowsPerStripLong);
@@ -394,6 +397,7 @@ public final class DataReaderStrips extends AbstractImageDataReader {
         final int strip1 = (yRaster + rasterHeight - 1) / rowsPerStrip;
 
         for (int strip = strip0; strip <= strip1; strip++) {
+            Cancellation.checkpoint();
             final int yStrip = strip * rowsPerStrip;
             final int rowsRemaining = height - yStrip;
             final int rowsInThisStrip = Math.min(rowsRemaining, rowsPerStrip);
@@ -439,6 +443,7 @@ public final class DataReaderStrips extends AbstractImageDataReader {
         final int strip1 = (yRaster + rasterHeight - 1) / rowsPerStrip;
 
         for (int strip = strip0; strip <= strip1; strip++) {
+            Cancellation.checkpoint();
             final int yStrip = strip * rowsPerStrip;
             final int rowsRemaining = height - yStrip;
             final int rowsInThisStrip = Math.min(rowsRemaining, rowsPerStrip);
@@ -41,6 +41,7 @@ import org.apache.commons.imaging.formats.tiff.constants.TiffPlanarConfiguration
 import org.apache.commons.imaging.formats.tiff.constants.TiffTagConstants;
 import org.apache.commons.imaging.formats.tiff.photometricinterpreters.AbstractPhotometricInterpreter;
 import org.apache.commons.imaging.formats.tiff.photometricinterpreters.PhotometricInterpreterRgb;
+import org.apache.commons.imaging.internal.Cancellation;
 
 /**
  * Provides a data reader for TIFF file images organized by tiles.
@@ -260,6 +261,7 @@ public final class DataReaderTiled extends AbstractImageDataReader {
 
         for (int iRow = row0; iRow <= row1; iRow++) {
             for (int iCol = col0; iCol <= col1; iCol++) {
+                Cancellation.checkpoint();
                 final int tile = iRow * nColumnsOfTiles + iCol;
                 final byte[] compressed = imageData.tiles[tile].getData();
                 final int x = iCol * tileWidth - x0;
@@ -330,6 +332,7 @@ public final class DataReaderTiled extends AbstractImageDataReader {
 
         for (int iRow = row0; iRow <= row1; iRow++) {
             for (int iCol = col0; iCol <= col1; iCol++) {
+                Cancellation.checkpoint();
                 final int tile = iRow * nColumnsOfTiles + iCol;
                 final byte[] compressed = imageData.tiles[tile].getData();
                 final byte[] decompressed = decompress(compressed, compression, bytesPerTile, tileWidth, tileLength);
@@ -376,6 +379,7 @@ public final class DataReaderTiled extends AbstractImageDataReader {
 
         for (int iRow = row0; iRow <= row1; iRow++) {
             for (int iCol = col0; iCol <= col1; iCol++) {
+                Cancellation.checkpoint();
                 final int tile = iRow * nColumnsOfTiles + iCol;
                 final byte[] compressed = imageData.tiles[tile].getData();
                 final byte[] decompressed = decompress(compressed, compression, bytesPerTile, tileWidth, tileLength);
@@ -19,9 +19,11 @@ package org.apache.commons.imaging.formats.tiff.itu_t4;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 
+import org.apache.commons.imaging.ImagingCancelledException;
 import org.apache.commons.imaging.ImagingException;
 import org.apache.commons.imaging.common.Allocator;
 import org.apache.commons.imaging.formats.tiff.itu_t4.T4_T6_Tables.Entry;
+import org.apache.commons.imaging.internal.Cancellation;
 
 /**
  * T4 and T6 compression implementation for TIFF.
@@ -376,6 +378,7 @@ public final class T4AndT6Compression {
                 BitInputStreamFlexible inputStream = new BitInputStreamFlexible(baos);
                 BitArrayOutputStream outputStream = new BitArrayOutputStream()) {
             for (int y = 0; y < height; y++) {
+                Cancellation.checkpoint();
                 int color = WHITE;
                 int rowLength;
                 for (rowLength = 0; rowLength < width;) {
@@ -395,6 +398,8 @@ public final class T4AndT6Compression {
                 }
             }
             return outputStream.toByteArray();
+        } catch (final ImagingCancelledException e) {
+            throw e;
         } catch (final IOException ioException) {
             throw new ImagingException("Error reading image to decompress", ioException);
         }
@@ -414,6 +419,7 @@ public final class T4AndT6Compression {
         final BitInputStreamFlexible inputStream = new BitInputStreamFlexible(new ByteArrayInputStream(compressed));
         try (BitArrayOutputStream outputStream = new BitArrayOutputStream()) {
             for (int y = 0; y < height; y++) {
+                Cancellation.checkpoint();
                 int rowLength;
                 try {
                     final T4_T6_Tables.Entry entry = CONTROL_CODES.decode(inputStream);
@@ -459,6 +465,7 @@ public final class T4AndT6Compression {
         try (BitArrayOutputStream outputStream = new BitArrayOutputStream()) {
             final int[] referenceLine = Allocator.intArray(width);
             for (int y = 0; y < height; y++) {
+                Cancellation.checkpoint();
                 int rowLength = 0;
                 try {
                     T4_T6_Tables.Entry entry = CONTROL_CODES.decode(inputStream);
@@ -564,6 +571,7 @@ public final class T4AndT6Compression {
                 BitArrayOutputStream outputStream = new BitArrayOutputStream()) {
             final int[] referenceLine = Allocator.intArray(width);
             for (int y = 0; y < height; y++) {
+                Cancellation.checkpoint();
                 int rowLength = 0;
                 int codingA0Color = WHITE;
                 int referenceA0Color = WHITE;
@@ -35,6 +35,7 @@ import org.apache.commons.imaging.PixelDensity;
 import org.apache.commons.imaging.common.AbstractBinaryOutputStream;
 import org.apache.commons.imaging.common.Allocator;
 import org.apache.commons.imaging.common.PackBits;
+import org.apache.commons.imaging.common.PixelSource;
 import org.apache.commons.imaging.common.RationalNumber;
 import org.apache.commons.imaging.common.ZlibDeflate;
 import org.apache.commons.imaging.formats.tiff.AbstractTiffElement;
@@ -52,8 +53,6 @@ import org.apache.commons.imaging.mylzw.MyLzwCompressor;
  */
 public abstract class AbstractTiffImageWriter {
 
-    private static final int MAX_PIXELS_FOR_RGB = 1024 * 1024;
-
     /**
      * Calculates the padding length needed for image data alignment.
      *
@@ -101,23 +100,12 @@ public abstract class AbstractTiffImageWriter {
      * @return true if at least one non-opaque pixel is found.
      */
     private boolean checkForActualAlpha(final BufferedImage src) {
-        // to conserve memory, very large images may be read
-        // in pieces.
-        final int width = src.getWidth();
-        final int height = src.getHeight();
-        int nRowsPerRead = MAX_PIXELS_FOR_RGB / width;
-        if (nRowsPerRead < 1) {
-            nRowsPerRead = 1;
-        }
-        final int nReads = (height + nRowsPerRead - 1) / nRowsPerRead;
-        final int[] argb = Allocator.intArray(nRowsPerRead * width);
-        for (int iRead = 0; iRead < nReads; iRead++) {
-            final int i0 = iRead * nRowsPerRead;
-            final int i1 = i0 + nRowsPerRead > height ? height : i0 + nRowsPerRead;
-            src.getRGB(0, i0, width, i1 - i0, argb, 0, width);
-            final int n = (i1 - i0) * width;
-            for (int i = 0; i < n; i++) {
-                if ((argb[i] & 0xff000000) != 0xff000000) {
+        // to conserve memory, the image is read a row at a time.
+        final PixelSource pixels = new PixelSource(src);
+        for (int y = 0; y < pixels.getHeight(); y++) {
+            final int[] argb = pixels.getRow(y);
+            for (int x = 0; x < argb.length; x++) {
+                if ((argb[x] & 0xff000000) != 0xff000000) {
                     return true;
                 }
             }
@@ -151,6 +139,7 @@ public abstract class AbstractTiffImageWriter {
 
         // Write Strips
         final byte[][] result = new byte[Allocator.check(stripCount)][];
+        final PixelSource pixels = new PixelSource(src);
 
         int remainingRows = height;
 
@@ -169,10 +158,11 @@ public abstract class AbstractTiffImageWriter {
             final int stop = i * rowsPerStrip + rowsPerStrip;
 
             for (; y < height && y < stop; y++) {
+                final int[] row = pixels.getRow(y);
                 int bitCache = 0;
                 int bitsInCache = 0;
                 for (int x = 0; x < width; x++) {
-                    final int rgb = src.getRGB(x, y);
+                    final int rgb = row[x];
                     final int red = 0xff & rgb >> 16;
                     final int green = 0xff & rgb >> 8;
                     final int blue = 0xff & rgb >> 0;
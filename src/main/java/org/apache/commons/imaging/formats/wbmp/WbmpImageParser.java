@@ -38,6 +38,8 @@ import org.apache.commons.imaging.ImageInfo;
 import org.apache.commons.imaging.ImagingException;
 import org.apache.commons.imaging.bytesource.ByteSource;
 import org.apache.commons.imaging.common.ImageMetadata;
+import org.apache.commons.imaging.common.PixelSource;
+import org.apache.commons.imaging.internal.Subsampling;
 
 /**
  * Parses Wireless Bitmap (WBMP) images.
@@ -101,7 +103,7 @@ public class WbmpImageParser extends AbstractImageParser<WbmpImagingParameters>
     public final BufferedImage getBufferedImage(final ByteSource byteSource, final WbmpImagingParameters params) throws ImagingException, IOException {
         try (InputStream is = byteSource.getInputStream()) {
             final WbmpHeader wbmpHeader = readWbmpHeader(is);
-            return readImage(wbmpHeader, is);
+            return Subsampling.reduce(readImage(wbmpHeader, is), params);
         }
     }
 
@@ -200,11 +202,13 @@ public class WbmpImageParser extends AbstractImageParser<WbmpImagingParameters>
         writeMultiByteInteger(os, src.getWidth());
         writeMultiByteInteger(os, src.getHeight());
 
+        final PixelSource pixels = new PixelSource(src);
         for (int y = 0; y < src.getHeight(); y++) {
+            final int[] row = pixels.getRow(y);
             int pixel = 0;
             int nextBit = 0x80;
             for (int x = 0; x < src.getWidth(); x++) {
-                final int argb = src.getRGB(x, y);
+                final int argb = row[x];
                 final int red = 0xff & argb >> 16;
                 final int green = 0xff & argb >> 8;
                 final int blue = 0xff & argb >> 0;
@@ -45,6 +45,8 @@ import org.apache.commons.imaging.bytesource.ByteSource;
 import org.apache.commons.imaging.common.Allocator;
 import org.apache.commons.imaging.common.BasicCParser;
 import org.apache.commons.imaging.common.ImageMetadata;
+import org.apache.commons.imaging.common.PixelSource;
+import org.apache.commons.imaging.internal.Subsampling;
 
 /**
  * Parses the X BitMap (XBM) image format.
@@ -150,7 +152,7 @@ public class XbmImageParser extends AbstractImageParser<XbmImagingParameters> {
     @Override
     public final BufferedImage getBufferedImage(final ByteSource byteSource, final XbmImagingParameters params) throws ImagingException, IOException {
         final XbmParseResult result = parseXbmHeader(byteSource);
-        return readXbmImage(result.xbmHeader, result.cParser);
+        return Subsampling.reduce(readXbmImage(result.xbmHeader, result.cParser), params);
     }
 
     @Override
@@ -336,9 +338,11 @@ public class XbmImageParser extends AbstractImageParser<XbmImagingParameters> {
         int bitsInCache = 0;
         String separator = "\n  ";
         int written = 0;
+        final PixelSource pixels = new PixelSource(src);
         for (int y = 0; y < src.getHeight(); y++) {
+            final int[] row = pixels.getRow(y);
             for (int x = 0; x < src.getWidth(); x++) {
-                final int argb = src.getRGB(x, y);
+                final int argb = row[x];
                 final int red = 0xff & argb >> 16;
                 final int green = 0xff & argb >> 8;
                 final int blue = 0xff & argb >> 0;
@@ -47,6 +47,8 @@ import org.apache.commons.imaging.bytesource.ByteSource;
 import org.apache.commons.imaging.common.Allocator;
 import org.apache.commons.imaging.common.BasicCParser;
 import org.apache.commons.imaging.common.ImageMetadata;
+import org.apache.commons.imaging.common.PixelSource;
+import org.apache.commons.imaging.internal.Subsampling;
 import org.apache.commons.imaging.palette.PaletteFactory;
 import org.apache.commons.imaging.palette.SimplePalette;
 import org.apache.commons.lang3.StringUtils;
@@ -202,7 +204,7 @@ public class XpmImageParser extends AbstractImageParser<XpmImagingParameters> {
     @Override
     public final BufferedImage getBufferedImage(final ByteSource byteSource, final XpmImagingParameters params) throws ImagingException, IOException {
         final XpmParseResult result = parseXpmHeader(byteSource);
-        return readXpmImage(result.xpmHeader, result.cParser);
+        return Subsampling.reduce(readXpmImage(result.xpmHeader, result.cParser), params);
     }
 
     @Override
@@ -665,13 +667,15 @@ public class XpmImageParser extends AbstractImageParser<XpmImagingParameters> {
         }
 
         String separator = "";
+        final PixelSource pixels = new PixelSource(src);
         for (int y = 0; y < src.getHeight(); y++) {
+            final int[] row = pixels.getRow(y);
             os.write(separator.getBytes(StandardCharsets.US_ASCII));
             separator = ",\n";
             line = "\"";
             os.write(line.getBytes(StandardCharsets.US_ASCII));
             for (int x = 0; x < src.getWidth(); x++) {
-                final int argb = src.getRGB(x, y);
+                final int argb = row[x];
                 if ((argb & 0xff000000) == 0) {
                     line = pixelsForIndex(palette.length(), charsPerPixel);
                 } else {
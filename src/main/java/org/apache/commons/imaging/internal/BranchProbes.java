@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.internal;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Internal-only branch probes: counts how often each branch of an instrumented method is taken. Probes are disabled unless the system property
+ * {@value #PROPERTY} is {@code true} when this class is initialized; the flag is a constant, so the JIT compiles a disabled probe away. Enabled probes count
+ * with striped {@link LongAdder}s so that threads taking the same branch do not contend on a shared cache line. This should not be used directly by
+ * end-users, nor extended in any way. This may change or be removed at any time.
+ *
+ * @since 1.0.0-alpha7
+ */
+public final class BranchProbes {
+
+    /**
+     * The system property that enables probes.
+     */
+    public static final String PROPERTY = "org.apache.commons.imaging.probes";
+
+    /**
+     * Whether probes are recorded.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    private final int size;
+    /** The counter of every branch, or null if probes are disabled. */
+    private final LongAdder[] counters;
+
+    /**
+     * Constructs probes for a number of branches.
+     *
+     * @param size the number of branches, identified from 0.
+     */
+    public BranchProbes(final int size) {
+        this.size = size;
+        if (ENABLED) {
+            counters = new LongAdder[size];
+            for (int i = 0; i < size; i++) {
+                counters[i] = new LongAdder();
+            }
+        } else {
+            counters = null;
+        }
+    }
+
+    /**
+     * Records that a branch is taken.
+     *
+     * @param id the branch.
+     */
+    public void hit(final int id) {
+        if (ENABLED) {
+            counters[id].increment();
+        }
+    }
+
+    /**
+     * Resets the counts of every branch to zero.
+     */
+    public void reset() {
+        if (ENABLED) {
+            for (final LongAdder counter : counters) {
+                counter.reset();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of branches.
+     *
+     * @return the number of branches.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the counts of every branch. Counts taken while branches are hit are not an atomic snapshot, but every count is at least the value it had when the
+     * call began.
+     *
+     * @return the number of times each branch was taken since the last reset, all zero if probes are disabled.
+     */
+    public long[] snapshot() {
+        final long[] counts = new long[size];
+        if (ENABLED) {
+            for (int i = 0; i < size; i++) {
+                counts[i] = counters[i].sum();
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.internal;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.imaging.CancellationToken;
+import org.apache.commons.imaging.ImagingCancelledException;
+import org.apache.commons.imaging.ImagingParameters;
+import org.apache.commons.io.function.IOSupplier;
+
+/**
+ * Internal-only support for {@link CancellationToken}: binds tokens to the current thread and checks them at the checkpoints of the decoders. While no token
+ * is bound to any thread, {@link #checkpoint()} returns after reading a single field. This should not be used directly by end-users, nor extended in any way.
+ * This may change or be removed at any time.
+ *
+ * @since 1.0.0-alpha7
+ */
+public final class Cancellation {
+
+    /**
+     * A token bound to the current thread, until closed.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final CancellationToken token;
+        private final Scope parent;
+
+        private Scope(final CancellationToken token, final Scope parent) {
+            this.token = token;
+            this.parent = parent;
+        }
+
+        /**
+         * Unbinds the token, restoring the tokens bound before it.
+         */
+        @Override
+        public void close() {
+            if (CURRENT.get() == this) {
+                if (parent != null) {
+                    CURRENT.set(parent);
+                } else {
+                    CURRENT.remove();
+                }
+                BOUND.decrementAndGet();
+            }
+        }
+    }
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    /** Returned when there is nothing to bind: never current, so closing it does nothing. */
+    private static final Scope NONE = new Scope(null, null);
+
+    /** The number of open scopes on all threads, so that checkpoints skip the thread-local lookup while there are none. */
+    private static final AtomicInteger BOUND = new AtomicInteger();
+
+    /**
+     * Binds a token to the current thread: checkpoints reached before the scope is closed throw once it, or a token bound before it, is cancelled.
+     *
+     * @param token the token to check, may be null.
+     * @return the scope to close.
+     */
+    public static Scope bind(final CancellationToken token) {
+        final Scope scope = new Scope(token, CURRENT.get());
+        CURRENT.set(scope);
+        BOUND.incrementAndGet();
+        return scope;
+    }
+
+    /**
+     * Binds the cancellation token of parameters to the current thread, if they have one.
+     *
+     * @param params the parameters of a read, may be null.
+     * @return the scope to close.
+     */
+    public static Scope bind(final ImagingParameters<?> params) {
+        if (params == null || params.getCancellationToken() == null) {
+            return NONE;
+        }
+        return bind(params.getCancellationToken());
+    }
+
+    /**
+     * Throws if a token bound to the current thread was cancelled.
+     *
+     * @throws ImagingCancelledException if a bound token was cancelled or expired.
+     */
+    public static void checkpoint() throws ImagingCancelledException {
+        if (BOUND.get() != 0) {
+            for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+                if (scope.token != null) {
+                    scope.token.throwIfCancelled();
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs an operation on an executor with a token of its own, cancelled when the returned future completes in any way: cancelling the future, or
+     * completing it early, stops the operation at its next checkpoint.
+     *
+     * @param <R>       the result type.
+     * @param operation the operation.
+     * @param executor  the executor running the operation.
+     * @return the future result of the operation.
+     */
+    @SuppressWarnings("try") // the cancellation scope is only closed
+    public static <R> CompletableFuture<R> supplyAsync(final IOSupplier<R> operation, final Executor executor) {
+        Objects.requireNonNull(operation, "operation");
+        Objects.requireNonNull(executor, "executor");
+        final CancellationToken token = new CancellationToken();
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        future.whenComplete((r, e) -> token.cancel());
+        executor.execute(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            try (Scope scope = bind(token)) {
+                future.complete(operation.get());
+            } catch (final Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    private Cancellation() {
+    }
+}
@@ -18,8 +18,6 @@
 package org.apache.commons.imaging.internal;
 
 import java.io.IOException;
-import java.util.function.Predicate;
-import java.util.function.Supplier;
 
 import org.apache.commons.imaging.AbstractImageParser;
 import org.apache.commons.imaging.ImageFormat;
@@ -63,16 +61,13 @@ public final class ImageParserFactory {
      * @param format the image format.
      * @return the image parser.
      */
-    public static <T extends ImagingParameters<T>> AbstractImageParser<T> getImageParser(final ImageFormat format) {
-        return getImageParser(parser -> parser.canAcceptType(format), () -> new IllegalArgumentException("Unknown ImageFormat: " + format));
-    }
-
-    // This generics suppression is as good as the predicate given. If the predicate violates a generics design,
-    // then there will be an error during runtime.
     @SuppressWarnings("unchecked")
-    private static <T extends ImagingParameters<T>> AbstractImageParser<T> getImageParser(final Predicate<AbstractImageParser<?>> pred,
-            final Supplier<? extends RuntimeException> supplier) {
-        return (AbstractImageParser<T>) AbstractImageParser.getAllImageParsers().stream().filter(pred).findFirst().orElseThrow(supplier);
+    public static <T extends ImagingParameters<T>> AbstractImageParser<T> getImageParser(final ImageFormat format) {
+        final AbstractImageParser<?> parser = ImageParserRegistry.getImageParser(format);
+        if (parser == null) {
+            throw new IllegalArgumentException("Unknown ImageFormat: " + format);
+        }
+        return (AbstractImageParser<T>) parser;
     }
 
     /**
@@ -82,8 +77,13 @@ public final class ImageParserFactory {
      * @param fileExtension the file extension.
      * @return the image parser.
      */
+    @SuppressWarnings("unchecked")
     public static <T extends ImagingParameters<T>> AbstractImageParser<T> getImageParser(final String fileExtension) {
-        return getImageParser(parser -> parser.canAcceptExtension(fileExtension), () -> new IllegalArgumentException("Unknown extension: " + fileExtension));
+        final AbstractImageParser<?> parser = ImageParserRegistry.getImageParser(fileExtension);
+        if (parser == null) {
+            throw new IllegalArgumentException("Unknown extension: " + fileExtension);
+        }
+        return (AbstractImageParser<T>) parser;
     }
 
     private ImageParserFactory() {
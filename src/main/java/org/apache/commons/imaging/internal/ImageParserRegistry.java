@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.imaging.AbstractImageParser;
+import org.apache.commons.imaging.ImageFormat;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Shared registry of image parsers.
+ * <p>
+ * The parsers are created once: the built-in parsers of {@link AbstractImageParser#getAllImageParsers()}, followed by the parsers registered as
+ * {@link ServiceLoader} providers of {@link AbstractImageParser}. Parsers are stateless and safe to share between threads. Lookups by image format and by
+ * file extension are cached in concurrent hash maps; when several parsers accept the same format or extension, the first registered one is used.
+ * </p>
+ *
+ * @since 1.0.0-alpha7
+ */
+public final class ImageParserRegistry {
+
+    /** Initialized on first use, so that plug-ins are looked up once. */
+    private static final class Holder {
+        static final List<AbstractImageParser<?>> PARSERS = loadParsers();
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(ImageParserRegistry.class.getName());
+
+    private static final ConcurrentMap<ImageFormat, AbstractImageParser<?>> BY_FORMAT = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<String, AbstractImageParser<?>> BY_EXTENSION = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the parser accepting a file name based on its extension.
+     *
+     * @param fileName a file name or path.
+     * @return the parser, or null if no parser accepts the extension.
+     */
+    public static AbstractImageParser<?> getImageParser(final String fileName) {
+        final int index = fileName.lastIndexOf('.');
+        final String extension = index >= 0 ? StringUtils.toRootLowerCase(fileName.substring(index + 1)) : null;
+        if (extension != null) {
+            final AbstractImageParser<?> parser = BY_EXTENSION.get(extension);
+            if (parser != null) {
+                return parser;
+            }
+        }
+        for (final AbstractImageParser<?> candidate : Holder.PARSERS) {
+            if (candidate.canAcceptExtension(fileName)) {
+                if (extension == null) {
+                    return candidate;
+                }
+                final AbstractImageParser<?> previous = BY_EXTENSION.putIfAbsent(extension, candidate);
+                return previous != null ? previous : candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the parser accepting an image format.
+     *
+     * @param format the image format.
+     * @return the parser, or null if no parser accepts the format.
+     */
+    public static AbstractImageParser<?> getImageParser(final ImageFormat format) {
+        final AbstractImageParser<?> parser = BY_FORMAT.get(format);
+        if (parser != null) {
+            return parser;
+        }
+        for (final AbstractImageParser<?> candidate : Holder.PARSERS) {
+            if (candidate.canAcceptType(format)) {
+                final AbstractImageParser<?> previous = BY_FORMAT.putIfAbsent(format, candidate);
+                return previous != null ? previous : candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets all the registered parsers, built-in parsers first.
+     *
+     * @return an unmodifiable list of the shared parser instances.
+     */
+    public static List<AbstractImageParser<?>> getImageParsers() {
+        return Holder.PARSERS;
+    }
+
+    @SuppressWarnings("rawtypes") // ServiceLoader of a generic type
+    private static List<AbstractImageParser<?>> loadParsers() {
+        final List<AbstractImageParser<?>> parsers = new ArrayList<>(AbstractImageParser.getAllImageParsers());
+        final Iterator<AbstractImageParser> iterator = ServiceLoader.load(AbstractImageParser.class).iterator();
+        while (true) {
+            try {
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                final AbstractImageParser<?> parser = iterator.next();
+                if (parsers.stream().noneMatch(p -> p.getClass() == parser.getClass())) {
+                    parsers.add(parser);
+                }
+            } catch (final ServiceConfigurationError e) {
+                // one broken plug-in must not disable the others
+                LOGGER.log(Level.WARNING, "Cannot load image parser", e);
+            }
+        }
+        return Collections.unmodifiableList(parsers);
+    }
+
+    private ImageParserRegistry() {
+    }
+}
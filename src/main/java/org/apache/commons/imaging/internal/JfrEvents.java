@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.internal;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Internal-only bridge to JDK Flight Recorder: emits an {@code org.apache.commons.imaging.Phase} event for each phase timed by {@link Metrics}.
+ * <p>
+ * The library targets Java 8, where the {@code jdk.jfr} API cannot be compiled against, so the event type is defined at run time through
+ * {@code jdk.jfr.EventFactory} by reflection. The event is disabled by default and only recorded when a recording enables it, for example with
+ * {@code jcmd <pid> JFR.start settings=imaging.jfc} where the settings file enables {@code org.apache.commons.imaging.Phase}. On runtimes without the API, or
+ * when the system property {@code org.apache.commons.imaging.internal.JfrEvents} is {@code false}, nothing is emitted.
+ * </p>
+ * <p>
+ * Whether the event is enabled is cached, and refreshed whenever a recording changes state, so that timing a phase costs a single volatile read while no
+ * recording wants the events.
+ * </p>
+ */
+final class JfrEvents {
+
+    /** The name of the event type. */
+    static final String EVENT_NAME = "org.apache.commons.imaging.Phase";
+
+    private static final Logger LOGGER = Logger.getLogger(JfrEvents.class.getName());
+
+    private static final int FORMAT = 0;
+    private static final int PHASE = 1;
+    private static final int PARSER = 2;
+    private static final int WIDTH = 3;
+    private static final int HEIGHT = 4;
+    private static final int COMPRESSION = 5;
+    private static final int BYTES_READ = 6;
+    private static final int BYTES_ALLOCATED = 7;
+
+    private static final Object FACTORY;
+    private static final Method NEW_EVENT;
+    private static final Method IS_ENABLED;
+    private static final Method BEGIN;
+    private static final Method END;
+    private static final Method SHOULD_COMMIT;
+    private static final Method COMMIT;
+    private static final Method SET;
+
+    private static volatile boolean enabled;
+
+    static {
+        Object factory = null;
+        Method newEvent = null;
+        Method isEnabled = null;
+        Method begin = null;
+        Method end = null;
+        Method shouldCommit = null;
+        Method commit = null;
+        Method set = null;
+        if (Boolean.parseBoolean(System.getProperty(JfrEvents.class.getName(), "true"))) {
+            try {
+                final Class<?> eventFactoryClass = Class.forName("jdk.jfr.EventFactory");
+                final Class<?> eventClass = Class.forName("jdk.jfr.Event");
+                factory = eventFactoryClass.getMethod("create", List.class, List.class).invoke(null, eventAnnotations(), eventFields());
+                newEvent = eventFactoryClass.getMethod("newEvent");
+                isEnabled = eventClass.getMethod("isEnabled");
+                begin = eventClass.getMethod("begin");
+                end = eventClass.getMethod("end");
+                shouldCommit = eventClass.getMethod("shouldCommit");
+                commit = eventClass.getMethod("commit");
+                set = eventClass.getMethod("set", int.class, Object.class);
+                listenForRecordings();
+            } catch (final ReflectiveOperationException | RuntimeException | LinkageError e) {
+                // Java 8 or a runtime without Flight Recorder
+                factory = null;
+                if (LOGGER.isLoggable(Level.FINE)) {
+                    LOGGER.log(Level.FINE, "Flight Recorder events unavailable", e);
+                }
+            }
+        }
+        FACTORY = factory;
+        NEW_EVENT = newEvent;
+        IS_ENABLED = isEnabled;
+        BEGIN = begin;
+        END = end;
+        SHOULD_COMMIT = shouldCommit;
+        COMMIT = commit;
+        SET = set;
+        refresh();
+    }
+
+    private static Object annotation(final String type, final Object value) throws ReflectiveOperationException {
+        final Class<?> annotationElementClass = Class.forName("jdk.jfr.AnnotationElement");
+        final Class<?> annotationClass = Class.forName(type);
+        if (value == null) {
+            return annotationElementClass.getConstructor(Class.class).newInstance(annotationClass);
+        }
+        return annotationElementClass.getConstructor(Class.class, Object.class).newInstance(annotationClass, value);
+    }
+
+    /**
+     * Starts an event, if the event is enabled.
+     *
+     * @return the started event, or null.
+     */
+    static Object begin() {
+        if (!enabled) {
+            return null;
+        }
+        try {
+            final Object event = NEW_EVENT.invoke(FACTORY);
+            BEGIN.invoke(event);
+            return event;
+        } catch (final ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Ends and commits an event, if it passes the recording's threshold.
+     */
+    static void commit(final Object event, final String format, final String phase, final String parser, final int width, final int height,
+            final String compression, final long bytesRead, final long bytesAllocated) {
+        try {
+            END.invoke(event);
+            if ((Boolean) SHOULD_COMMIT.invoke(event)) {
+                SET.invoke(event, FORMAT, format);
+                SET.invoke(event, PHASE, phase);
+                SET.invoke(event, PARSER, parser);
+                SET.invoke(event, WIDTH, width);
+                SET.invoke(event, HEIGHT, height);
+                SET.invoke(event, COMPRESSION, compression);
+                SET.invoke(event, BYTES_READ, bytesRead);
+                SET.invoke(event, BYTES_ALLOCATED, bytesAllocated);
+                COMMIT.invoke(event);
+            }
+        } catch (final ReflectiveOperationException e) {
+            // the event is lost
+        }
+    }
+
+    private static List<Object> eventAnnotations() throws ReflectiveOperationException {
+        return Arrays.asList(annotation("jdk.jfr.Name", EVENT_NAME), annotation("jdk.jfr.Label", "Imaging Phase"),
+                annotation("jdk.jfr.Category", new String[] { "Apache Commons Imaging" }),
+                annotation("jdk.jfr.Description", "A phase of reading or writing an image"), annotation("jdk.jfr.Enabled", Boolean.FALSE));
+    }
+
+    private static List<Object> eventFields() throws ReflectiveOperationException {
+        final List<Object> fields = new ArrayList<>();
+        fields.add(field(String.class, "format", "Format", null));
+        fields.add(field(String.class, "phase", "Phase", null));
+        fields.add(field(String.class, "parser", "Parser Class", null));
+        fields.add(field(int.class, "width", "Width", null));
+        fields.add(field(int.class, "height", "Height", null));
+        fields.add(field(String.class, "compression", "Compression", null));
+        fields.add(field(long.class, "bytesRead", "Bytes Read", "BYTES"));
+        fields.add(field(long.class, "bytesAllocated", "Bytes Allocated", "BYTES"));
+        return fields;
+    }
+
+    private static Object field(final Class<?> type, final String name, final String label, final String dataAmount) throws ReflectiveOperationException {
+        final List<Object> annotations = new ArrayList<>();
+        annotations.add(annotation("jdk.jfr.Label", label));
+        if (dataAmount != null) {
+            annotations.add(annotation("jdk.jfr.DataAmount", dataAmount));
+        }
+        final Constructor<?> constructor = Class.forName("jdk.jfr.ValueDescriptor").getConstructor(Class.class, String.class, List.class);
+        return constructor.newInstance(type, name, Collections.unmodifiableList(annotations));
+    }
+
+    /**
+     * Tests whether a recording enables the event.
+     *
+     * @return whether events are emitted.
+     */
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    private static void listenForRecordings() throws ReflectiveOperationException {
+        final Class<?> listenerClass = Class.forName("jdk.jfr.FlightRecorderListener");
+        final InvocationHandler handler = (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "recordingStateChanged":
+            case "recorderInitialized":
+                refresh();
+                return null;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return JfrEvents.class.getName() + " listener";
+            default:
+                return null;
+            }
+        };
+        final Object listener = Proxy.newProxyInstance(JfrEvents.class.getClassLoader(), new Class<?>[] { listenerClass }, handler);
+        Class.forName("jdk.jfr.FlightRecorder").getMethod("addListener", listenerClass).invoke(null, listener);
+    }
+
+    /**
+     * Re-reads whether a recording enables the event.
+     */
+    static void refresh() {
+        boolean isEnabled = false;
+        if (FACTORY != null) {
+            try {
+                isEnabled = (Boolean) IS_ENABLED.invoke(NEW_EVENT.invoke(FACTORY));
+            } catch (final ReflectiveOperationException e) {
+                // disabled
+            }
+        }
+        enabled = isEnabled;
+        Metrics.update();
+    }
+
+    private JfrEvents() {
+    }
+}
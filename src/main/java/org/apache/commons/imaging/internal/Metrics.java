@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.imaging.ImageFormat;
+import org.apache.commons.imaging.ImagingMetrics;
+import org.apache.commons.imaging.ImagingMetrics.Phase;
+import org.apache.commons.io.input.ProxyInputStream;
+
+/**
+ * Internal-only support for {@link ImagingMetrics} and Flight Recorder events: times phases and counts the bytes read and allocated by each thread. When no
+ * listener is installed and no recording wants the events, every method returns after reading a single volatile field. This should not be used directly by
+ * end-users, nor extended in any way. This may change or be removed at any time.
+ *
+ * @since 1.0.0-alpha7
+ */
+public final class Metrics {
+
+    /**
+     * A phase being timed, reported when closed.
+     */
+    public static final class Timer implements AutoCloseable {
+
+        private final ImagingMetrics listener;
+        private final Object event;
+        private final Phase phase;
+        private ImageFormat format;
+        private Class<?> parser;
+        private int width = -1;
+        private int height = -1;
+        private String compression;
+        private final long startNanos;
+        private final long startBytesRead;
+        private final long startBytesAllocated;
+
+        private Timer(final ImagingMetrics listener, final Object event, final ImageFormat format, final Phase phase) {
+            this.listener = listener;
+            this.event = event;
+            this.format = format;
+            this.phase = phase;
+            if (phase != null) {
+                final long[] counters = COUNTERS.get();
+                startBytesRead = counters[BYTES_READ];
+                startBytesAllocated = counters[BYTES_ALLOCATED];
+                startNanos = System.nanoTime();
+            } else {
+                startBytesRead = 0;
+                startBytesAllocated = 0;
+                startNanos = 0;
+            }
+        }
+
+        private boolean isEnabled() {
+            return phase != null;
+        }
+
+        /**
+         * Reports the phase to the listener that was installed when it started, and commits its Flight Recorder event.
+         */
+        @Override
+        public void close() {
+            if (isEnabled()) {
+                final long nanos = System.nanoTime() - startNanos;
+                final long[] counters = COUNTERS.get();
+                final long bytesRead = counters[BYTES_READ] - startBytesRead;
+                final long bytesAllocated = counters[BYTES_ALLOCATED] - startBytesAllocated;
+                if (listener != null) {
+                    listener.phaseCompleted(format, phase, nanos, bytesRead, bytesAllocated);
+                }
+                if (event != null) {
+                    JfrEvents.commit(event, format.getName(), phase.name(), parser != null ? parser.getName() : null, width, height, compression, bytesRead,
+                            bytesAllocated);
+                }
+            }
+        }
+
+        /**
+         * Sets the compression recorded in Flight Recorder events.
+         *
+         * @param compression the compression scheme of the image data.
+         */
+        public void setCompression(final String compression) {
+            if (isEnabled()) {
+                this.compression = compression;
+            }
+        }
+
+        /**
+         * Sets the image dimensions recorded in Flight Recorder events.
+         *
+         * @param width  the image width.
+         * @param height the image height.
+         */
+        public void setDimensions(final int width, final int height) {
+            if (isEnabled()) {
+                this.width = width;
+                this.height = height;
+            }
+        }
+
+        /**
+         * Sets the format reported, once it is known.
+         *
+         * @param format the image format.
+         */
+        public void setFormat(final ImageFormat format) {
+            if (isEnabled()) {
+                this.format = format;
+            }
+        }
+
+        /**
+         * Sets the parser class recorded in Flight Recorder events.
+         *
+         * @param parser the class of the image parser.
+         */
+        public void setParser(final Class<?> parser) {
+            if (isEnabled()) {
+                this.parser = parser;
+            }
+        }
+    }
+
+    private static final int BYTES_READ = 0;
+    private static final int BYTES_ALLOCATED = 1;
+    private static final ThreadLocal<long[]> COUNTERS = ThreadLocal.withInitial(() -> new long[2]);
+    private static final Timer DISABLED = new Timer(null, null, null, null);
+    private static volatile ImagingMetrics listener;
+
+    /** Whether phases are measured: a listener is installed or a recording enables the Flight Recorder event. */
+    private static volatile boolean active = JfrEvents.isEnabled();
+
+    /**
+     * Counts bytes requested from the Allocator by the current thread.
+     *
+     * @param bytes the requested bytes.
+     */
+    public static void allocated(final long bytes) {
+        if (active) {
+            COUNTERS.get()[BYTES_ALLOCATED] += bytes;
+        }
+    }
+
+    /**
+     * Wraps a stream to count the bytes read from it, if phases are measured.
+     *
+     * @param inputStream the stream of a ByteSource.
+     * @return the stream, or a counting stream.
+     */
+    public static InputStream count(final InputStream inputStream) {
+        if (!active) {
+            return inputStream;
+        }
+        return new ProxyInputStream(inputStream) {
+            @Override
+            protected void afterRead(final int n) throws IOException {
+                if (n > 0) {
+                    Metrics.read(n);
+                }
+            }
+        };
+    }
+
+    /**
+     * Gets the installed listener.
+     *
+     * @return the listener, or null.
+     */
+    public static ImagingMetrics getListener() {
+        return listener;
+    }
+
+    /**
+     * Counts bytes read from a ByteSource by the current thread.
+     *
+     * @param bytes the bytes read.
+     */
+    public static void read(final long bytes) {
+        if (active) {
+            COUNTERS.get()[BYTES_READ] += bytes;
+        }
+    }
+
+    /**
+     * Installs a listener.
+     *
+     * @param listener the listener, or null to stop measuring.
+     */
+    public static void setListener(final ImagingMetrics listener) {
+        Metrics.listener = listener;
+        update();
+    }
+
+    /**
+     * Starts timing a phase.
+     *
+     * @param format the image format, if known.
+     * @param phase  the phase.
+     * @return the timer to close when the phase completes.
+     */
+    public static Timer start(final ImageFormat format, final Phase phase) {
+        if (!active) {
+            return DISABLED;
+        }
+        final ImagingMetrics current = listener;
+        final Object event = JfrEvents.begin();
+        return current != null || event != null ? new Timer(current, event, format, phase) : DISABLED;
+    }
+
+    /**
+     * Recomputes whether phases are measured.
+     */
+    static void update() {
+        active = listener != null || JfrEvents.isEnabled();
+    }
+
+    private Metrics() {
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.internal;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.commons.imaging.ImagingCancelledException;
+import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.ImagingParameters;
+import org.apache.commons.imaging.common.Allocator;
+import org.apache.commons.imaging.common.BufferedImageFactory;
+import org.apache.commons.imaging.common.CompactBufferedImageFactory;
+import org.apache.commons.imaging.common.ImageBuilder;
+import org.apache.commons.imaging.common.RowListener;
+import org.apache.commons.imaging.common.RowSink;
+
+/**
+ * Internal-only support for the sub-image, subsampling and target size of {@link ImagingParameters}: computes the region and reduction of an image and
+ * reduces images that were decoded at a larger size. This should not be used directly by end-users, nor extended in any way. This may change or be removed at
+ * any time.
+ *
+ * @since 1.0.0-alpha7
+ */
+public final class Subsampling {
+
+    /**
+     * Gets the reduction requested for an image.
+     *
+     * @param params the parameters of the read, may be null.
+     * @param width  the width of the image.
+     * @param height the height of the image.
+     * @return the subsampling factor, 1 for full size.
+     */
+    public static int getFactor(final ImagingParameters<?> params, final int width, final int height) {
+        if (params == null) {
+            return 1;
+        }
+        final int longest = Math.max(width, height);
+        final int targetSize = params.getTargetSize();
+        final int fit = targetSize > 0 && longest > targetSize ? longest / targetSize : 1;
+        return Math.max(params.getSubsampling(), fit);
+    }
+
+    /**
+     * Gets the region of an image requested by the sub-image of the parameters.
+     *
+     * @param params the parameters of the read, may be null.
+     * @param width  the width of the image.
+     * @param height the height of the image.
+     * @return the requested region, or the whole image if no sub-image is set.
+     * @throws ImagingException if the sub-image is not contained in the image.
+     */
+    public static Rectangle getRegion(final ImagingParameters<?> params, final int width, final int height) throws ImagingException {
+        if (params == null || !params.isSubImageSet()) {
+            return new Rectangle(0, 0, width, height);
+        }
+        final Rectangle region = new Rectangle(params.getSubImageX(), params.getSubImageY(), params.getSubImageWidth(), params.getSubImageHeight());
+        // consistent with BufferedImage.getSubimage()
+        if (region.x >= width) {
+            throw new ImagingException("Subimage x is outside raster.");
+        }
+        if (region.x + (long) region.width > width) {
+            throw new ImagingException("Subimage (x+width) is outside raster.");
+        }
+        if (region.y >= height) {
+            throw new ImagingException("Subimage y is outside raster.");
+        }
+        if (region.y + (long) region.height > height) {
+            throw new ImagingException("Subimage (y+height) is outside raster.");
+        }
+        return region;
+    }
+
+    /**
+     * Gets a dimension of a reduced image.
+     *
+     * @param length the dimension of the full image.
+     * @param factor the subsampling factor.
+     * @return the reduced dimension, at least 1 for a positive length.
+     */
+    public static int getSize(final int length, final int factor) {
+        return (int) ((length + (long) factor - 1) / factor);
+    }
+
+    /**
+     * Tests whether the parameters ask for the compact rasters of a {@link CompactBufferedImageFactory}, in which a decoder may drop an alpha channel that
+     * only holds opaque pixels.
+     *
+     * @param params the parameters of the read, may be null.
+     * @return whether the image should be built in a compact raster.
+     */
+    public static boolean isCompact(final ImagingParameters<?> params) {
+        return params != null && params.getBufferedImageFactory() instanceof CompactBufferedImageFactory;
+    }
+
+    /**
+     * Creates an image builder that keeps the region and reduction requested by the parameters.
+     *
+     * @param width    the width of the image.
+     * @param height   the height of the image.
+     * @param hasAlpha whether the image has an alpha channel.
+     * @param params   the parameters of the read, may be null.
+     * @return the image builder.
+     * @throws ImagingException if the sub-image is not contained in the image.
+     */
+    public static ImageBuilder newImageBuilder(final int width, final int height, final boolean hasAlpha, final ImagingParameters<?> params)
+            throws ImagingException {
+        return newImageBuilder(width, height, hasAlpha, false, params);
+    }
+
+    /**
+     * Creates an image builder that keeps the region and reduction requested by the parameters, in the raster layout of a
+     * {@link CompactBufferedImageFactory} when the parameters name one.
+     *
+     * @param width     the width of the image.
+     * @param height    the height of the image.
+     * @param hasAlpha  whether the image has an alpha channel.
+     * @param grayscale whether the image only has gray pixels.
+     * @param params    the parameters of the read, may be null.
+     * @return the image builder.
+     * @throws ImagingException if the sub-image is not contained in the image.
+     */
+    public static ImageBuilder newImageBuilder(final int width, final int height, final boolean hasAlpha, final boolean grayscale,
+            final ImagingParameters<?> params) throws ImagingException {
+        final Rectangle region = getRegion(params, width, height);
+        final BufferedImageFactory factory = params == null ? null : params.getBufferedImageFactory();
+        final int imageType = factory instanceof CompactBufferedImageFactory ? ((CompactBufferedImageFactory) factory).getImageType(grayscale, hasAlpha)
+                : hasAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        return new ImageBuilder(width, height, hasAlpha, false, region, getFactor(params, region.width, region.height), imageType);
+    }
+
+    /**
+     * Creates a row sink that delivers the region and reduction requested by the parameters.
+     *
+     * @param width    the width of the image.
+     * @param height   the height of the image.
+     * @param hasAlpha whether the image has an alpha channel.
+     * @param params   the parameters of the read, may be null.
+     * @param listener the listener receiving the rows.
+     * @return the row sink.
+     * @throws ImagingException if the sub-image is not contained in the image.
+     */
+    public static RowSink newRowSink(final int width, final int height, final boolean hasAlpha, final ImagingParameters<?> params,
+            final RowListener listener) throws ImagingException {
+        final Rectangle region = getRegion(params, width, height);
+        return new RowSink(width, height, hasAlpha, region, getFactor(params, region.width, region.height), listener);
+    }
+
+    /**
+     * Crops and reduces an image decoded at full size as requested by the parameters.
+     *
+     * @param image  the decoded image, may be null.
+     * @param params the parameters of the read, may be null.
+     * @return the reduced image, or the image itself if no sub-image or reduction is requested.
+     * @throws ImagingException if the sub-image is not contained in the image, or the read is cancelled.
+     */
+    public static BufferedImage reduce(final BufferedImage image, final ImagingParameters<?> params) throws ImagingException {
+        if (image == null) {
+            return null;
+        }
+        final Rectangle region = getRegion(params, image.getWidth(), image.getHeight());
+        return reduce(image, region, getFactor(params, region.width, region.height));
+    }
+
+    /**
+     * Reduces an image, keeping the top-left pixel of every block of factor by factor pixels and the color model and raster layout of the image.
+     *
+     * @param image  the image.
+     * @param factor the subsampling factor.
+     * @return the reduced image, or the image itself if the factor is 1.
+     * @throws ImagingCancelledException if the read is cancelled.
+     */
+    public static BufferedImage reduce(final BufferedImage image, final int factor) throws ImagingCancelledException {
+        return reduce(image, new Rectangle(0, 0, image.getWidth(), image.getHeight()), factor);
+    }
+
+    /**
+     * Crops and reduces an image, keeping the top-left pixel of every block of factor by factor pixels of the region and the color model and raster layout
+     * of the image.
+     *
+     * @param image  the image.
+     * @param region the region of the image to keep, contained in the image.
+     * @param factor the subsampling factor.
+     * @return the reduced image, or the image itself if the region is the whole image and the factor is 1.
+     * @throws ImagingCancelledException if the read is cancelled.
+     */
+    public static BufferedImage reduce(final BufferedImage image, final Rectangle region, final int factor) throws ImagingCancelledException {
+        if (factor <= 1 && region.x == 0 && region.y == 0 && region.width == image.getWidth() && region.height == image.getHeight()) {
+            return image;
+        }
+        final int step = Math.max(factor, 1);
+        final int width = getSize(region.width, step);
+        final int height = getSize(region.height, step);
+        final ColorModel colorModel = image.getColorModel();
+        final Raster source = image.getRaster();
+        final SampleModel sampleModel = source.getSampleModel();
+        // the data elements of a pixel, an upper bound for rasters packing several pixels in an element
+        Allocator.check((long) width * height, DataBuffer.getDataTypeSize(sampleModel.getDataType()) / Byte.SIZE * sampleModel.getNumDataElements());
+        final WritableRaster target = source.createCompatibleWritableRaster(width, height);
+        Object pixel = null;
+        for (int y = 0; y < height; y++) {
+            Cancellation.checkpoint();
+            for (int x = 0; x < width; x++) {
+                pixel = source.getDataElements(region.x + x * step, region.y + y * step, pixel);
+                target.setDataElements(x, y, pixel);
+            }
+        }
+        final Properties properties = new Properties();
+        final String[] names = image.getPropertyNames();
+        if (names != null) {
+            for (final String name : names) {
+                properties.put(name, image.getProperty(name));
+            }
+        }
+        return new BufferedImage(colorModel, target, colorModel.isAlphaPremultiplied(), properties);
+    }
+
+    /**
+     * Selects and reduces one of the sizes of an image held by a file. The first image is the one decoded by default, and the smallest image whose longest
+     * side is at least the longest side of the reduced first image is reduced by the remaining factor. A sub-image is always taken from the first image.
+     *
+     * @param images the images of the file, not empty.
+     * @param params the parameters of the read, may be null.
+     * @return the reduced image, or the first image if no sub-image or reduction is requested.
+     * @throws ImagingException if the sub-image is not contained in the first image, or the read is cancelled.
+     */
+    public static BufferedImage select(final List<BufferedImage> images, final ImagingParameters<?> params) throws ImagingException {
+        final BufferedImage first = images.get(0);
+        if (params != null && params.isSubImageSet()) {
+            return reduce(first, params);
+        }
+        final int factor = getFactor(params, first.getWidth(), first.getHeight());
+        if (factor == 1) {
+            return first;
+        }
+        final int targetSize = getSize(Math.max(first.getWidth(), first.getHeight()), factor);
+        BufferedImage best = first;
+        int bestSize = Math.max(first.getWidth(), first.getHeight());
+        for (final BufferedImage image : images) {
+            final int size = Math.max(image.getWidth(), image.getHeight());
+            if (size >= targetSize && size < bestSize) {
+                best = image;
+                bestSize = size;
+            }
+        }
+        return reduce(best, Math.max(1, bestSize / targetSize));
+    }
+
+    private Subsampling() {
+    }
+}
@@ -16,15 +16,15 @@
  */
 package org.apache.commons.imaging.mylzw;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.ByteOrder;
 import java.util.Arrays;
 
 import org.apache.commons.imaging.ImagingException;
 import org.apache.commons.imaging.common.Allocator;
+import org.apache.commons.imaging.common.ArrayLease;
+import org.apache.commons.imaging.internal.Cancellation;
 
 /**
  * LZW decompressor.
@@ -62,6 +62,9 @@ public final class MyLzwDecompressor {
     private final int clearCode;
     private final int eoiCode;
     private int written;
+    /** Decompressed data of the current call, and its length. */
+    private byte[] result;
+    private int resultLength;
     private final boolean tiffLZWMode;
 
     /**
@@ -147,12 +150,20 @@ public final class MyLzwDecompressor {
     public byte[] decompress(final InputStream is, final int expectedLength) throws IOException {
         int code;
         int oldCode = -1;
+        int codesRead = 0;
+        // a code is written while fewer than expectedLength bytes were, and expands to less than MAX_TABLE_SIZE bytes.
         try (MyBitInputStream mbis = new MyBitInputStream(is, byteOrder, tiffLZWMode);
-                ByteArrayOutputStream baos = new ByteArrayOutputStream(Allocator.checkByteArray(expectedLength))) {
+                ArrayLease<byte[]> lease = Allocator.leaseByteArray(expectedLength + MAX_TABLE_SIZE)) {
+            result = lease.get();
+            resultLength = 0;
 
             clearTable();
 
             while ((code = getNextCode(mbis)) != eoiCode) {
+                // cancellation is checked once per block of codes as long as the table, rather than per code
+                if (++codesRead % MAX_TABLE_SIZE == 0) {
+                    Cancellation.checkpoint();
+                }
                 if (code == clearCode) {
                     clearTable();
 
@@ -164,14 +175,14 @@ public final class MyLzwDecompressor {
                     if (code == eoiCode) {
                         break;
                     }
-                    writeToResult(baos, stringFromCode(code));
+                    writeToResult(stringFromCode(code));
                 } else if (isInTable(code)) {
-                    writeToResult(baos, stringFromCode(code));
+                    writeToResult(stringFromCode(code));
 
                     addStringToTable(appendBytes(stringFromCode(oldCode), firstChar(stringFromCode(code))));
                 } else {
                     final byte[] outString = appendBytes(stringFromCode(oldCode), firstChar(stringFromCode(oldCode)));
-                    writeToResult(baos, outString);
+                    writeToResult(outString);
                     addStringToTable(outString);
                 }
                 oldCode = code;
@@ -181,7 +192,9 @@ public final class MyLzwDecompressor {
                 }
             }
 
-            return baos.toByteArray();
+            return Arrays.copyOf(result, resultLength);
+        } finally {
+            result = null;
         }
     }
 
@@ -229,8 +242,9 @@ public final class MyLzwDecompressor {
         return table[code];
     }
 
-    private void writeToResult(final OutputStream os, final byte[] bytes) throws IOException {
-        os.write(bytes);
+    private void writeToResult(final byte[] bytes) {
+        System.arraycopy(bytes, 0, result, resultLength, bytes.length);
+        resultLength += bytes.length;
         written += bytes.length;
     }
 }
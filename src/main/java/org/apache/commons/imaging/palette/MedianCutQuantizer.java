@@ -24,6 +24,7 @@ import java.util.Map;
 
 import org.apache.commons.imaging.ImagingException;
 import org.apache.commons.imaging.common.Allocator;
+import org.apache.commons.imaging.common.PixelSource;
 import org.apache.commons.imaging.internal.Debug;
 
 /**
@@ -71,9 +72,9 @@ public class MedianCutQuantizer {
         final int width = image.getWidth();
         final int height = image.getHeight();
 
-        final int[] row = Allocator.intArray(width);
+        final PixelSource pixels = new PixelSource(image);
         for (int y = 0; y < height; y++) {
-            image.getRGB(0, y, width, 1, row, 0, width);
+            final int[] row = pixels.getRow(y);
             for (int x = 0; x < width; x++) {
                 int argb = row[x];
 
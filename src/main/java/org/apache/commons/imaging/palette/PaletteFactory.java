@@ -29,6 +29,7 @@ import java.util.logging.Logger;
 
 import org.apache.commons.imaging.ImagingException;
 import org.apache.commons.imaging.common.Allocator;
+import org.apache.commons.imaging.common.PixelSource;
 
 /**
  * Factory for creating palettes.
@@ -75,9 +76,11 @@ public class PaletteFactory {
 
         int first = -1;
 
+        final PixelSource pixels = new PixelSource(src);
         for (int y = 0; y < height; y++) {
+            final int[] row = pixels.getRow(y);
             for (int x = 0; x < width; x++) {
-                final int rgb = src.getRGB(x, y);
+                final int rgb = row[x];
                 final int alpha = 0xff & rgb >> 24;
                 if (alpha < 0xff) {
                     if (first < 0) {
@@ -316,9 +319,11 @@ public class PaletteFactory {
             return false;
         }
 
+        final PixelSource pixels = new PixelSource(src);
         for (int y = 0; y < height; y++) {
+            final int[] row = pixels.getRow(y);
             for (int x = 0; x < width; x++) {
-                final int argb = src.getRGB(x, y);
+                final int argb = row[x];
                 final int alpha = 0xff & argb >> 24;
                 if (alpha < threshold) {
                     return true;
@@ -342,9 +347,11 @@ public class PaletteFactory {
             return true;
         }
 
+        final PixelSource pixels = new PixelSource(src);
         for (int y = 0; y < height; y++) {
+            final int[] row = pixels.getRow(y);
             for (int x = 0; x < width; x++) {
-                final int argb = src.getRGB(x, y);
+                final int argb = row[x];
 
                 final int red = 0xff & argb >> 16;
                 final int green = 0xff & argb >> 8;
@@ -373,9 +380,11 @@ public class PaletteFactory {
         final int width = src.getWidth();
         final int height = src.getHeight();
 
+        final PixelSource pixels = new PixelSource(src);
         for (int y = 0; y < height; y++) {
+            final int[] row = pixels.getRow(y);
             for (int x = 0; x < width; x++) {
-                final int argb = src.getRGB(x, y);
+                final int argb = row[x];
                 final int rggbb = 0x1fffff & argb;
                 final int highred = 0x7 & argb >> 21;
                 final int mask = 1 << highred;
@@ -429,9 +438,11 @@ public class PaletteFactory {
         final int width = src.getWidth();
         final int height = src.getHeight();
 
+        final PixelSource pixels = new PixelSource(src);
         for (int y = 0; y < height; y++) {
+            final int[] row = pixels.getRow(y);
             for (int x = 0; x < width; x++) {
-                final int argb = src.getRGB(x, y);
+                final int argb = row[x];
                 final int rgb = 0xffffff & argb;
 
                 if (rgbs.add(rgb) && rgbs.size() > max) {
@@ -494,9 +505,11 @@ public class PaletteFactory {
         }
 
         // step 1: count frequency of colors
+        final PixelSource pixels = new PixelSource(src);
         for (int y = 0; y < height; y++) {
+            final int[] row = pixels.getRow(y);
             for (int x = 0; x < width; x++) {
-                final int argb = src.getRGB(x, y);
+                final int argb = row[x];
 
                 final int index = pixelToQuantizationTableIndex(argb, precision);
 
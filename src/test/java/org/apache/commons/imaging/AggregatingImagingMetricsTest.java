@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.imaging.AggregatingImagingMetrics.Stats;
+import org.apache.commons.imaging.ImagingMetrics.Phase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for class {@link AggregatingImagingMetrics}.
+ */
+class AggregatingImagingMetricsTest {
+
+    @AfterEach
+    void tearDown() {
+        Imaging.setMetrics(null);
+    }
+
+    @Test
+    void testDecodeIsMeasured() throws IOException {
+        final BufferedImage image = new BufferedImage(64, 32, BufferedImage.TYPE_INT_RGB);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        final byte[] bytes = out.toByteArray();
+
+        final AggregatingImagingMetrics metrics = new AggregatingImagingMetrics();
+        Imaging.setMetrics(metrics);
+        Imaging.getBufferedImage(bytes);
+        Imaging.setMetrics(null);
+
+        final Stats detection = metrics.getStats(ImageFormats.PNG, Phase.FORMAT_DETECTION);
+        assertNotNull(detection);
+        assertEquals(1, detection.getCount());
+        final Stats decode = metrics.getStats(ImageFormats.PNG, Phase.DECODE);
+        assertEquals(1, decode.getCount());
+        assertTrue(decode.getBytesRead() >= bytes.length);
+        // at least the scanline buffers
+        assertTrue(decode.getBytesAllocated() >= 64 * 3);
+        final Stats decompression = metrics.getStats(ImageFormats.PNG, Phase.DECOMPRESSION);
+        assertEquals(1, decompression.getCount());
+        assertTrue(decompression.getTotalNanos() <= decode.getTotalNanos());
+        assertNull(metrics.getStats(ImageFormats.PNG, Phase.ENCODE));
+
+        // nothing is measured once the listener is removed
+        Imaging.getBufferedImage(bytes);
+        assertEquals(1, metrics.getStats(ImageFormats.PNG, Phase.DECODE).getCount());
+    }
+
+    @Test
+    void testPercentiles() {
+        final AggregatingImagingMetrics metrics = new AggregatingImagingMetrics();
+        for (int i = 1; i <= 100; i++) {
+            metrics.phaseCompleted(ImageFormats.JPEG, Phase.DECODE, i * 1000L, 10, 20);
+        }
+        final Stats stats = metrics.getStats(ImageFormats.JPEG, Phase.DECODE);
+        assertEquals(100, stats.getCount());
+        assertEquals(1000, stats.getMinNanos());
+        assertEquals(100_000, stats.getMaxNanos());
+        assertEquals(50_500, stats.getMeanNanos(), 0.001);
+        assertEquals(1000, stats.getBytesRead());
+        assertEquals(2000, stats.getBytesAllocated());
+        // bucket upper bounds are accurate to a factor of two
+        final long p50 = stats.getPercentileNanos(0.5);
+        assertTrue(p50 >= 50_000 && p50 < 100_000, Long.toString(p50));
+        assertEquals(100_000, stats.getPercentileNanos(1));
+        assertThrows(IllegalArgumentException.class, () -> stats.getPercentileNanos(1.5));
+
+        metrics.clear();
+        assertTrue(metrics.getFormats().isEmpty());
+        assertTrue(metrics.getStats(ImageFormats.JPEG).isEmpty());
+    }
+}
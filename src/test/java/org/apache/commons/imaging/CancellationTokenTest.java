@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.imaging.bytesource.ByteSource;
+import org.apache.commons.imaging.formats.bmp.BmpImageParser;
+import org.apache.commons.imaging.formats.bmp.BmpImagingParameters;
+import org.apache.commons.imaging.formats.gif.GifImageParser;
+import org.apache.commons.imaging.formats.gif.GifImagingParameters;
+import org.apache.commons.imaging.formats.jpeg.JpegImageParser;
+import org.apache.commons.imaging.formats.jpeg.JpegImagingParameters;
+import org.apache.commons.imaging.formats.png.PngImageParser;
+import org.apache.commons.imaging.formats.png.PngImagingParameters;
+import org.apache.commons.imaging.formats.tiff.TiffImageParser;
+import org.apache.commons.imaging.formats.tiff.TiffImagingParameters;
+import org.apache.commons.imaging.formats.tiff.itu_t4.T4AndT6Compression;
+import org.apache.commons.imaging.internal.Cancellation;
+import org.apache.commons.imaging.mylzw.MyLzwCompressor;
+import org.apache.commons.imaging.mylzw.MyLzwDecompressor;
+import org.apache.commons.imaging.test.TestResources;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Tests for the asynchronous methods and {@link CancellationToken}.
+ */
+class CancellationTokenTest {
+
+    private static final String TIFF_STRIPS = "/data/images/tiff/5/Oregon Scientific DS6639 - DSC_0307 - small - LZW - strips.tif";
+    private static final String TIFF_T6 = "/data/images/tiff/3/Oregon Scientific DS6639 - DSC_0307 - small CCITT T.6.tiff";
+    private static final String TIFF_TILES = "/data/images/tiff/5/Oregon Scientific DS6639 - DSC_0307 - small - LZW - tiled.tif";
+
+    static Stream<String> formats() {
+        return Stream.of("png", "jpeg");
+    }
+
+    private static byte[] image(final String format) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB), format, out);
+        return out.toByteArray();
+    }
+
+    static Stream<String> tiffFiles() {
+        return Stream.of(TIFF_STRIPS, TIFF_TILES);
+    }
+
+    @Test
+    void testCancelBeforeStart() throws IOException {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final CompletableFuture<BufferedImage> future = Imaging.getBufferedImageAsync(ByteSource.array(image("png")), tasks::add);
+        assertTrue(future.cancel(true));
+        assertTrue(future.isCancelled());
+        // the task still runs, but the cancelled token stops it before it reads anything
+        tasks.remove().run();
+        assertTrue(future.isCancelled());
+    }
+
+    @ParameterizedTest
+    @MethodSource("formats")
+    void testCancelledTokenStopsDecode(final String format) throws IOException {
+        final byte[] bytes = image(format);
+        final CancellationToken token = new CancellationToken();
+        token.cancel();
+        try (Cancellation.Scope scope = Cancellation.bind(token)) {
+            assertThrows(ImagingCancelledException.class, () -> Imaging.getBufferedImage(bytes));
+        }
+        // the token is no longer bound
+        assertEquals(64, Imaging.getBufferedImage(bytes).getWidth());
+    }
+
+    @Test
+    void testCancelledTokenStopsLzw() throws IOException {
+        final byte[] bytes = new byte[100_000];
+        new Random(1).nextBytes(bytes);
+        final byte[] compressed = new MyLzwCompressor(8, ByteOrder.BIG_ENDIAN, true).compress(bytes);
+        final CancellationToken token = new CancellationToken();
+        token.cancel();
+        try (Cancellation.Scope scope = Cancellation.bind(token)) {
+            assertThrows(ImagingCancelledException.class,
+                    () -> new MyLzwDecompressor(8, ByteOrder.BIG_ENDIAN, true).decompress(new ByteArrayInputStream(compressed), bytes.length));
+        }
+        assertArrayEquals(bytes, new MyLzwDecompressor(8, ByteOrder.BIG_ENDIAN, true).decompress(new ByteArrayInputStream(compressed), bytes.length));
+    }
+
+    @Test
+    void testCancelledTokenStopsNestedScopes() throws IOException {
+        final CancellationToken outer = new CancellationToken();
+        try (Cancellation.Scope outerScope = Cancellation.bind(outer);
+                Cancellation.Scope innerScope = Cancellation.bind(new CancellationToken())) {
+            Cancellation.checkpoint();
+            outer.cancel();
+            assertThrows(ImagingCancelledException.class, Cancellation::checkpoint);
+        }
+        Cancellation.checkpoint();
+    }
+
+    @Test
+    void testCancelledTokenStopsT4AndT6() throws IOException {
+        final byte[] uncompressed = new byte[64 * 8];
+        final byte[] t6 = T4AndT6Compression.compressT6(uncompressed, 64, 64);
+        final byte[] modifiedHuffman = T4AndT6Compression.compressModifiedHuffman(uncompressed, 64, 64);
+        final CancellationToken token = new CancellationToken();
+        token.cancel();
+        try (Cancellation.Scope scope = Cancellation.bind(token)) {
+            assertThrows(ImagingCancelledException.class, () -> T4AndT6Compression.decompressT6(t6, 64, 64));
+            assertThrows(ImagingCancelledException.class, () -> T4AndT6Compression.decompressModifiedHuffman(modifiedHuffman, 64, 64));
+        }
+        assertArrayEquals(uncompressed, T4AndT6Compression.decompressT6(t6, 64, 64));
+    }
+
+    @ParameterizedTest
+    @MethodSource("tiffFiles")
+    void testCancelledTokenStopsTiffDecode(final String path) throws IOException {
+        final ByteSource byteSource = ByteSource.file(TestResources.resourceToFile(path));
+        final CancellationToken token = new CancellationToken();
+        token.cancel();
+        try (Cancellation.Scope scope = Cancellation.bind(token)) {
+            assertThrows(ImagingCancelledException.class, () -> new TiffImageParser().getBufferedImage(byteSource, null));
+        }
+    }
+
+    @Test
+    void testExpiredParametersTokenStopsDecode() throws IOException {
+        final CancellationToken expired = CancellationToken.withTimeout(Duration.ZERO);
+        assertThrows(ImagingTimeoutException.class,
+                () -> new PngImageParser().getBufferedImage(ByteSource.array(image("png")), new PngImagingParameters().setCancellationToken(expired)));
+        assertThrows(ImagingTimeoutException.class,
+                () -> new JpegImageParser().getBufferedImage(ByteSource.array(image("jpeg")), new JpegImagingParameters().setCancellationToken(expired)));
+        assertThrows(ImagingTimeoutException.class,
+                () -> new GifImageParser().getBufferedImage(ByteSource.array(image("gif")), new GifImagingParameters().setCancellationToken(expired)));
+        assertThrows(ImagingTimeoutException.class,
+                () -> new BmpImageParser().getBufferedImage(ByteSource.array(image("bmp")), new BmpImagingParameters().setCancellationToken(expired)));
+        assertThrows(ImagingTimeoutException.class, () -> new TiffImageParser().getBufferedImage(ByteSource.file(TestResources.resourceToFile(TIFF_T6)),
+                new TiffImagingParameters().setCancellationToken(expired)));
+        // without a token the same reads succeed
+        assertEquals(64, new PngImageParser().getBufferedImage(ByteSource.array(image("png")), new PngImagingParameters()).getWidth());
+    }
+
+    @Test
+    void testGetBufferedImageAsync() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final BufferedImage image = Imaging.getBufferedImageAsync(ByteSource.array(image("png"), "a.png"), executor).get(10, TimeUnit.SECONDS);
+            assertEquals(64, image.getWidth());
+            assertEquals(48, image.getHeight());
+            final ImageInfo info = new TiffImageParser().getImageInfoAsync(ByteSource.file(TestResources.resourceToFile(TIFF_TILES)), null, executor).get(10,
+                    TimeUnit.SECONDS);
+            assertEquals(ImageFormats.TIFF, info.getFormat());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testGetImageInfoAsyncFailure() throws IOException {
+        final byte[] truncated = Arrays.copyOf(image("png"), 20);
+        final CompletableFuture<ImageInfo> future = Imaging.getImageInfoAsync(ByteSource.array(truncated, "truncated.png"), Runnable::run);
+        final ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(IOException.class, e.getCause());
+        assertFalse(future.isCancelled());
+    }
+
+    @Test
+    void testWithTimeout() throws ImagingCancelledException {
+        final CancellationToken token = CancellationToken.withTimeout(Duration.ofSeconds(Long.MAX_VALUE));
+        assertFalse(token.isExpired());
+        token.throwIfCancelled();
+        token.cancel();
+        assertTrue(token.isCancelled());
+        assertFalse(token.isExpired());
+        assertTrue(CancellationToken.withTimeout(Duration.ofSeconds(-1)).isExpired());
+        assertFalse(new CancellationToken().isExpired());
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+import org.apache.commons.imaging.bytesource.ByteSource;
+import org.apache.commons.imaging.formats.jpeg.JpegImageMetadata;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for class {@link ImageSession}.
+ */
+class ImageSessionTest extends AbstractImagingTest {
+
+    @Test
+    void testJpeg() throws Exception {
+        final File file = getTestImageByName("img_F028c_small.jpg");
+        try (ImageSession session = ImageSession.open(file)) {
+            assertEquals(ImageFormats.JPEG, session.getFormat());
+            final ImageInfo imageInfo = session.getImageInfo();
+            assertSame(imageInfo, session.getImageInfo());
+            assertEquals(Imaging.getImageInfo(file).toString(), imageInfo.toString());
+            assertEquals(Imaging.getImageSize(file), session.getImageSize());
+            assertEquals(Imaging.getMetadata(file).toString(), session.getMetadata().toString());
+            assertSame(session.getMetadata(), session.getMetadata());
+            assertArrayEquals(Imaging.getIccProfileBytes(file), session.getIccProfileBytes());
+            assertEquals(Imaging.getXmpXml(file), session.getXmpXml());
+            assertNotNull(((JpegImageMetadata) session.getMetadata()).getExifThumbnail());
+            final BufferedImage image = session.getBufferedImage();
+            assertEquals(imageInfo.getWidth(), image.getWidth());
+            assertEquals(imageInfo.getHeight(), image.getHeight());
+        }
+    }
+
+    @Test
+    void testUnsupportedFormat() {
+        assertThrows(IllegalArgumentException.class, () -> ImageSession.open(ByteSource.array(new byte[] { 1, 2, 3 })));
+    }
+
+    @Test
+    void testWholeFile() throws Exception {
+        final File file = getTestImage(f -> Imaging.guessFormat(f) == ImageFormats.PNG);
+        try (ImageSession session = ImageSession.open(file)) {
+            assertEquals(ImageFormats.PNG, session.getFormat());
+            try (InputStream is = session.getByteSource().getInputStream()) {
+                assertArrayEquals(Files.readAllBytes(file.toPath()), IOUtils.toByteArray(is));
+            }
+            assertEquals(Imaging.getImageInfo(file).toString(), session.getImageInfo().toString());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.imaging.bytesource.ByteSource;
+import org.apache.commons.imaging.common.AllocationBudgetException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for class {@link ImagingBatch}.
+ */
+class ImagingBatchTest {
+
+    private static byte[] png(final int width, final int height) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void testAllocationLimit() throws IOException {
+        final byte[] png = png(200, 100);
+        try (Stream<ImagingBatch.Result<BufferedImage>> results = Imaging.batch().setAllocationLimit(1000)
+                .map(Stream.of(ByteSource.array(png, "a.png")), source -> Imaging.getBufferedImage(source.getInputStream()))) {
+            final List<ImagingBatch.Result<BufferedImage>> list = results.collect(Collectors.toList());
+            assertEquals(1, list.size());
+            assertInstanceOf(AllocationBudgetException.class, list.get(0).getFailure());
+        }
+    }
+
+    @Test
+    void testFailuresAreReported() throws IOException {
+        final List<ByteSource> sources = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            sources.add(ByteSource.array(png(i, 2 * i), "image" + i + ".png"));
+        }
+        sources.add(ByteSource.array(new byte[] { 1, 2, 3 }, "garbage.bin"));
+        try (Stream<ImagingBatch.Result<ImageInfo>> results = Imaging.batch().setMaxInFlight(4).getImageInfo(sources.stream())) {
+            final List<ImagingBatch.Result<ImageInfo>> list = results.collect(Collectors.toList());
+            assertEquals(21, list.size());
+            int failures = 0;
+            for (final ImagingBatch.Result<ImageInfo> result : list) {
+                if (result.isSuccess()) {
+                    final int i = Integer.parseInt(result.getSource().getFileName().replaceAll("\\D", ""));
+                    assertEquals(i, result.getValue().getWidth());
+                    assertEquals(2 * i, result.getValue().getHeight());
+                } else {
+                    assertEquals("garbage.bin", result.getSource().getFileName());
+                    failures++;
+                }
+            }
+            assertEquals(1, failures);
+        }
+    }
+
+    @Test
+    void testInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> Imaging.batch().setMaxInFlight(0));
+        assertThrows(IllegalArgumentException.class, () -> Imaging.batch().setAllocationLimit(-2));
+        assertThrows(NullPointerException.class, () -> Imaging.batch().setExecutor(null));
+    }
+
+    @Test
+    void testMaxInFlight() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final AtomicInteger running = new AtomicInteger();
+            final AtomicInteger maxRunning = new AtomicInteger();
+            final Stream<ByteSource> sources = IntStream.range(0, 50).mapToObj(i -> ByteSource.array(new byte[i]));
+            try (Stream<ImagingBatch.Result<Integer>> results = Imaging.batch().setExecutor(executor).setMaxInFlight(3).map(sources, source -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(2);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return (int) source.size();
+            })) {
+                assertEquals(49 * 50 / 2, results.mapToInt(ImagingBatch.Result::getValue).sum());
+            }
+            assertTrue(maxRunning.get() <= 3, () -> "max running: " + maxRunning);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
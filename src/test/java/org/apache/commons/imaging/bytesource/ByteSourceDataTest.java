@@ -19,6 +19,9 @@ package org.apache.commons.imaging.bytesource;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayInputStream;
@@ -26,12 +29,21 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
+import org.apache.commons.imaging.ImagingException;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.build.AbstractOrigin.ByteArrayOrigin;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
@@ -41,6 +53,25 @@ class ByteSourceDataTest extends AbstractByteSourceTest {
         ByteSource getByteSource(byte[] src) throws IOException;
     }
 
+    /**
+     * Caches file sources in small pages, so that reads span, evict and bypass them.
+     */
+    private final class ByteSourceCachedFactory implements ByteSourceFactory {
+
+        @Override
+        public ByteSource getByteSource(final byte[] src) throws IOException {
+            return ByteSource.cached(ByteSource.file(createTempFile(src)), 64, 16);
+        }
+    }
+
+    private static final class ByteSourceChannelFactory implements ByteSourceFactory {
+
+        @Override
+        public ByteSource getByteSource(final byte[] src) throws IOException {
+            return ByteSource.channel(new CountingChannel(src), null);
+        }
+    }
+
     private final class ByteSourceFileFactory implements ByteSourceFactory {
 
         @Override
@@ -52,6 +83,25 @@ class ByteSourceDataTest extends AbstractByteSourceTest {
         }
     }
 
+    /**
+     * Reads the header of the byte sources of another factory before they are used.
+     */
+    private static final class ByteSourceHeaderFactory implements ByteSourceFactory {
+
+        private final ByteSourceFactory factory;
+
+        ByteSourceHeaderFactory(final ByteSourceFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public ByteSource getByteSource(final byte[] src) throws IOException {
+            final ByteSource byteSource = factory.getByteSource(src);
+            assertArrayEquals(Arrays.copyOf(src, Math.min(src.length, ByteSource.HEADER_SIZE)), byteSource.getHeader());
+            return byteSource;
+        }
+    }
+
     private final class ByteSourceInputStreamFileFactory implements ByteSourceFactory {
 
         @Override
@@ -72,6 +122,17 @@ class ByteSourceDataTest extends AbstractByteSourceTest {
 
     }
 
+    /**
+     * Buffers streams in small blocks, most of them spilled to a temporary file.
+     */
+    private static final class ByteSourceInputStreamSpillFactory implements ByteSourceFactory {
+
+        @Override
+        public ByteSource getByteSource(final byte[] src) throws IOException {
+            return ByteSource.inputStream(new ByteArrayInputStream(src), null, 100, 1000);
+        }
+    }
+
     private final class ByteSourcePathFactory implements ByteSourceFactory {
 
         @Override
@@ -83,16 +144,232 @@ class ByteSourceDataTest extends AbstractByteSourceTest {
         }
     }
 
+    /**
+     * A read-only channel over an array that counts the reads made of it.
+     */
+    private static final class CountingChannel implements SeekableByteChannel {
+
+        private final byte[] bytes;
+        private int position;
+        private boolean open = true;
+        private int reads;
+
+        CountingChannel(final byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public long position() {
+            return position;
+        }
+
+        @Override
+        public SeekableByteChannel position(final long newPosition) {
+            position = (int) Math.min(newPosition, bytes.length);
+            return this;
+        }
+
+        @Override
+        public int read(final ByteBuffer dst) {
+            reads++;
+            if (position >= bytes.length) {
+                return -1;
+            }
+            final int count = Math.min(dst.remaining(), bytes.length - position);
+            dst.put(bytes, position, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public long size() {
+            return bytes.length;
+        }
+
+        @Override
+        public SeekableByteChannel truncate(final long size) {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public int write(final ByteBuffer src) {
+            throw new NonWritableChannelException();
+        }
+    }
+
+    /**
+     * Reads random ranges of a new byte source of a factory, then past its end.
+     */
+    private static void assertRandomAccess(final ByteSourceFactory byteSourceFactory, final byte[] src) throws IOException {
+        try (ByteSource byteSource = byteSourceFactory.getByteSource(src)) {
+            final Random random = new Random(src.length);
+            for (int i = 0; i < 50 && src.length > 0; i++) {
+                final int position = random.nextInt(src.length);
+                final int length = random.nextInt(src.length - position + 1);
+                assertArrayEquals(Arrays.copyOfRange(src, position, position + length), byteSource.getByteArray(position, length));
+            }
+            assertThrows(ImagingException.class, () -> byteSource.getByteArray(src.length, 1));
+            assertEquals(src.length, byteSource.size());
+        }
+    }
+
     public static Stream<byte[]> data() {
         return Arrays.asList(getTestByteArrays()).stream();
     }
 
+    @ParameterizedTest
+    @MethodSource("data")
+    void testByteSourceCachedFactory(final byte[] testByteArray) throws Exception {
+        writeAndReadBytes(new ByteSourceCachedFactory(), testByteArray);
+        assertRandomAccess(new ByteSourceCachedFactory(), testByteArray);
+    }
+
+    @Test
+    void testByteSourceCachedReads() throws Exception {
+        final byte[] src = new byte[100_000];
+        new Random(0).nextBytes(src);
+        final AtomicInteger reads = new AtomicInteger();
+        final AtomicInteger closes = new AtomicInteger();
+        final ByteSource source = new ByteSource(new ByteArrayOrigin(src), null) {
+
+            @Override
+            public void close() {
+                closes.incrementAndGet();
+            }
+
+            @Override
+            public byte[] getByteArray(final long position, final int length) throws IOException {
+                reads.incrementAndGet();
+                return super.getByteArray(position, length);
+            }
+        };
+        try (ByteSource byteSource = ByteSource.cached(source, 4096, 16)) {
+            // the header and directory reads of successive parser calls
+            for (int call = 0; call < 4; call++) {
+                assertArrayEquals(Arrays.copyOfRange(src, 0, 8), byteSource.getByteArray(0, 8));
+                assertArrayEquals(Arrays.copyOfRange(src, 50_000, 50_100), byteSource.getByteArray(50_000, 100));
+            }
+            assertEquals(2, reads.get());
+            // image data bypasses the cache
+            assertArrayEquals(Arrays.copyOfRange(src, 10_000, 30_000), byteSource.getByteArray(10_000, 20_000));
+            assertArrayEquals(Arrays.copyOfRange(src, 0, 8), byteSource.getByteArray(0, 8));
+            assertEquals(3, reads.get());
+            // parser state is kept by the cached source only
+            final Object state = byteSource.getParserState(Object.class, Object::new);
+            assertSame(state, byteSource.getParserState(Object.class, Object::new));
+            assertNull(source.getParserState(Object.class, Object::new));
+        }
+        assertEquals(1, closes.get());
+    }
+
+    @Test
+    void testByteSourceChannelCoalescesReads() throws Exception {
+        final byte[] src = new byte[400_000];
+        new Random(0).nextBytes(src);
+        final CountingChannel channel = new CountingChannel(src);
+        try (ByteSource byteSource = ByteSource.channel(channel, null)) {
+            // a header, a directory and its values within the readahead window of the first read
+            assertArrayEquals(Arrays.copyOfRange(src, 0, 8), byteSource.getByteArray(0, 8));
+            assertArrayEquals(Arrays.copyOfRange(src, 100, 120), byteSource.getByteArray(100, 20));
+            assertArrayEquals(Arrays.copyOfRange(src, 30_000, 30_010), byteSource.getByteArray(30_000, 10));
+            assertEquals(1, channel.reads);
+            // past the window
+            assertArrayEquals(Arrays.copyOfRange(src, 70_000, 70_004), byteSource.getByteArray(70_000, 4));
+            assertEquals(2, channel.reads);
+            // a recently read page again
+            assertArrayEquals(Arrays.copyOfRange(src, 0, 8), byteSource.getByteArray(0, 8));
+            assertEquals(2, channel.reads);
+            // strip data bypasses the cache and leaves its pages in place
+            assertArrayEquals(Arrays.copyOfRange(src, 80_000, 380_000), byteSource.getByteArray(80_000, 300_000));
+            assertEquals(3, channel.reads);
+            assertArrayEquals(Arrays.copyOfRange(src, 100, 120), byteSource.getByteArray(100, 20));
+            assertArrayEquals(Arrays.copyOfRange(src, 70_000, 70_004), byteSource.getByteArray(70_000, 4));
+            assertEquals(3, channel.reads);
+        }
+        assertTrue(channel.isOpen());
+    }
+
+    @ParameterizedTest
+    @MethodSource("data")
+    void testByteSourceChannelFactory(final byte[] testByteArray) throws Exception {
+        writeAndReadBytes(new ByteSourceChannelFactory(), testByteArray);
+        assertRandomAccess(new ByteSourceChannelFactory(), testByteArray);
+    }
+
     @ParameterizedTest
     @MethodSource("data")
     void testByteSourceFileFactory(final byte[] testByteArray) throws Exception {
         writeAndReadBytes(new ByteSourceFileFactory(), testByteArray);
     }
 
+    @ParameterizedTest
+    @MethodSource("data")
+    void testByteSourceHeader(final byte[] testByteArray) throws Exception {
+        writeAndReadBytes(new ByteSourceHeaderFactory(new ByteSourceChannelFactory()), testByteArray);
+        writeAndReadBytes(new ByteSourceHeaderFactory(new ByteSourceFileFactory()), testByteArray);
+        writeAndReadBytes(new ByteSourceHeaderFactory(new ByteSourceInputStreamRawFactory()), testByteArray);
+        writeAndReadBytes(new ByteSourceHeaderFactory(new ByteSourcePathFactory()), testByteArray);
+    }
+
+    @Test
+    void testByteSourceHeaderOpens() throws Exception {
+        final byte[] src = getTestByteArrays()[4];
+        final AtomicInteger reads = new AtomicInteger();
+        final ByteSource byteSource = new ByteSource(new ByteArrayOrigin(src) {
+            @Override
+            public byte[] getByteArray(final long position, final int length) throws IOException {
+                reads.incrementAndGet();
+                return super.getByteArray(position, length);
+            }
+
+            @Override
+            public InputStream getInputStream(final OpenOption... options) throws IOException {
+                reads.incrementAndGet();
+                return super.getInputStream(options);
+            }
+        }, null);
+        // a plain source keeps nothing, so a rewritten source is read afresh
+        byteSource.getHeader();
+        byteSource.getHeader();
+        assertEquals(2, reads.get());
+        // a cached source serves the header and the reads within it from its pages
+        final ByteSource cached = ByteSource.cached(byteSource);
+        assertArrayEquals(Arrays.copyOf(src, Math.min(src.length, ByteSource.HEADER_SIZE)), cached.getHeader());
+        final int afterHeader = reads.get();
+        cached.getHeader();
+        try (InputStream is = cached.getInputStream()) {
+            assertArrayEquals(Arrays.copyOf(src, 100), IOUtils.toByteArray(is, 100));
+        }
+        assertArrayEquals(Arrays.copyOfRange(src, 10, 30), cached.getByteArray(10, 20));
+        assertEquals(afterHeader, reads.get());
+    }
+
+    @Test
+    void testByteSourceHeaderRewritten() throws Exception {
+        final byte[] src = getTestByteArrays()[4];
+        final File file = createTempFile(src);
+        final ByteSource byteSource = ByteSource.file(file);
+        assertArrayEquals(Arrays.copyOf(src, Math.min(src.length, ByteSource.HEADER_SIZE)), byteSource.getHeader());
+        final byte[] rewritten = src.clone();
+        Arrays.fill(rewritten, 0, 100, (byte) 7);
+        Files.write(file.toPath(), rewritten);
+        assertArrayEquals(Arrays.copyOf(rewritten, Math.min(rewritten.length, ByteSource.HEADER_SIZE)), byteSource.getHeader());
+        assertArrayEquals(Arrays.copyOf(rewritten, 100), byteSource.getByteArray(0, 100));
+        try (InputStream is = byteSource.getInputStream()) {
+            assertArrayEquals(rewritten, IOUtils.toByteArray(is));
+        }
+    }
+
     @ParameterizedTest
     @MethodSource("data")
     void testByteSourceInputStreamFileFactory(final byte[] testByteArray) throws Exception {
@@ -105,6 +382,21 @@ class ByteSourceDataTest extends AbstractByteSourceTest {
         writeAndReadBytes(new ByteSourceInputStreamRawFactory(), testByteArray);
     }
 
+    @ParameterizedTest
+    @MethodSource("data")
+    void testByteSourceInputStreamSpillFactory(final byte[] testByteArray) throws Exception {
+        writeAndReadBytes(new ByteSourceInputStreamSpillFactory(), testByteArray);
+        // random access, backwards through memory and spilled blocks
+        assertRandomAccess(new ByteSourceInputStreamSpillFactory(), testByteArray);
+    }
+
+    @Test
+    void testByteSourceInputStreamSpillParameters() {
+        final InputStream is = new ByteArrayInputStream(new byte[1]);
+        assertThrows(IllegalArgumentException.class, () -> ByteSource.inputStream(is, null, 0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> ByteSource.inputStream(is, null, 100, -1));
+    }
+
     @ParameterizedTest
     @MethodSource("data")
     void testByteSourcePathFactory(final byte[] testByteArray) throws Exception {
@@ -101,6 +101,13 @@ class ByteSourceImageTest extends AbstractByteSourceTest {
 
         final ImageInfo imageInfoBytes = abstractImageParser.getImageInfo(imageFileBytes, params);
 
+        final ImageInfo imageInfoCached;
+        try (ByteSource cached = ByteSource.cached(ByteSource.file(imageFile))) {
+            // a second call is served by the pages cached by the first
+            abstractImageParser.getImageInfo(cached, params);
+            imageInfoCached = abstractImageParser.getImageInfo(cached, params);
+        }
+
         assertNotNull(imageInfoFile);
         assertNotNull(imageInfoBytes);
 
@@ -122,6 +129,7 @@ class ByteSourceImageTest extends AbstractByteSourceTest {
             final Object valueBytes = method2.invoke(imageInfoBytes, (Object[]) null);
 
             assertEquals(valueFile, valueBytes);
+            assertEquals(valueFile, method2.invoke(imageInfoCached, (Object[]) null));
         }
 
         // only have to test values from imageInfoFile; we already know values
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for class {@link AllocationBudget}.
+ */
+class AllocationBudgetTest {
+
+    @Test
+    void testBudgetExceeded() {
+        try (AllocationBudget budget = AllocationBudget.open(1000)) {
+            Allocator.byteArray(600);
+            final AllocationBudgetException e = assertThrows(AllocationBudgetException.class, () -> Allocator.intArray(101));
+            assertEquals(1000, e.getBudget());
+            assertEquals(600, e.getUsed());
+            assertEquals(600, budget.getUsed());
+            Allocator.intArray(100);
+            assertThrows(AllocationBudgetException.class, () -> Allocator.byteArray(1));
+        }
+        // no budget once closed
+        Allocator.byteArray(2000);
+    }
+
+    @Test
+    void testByteSizedRequests() {
+        try (AllocationBudget budget = AllocationBudget.open(10_000)) {
+            // an element count is not a byte count
+            Allocator.check(1000);
+            assertEquals(0, budget.getUsed());
+            Allocator.arrayList(100);
+            assertEquals(400, budget.getUsed());
+            Allocator.array(10, Object[]::new, 8);
+            assertEquals(480, budget.getUsed());
+        }
+    }
+
+    @Test
+    void testInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> AllocationBudget.open(-1));
+        assertNull(AllocationBudget.current());
+    }
+
+    @Test
+    void testLeasesAreCredited() {
+        try (AllocationBudget budget = AllocationBudget.open(10_000)) {
+            for (int i = 0; i < 10; i++) {
+                try (ArrayLease<byte[]> lease = Allocator.leaseByteArray(8_000)) {
+                    assertEquals(8_000, budget.getUsed());
+                }
+            }
+            assertEquals(0, budget.getUsed());
+            assertEquals(8_000, budget.getPeak());
+        }
+    }
+
+    @Test
+    void testNestedBudgets() {
+        try (AllocationBudget outer = AllocationBudget.open(1000)) {
+            Allocator.byteArray(300);
+            try (AllocationBudget inner = AllocationBudget.open(5000)) {
+                assertSame(inner, AllocationBudget.current());
+                Allocator.byteArray(500);
+                // the outer budget is exceeded first
+                assertThrows(AllocationBudgetException.class, () -> Allocator.byteArray(500));
+                assertEquals(500, inner.getUsed());
+            }
+            assertSame(outer, AllocationBudget.current());
+            assertEquals(800, outer.getUsed());
+            assertEquals(800, outer.getPeak());
+        }
+        assertNull(AllocationBudget.current());
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for class {@link ArrayPool}.
+ */
+class ArrayPoolTest {
+
+    @Test
+    void testClosedLease() {
+        final ArrayLease<byte[]> lease = Allocator.leaseByteArray(10);
+        lease.close();
+        assertThrows(IllegalStateException.class, lease::get);
+        // closing again has no effect
+        lease.close();
+    }
+
+    @Test
+    void testInvalidRequests() {
+        assertThrows(NegativeArraySizeException.class, () -> Allocator.leaseByteArray(-1));
+        assertThrows(AllocationRequestException.class, () -> Allocator.leaseIntArray(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testLargeArraysAreNotPooled() {
+        final int length = (1 << 24) + 1;
+        final byte[] first;
+        try (ArrayLease<byte[]> lease = Allocator.leaseByteArray(length)) {
+            first = lease.get();
+            assertEquals(length, first.length);
+        }
+        try (ArrayLease<byte[]> lease = Allocator.leaseByteArray(length)) {
+            assertNotSame(first, lease.get());
+        }
+    }
+
+    @Test
+    void testReuse() {
+        for (final int length : new int[] { 0, 100, 1024, 1025, 5000, 100_000 }) {
+            final int[] first;
+            try (ArrayLease<int[]> lease = Allocator.leaseIntArray(length)) {
+                first = lease.get();
+                assertTrue(first.length >= length);
+                assertEquals(1, Integer.bitCount(first.length), "size classes are powers of two");
+            }
+            try (ArrayLease<int[]> lease = Allocator.leaseIntArray(length)) {
+                assertSame(first, lease.get(), "length " + length);
+            }
+        }
+    }
+
+    @Test
+    void testReuseAcrossThreads() throws InterruptedException {
+        final byte[][] arrays = new byte[2][];
+        final Thread releasing = new Thread(() -> {
+            // fills the thread cache, so the second array goes to the shared pool
+            final ArrayLease<byte[]> first = Allocator.leaseByteArray(2000);
+            final ArrayLease<byte[]> second = Allocator.leaseByteArray(2000);
+            arrays[0] = second.get();
+            first.close();
+            second.close();
+        });
+        releasing.start();
+        releasing.join();
+        // a new thread has an empty cache
+        final Thread leasing = new Thread(() -> {
+            try (ArrayLease<byte[]> lease = Allocator.leaseByteArray(2000)) {
+                arrays[1] = lease.get();
+            }
+        });
+        leasing.start();
+        leasing.join();
+        assertSame(arrays[0], arrays[1]);
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.imaging.AbstractImageParser;
+import org.apache.commons.imaging.ImageFormats;
+import org.apache.commons.imaging.Imaging;
+import org.apache.commons.imaging.ImagingParameters;
+import org.apache.commons.imaging.bytesource.ByteSource;
+import org.apache.commons.imaging.formats.bmp.BmpImageParser;
+import org.apache.commons.imaging.formats.png.PngImageParser;
+import org.apache.commons.imaging.formats.pnm.PnmImageParser;
+import org.apache.commons.imaging.formats.psd.PsdImageParser;
+import org.apache.commons.imaging.test.TestImages;
+import org.apache.commons.imaging.test.TestResources;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class CompactBufferedImageFactoryTest {
+
+    private static final int WIDTH = 45;
+    private static final int HEIGHT = 31;
+    /** The largest shift of a gray level stored in a {@link BufferedImage#TYPE_BYTE_GRAY} raster. */
+    private static final int MAX_GRAY_ERROR = 6;
+
+    private static void assertSamePixels(final BufferedImage expected, final BufferedImage actual) {
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y), "at " + x + "," + y);
+            }
+        }
+    }
+
+
+    private static <T extends ImagingParameters<T>> BufferedImage decode(final AbstractImageParser<T> parser, final byte[] bytes,
+            final BufferedImageFactory factory, final int factor) throws IOException {
+        return parser.getBufferedImage(ByteSource.array(bytes), parser.getDefaultParameters().setBufferedImageFactory(factory).setSubsampling(factor));
+    }
+
+    static Stream<Arguments> images() throws IOException {
+        final byte[] gray = new byte[WIDTH * HEIGHT];
+        new Random(2).nextBytes(gray);
+        final ByteArrayOutputStream pgm = new ByteArrayOutputStream();
+        pgm.write(("P5\n" + WIDTH + " " + HEIGHT + "\n255\n").getBytes(StandardCharsets.US_ASCII));
+        pgm.write(gray);
+        final ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(TestImages.createRandomImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB), "png", png);
+        final ByteArrayOutputStream grayPng = new ByteArrayOutputStream();
+        ImageIO.write(TestImages.createRandomImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_GRAY), "png", grayPng);
+        final byte[] psd = Files.readAllBytes(TestResources.resourceToPath("/data/images/psd/1/Oregon Scientific DS6639 - DSC_0307 - small.psd"));
+        final BufferedImage rgb = TestImages.createRandomImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        return Stream.of(Arguments.of(new BmpImageParser(), Imaging.writeImageToBytes(rgb, ImageFormats.BMP), BufferedImage.TYPE_3BYTE_BGR),
+                Arguments.of(new PnmImageParser(), Imaging.writeImageToBytes(rgb, ImageFormats.PNM), BufferedImage.TYPE_3BYTE_BGR),
+                Arguments.of(new PnmImageParser(), pgm.toByteArray(), BufferedImage.TYPE_BYTE_GRAY),
+                Arguments.of(new PngImageParser(), png.toByteArray(), BufferedImage.TYPE_3BYTE_BGR),
+                Arguments.of(new PngImageParser(), grayPng.toByteArray(), BufferedImage.TYPE_BYTE_GRAY),
+                Arguments.of(new PsdImageParser(), psd, BufferedImage.TYPE_3BYTE_BGR));
+    }
+
+    @Test
+    void testGetImageType() {
+        final CompactBufferedImageFactory factory = new CompactBufferedImageFactory();
+        assertEquals(BufferedImage.TYPE_3BYTE_BGR, factory.getColorBufferedImage(3, 2, false).getType());
+        assertEquals(BufferedImage.TYPE_BYTE_GRAY, factory.getGrayscaleBufferedImage(3, 2, false).getType());
+        assertEquals(BufferedImage.TYPE_INT_ARGB, factory.getColorBufferedImage(3, 2, true).getType());
+        assertEquals(BufferedImage.TYPE_INT_ARGB, factory.getGrayscaleBufferedImage(3, 2, true).getType());
+    }
+
+    @Test
+    void testImageBuilderLayouts() {
+        for (final int type : new int[] { BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_BYTE_GRAY }) {
+            final ImageBuilder builder = new ImageBuilder(WIDTH, HEIGHT, false, false, new Rectangle(0, 0, WIDTH, HEIGHT), 1, type);
+            final BufferedImage expected = new BufferedImage(WIDTH, HEIGHT, type);
+            final Random random = new Random(3);
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int x = 0; x < WIDTH; x++) {
+                    // the decoders only build grayscale images from gray pixels
+                    final int argb = type == BufferedImage.TYPE_BYTE_GRAY ? random.nextInt(256) * 0x010101 : random.nextInt();
+                    builder.setRgb(x, y, argb);
+                    expected.setRGB(x, y, argb);
+                }
+            }
+            assertEquals(type, builder.getImageType());
+            assertSamePixels(expected, builder.getBufferedImage());
+            assertSamePixels(expected.getSubimage(3, 4, 10, 7), builder.getSubimage(3, 4, 10, 7));
+            assertSamePixels(expected.getSubimage(3, 4, 10, 7), builder.getSubset(3, 4, 10, 7).getBufferedImage());
+            assertEquals(expected.getRGB(5, 6), builder.getRgb(5, 6));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ImageBuilder(2, 2, true, false, new Rectangle(0, 0, 2, 2), 1, BufferedImage.TYPE_3BYTE_BGR));
+        assertThrows(IllegalArgumentException.class, () -> new ImageBuilder(2, 2, false, false, new Rectangle(0, 0, 2, 2), 1, BufferedImage.TYPE_USHORT_GRAY));
+    }
+
+    @ParameterizedTest
+    @MethodSource("images")
+    void testDecode(final AbstractImageParser<?> parser, final byte[] bytes, final int type) throws IOException {
+        for (final int factor : new int[] { 1, 2 }) {
+            final BufferedImage image = decode(parser, bytes, null, factor);
+            final BufferedImage compact = decode(parser, bytes, new CompactBufferedImageFactory(), factor);
+            assertEquals(type, compact.getType());
+            assertEquals(image.getWidth(), compact.getWidth());
+            assertEquals(image.getHeight(), compact.getHeight());
+            for (int y = 0; y < image.getHeight(); y++) {
+                for (int x = 0; x < image.getWidth(); x++) {
+                    final int argb = image.getRGB(x, y);
+                    final int actual = compact.getRGB(x, y);
+                    if (type == BufferedImage.TYPE_BYTE_GRAY) {
+                        // gray levels are quantized to linear samples
+                        assertEquals(actual & 0xff, actual >> 8 & 0xff);
+                        assertEquals(actual & 0xff, actual >> 16 & 0xff);
+                        assertTrue(Math.abs((argb & 0xff) - (actual & 0xff)) <= MAX_GRAY_ERROR, "at " + x + "," + y);
+                    } else {
+                        assertEquals(argb, actual, "at " + x + "," + y);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSampleSetters() {
+        for (final int type : new int[] { BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_BYTE_GRAY }) {
+            final Rectangle region = new Rectangle(0, 0, WIDTH, HEIGHT);
+            final ImageBuilder packed = new ImageBuilder(WIDTH, HEIGHT, false, false, region, 2, type);
+            final ImageBuilder samples = new ImageBuilder(WIDTH, HEIGHT, false, false, region, 2, type);
+            final Random random = new Random(4);
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int x = 0; x < WIDTH; x++) {
+                    final int rgb = random.nextInt() & 0xffffff;
+                    if ((x + y) % 2 == 0) {
+                        packed.setRgb(x, y, 0xff000000 | rgb);
+                        samples.setRgbSamples(x, y, rgb >> 16, rgb >> 8 & 0xff, rgb & 0xff);
+                    } else {
+                        packed.setRgb(x, y, 0xff000000 | (rgb & 0xff) * 0x010101);
+                        samples.setGray(x, y, rgb & 0xff);
+                    }
+                }
+            }
+            assertSamePixels(packed.getBufferedImage(), samples.getBufferedImage());
+        }
+    }
+
+    @Test
+    void testGrayQuantization() throws IOException {
+        final ByteArrayOutputStream pgm = new ByteArrayOutputStream();
+        pgm.write("P5\n256 1\n255\n".getBytes(StandardCharsets.US_ASCII));
+        for (int level = 0; level < 256; level++) {
+            pgm.write(level);
+        }
+        final BufferedImage compact = decode(new PnmImageParser(), pgm.toByteArray(), new CompactBufferedImageFactory(), 1);
+        final Set<Integer> levels = new HashSet<>();
+        for (int level = 0; level < 256; level++) {
+            final int gray = compact.getRGB(level, 0) & 0xff;
+            assertTrue(Math.abs(level - gray) <= MAX_GRAY_ERROR, "level " + level + " read as " + gray);
+            levels.add(gray);
+        }
+        assertEquals(183, levels.size());
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.common;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.apache.commons.imaging.ImagingException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for class {@link PackBits}.
+ */
+class PackBitsTest {
+
+    @Test
+    void testDecompress() throws ImagingException {
+        // a literal of 3 bytes, a run of 4 bytes, then a literal of 1 byte
+        final byte[] packed = { 2, 1, 2, 3, -3, 9, 0, 7 };
+        assertArrayEquals(new byte[] { 1, 2, 3, 9, 9, 9, 9, 7 }, PackBits.decompress(packed, 8));
+        // the last run is kept whole
+        assertArrayEquals(new byte[] { 1, 2, 3, 9, 9, 9, 9 }, PackBits.decompress(packed, 5));
+        assertThrows(ImagingException.class, () -> PackBits.decompress(packed, 9));
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        final Random random = new Random(42);
+        final byte[] bytes = new byte[100_000];
+        for (int i = 0; i < bytes.length;) {
+            final int run = 1 + random.nextInt(300);
+            final byte b = (byte) random.nextInt();
+            for (int j = 0; j < run && i < bytes.length; j++, i++) {
+                bytes[i] = random.nextInt(4) == 0 ? (byte) random.nextInt() : b;
+            }
+        }
+        assertArrayEquals(bytes, PackBits.decompress(PackBits.compress(bytes), bytes.length));
+    }
+}
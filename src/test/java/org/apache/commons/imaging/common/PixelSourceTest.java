@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.image.BufferedImage;
+import java.util.stream.Stream;
+
+import org.apache.commons.imaging.test.TestImages;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class PixelSourceTest {
+
+    private static void assertRows(final BufferedImage image) {
+        final PixelSource pixels = new PixelSource(image);
+        assertEquals(image.getWidth(), pixels.getWidth());
+        assertEquals(image.getHeight(), pixels.getHeight());
+        for (int y = 0; y < image.getHeight(); y++) {
+            final int[] row = pixels.getRow(y);
+            for (int x = 0; x < image.getWidth(); x++) {
+                assertEquals(image.getRGB(x, y), row[x], "type " + image.getType() + " at " + x + "," + y);
+            }
+        }
+    }
+
+    static Stream<Integer> imageTypes() {
+        return Stream.of(BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_ARGB_PRE, BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_BGR,
+                BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR, BufferedImage.TYPE_4BYTE_ABGR_PRE, BufferedImage.TYPE_BYTE_GRAY,
+                BufferedImage.TYPE_USHORT_GRAY, BufferedImage.TYPE_BYTE_BINARY, BufferedImage.TYPE_BYTE_INDEXED, BufferedImage.TYPE_USHORT_565_RGB);
+    }
+
+    @ParameterizedTest
+    @MethodSource("imageTypes")
+    void testGetRow(final int imageType) {
+        final BufferedImage image = TestImages.createRandomImage(37, 23, imageType);
+        assertRows(image);
+        // a subimage shares the raster of its parent at an offset
+        assertRows(image.getSubimage(5, 7, 20, 11));
+    }
+}
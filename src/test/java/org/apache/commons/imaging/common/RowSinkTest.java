@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.common;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.RasterFormatException;
+import java.io.File;
+import java.io.IOException;
+import java.util.stream.Stream;
+
+import org.apache.commons.imaging.ImageFormat;
+import org.apache.commons.imaging.ImageFormats;
+import org.apache.commons.imaging.Imaging;
+import org.apache.commons.imaging.bytesource.ByteSource;
+import org.apache.commons.imaging.test.TestImages;
+import org.apache.commons.imaging.test.TestResources;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Tests the streaming of rows through {@link RowSink} and {@code readRows}.
+ */
+class RowSinkTest {
+
+    /** Collects the delivered rows, checking that each row is delivered once. */
+    private static final class Rows implements RowListener {
+        private int[][] rows;
+        private boolean hasAlpha;
+
+        @Override
+        public void row(final int y, final int[] argb) {
+            assertNull(rows[y], "row " + y + " delivered twice");
+            rows[y] = argb.clone();
+        }
+
+        @Override
+        public void start(final int width, final int height, final boolean hasAlpha) {
+            rows = new int[height][];
+            this.hasAlpha = hasAlpha;
+        }
+    }
+
+
+    static Stream<String> files() {
+        return Stream.of("/data/images/bmp/4/rle4.bmp", "/data/images/bmp/4/rle4deltaXY.bmp", "/data/images/bmp/4/rle8.bmp", "/data/images/pbm/2/5x5-rgb-alpha.pam",
+                "/data/images/pbm/1/Oregon Scientific DS6639 - DSC_0307 - small.pbm");
+    }
+
+    static Stream<ImageFormat> formats() {
+        return Stream.of(ImageFormats.BMP, ImageFormats.PNM, ImageFormats.PNG);
+    }
+
+    private static void assertRows(final ByteSource byteSource) throws IOException {
+        final BufferedImage image = Imaging.getBufferedImage(byteSource.getInputStream());
+        final Rows rows = new Rows();
+        Imaging.readRows(byteSource, rows);
+        assertEquals(image.getHeight(), rows.rows.length);
+        assertEquals(image.getColorModel().hasAlpha(), rows.hasAlpha);
+        for (int y = 0; y < image.getHeight(); y++) {
+            assertNotNull(rows.rows[y], "row " + y);
+            assertArrayEquals(image.getRGB(0, y, image.getWidth(), 1, null, 0, image.getWidth()), rows.rows[y], "row " + y);
+        }
+    }
+
+    @Test
+    void testBadRegion() {
+        final Rows rows = new Rows();
+        assertThrows(RasterFormatException.class, () -> new RowSink(0, 10, false, rows));
+        assertThrows(RasterFormatException.class, () -> new RowSink(10, 10, false, new Rectangle(5, 5, 6, 1), 1, rows));
+        assertThrows(IllegalArgumentException.class, () -> new RowSink(10, 10, false, new Rectangle(0, 0, 10, 10), 0, rows));
+        assertThrows(NullPointerException.class, () -> new RowSink(10, 10, false, null));
+    }
+
+    @ParameterizedTest
+    @MethodSource("files")
+    void testReadRowsFile(final String path) throws IOException {
+        final File file = TestResources.resourceToFile(path);
+        assertRows(ByteSource.file(file));
+    }
+
+    @ParameterizedTest
+    @MethodSource("formats")
+    void testReadRowsFormat(final ImageFormat format) throws IOException {
+        final BufferedImage image = TestImages.createRandomImage(37, 23, format == ImageFormats.PNG ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        assertRows(ByteSource.array(Imaging.writeImageToBytes(image, format)));
+    }
+
+    @Test
+    void testRegion() throws IOException {
+        final Rows rows = new Rows();
+        final RowSink sink = new RowSink(10, 8, false, new Rectangle(2, 1, 7, 6), 3, rows);
+        assertEquals(new Rectangle(2, 1, 7, 6), sink.getRegion());
+        assertEquals(2, rows.rows.length);
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 10; x++) {
+                sink.setRgb(x, y, y << 8 | x);
+            }
+            sink.rowsCompleted(y, 1);
+        }
+        sink.flush();
+        assertArrayEquals(new int[] { 0xff000102, 0xff000105, 0xff000108 }, rows.rows[0]);
+        assertArrayEquals(new int[] { 0xff000402, 0xff000405, 0xff000408 }, rows.rows[1]);
+    }
+
+    @Test
+    void testRowsDeliveredWhenCompleted() throws IOException {
+        final Rows rows = new Rows();
+        final RowSink sink = new RowSink(3, 4, true, rows);
+        sink.setRgb(0, 2, 1);
+        sink.setRgb(2, 2, 3);
+        sink.setRgb(1, 1, 5);
+        sink.rowsCompleted(2, 1);
+        assertArrayEquals(new int[] { 1, 0, 3 }, rows.rows[2]);
+        assertNull(rows.rows[1]);
+        // a delivered row does not change anymore
+        sink.setRgb(1, 2, 2);
+        sink.rowsCompleted(2, 1);
+        sink.flush();
+        assertArrayEquals(new int[] { 1, 0, 3 }, rows.rows[2]);
+        assertArrayEquals(new int[] { 0, 5, 0 }, rows.rows[1]);
+        assertArrayEquals(new int[3], rows.rows[0]);
+        assertArrayEquals(new int[3], rows.rows[3]);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.formats.jpeg;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.apache.commons.imaging.AbstractImagingTest;
+import org.apache.commons.imaging.bytesource.ByteSource;
+import org.apache.commons.imaging.formats.jpeg.segments.AbstractSegment;
+import org.apache.commons.imaging.formats.jpeg.segments.SofnSegment;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for class {@link JpegSegmentIndex}.
+ */
+class JpegSegmentIndexTest extends AbstractImagingTest {
+
+    private static void assertSameSegments(final List<AbstractSegment> expected, final List<AbstractSegment> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getClass(), actual.get(i).getClass());
+            assertEquals(expected.get(i).marker, actual.get(i).marker);
+            assertEquals(expected.get(i).length, actual.get(i).length);
+        }
+    }
+
+    @Test
+    void testIndexIsBuiltLazilyAndShared() throws Exception {
+        final File file = getTestImageByName("img_F028c_small.jpg");
+        final byte[] bytes = Files.readAllBytes(file.toPath());
+        // only a cached source keeps its index across reads
+        assertNotSame(JpegSegmentIndex.get(ByteSource.array(bytes)), JpegSegmentIndex.get(ByteSource.array(bytes)));
+        final ByteSource byteSource = ByteSource.cached(ByteSource.array(bytes));
+        final JpegImageParser parser = new JpegImageParser();
+        final JpegSegmentIndex index = JpegSegmentIndex.get(byteSource);
+
+        final int[] app1 = { JpegConstants.JPEG_APP1_MARKER };
+        assertEquals(1, parser.readSegments(byteSource, app1, true).size());
+        // only the segments up to the first APP1 have been read
+        assertFalse(index.isComplete());
+
+        final int[] markers = { JpegConstants.JPEG_APP1_MARKER, JpegConstants.JPEG_APP2_MARKER, JpegConstants.JPEG_APP13_MARKER, JpegConstants.DQT_MARKER,
+                JpegConstants.SOF0_MARKER, JpegConstants.SOF2_MARKER, JpegConstants.COM_MARKER };
+        final List<AbstractSegment> segments = parser.readSegments(byteSource, markers, false);
+        assertTrue(index.isComplete());
+        assertSame(index, JpegSegmentIndex.get(byteSource));
+        for (final JpegSegmentIndex.Entry entry : index.getEntries()) {
+            final int offset = (int) entry.offset;
+            assertEquals(entry.marker, (bytes[offset - 4] & 0xff) << 8 | bytes[offset - 3] & 0xff);
+            assertEquals(entry.length + 2, (bytes[offset - 2] & 0xff) << 8 | bytes[offset - 1] & 0xff);
+        }
+
+        // the indexed segments match a fresh traversal
+        assertSameSegments(parser.readSegments(ByteSource.array(bytes), markers, false), segments);
+        assertSameSegments(parser.readSegments(ByteSource.array(bytes), app1, false), parser.readSegments(byteSource, app1, false));
+        final List<AbstractSegment> sofn = parser.readSegments(byteSource, new int[] { JpegConstants.SOF0_MARKER, JpegConstants.SOF2_MARKER }, true);
+        assertEquals(1, sofn.size());
+        assertEquals(parser.getImageSize(ByteSource.array(bytes), null).width, ((SofnSegment) sofn.get(0)).width);
+        assertArrayEquals(parser.getExifRawData(ByteSource.array(bytes)), parser.getExifRawData(byteSource));
+    }
+}
@@ -17,11 +17,14 @@
 package org.apache.commons.imaging.formats.jpeg.specific;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 
+import javax.imageio.ImageIO;
+
 import org.apache.commons.imaging.ImagingException;
 import org.apache.commons.imaging.bytesource.ByteSource;
 import org.apache.commons.imaging.formats.jpeg.JpegImageParser;
@@ -33,6 +36,22 @@ import org.junit.jupiter.api.Test;
  */
 class JpegImageParserTest {
 
+    private static void assertSamples(final BufferedImage expected, final BufferedImage actual, final int maxDifference) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        final int bands = expected.getRaster().getNumBands();
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                final int rgb = actual.getRGB(x, y);
+                for (int b = 0; b < bands; b++) {
+                    final int sample = bands == 1 ? rgb & 0xff : rgb >> 16 - 8 * b & 0xff;
+                    final int difference = Math.abs(expected.getRaster().getSample(x, y, b) - sample);
+                    assertTrue(difference <= maxDifference, "band " + b + " at " + x + "," + y + " differs by " + difference);
+                }
+            }
+        }
+    }
+
     /**
      * Image created with The Gimp 2.8
      *
@@ -47,6 +66,25 @@ class JpegImageParserTest {
         assertEquals(680, image.getWidth());
         assertEquals(241, image.getHeight());
         assertEquals(-16777216, image.getRGB(0, 0));
-        assertEquals(-12177367, image.getRGB(198, 13));
+        // the scan has a restart interval, the DC predictions start over at each RST marker
+        assertEquals(-12552348, image.getRGB(198, 13));
+    }
+
+    /**
+     * The scan has a restart interval.
+     */
+    @Test
+    void testGetBufferedImageRestartInterval() throws IOException {
+        final File imageFile = TestResources.resourceToFile("/images/jpeg/photoshop/IMAGING-246/FallHarvestKitKat_07610.jpg");
+        assertSamples(ImageIO.read(imageFile), new JpegImageParser().getBufferedImage(ByteSource.file(imageFile), null), 4);
+    }
+
+    /**
+     * The single component declares 2x2 sampling factors, which a non-interleaved scan ignores.
+     */
+    @Test
+    void testGetBufferedImageSingleComponent() throws IOException {
+        final File imageFile = TestResources.resourceToFile("/data/images/jpg/6/image.jpeg");
+        assertSamples(ImageIO.read(imageFile), new JpegImageParser().getBufferedImage(ByteSource.file(imageFile), null), 1);
     }
 }
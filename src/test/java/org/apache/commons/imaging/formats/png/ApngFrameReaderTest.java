@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.formats.png;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.bytesource.ByteSource;
+import org.apache.commons.imaging.formats.png.chunks.PngChunkFctl.BlendOp;
+import org.apache.commons.imaging.formats.png.chunks.PngChunkFctl.DisposeOp;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for class {@link ApngFrameReader}.
+ */
+class ApngFrameReaderTest {
+
+    private static final int RED = 0xffff0000;
+    private static final int GREEN = 0xff00ff00;
+    private static final int BLUE = 0xff0000ff;
+    private static final int WHITE = 0xffffffff;
+
+    private static BufferedImage image(final int width, final int height, final int... argb) {
+        final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, width, height, argb, 0, width);
+        return image;
+    }
+
+    private static int[] pixels(final BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+
+    /**
+     * Writes a PNG image and returns its chunks: the IHDR data followed by the concatenated IDAT data.
+     */
+    private static byte[][] encode(final BufferedImage image) throws IOException {
+        final ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(png.toByteArray()));
+        in.skipBytes(8);
+        byte[] ihdr = null;
+        final ByteArrayOutputStream idat = new ByteArrayOutputStream();
+        while (true) {
+            final byte[] data = new byte[in.readInt()];
+            final byte[] type = new byte[4];
+            in.readFully(type);
+            in.readFully(data);
+            in.readInt();
+            final String name = new String(type, StandardCharsets.US_ASCII);
+            if (name.equals("IHDR")) {
+                ihdr = data;
+            } else if (name.equals("IDAT")) {
+                idat.write(data);
+            } else if (name.equals("IEND")) {
+                return new byte[][] { ihdr, idat.toByteArray() };
+            }
+        }
+    }
+
+    private static void writeChunk(final DataOutputStream out, final String type, final byte[] data) throws IOException {
+        final byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        final CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        out.writeInt(data.length);
+        out.write(typeBytes);
+        out.write(data);
+        out.writeInt((int) crc.getValue());
+    }
+
+    private static byte[] fctl(final int sequence, final int width, final int height, final int x, final int y, final DisposeOp disposeOp,
+            final BlendOp blendOp) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(sequence);
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(x);
+        out.writeInt(y);
+        out.writeShort(1);
+        out.writeShort(10);
+        out.writeByte(disposeOp.ordinal());
+        out.writeByte(blendOp.ordinal());
+        return bytes.toByteArray();
+    }
+
+    private static byte[] fdat(final int sequence, final byte[] data) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(sequence);
+        out.write(data);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Flips a bit of the CRC of the given occurrence of a chunk type.
+     */
+    private static byte[] corruptCrc(final byte[] png, final String type, final int occurrence) {
+        final byte[] bytes = png.clone();
+        int count = 0;
+        int offset = PngConstants.PNG_SIGNATURE.size();
+        while (offset < bytes.length) {
+            final int length = (bytes[offset] & 0xff) << 24 | (bytes[offset + 1] & 0xff) << 16 | (bytes[offset + 2] & 0xff) << 8 | bytes[offset + 3] & 0xff;
+            final String name = new String(bytes, offset + 4, 4, StandardCharsets.US_ASCII);
+            if (name.equals(type) && count++ == occurrence) {
+                bytes[offset + 8 + length] ^= 1;
+                return bytes;
+            }
+            offset += 12 + length;
+        }
+        throw new IllegalArgumentException(type);
+    }
+
+    private static void readFrames(final byte[] bytes, final PngImagingParameters params) throws IOException {
+        try (ApngFrameReader reader = new PngImageParser().getFrameReader(ByteSource.array(bytes), params)) {
+            for (int i = 0; i < EXPECTED.length; i++) {
+                assertArrayEquals(EXPECTED[i], pixels(reader.next().getImage()), "frame " + i);
+            }
+        }
+    }
+
+    /**
+     * Creates a 4x4 animation of three frames exercising every dispose and blend operation.
+     */
+    private static byte[] createAnimation() throws IOException {
+        final byte[][] frame0 = encode(image(4, 4, RED, RED, RED, RED, RED, RED, RED, RED, RED, RED, RED, RED, RED, RED, RED, RED));
+        final byte[][] frame1 = encode(image(2, 2, GREEN, 0, 0, BLUE));
+        final byte[][] frame2 = encode(image(2, 2, WHITE, WHITE, WHITE, WHITE));
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        PngConstants.PNG_SIGNATURE.writeTo(out);
+        writeChunk(out, "IHDR", frame0[0]);
+        writeChunk(out, "acTL", new byte[] { 0, 0, 0, 3, 0, 0, 0, 0 });
+        writeChunk(out, "fcTL", fctl(0, 4, 4, 0, 0, DisposeOp.NONE, BlendOp.SOURCE));
+        writeChunk(out, "IDAT", frame0[1]);
+        writeChunk(out, "fcTL", fctl(1, 2, 2, 1, 1, DisposeOp.BACKGROUND, BlendOp.OVER));
+        // split the frame data over two chunks
+        final int half = frame1[1].length / 2;
+        writeChunk(out, "fdAT", fdat(2, Arrays.copyOfRange(frame1[1], 0, half)));
+        writeChunk(out, "fdAT", fdat(3, Arrays.copyOfRange(frame1[1], half, frame1[1].length)));
+        writeChunk(out, "fcTL", fctl(4, 2, 2, 0, 0, DisposeOp.PREVIOUS, BlendOp.SOURCE));
+        writeChunk(out, "fdAT", fdat(5, frame2[1]));
+        writeChunk(out, "IEND", new byte[0]);
+        return bytes.toByteArray();
+    }
+
+    private static final int[][] EXPECTED = {
+            { RED, RED, RED, RED, RED, RED, RED, RED, RED, RED, RED, RED, RED, RED, RED, RED },
+            { RED, RED, RED, RED, RED, GREEN, RED, RED, RED, RED, BLUE, RED, RED, RED, RED, RED },
+            { WHITE, WHITE, RED, RED, WHITE, WHITE, 0, RED, RED, 0, 0, RED, RED, RED, RED, RED } };
+
+    @Test
+    void testAllBufferedImages() throws IOException {
+        final List<BufferedImage> images = new PngImageParser().getAllBufferedImages(ByteSource.array(createAnimation()));
+        assertEquals(EXPECTED.length, images.size());
+        for (int i = 0; i < EXPECTED.length; i++) {
+            assertArrayEquals(EXPECTED[i], pixels(images.get(i)), "frame " + i);
+        }
+    }
+
+    @Test
+    void testCrcVerification() throws IOException {
+        final PngImagingParameters full = new PngImagingParameters().setCrcVerification(PngCrcVerification.FULL);
+        readFrames(createAnimation(), full);
+        for (final String type : new String[] { "fcTL", "fdAT" }) {
+            final byte[] bytes = corruptCrc(createAnimation(), type, 1);
+            // streamed frame data is not verified unless asked to
+            readFrames(bytes, null);
+            readFrames(bytes, new PngImagingParameters().setCrcVerification(PngCrcVerification.NONE));
+            final ImagingException e = assertThrows(ImagingException.class, () -> readFrames(bytes, full));
+            assertEquals("PNG: invalid CRC in " + type + " chunk", e.getMessage());
+        }
+    }
+
+    @Test
+    void testFrames() throws IOException {
+        final byte[] bytes = createAnimation();
+        assertEquals(3, new PngImageParser().getImageInfo(ByteSource.array(bytes)).getNumberOfImages());
+
+        try (ApngFrameReader reader = new PngImageParser().getFrameReader(ByteSource.array(bytes))) {
+            assertTrue(reader.isAnimated());
+            assertEquals(3, reader.getFrameCount());
+            assertEquals(0, reader.getPlayCount());
+            BufferedImage canvas = null;
+            for (int i = 0; i < EXPECTED.length; i++) {
+                assertTrue(reader.hasNext());
+                final ApngFrame frame = reader.next();
+                assertEquals(i, frame.getIndex());
+                assertEquals(100, frame.getDelayMillis());
+                assertArrayEquals(EXPECTED[i], pixels(frame.getImage()), "frame " + i);
+                if (canvas != null) {
+                    // the canvas is reused
+                    assertTrue(canvas == frame.getImage());
+                }
+                canvas = frame.getImage();
+            }
+            assertFalse(reader.hasNext());
+            assertThrows(NoSuchElementException.class, reader::next);
+        }
+    }
+
+    @Test
+    void testNotAnimated() throws IOException {
+        final BufferedImage image = image(3, 2, RED, GREEN, BLUE, WHITE, 0, 0x80402010);
+        final ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+
+        try (ApngFrameReader reader = new PngImageParser().getFrameReader(ByteSource.array(png.toByteArray()))) {
+            assertFalse(reader.isAnimated());
+            assertTrue(reader.hasNext());
+            assertArrayEquals(pixels(image), pixels(reader.next().getImage()));
+            assertFalse(reader.hasNext());
+        }
+    }
+}
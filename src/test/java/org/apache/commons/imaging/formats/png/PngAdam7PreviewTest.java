@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.formats.png;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.apache.commons.imaging.bytesource.ByteSource;
+import org.apache.commons.imaging.test.TestImages;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests decoding previews of Adam7 interlaced PNG images.
+ */
+class PngAdam7PreviewTest {
+
+    private static final int WIDTH = 37;
+    private static final int HEIGHT = 29;
+    private static final int[] BLOCK_WIDTH = { 8, 4, 4, 2, 2, 1, 1 };
+    private static final int[] BLOCK_HEIGHT = { 8, 8, 4, 4, 2, 2, 1 };
+
+    private static byte[] writeInterlaced(final BufferedImage image) throws IOException {
+        final ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        final ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+        try (ByteArrayOutputStream os = new ByteArrayOutputStream(); ImageOutputStream ios = ImageIO.createImageOutputStream(os)) {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param);
+            ios.flush();
+            return os.toByteArray();
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static byte[] createImage() throws IOException {
+        return writeInterlaced(TestImages.createRandomImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB));
+    }
+
+    @Test
+    void testFullSizePreview() throws IOException {
+        final byte[] bytes = createImage();
+        final PngImageParser parser = new PngImageParser();
+        final BufferedImage full = parser.getBufferedImage(ByteSource.array(bytes), new PngImagingParameters());
+
+        for (int passes = 1; passes <= PngImagingParameters.ADAM7_PASS_COUNT; passes++) {
+            final BufferedImage preview = parser.getBufferedImage(ByteSource.array(bytes), new PngImagingParameters().setAdam7Passes(passes));
+            assertEquals(WIDTH, preview.getWidth());
+            assertEquals(HEIGHT, preview.getHeight());
+            final int blockWidth = BLOCK_WIDTH[passes - 1];
+            final int blockHeight = BLOCK_HEIGHT[passes - 1];
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int x = 0; x < WIDTH; x++) {
+                    assertEquals(full.getRGB(x - x % blockWidth, y - y % blockHeight), preview.getRGB(x, y), "pass " + passes + " at " + x + "," + y);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testInvalidPasses() {
+        final PngImagingParameters params = new PngImagingParameters();
+        assertThrows(IllegalArgumentException.class, () -> params.setAdam7Passes(0));
+        assertThrows(IllegalArgumentException.class, () -> params.setAdam7Passes(8));
+    }
+
+    @Test
+    void testNativeSizePreview() throws IOException {
+        final byte[] bytes = createImage();
+        final PngImageParser parser = new PngImageParser();
+        final BufferedImage full = parser.getBufferedImage(ByteSource.array(bytes), new PngImagingParameters());
+
+        for (int passes = 1; passes <= PngImagingParameters.ADAM7_PASS_COUNT; passes++) {
+            final PngImagingParameters params = new PngImagingParameters().setAdam7Passes(passes).setAdam7PreviewFullSize(false);
+            final BufferedImage preview = parser.getBufferedImage(ByteSource.array(bytes), params);
+            final int blockWidth = BLOCK_WIDTH[passes - 1];
+            final int blockHeight = BLOCK_HEIGHT[passes - 1];
+            assertEquals((WIDTH + blockWidth - 1) / blockWidth, preview.getWidth());
+            assertEquals((HEIGHT + blockHeight - 1) / blockHeight, preview.getHeight());
+            for (int y = 0; y < preview.getHeight(); y++) {
+                for (int x = 0; x < preview.getWidth(); x++) {
+                    assertEquals(full.getRGB(x * blockWidth, y * blockHeight), preview.getRGB(x, y), "pass " + passes + " at " + x + "," + y);
+                }
+            }
+        }
+    }
+}
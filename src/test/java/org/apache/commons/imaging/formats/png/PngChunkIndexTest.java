@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.formats.png;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.imaging.bytesource.ByteSource;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for class {@link PngChunkIndex}.
+ */
+class PngChunkIndexTest {
+
+    private static byte[] createPng() throws IOException {
+        final BufferedImage image = new BufferedImage(20, 10, BufferedImage.TYPE_INT_ARGB);
+        final PngImagingParameters params = new PngImagingParameters();
+        params.setTextChunks(Collections.singletonList(new AbstractPngText.Text("Title", "index")));
+        try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+            new PngImageParser().writeImage(image, os, params);
+            return os.toByteArray();
+        }
+    }
+
+    @Test
+    void testIndexIsBuiltLazilyAndShared() throws IOException {
+        final byte[] bytes = createPng();
+        // only a cached source keeps its index across reads
+        assertNotSame(PngChunkIndex.get(ByteSource.array(bytes)), PngChunkIndex.get(ByteSource.array(bytes)));
+        final ByteSource byteSource = ByteSource.cached(ByteSource.array(bytes));
+        final PngImageParser parser = new PngImageParser();
+        final PngChunkIndex index = PngChunkIndex.get(byteSource);
+
+        assertEquals(20, parser.getImageSize(byteSource, null).width);
+        // only the header has been read
+        assertEquals(1, index.getEntries().size());
+        assertFalse(index.isComplete());
+
+        final PngImageInfo info = (PngImageInfo) parser.getImageInfo(byteSource, null);
+        assertEquals("index", info.getTextChunks().get(0).text);
+        assertTrue(index.isComplete());
+        assertSame(index, PngChunkIndex.get(byteSource));
+
+        final List<String> chunkTypes = parser.getChunkTypes(new ByteArrayInputStream(bytes, 8, bytes.length - 8));
+        final List<PngChunkIndex.Entry> entries = index.getEntries();
+        assertEquals(chunkTypes.size(), entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            final PngChunkIndex.Entry entry = entries.get(i);
+            final int offset = (int) entry.offset;
+            assertEquals(chunkTypes.get(i), new String(bytes, offset - 4, 4, StandardCharsets.US_ASCII));
+            assertEquals(entry.length, (bytes[offset - 8] & 0xff) << 24 | (bytes[offset - 7] & 0xff) << 16 | (bytes[offset - 6] & 0xff) << 8
+                    | bytes[offset - 5] & 0xff);
+        }
+
+        // the indexed metadata matches a fresh read
+        assertEquals(parser.getImageInfo(ByteSource.array(bytes), null).toString(), info.toString());
+        assertEquals(parser.getMetadata(ByteSource.array(bytes)).toString(), parser.getMetadata(byteSource).toString());
+        assertEquals(20, parser.getImageSize(byteSource, null).width);
+    }
+}
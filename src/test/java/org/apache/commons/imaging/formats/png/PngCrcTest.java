@@ -31,13 +31,17 @@ class PngCrcTest {
 
     @Test
     void testCrc() {
+        assertEquals(558161692, PngCrc.crc(new byte[4], null));
+        assertEquals(0xae426082, PngCrc.crc(ChunkType.IEND.array, null));
+        assertEquals(0xae426082, PngCrc.crc(ChunkType.IEND.value, new byte[0]));
+    }
 
-        final PngCrc pngCrc = new PngCrc();
-        final byte[] byteArray = new byte[4];
-
-        assertEquals(558161692, pngCrc.crc(byteArray, (byte) 32));
-        assertEquals(3736805603L, pngCrc.startPartialCrc(byteArray, 0));
-
+    @Test
+    void testCrcOfHeader() {
+        // the IHDR chunk of a 1x1 8-bit RGBA image
+        final byte[] data = { 0, 0, 0, 1, 0, 0, 0, 1, 8, 6, 0, 0, 0 };
+        assertEquals(0x1f15c489, PngCrc.crc(ChunkType.IHDR.array, data));
+        assertEquals(0x1f15c489, PngCrc.crc(ChunkType.IHDR.value, data));
     }
 
 }
@@ -17,15 +17,21 @@
 
 package org.apache.commons.imaging.formats.png;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.apache.commons.imaging.ImageInfo;
+import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.bytesource.ByteSource;
 import org.apache.commons.imaging.common.AllocationRequestException;
 import org.junit.jupiter.api.Test;
 
@@ -38,6 +44,43 @@ class PngImageParserTest extends AbstractPngTest {
         }
     }
 
+    private static int indexOfIdat(final byte[] bytes) {
+        for (int i = 8;; i++) {
+            if (bytes[i] == 'I' && bytes[i + 1] == 'D' && bytes[i + 2] == 'A' && bytes[i + 3] == 'T') {
+                return i;
+            }
+        }
+    }
+
+    @Test
+    void testCrcVerification() throws IOException {
+        final BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+        final byte[] bytes = getPngImageBytes(image, new PngImagingParameters());
+        final int idat = indexOfIdat(bytes);
+        final int length = ByteBuffer.wrap(bytes, idat - 4, 4).getInt();
+
+        // a corrupt CRC on otherwise valid data is only reported by a full verification
+        final byte[] badCrc = bytes.clone();
+        badCrc[idat + 4 + length] ^= 1;
+        final PngImageParser parser = new PngImageParser();
+        assertNotNull(parser.getBufferedImage(ByteSource.array(badCrc), new PngImagingParameters().setCrcVerification(PngCrcVerification.NONE)));
+        assertNotNull(parser.getBufferedImage(ByteSource.array(badCrc), new PngImagingParameters()));
+        final ImagingException full = assertThrows(ImagingException.class,
+                () -> parser.getBufferedImage(ByteSource.array(badCrc), new PngImagingParameters().setCrcVerification(PngCrcVerification.FULL)));
+        assertEquals("PNG: invalid CRC in IDAT chunk", full.getMessage());
+
+        // corrupt data is blamed on the CRC once decoding fails
+        final byte[] badData = bytes.clone();
+        badData[idat + 4] = 0;
+        badData[idat + 5] = 0;
+        final ImagingException onError = assertThrows(ImagingException.class, () -> parser.getBufferedImage(ByteSource.array(badData), null));
+        assertEquals("PNG: invalid CRC in IDAT chunk", onError.getMessage());
+        assertNotNull(onError.getCause());
+        final IOException none = assertThrows(IOException.class,
+                () -> parser.getBufferedImage(ByteSource.array(badData), new PngImagingParameters().setCrcVerification(PngCrcVerification.NONE)));
+        assertNotEquals("PNG: invalid CRC in IDAT chunk", none.getMessage());
+    }
+
     @Test
     void testGetImageSize() {
         final byte[] bytes = {
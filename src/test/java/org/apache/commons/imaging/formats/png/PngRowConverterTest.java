@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.formats.png;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.bytesource.ByteSource;
+import org.apache.commons.imaging.common.RgbBufferedImageFactory;
+import org.apache.commons.imaging.formats.png.chunks.PngChunkPlte;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for class {@link PngRowConverter}.
+ */
+class PngRowConverterTest {
+
+    private static final int WIDTH = 23;
+
+    private static PngChunkPlte palette(final Random random, final int entries) throws IOException {
+        final byte[] bytes = new byte[entries * 3];
+        random.nextBytes(bytes);
+        return new PngChunkPlte(bytes.length, ChunkType.PLTE.value, 0, bytes);
+    }
+
+    private void assertSameAsPixelPath(final PngColorType pngColorType, final int bitDepth, final GammaCorrection gammaCorrection) throws IOException {
+        final Random random = new Random(bitDepth * 31 + pngColorType.ordinal());
+        final int bitsPerPixel = bitDepth * pngColorType.getSamplesPerPixel();
+        final byte[] scanline = new byte[(bitsPerPixel * WIDTH + 7) / 8];
+        random.nextBytes(scanline);
+        final PngChunkPlte pngChunkPlte = pngColorType == PngColorType.INDEXED_COLOR ? palette(random, 1 << bitDepth) : null;
+
+        final BufferedImage bi = new BufferedImage(WIDTH, 1, BufferedImage.TYPE_INT_ARGB);
+        final ScanExpediterSimple expediter = new ScanExpediterSimple(WIDTH, 1, null, bi, pngColorType, bitDepth, bitsPerPixel, pngChunkPlte,
+                gammaCorrection, null);
+        final BitParser bitParser = new BitParser(scanline, bitsPerPixel, bitDepth);
+        final int[] expected = new int[WIDTH];
+        for (int x = 0; x < WIDTH; x++) {
+            expected[x] = expediter.getRgb(bitParser, x);
+        }
+
+        final int[] actual = new int[WIDTH];
+        PngRowConverter.create(pngColorType, bitDepth, pngChunkPlte, gammaCorrection, null).convert(scanline, WIDTH, actual, 0, 1);
+        assertArrayEquals(expected, actual, pngColorType + " " + bitDepth);
+
+        expediter.writeScanline(scanline, 0, 0, 1, WIDTH);
+        assertArrayEquals(expected, bi.getRGB(0, 0, WIDTH, 1, null, 0, WIDTH), pngColorType + " " + bitDepth);
+    }
+
+    @Test
+    void testAllColorTypesAndBitDepths() throws IOException {
+        for (final PngColorType pngColorType : PngColorType.values()) {
+            for (final int bitDepth : new int[] { 1, 2, 4, 8, 16 }) {
+                if (pngColorType.isBitDepthAllowed(bitDepth)) {
+                    assertSameAsPixelPath(pngColorType, bitDepth, null);
+                    assertSameAsPixelPath(pngColorType, bitDepth, new GammaCorrection(0.45455, 1.0));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testGreyscaleByteRasterMatchesSetRgb() throws IOException {
+        final BufferedImage src = new BufferedImage(64, 4, BufferedImage.TYPE_BYTE_GRAY);
+        for (int x = 0; x < 64; x++) {
+            for (int y = 0; y < 4; y++) {
+                src.getRaster().setSample(x, y, 0, x * 4 + y);
+            }
+        }
+        final byte[] png;
+        try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
+            new PngImageParser().writeImage(src, os, null);
+            png = os.toByteArray();
+        }
+
+        final PngImageParser parser = new PngImageParser();
+        final BufferedImage gray = parser.getBufferedImage(ByteSource.array(png), null);
+        assertEquals(BufferedImage.TYPE_BYTE_GRAY, gray.getType());
+
+        final BufferedImage rgb = parser.getBufferedImage(ByteSource.array(png), new PngImagingParameters().setBufferedImageFactory(new RgbBufferedImageFactory()));
+        final BufferedImage expected = new BufferedImage(64, 4, BufferedImage.TYPE_BYTE_GRAY);
+        for (int x = 0; x < 64; x++) {
+            for (int y = 0; y < 4; y++) {
+                expected.setRGB(x, y, rgb.getRGB(x, y));
+            }
+        }
+        assertArrayEquals(((DataBufferByte) expected.getRaster().getDataBuffer()).getData(), ((DataBufferByte) gray.getRaster().getDataBuffer()).getData());
+    }
+
+    @Test
+    void testUnknownPaletteReference() throws IOException {
+        final PngChunkPlte pngChunkPlte = palette(new Random(1), 2);
+        final PngRowConverter converter = PngRowConverter.create(PngColorType.INDEXED_COLOR, 8, pngChunkPlte, null, null);
+        assertThrows(ImagingException.class, () -> converter.convert(new byte[] { 0, 1, 2 }, 3, new int[3], 0, 1));
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.internal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.imaging.ImageFormats;
+import org.apache.commons.imaging.Imaging;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link BranchProbes}, which count only when enabled by a system property at startup.
+ */
+class BranchProbesTest {
+
+    @Test
+    void testFormatDetectionCoverage() throws IOException {
+        Imaging.resetFormatDetectionCoverage();
+        assertEquals(ImageFormats.PNG, Imaging.guessFormat(new byte[] { (byte) 0x89, 0x50, 0x4e, 0x47 }));
+        final long[] counts = Imaging.getFormatDetectionCoverage();
+        assertEquals(68, counts.length);
+        // branch 10 returns PNG
+        assertEquals(BranchProbes.ENABLED ? 1 : 0, counts[10]);
+        Imaging.resetFormatDetectionCoverage();
+        assertEquals(ImageFormats.WEBP, Imaging.guessFormat(new byte[] { 'R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P' }));
+        // branch 49 is passed on the way to branch 50, which starts the RIFF checks
+        final long[] webpCounts = Imaging.getFormatDetectionCoverage();
+        assertEquals(BranchProbes.ENABLED ? 1 : 0, webpCounts[49]);
+        assertEquals(BranchProbes.ENABLED ? 1 : 0, webpCounts[50]);
+        Imaging.resetFormatDetectionCoverage();
+        assertArrayEquals(new long[68], Imaging.getFormatDetectionCoverage());
+    }
+
+    @Test
+    void testHit() throws InterruptedException {
+        final BranchProbes probes = new BranchProbes(3);
+        assertEquals(3, probes.size());
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                probes.hit(1);
+                probes.hit(2);
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        final long count = BranchProbes.ENABLED ? 1000 : 0;
+        assertArrayEquals(new long[] { 0, count, count }, probes.snapshot());
+        probes.reset();
+        assertArrayEquals(new long[3], probes.snapshot());
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.apache.commons.imaging.AbstractImageParser;
+import org.apache.commons.imaging.ImageFormats;
+import org.apache.commons.imaging.formats.jpeg.JpegImageParser;
+import org.apache.commons.imaging.formats.png.PngImageParser;
+import org.apache.commons.imaging.formats.tiff.TiffImageParser;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for class {@link ImageParserRegistry}.
+ */
+class ImageParserRegistryTest {
+
+    @Test
+    void testLookupByExtension() {
+        assertEquals(PngImageParser.class, ImageParserRegistry.getImageParser("image.png").getClass());
+        assertEquals(JpegImageParser.class, ImageParserRegistry.getImageParser("dir.tif/IMAGE.JPEG").getClass());
+        assertEquals(TiffImageParser.class, ImageParserRegistry.getImageParser(".tiff").getClass());
+        assertSame(ImageParserRegistry.getImageParser("a.png"), ImageParserRegistry.getImageParser("b.PNG"));
+        assertNull(ImageParserRegistry.getImageParser("png"));
+        assertNull(ImageParserRegistry.getImageParser("image.unknown"));
+        assertThrows(IllegalArgumentException.class, () -> ImageParserFactory.getImageParser("image.unknown"));
+    }
+
+    @Test
+    void testLookupByFormatMatchesLinearScan() {
+        for (final ImageFormats format : ImageFormats.values()) {
+            final AbstractImageParser<?> expected = AbstractImageParser.getAllImageParsers().stream().filter(parser -> parser.canAcceptType(format))
+                    .findFirst().orElse(null);
+            final AbstractImageParser<?> actual = ImageParserRegistry.getImageParser(format);
+            if (expected == null) {
+                assertNull(actual, format.name());
+                assertThrows(IllegalArgumentException.class, () -> ImageParserFactory.getImageParser(format));
+            } else {
+                assertEquals(expected.getClass(), actual.getClass(), format.name());
+                // the instances are shared
+                assertSame(actual, ImageParserRegistry.getImageParser(format));
+                assertSame(actual, ImageParserFactory.getImageParser(format));
+            }
+        }
+    }
+
+    @Test
+    void testParsers() {
+        assertEquals(AbstractImageParser.getAllImageParsers().size(), ImageParserRegistry.getImageParsers().size());
+        assertSame(ImageParserRegistry.getImageParsers(), ImageParserRegistry.getImageParsers());
+        assertThrows(UnsupportedOperationException.class, () -> ImageParserRegistry.getImageParsers().clear());
+    }
+}
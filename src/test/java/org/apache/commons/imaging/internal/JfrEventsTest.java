@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.imaging.ImageFormats;
+import org.apache.commons.imaging.Imaging;
+import org.apache.commons.imaging.ImagingMetrics.Phase;
+import org.apache.commons.imaging.formats.png.PngImageParser;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for class {@link JfrEvents}. The Flight Recorder API is called by reflection, as in the class under test, since it is missing from Java 8.
+ */
+class JfrEventsTest {
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Recording");
+            return true;
+        } catch (final ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static Object invoke(final Object target, final String name) throws ReflectiveOperationException {
+        return target.getClass().getMethod(name).invoke(target);
+    }
+
+    @Test
+    void testDisabledByDefault() {
+        assertFalse(JfrEvents.isEnabled());
+        // nothing is measured
+        assertSame(Metrics.start(ImageFormats.PNG, Phase.DECODE), Metrics.start(ImageFormats.GIF, Phase.DECOMPRESSION));
+    }
+
+    @Test
+    void testRecordedWhenEnabled() throws Exception {
+        assumeTrue(isFlightRecorderAvailable());
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB), "png", out);
+
+        final Class<?> recordingClass = Class.forName("jdk.jfr.Recording");
+        final Object recording = recordingClass.getConstructor().newInstance();
+        final Path file = Files.createTempFile("imaging", ".jfr");
+        try {
+            recordingClass.getMethod("enable", String.class).invoke(recording, JfrEvents.EVENT_NAME);
+            invoke(recording, "start");
+            assertTrue(JfrEvents.isEnabled());
+            Imaging.getBufferedImage(out.toByteArray());
+            invoke(recording, "stop");
+            assertFalse(JfrEvents.isEnabled());
+            recordingClass.getMethod("dump", Path.class).invoke(recording, file);
+
+            final List<?> events = (List<?>) Class.forName("jdk.jfr.consumer.RecordingFile").getMethod("readAllEvents", Path.class).invoke(null, file);
+            final List<String> phases = new ArrayList<>();
+            for (final Object event : events) {
+                final Object type = invoke(event, "getEventType");
+                if (!JfrEvents.EVENT_NAME.equals(invoke(type, "getName"))) {
+                    continue;
+                }
+                final String phase = (String) event.getClass().getMethod("getString", String.class).invoke(event, "phase");
+                phases.add(phase);
+                if ("DECODE".equals(phase)) {
+                    assertEquals("PNG", event.getClass().getMethod("getString", String.class).invoke(event, "format"));
+                    assertEquals(PngImageParser.class.getName(), event.getClass().getMethod("getString", String.class).invoke(event, "parser"));
+                    assertEquals(40, event.getClass().getMethod("getInt", String.class).invoke(event, "width"));
+                    assertEquals(30, event.getClass().getMethod("getInt", String.class).invoke(event, "height"));
+                    assertTrue((Long) event.getClass().getMethod("getLong", String.class).invoke(event, "bytesRead") >= out.size());
+                }
+            }
+            assertTrue(phases.contains("FORMAT_DETECTION"), phases::toString);
+            assertTrue(phases.contains("DECODE"), phases::toString);
+            assertTrue(phases.contains("DECOMPRESSION"), phases::toString);
+        } finally {
+            invoke(recording, "close");
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.imaging.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.stream.Stream;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.apache.commons.imaging.AbstractImageParser;
+import org.apache.commons.imaging.ImageFormats;
+import org.apache.commons.imaging.Imaging;
+import org.apache.commons.imaging.ImagingException;
+import org.apache.commons.imaging.ImagingParameters;
+import org.apache.commons.imaging.bytesource.ByteSource;
+import org.apache.commons.imaging.common.AllocationBudget;
+import org.apache.commons.imaging.formats.bmp.BmpImageParser;
+import org.apache.commons.imaging.formats.bmp.BmpImagingParameters;
+import org.apache.commons.imaging.formats.gif.GifImageParser;
+import org.apache.commons.imaging.formats.jpeg.JpegImageParser;
+import org.apache.commons.imaging.formats.jpeg.JpegImagingParameters;
+import org.apache.commons.imaging.formats.pcx.PcxImageParser;
+import org.apache.commons.imaging.formats.png.PngImageParser;
+import org.apache.commons.imaging.formats.png.PngImagingParameters;
+import org.apache.commons.imaging.formats.pnm.PnmImageParser;
+import org.apache.commons.imaging.formats.pnm.PnmImagingParameters;
+import org.apache.commons.imaging.formats.psd.PsdImageParser;
+import org.apache.commons.imaging.test.TestImages;
+import org.apache.commons.imaging.test.TestResources;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Tests reduced-resolution decoding with {@link Subsampling}.
+ */
+class SubsamplingTest {
+
+    private static final int WIDTH = 45;
+    private static final int HEIGHT = 31;
+    private static final Rectangle[] REGIONS = { new Rectangle(7, 5, 20, 13), new Rectangle(0, 10, WIDTH, 7), new Rectangle(30, 20, 15, 11),
+            new Rectangle(WIDTH - 1, HEIGHT - 1, 1, 1) };
+
+    private static void assertReduced(final BufferedImage full, final BufferedImage reduced, final int factor) {
+        assertEquals(Subsampling.getSize(full.getWidth(), factor), reduced.getWidth());
+        assertEquals(Subsampling.getSize(full.getHeight(), factor), reduced.getHeight());
+        for (int y = 0; y < reduced.getHeight(); y++) {
+            for (int x = 0; x < reduced.getWidth(); x++) {
+                assertEquals(full.getRGB(x * factor, y * factor), reduced.getRGB(x, y), "factor " + factor + " at " + x + "," + y);
+            }
+        }
+    }
+
+    private static void assertRegion(final AbstractImageParser<?> parser, final byte[] bytes, final Rectangle region, final int factor)
+            throws IOException {
+        final BufferedImage full = decode(parser, bytes, null, 1);
+        final BufferedImage sub = decode(parser, bytes, region, factor);
+        assertEquals(Subsampling.getSize(region.width, factor), sub.getWidth());
+        assertEquals(Subsampling.getSize(region.height, factor), sub.getHeight());
+        if (parser instanceof JpegImageParser && factor % 8 == 0) {
+            // the DC coefficient stands for the average of the block
+            return;
+        }
+        for (int y = 0; y < sub.getHeight(); y++) {
+            for (int x = 0; x < sub.getWidth(); x++) {
+                assertEquals(full.getRGB(region.x + x * factor, region.y + y * factor), sub.getRGB(x, y),
+                        parser.getName() + " " + region + " factor " + factor + " at " + x + "," + y);
+            }
+        }
+    }
+
+
+    private static <T extends ImagingParameters<T>> BufferedImage decode(final AbstractImageParser<T> parser, final byte[] bytes, final Rectangle region,
+            final int factor) throws IOException {
+        final T params = parser.getDefaultParameters().setSubsampling(factor);
+        if (region != null) {
+            params.setSubImage(region.x, region.y, region.width, region.height);
+        }
+        return parser.getBufferedImage(ByteSource.array(bytes), params);
+    }
+
+    static Stream<Integer> factors() {
+        return Stream.of(2, 3, 4, 5, 8, 12, 16, 64);
+    }
+
+    static Stream<Integer> regionFactors() {
+        return Stream.of(1, 2, 3, 8);
+    }
+
+    private static byte[] writePng(final BufferedImage image, final boolean interlaced) throws IOException {
+        final ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        final ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setProgressiveMode(interlaced ? ImageWriteParam.MODE_DEFAULT : ImageWriteParam.MODE_DISABLED);
+        try (ByteArrayOutputStream os = new ByteArrayOutputStream(); ImageOutputStream ios = ImageIO.createImageOutputStream(os)) {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param);
+            ios.flush();
+            return os.toByteArray();
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("factors")
+    void testBmp(final int factor) throws IOException {
+        final byte[] bytes = Imaging.writeImageToBytes(TestImages.createRandomImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB), ImageFormats.BMP);
+        final BmpImageParser parser = new BmpImageParser();
+        final BufferedImage full = parser.getBufferedImage(ByteSource.array(bytes), new BmpImagingParameters());
+        assertReduced(full, parser.getBufferedImage(ByteSource.array(bytes), new BmpImagingParameters().setSubsampling(factor)), factor);
+    }
+
+    @Test
+    void testGetFactor() {
+        assertEquals(1, Subsampling.getFactor(null, 1000, 500));
+        assertEquals(1, Subsampling.getFactor(new PngImagingParameters(), 1000, 500));
+        assertEquals(3, Subsampling.getFactor(new PngImagingParameters().setSubsampling(3), 1000, 500));
+        assertEquals(4, Subsampling.getFactor(new PngImagingParameters().setTargetSize(240), 1000, 500));
+        assertEquals(5, Subsampling.getFactor(new PngImagingParameters().setTargetSize(240).setSubsampling(5), 1000, 500));
+        assertEquals(1, Subsampling.getFactor(new PngImagingParameters().setTargetSize(2000), 1000, 500));
+    }
+
+    @Test
+    void testInvalidParameters() {
+        final PngImagingParameters params = new PngImagingParameters();
+        assertThrows(IllegalArgumentException.class, () -> params.setSubsampling(0));
+        assertThrows(IllegalArgumentException.class, () -> params.setTargetSize(-1));
+    }
+
+    @ParameterizedTest
+    @MethodSource("factors")
+    void testJpeg(final int factor) throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        ImageIO.write(TestImages.createRandomImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB), "jpeg", os);
+        final byte[] bytes = os.toByteArray();
+        final JpegImageParser parser = new JpegImageParser();
+        final BufferedImage full = parser.getBufferedImage(ByteSource.array(bytes), new JpegImagingParameters());
+        final BufferedImage reduced = parser.getBufferedImage(ByteSource.array(bytes), new JpegImagingParameters().setSubsampling(factor));
+        if (factor % 8 != 0) {
+            assertReduced(full, reduced, factor);
+        } else {
+            // the DC coefficient stands for the average of the block
+            assertEquals(Subsampling.getSize(WIDTH, factor), reduced.getWidth());
+            assertEquals(Subsampling.getSize(HEIGHT, factor), reduced.getHeight());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("factors")
+    void testPng(final int factor) throws IOException {
+        final PngImageParser parser = new PngImageParser();
+        for (final int type : new int[] { BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_BYTE_BINARY }) {
+            for (final boolean interlaced : new boolean[] { false, true }) {
+                final byte[] bytes = writePng(TestImages.createRandomImage(WIDTH, HEIGHT, type), interlaced);
+                final BufferedImage full = parser.getBufferedImage(ByteSource.array(bytes), new PngImagingParameters());
+                assertReduced(full, parser.getBufferedImage(ByteSource.array(bytes), new PngImagingParameters().setSubsampling(factor)), factor);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("factors")
+    void testPnm(final int factor) throws IOException {
+        final byte[] bytes = Imaging.writeImageToBytes(TestImages.createRandomImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB), ImageFormats.PNM);
+        final PnmImageParser parser = new PnmImageParser();
+        final BufferedImage full = parser.getBufferedImage(ByteSource.array(bytes), new PnmImagingParameters());
+        assertReduced(full, parser.getBufferedImage(ByteSource.array(bytes), new PnmImagingParameters().setSubsampling(factor)), factor);
+    }
+
+    @ParameterizedTest
+    @MethodSource("regionFactors")
+    void testRegion(final int factor) throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        ImageIO.write(TestImages.createRandomImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB), "jpeg", os);
+        final byte[] jpeg = os.toByteArray();
+        // restart intervals let a region skip the entropy-coded data after it
+        final byte[] restartJpeg = Files.readAllBytes(TestResources.resourceToPath("/data/images/jpg/7/_DSC6099.jpg"));
+        final byte[] psd = Files.readAllBytes(TestResources.resourceToPath("/data/images/psd/1/Oregon Scientific DS6639 - DSC_0307 - small.psd"));
+        for (final Rectangle region : REGIONS) {
+            assertRegion(new BmpImageParser(), Imaging.writeImageToBytes(TestImages.createRandomImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB), ImageFormats.BMP), region, factor);
+            assertRegion(new GifImageParser(), Imaging.writeImageToBytes(TestImages.createRandomImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_BINARY), ImageFormats.GIF), region, factor);
+            assertRegion(new JpegImageParser(), jpeg, region, factor);
+            assertRegion(new JpegImageParser(), restartJpeg, region, factor);
+            assertRegion(new PcxImageParser(), Imaging.writeImageToBytes(TestImages.createRandomImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB), ImageFormats.PCX), region, factor);
+            assertRegion(new PcxImageParser(), Imaging.writeImageToBytes(TestImages.createRandomImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_BINARY), ImageFormats.PCX), region, factor);
+            assertRegion(new PnmImageParser(), Imaging.writeImageToBytes(TestImages.createRandomImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB), ImageFormats.PNM), region, factor);
+            assertRegion(new PsdImageParser(), psd, region, factor);
+            for (final boolean interlaced : new boolean[] { false, true }) {
+                assertRegion(new PngImageParser(), writePng(TestImages.createRandomImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB), interlaced), region, factor);
+                assertRegion(new PngImageParser(), writePng(TestImages.createRandomImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_BINARY), interlaced), region, factor);
+            }
+        }
+    }
+
+    @Test
+    void testReduceBudget() throws IOException {
+        try (AllocationBudget budget = AllocationBudget.open(Long.MAX_VALUE)) {
+            Subsampling.reduce(TestImages.createRandomImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB), 2);
+            assertEquals(23 * 16 * Integer.BYTES, budget.getUsed());
+            Subsampling.reduce(TestImages.createRandomImage(WIDTH, HEIGHT, BufferedImage.TYPE_3BYTE_BGR), new Rectangle(0, 0, 10, 10), 1);
+            assertEquals(23 * 16 * Integer.BYTES + 10 * 10 * 3, budget.getUsed());
+        }
+    }
+
+    @Test
+    void testRegionOutsideImage() throws IOException {
+        final byte[] bytes = writePng(TestImages.createRandomImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB), false);
+        final PngImageParser parser = new PngImageParser();
+        assertThrows(ImagingException.class, () -> decode(parser, bytes, new Rectangle(40, 0, 10, 10), 1));
+        assertThrows(ImagingException.class, () -> decode(parser, bytes, new Rectangle(0, HEIGHT, 1, 1), 1));
+        assertThrows(IllegalArgumentException.class, () -> parser.getDefaultParameters().setSubImage(0, 0, 0, 1));
+    }
+
+    @Test
+    void testTargetSize() throws IOException {
+        final byte[] bytes = writePng(TestImages.createRandomImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB), false);
+        final BufferedImage reduced = new PngImageParser().getBufferedImage(ByteSource.array(bytes), new PngImagingParameters().setTargetSize(20));
+        assertEquals(23, reduced.getWidth());
+        assertEquals(16, reduced.getHeight());
+    }
+}